@@ -3,6 +3,7 @@ package com.berdachuk.medexpertmatch.chunking.repository.impl;
 import com.berdachuk.medexpertmatch.chunking.domain.DocumentChunk;
 import com.berdachuk.medexpertmatch.chunking.repository.ChunkRepository;
 import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
+import com.berdachuk.medexpertmatch.core.repository.sql.PgVectorCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -104,8 +105,7 @@ public class ChunkRepositoryImpl implements ChunkRepository {
         if (embedding == null || embedding.length == 0) {
             return;
         }
-        String vectorString = formatVector(embedding);
-        Map<String, Object> params = Map.of("id", chunkId, "embedding", vectorString);
+        Map<String, Object> params = Map.of("id", chunkId, "embedding", PgVectorCodec.parameter(embedding));
         namedJdbcTemplate.update(updateEmbeddingSql, params);
     }
 
@@ -118,21 +118,11 @@ public class ChunkRepositoryImpl implements ChunkRepository {
                 .filter(chunk -> chunk.embedding() != null && chunk.embedding().length > 0)
                 .map(chunk -> new MapSqlParameterSource()
                         .addValue("id", chunk.id())
-                        .addValue("embedding", formatVector(chunk.embedding())))
+                        .addValue("embedding", PgVectorCodec.parameter(chunk.embedding())))
                 .toArray(SqlParameterSource[]::new);
 
         if (batchParams.length > 0) {
             namedJdbcTemplate.batchUpdate(updateEmbeddingSql, batchParams);
         }
     }
-
-    private String formatVector(float[] vector) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vector.length; i++) {
-            if (i > 0) sb.append(",");
-            sb.append(String.format("%.6f", vector[i]));
-        }
-        sb.append("]");
-        return sb.toString();
-    }
 }
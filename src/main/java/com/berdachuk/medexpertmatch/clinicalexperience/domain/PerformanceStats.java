@@ -0,0 +1,27 @@
+package com.berdachuk.medexpertmatch.clinicalexperience.domain;
+
+/**
+ * Aggregated clinical experience outcomes for a doctor or a facility roll-up.
+ * Maintained incrementally in the database as experiences are inserted, updated or deleted.
+ */
+public record PerformanceStats(
+        int experienceCount,
+        long ratingSum,
+        int ratingCount,
+        int successCount              // outcome SUCCESS or IMPROVED
+) {
+
+    /**
+     * Average rating (1-5) over rated experiences, or the given default when none are rated.
+     */
+    public double averageRating(double defaultRating) {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : defaultRating;
+    }
+
+    /**
+     * Share of experiences with a successful outcome (0-1).
+     */
+    public double successRate() {
+        return experienceCount > 0 ? (double) successCount / experienceCount : 0.0;
+    }
+}
@@ -3,6 +3,7 @@
  * <p>
  * This package contains the public API for the clinical experience module:
  * - ClinicalExperience entity
+ * - PerformanceStats aggregate
  */
 @org.springframework.modulith.NamedInterface("domain")
 package com.berdachuk.medexpertmatch.clinicalexperience.domain;
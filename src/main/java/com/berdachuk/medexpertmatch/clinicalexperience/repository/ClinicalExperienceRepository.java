@@ -1,6 +1,7 @@
 package com.berdachuk.medexpertmatch.clinicalexperience.repository;
 
 import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.PerformanceStats;
 
 import java.util.List;
 import java.util.Map;
@@ -56,6 +57,23 @@ public interface ClinicalExperienceRepository {
      */
     Map<String, List<ClinicalExperience>> findByCaseIds(List<String> caseIds);
 
+    /**
+     * Batch loads maintained performance aggregates for multiple doctors.
+     * Doctors without clinical experiences are absent from the result.
+     *
+     * @param doctorIds List of doctor IDs
+     * @return Map of doctor ID to performance aggregate
+     */
+    Map<String, PerformanceStats> findPerformanceStatsByDoctorIds(List<String> doctorIds);
+
+    /**
+     * Finds the maintained performance roll-up over all doctors affiliated with a facility.
+     *
+     * @param facilityId The facility ID
+     * @return Optional containing the roll-up, empty if no affiliated doctor has clinical experiences
+     */
+    Optional<PerformanceStats> findFacilityPerformanceStats(String facilityId);
+
     /**
      * Inserts a new clinical experience.
      *
@@ -1,11 +1,13 @@
 package com.berdachuk.medexpertmatch.clinicalexperience.repository.impl;
 
 import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.PerformanceStats;
 import com.berdachuk.medexpertmatch.clinicalexperience.repository.ClinicalExperienceRepository;
 import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
 import com.berdachuk.medexpertmatch.core.util.IdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
@@ -21,6 +23,12 @@ import java.util.stream.Collectors;
 @Repository
 public class ClinicalExperienceRepositoryImpl implements ClinicalExperienceRepository {
 
+    private static final RowMapper<PerformanceStats> PERFORMANCE_STATS_MAPPER = (rs, rowNum) -> new PerformanceStats(
+            rs.getInt("experience_count"),
+            rs.getLong("rating_sum"),
+            rs.getInt("rating_count"),
+            rs.getInt("success_count"));
+
     private final NamedParameterJdbcTemplate namedJdbcTemplate;
     private final ClinicalExperienceMapper clinicalExperienceMapper;
 
@@ -42,6 +50,12 @@ public class ClinicalExperienceRepositoryImpl implements ClinicalExperienceRepos
     @InjectSql("/sql/clinicalexperience/findByIds.sql")
     private String findByIdsSql;
 
+    @InjectSql("/sql/clinicalexperience/findPerformanceStatsByDoctorIds.sql")
+    private String findPerformanceStatsByDoctorIdsSql;
+
+    @InjectSql("/sql/clinicalexperience/findFacilityPerformanceStats.sql")
+    private String findFacilityPerformanceStatsSql;
+
     @InjectSql("/sql/clinicalexperience/insert.sql")
     private String insertSql;
 
@@ -113,6 +127,32 @@ public class ClinicalExperienceRepositoryImpl implements ClinicalExperienceRepos
                 .collect(Collectors.groupingBy(ClinicalExperience::caseId));
     }
 
+    @Override
+    public Map<String, PerformanceStats> findPerformanceStatsByDoctorIds(List<String> doctorIds) {
+        if (doctorIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Object> params = Map.of("doctorIds", doctorIds.toArray(new String[0]));
+        Map<String, PerformanceStats> statsByDoctor = new HashMap<>();
+        namedJdbcTemplate.query(findPerformanceStatsByDoctorIdsSql, params, rs -> {
+            statsByDoctor.put(rs.getString("doctor_id"), PERFORMANCE_STATS_MAPPER.mapRow(rs, 0));
+        });
+        return statsByDoctor;
+    }
+
+    @Override
+    public Optional<PerformanceStats> findFacilityPerformanceStats(String facilityId) {
+        if (facilityId == null || facilityId.isBlank()) {
+            return Optional.empty();
+        }
+
+        Map<String, Object> params = Map.of("facilityId", facilityId);
+        List<PerformanceStats> results =
+                namedJdbcTemplate.query(findFacilityPerformanceStatsSql, params, PERFORMANCE_STATS_MAPPER);
+        return Optional.ofNullable(DataAccessUtils.uniqueResult(results));
+    }
+
     @Override
     public String insert(ClinicalExperience clinicalExperience) {
         // Generate ID if null (for new experiences)
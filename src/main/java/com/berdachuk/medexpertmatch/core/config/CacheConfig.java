@@ -38,10 +38,11 @@ public class CacheConfig {
                         .maximumSize(100)
                         .recordStats()
                         .build()));
+        // In-heap tier of EmbeddingCache, keyed by content hash; entries never go stale, the bound only limits heap
         caches.add(new CaffeineCache(EMBEDDING_RESULTS_CACHE,
                 Caffeine.newBuilder()
-                        .expireAfterWrite(30, TimeUnit.MINUTES)
-                        .maximumSize(1000)
+                        .expireAfterAccess(2, TimeUnit.HOURS)
+                        .maximumSize(10_000)
                         .recordStats()
                         .build()));
         var llmNativeCache = Caffeine.newBuilder()
@@ -0,0 +1,76 @@
+package com.berdachuk.medexpertmatch.core.repository.sql;
+
+import com.pgvector.PGvector;
+import org.springframework.jdbc.core.SqlTypeValue;
+
+/**
+ * Shared codec for pgvector {@code vector} columns and query parameters.
+ * <p>
+ * Formatter-free text binding: vectors are bound as {@link PGvector} parameters through the driver's public
+ * {@code setObject} support for {@code PGobject} values, so they are sent typed as {@code vector} in the compact
+ * {@code [x,y,...]} form of {@link PGvector#getValue()} instead of a {@code %.6f} literal cast in SQL. The server
+ * still parses that text form; only the client-side formatting cost is removed.
+ * <p>
+ * Example:
+ * <pre>
+ * {@code
+ * params.put("embedding", PgVectorCodec.parameter(embedding));
+ * }
+ * </pre>
+ */
+public final class PgVectorCodec {
+
+    private PgVectorCodec() {
+    }
+
+    /**
+     * Wraps a vector as a parameter value for {@code NamedParameterJdbcTemplate} updates, batch updates and queries.
+     * The array is not copied and must not be modified until the statement has run.
+     *
+     * @param vector Vector components
+     * @return Parameter value, or null for a null vector
+     */
+    public static SqlTypeValue parameter(float[] vector) {
+        if (vector == null) {
+            return null;
+        }
+        PGvector value = new PGvector(vector);
+        return (ps, paramIndex, sqlType, typeName) -> ps.setObject(paramIndex, value);
+    }
+
+    /**
+     * Parses the PostgreSQL vector text form ({@code [0.1,0.2,...]}) into a float array.
+     *
+     * @param text Vector text, typically selected as {@code embedding::text}
+     * @return Vector components, or null for a null value
+     */
+    public static float[] parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        int start = text.indexOf('[') + 1;
+        int end = text.lastIndexOf(']');
+        if (end < 0) {
+            end = text.length();
+        }
+        if (end <= start) {
+            return new float[0];
+        }
+        int dimension = 1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == ',') {
+                dimension++;
+            }
+        }
+        float[] vector = new float[dimension];
+        int index = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || text.charAt(i) == ',') {
+                vector[index++] = Float.parseFloat(text.substring(tokenStart, i).trim());
+                tokenStart = i + 1;
+            }
+        }
+        return vector;
+    }
+}
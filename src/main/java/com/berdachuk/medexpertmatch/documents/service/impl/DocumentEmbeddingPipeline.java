@@ -33,20 +33,14 @@ public class DocumentEmbeddingPipeline {
         List<String> texts = chunks.stream().map(DocumentChunk::chunkText).toList();
 
         try {
-            List<List<Double>> embeddings = embeddingService.generateEmbeddings(texts);
+            List<float[]> embeddings = embeddingService.generateEmbeddingsAsFloatArrays(texts);
 
             List<DocumentChunk> embeddedChunks = new ArrayList<>();
             for (int i = 0; i < chunks.size() && i < embeddings.size(); i++) {
-                List<Double> embedding = embeddings.get(i);
-                float[] embeddingArray = new float[embedding.size()];
-                for (int j = 0; j < embedding.size(); j++) {
-                    embeddingArray[j] = embedding.get(j).floatValue();
-                }
-
                 DocumentChunk chunk = chunks.get(i);
                 DocumentChunk embeddedChunk = new DocumentChunk(
                         chunk.id(), chunk.documentId(), chunk.chunkIndex(),
-                        chunk.chunkText(), embeddingArray);
+                        chunk.chunkText(), embeddings.get(i));
                 embeddedChunks.add(embeddedChunk);
             }
 
@@ -1,6 +1,7 @@
 package com.berdachuk.medexpertmatch.documents.service.impl;
 
 import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
+import com.berdachuk.medexpertmatch.core.repository.sql.PgVectorCodec;
 import com.berdachuk.medexpertmatch.documents.DocumentSearchApi;
 import com.berdachuk.medexpertmatch.documents.domain.DocumentSearchFilters;
 import com.berdachuk.medexpertmatch.documents.domain.DocumentSearchResult;
@@ -44,10 +45,9 @@ public class DocumentSearchServiceImpl implements DocumentSearchApi {
         DocumentSearchFilters effectiveFilters = filters != null ? filters : DocumentSearchFilters.none();
 
         float[] queryEmbedding = embeddingService.generateEmbeddingAsFloatArray(query);
-        String vectorString = formatVector(queryEmbedding);
 
         Map<String, Object> params = new HashMap<>();
-        params.put("queryEmbedding", vectorString);
+        params.put("queryEmbedding", PgVectorCodec.parameter(queryEmbedding));
         params.put("limit", topK > 0 ? topK : 10);
         params.put("category", blankToNull(effectiveFilters.category()));
         params.put("source", blankToNull(effectiveFilters.source()));
@@ -73,14 +73,4 @@ public class DocumentSearchServiceImpl implements DocumentSearchApi {
     private static String blankToNull(String value) {
         return value == null || value.isBlank() ? null : value;
     }
-
-    private String formatVector(float[] vector) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vector.length; i++) {
-            if (i > 0) sb.append(",");
-            sb.append(String.format("%.6f", vector[i]));
-        }
-        sb.append("]");
-        return sb.toString();
-    }
 }
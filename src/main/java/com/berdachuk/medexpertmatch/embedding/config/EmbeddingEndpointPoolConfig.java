@@ -13,10 +13,16 @@ import org.springframework.core.env.Environment;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Multi-endpoint embedding pool. Active when the first endpoint URL is set in configuration.
+ * An endpoint without a model uses {@code spring.ai.custom.embedding.model}; endpoints must resolve to one model,
+ * since their vectors are interchangeable in the embedding cache and the vector indexes.
  */
 @Slf4j
 @Configuration
@@ -30,12 +36,14 @@ public class EmbeddingEndpointPoolConfig {
 
         String embeddingApiKey = environment.getProperty("spring.ai.custom.embedding.api-key", "");
         String embeddingDimensions = environment.getProperty("spring.ai.custom.embedding.dimensions", "768");
+        String configuredModel = environment.getProperty("spring.ai.custom.embedding.model");
 
         List<MultiEndpointEmbeddingProperties.EndpointConfig> sortedEndpoints = new ArrayList<>(properties.getEndpoints());
         sortedEndpoints.sort(Comparator.comparingInt(MultiEndpointEmbeddingProperties.EndpointConfig::getPriority));
 
         List<EndpointState> endpointStates = new ArrayList<>();
         List<Integer> workersPerEndpoint = new ArrayList<>();
+        Set<String> models = new LinkedHashSet<>();
 
         for (MultiEndpointEmbeddingProperties.EndpointConfig ep : sortedEndpoints) {
             if (ep.getUrl() == null || ep.getUrl().isBlank()) {
@@ -44,12 +52,14 @@ public class EmbeddingEndpointPoolConfig {
             }
 
             String baseUrl = normalizeOpenAiBaseUrl(ep.getUrl());
+            String modelName = ep.getModel() != null && !ep.getModel().isBlank() ? ep.getModel() : configuredModel;
+            models.add(Objects.toString(modelName, ""));
 
             OpenAiEmbeddingOptions.Builder optionsBuilder = OpenAiEmbeddingOptions.builder()
                     .baseUrl(baseUrl)
                     .apiKey(embeddingApiKey != null ? embeddingApiKey : "");
-            if (ep.getModel() != null && !ep.getModel().isBlank()) {
-                optionsBuilder.model(ep.getModel());
+            if (modelName != null && !modelName.isBlank()) {
+                optionsBuilder.model(modelName);
             }
             if (embeddingDimensions != null && !embeddingDimensions.isBlank()) {
                 try {
@@ -61,12 +71,12 @@ public class EmbeddingEndpointPoolConfig {
 
             OpenAiEmbeddingModel model = new OpenAiEmbeddingModel(MetadataMode.EMBED, optionsBuilder.build());
 
-            EndpointState state = new EndpointState(baseUrl, ep.getModel(), model);
+            EndpointState state = new EndpointState(baseUrl, modelName, model);
             endpointStates.add(state);
             int workers = ep.getWorkers() != null ? ep.getWorkers() : properties.getWorkerPerEndpoint();
             workersPerEndpoint.add(Math.max(1, workers));
             log.info("Multi-endpoint: added embedding endpoint {} with model {} (priority={}, workers={})",
-                    baseUrl, ep.getModel(), ep.getPriority(), workers);
+                    baseUrl, modelName, ep.getPriority(), workers);
         }
 
         if (endpointStates.isEmpty()) {
@@ -74,12 +84,21 @@ public class EmbeddingEndpointPoolConfig {
                     "Multi-endpoint embedding enabled but no valid endpoints configured. "
                             + "Configure at least one endpoint in medexpertmatch.embedding.multi-endpoint.endpoints");
         }
+        if (models.size() > 1) {
+            throw new IllegalStateException(
+                    "Multi-endpoint embedding endpoints must use the same model, found " + models + ". "
+                            + "Set one model on every endpoint in medexpertmatch.embedding.multi-endpoint.endpoints");
+        }
 
         return new EmbeddingEndpointPool(
                 endpointStates,
                 workersPerEndpoint,
-                properties.getSkipDurationMin(),
-                properties.getApiBatchSize());
+                properties.getApiBatchSize(),
+                properties.getQueueCapacity(),
+                properties.getCircuitFailureThreshold(),
+                TimeUnit.MINUTES.toMillis(properties.getSkipDurationMin()),
+                properties.getEnqueueTimeoutMs(),
+                properties.getMaxAttempts());
     }
 
     /** OpenAI-compatible APIs (Ollama, LM Studio) require a /v1 base path. */
@@ -1,5 +1,6 @@
 package com.berdachuk.medexpertmatch.embedding.config;
 
+import com.berdachuk.medexpertmatch.embedding.multiendpoint.EmbeddingEndpointPool;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -27,6 +28,14 @@ public class MultiEndpointEmbeddingProperties {
     private int workerPerEndpoint = 1;
     @Min(1)
     private int apiBatchSize = 50;
+    @Min(1)
+    private int queueCapacity = EmbeddingEndpointPool.DEFAULT_QUEUE_CAPACITY;
+    @Min(1)
+    private int circuitFailureThreshold = EmbeddingEndpointPool.DEFAULT_FAILURE_THRESHOLD;
+    @Min(0)
+    private long enqueueTimeoutMs = EmbeddingEndpointPool.DEFAULT_ENQUEUE_TIMEOUT_MS;
+    @Min(1)
+    private int maxAttempts = EmbeddingEndpointPool.DEFAULT_MAX_ATTEMPTS;
 
     @Getter
     @Setter
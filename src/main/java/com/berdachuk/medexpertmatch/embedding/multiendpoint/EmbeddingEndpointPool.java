@@ -1,37 +1,74 @@
 package com.berdachuk.medexpertmatch.embedding.multiendpoint;
 
+import com.berdachuk.medexpertmatch.embedding.exception.EmbeddingException;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingResponse;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Pool of embedding endpoints with worker-per-endpoint architecture.
- * Each endpoint has dedicated worker threads that pull tasks from a shared queue.
- * Failed endpoints are automatically skipped for a configurable duration.
+ * Pool of embedding endpoints fed from one bounded queue of texts.
  * <p>
- * When {@code apiBatchSize > 1}, uses OpenAI-compatible batch API: multiple texts per HTTP call,
- * reducing round-trips and improving throughput (2-5x faster).
+ * A dispatcher thread waits for queued texts and an available endpoint, picks the endpoint with the lowest
+ * {@link EndpointState#score() score} (latency EWMA scaled by in-flight batches and error rate), and hands it a batch
+ * of up to {@code apiBatchSize} queued texts. Texts that queue up while every endpoint is busy are coalesced into the
+ * next batch, so small requests share API calls under load without delaying them when an endpoint is idle.
+ * <p>
+ * Each endpoint runs at most its configured number of concurrent batches and has a circuit breaker: after
+ * {@code failureThreshold} consecutive failures it takes no batches for the skip duration, then one trial batch decides
+ * whether it closes again. A failed batch goes back to the front of the queue split in halves and is dispatched to the
+ * next best endpoint right away, so healthy endpoints absorb the load of failed ones without idle waiting. Retried
+ * halves are sent on their own, never merged with newly queued texts, so a text the model rejects is isolated in a few
+ * calls without failing other callers' texts; a single text fails its future after {@code maxAttempts} failed calls.
+ * <p>
+ * The queue holds at most {@code queueCapacity} texts. Producers block while it is full; a text that cannot be queued
+ * within {@code enqueueTimeoutMs} completes exceptionally with {@link RejectedExecutionException}.
  */
 @Slf4j
 public class EmbeddingEndpointPool {
 
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    public static final long DEFAULT_ENQUEUE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
     private static final int STATS_LOG_INTERVAL = 100;
+    private static final long IDLE_WAIT_MS = 1000;
 
     private final List<EndpointState> endpoints;
-    private final BlockingQueue<EmbeddingTask> taskQueue;
-    private final long skipDurationMs;
     private final int apiBatchSize;
+    private final int queueCapacity;
+    private final long enqueueTimeoutMs;
+    private final int maxAttempts;
     private final ExecutorService executor;
+    private final Thread dispatcher;
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
     private final AtomicInteger totalCompleted = new AtomicInteger(0);
 
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Signalled when texts are queued, a batch finishes, or the pool shuts down.
+     */
+    private final Condition dispatchable = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    // Guarded by lock; retried batches are not counted against queueCapacity
+    private final Deque<EmbeddingTask> queue = new ArrayDeque<>();
+    private final Deque<List<EmbeddingTask>> retries = new ArrayDeque<>();
+
     public EmbeddingEndpointPool(List<EndpointState> endpoints, int workerPerEndpoint, int skipDurationMin) {
         this(endpoints, workerPerEndpoint, skipDurationMin, 1);
     }
@@ -46,158 +83,315 @@ public class EmbeddingEndpointPool {
 
     public EmbeddingEndpointPool(List<EndpointState> endpoints, List<Integer> workersPerEndpoint,
             int skipDurationMin, int apiBatchSize) {
+        this(endpoints, workersPerEndpoint, apiBatchSize, DEFAULT_QUEUE_CAPACITY, DEFAULT_FAILURE_THRESHOLD,
+                TimeUnit.MINUTES.toMillis(skipDurationMin), DEFAULT_ENQUEUE_TIMEOUT_MS);
+    }
+
+    public EmbeddingEndpointPool(List<EndpointState> endpoints, List<Integer> workersPerEndpoint,
+            int apiBatchSize, int queueCapacity, int failureThreshold, long circuitOpenMs, long enqueueTimeoutMs) {
+        this(endpoints, workersPerEndpoint, apiBatchSize, queueCapacity, failureThreshold, circuitOpenMs,
+                enqueueTimeoutMs, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * @param workersPerEndpoint concurrent batches per endpoint, by position (missing entries default to 1)
+     * @param apiBatchSize       maximum texts per API call
+     * @param queueCapacity      maximum queued texts before producers block
+     * @param failureThreshold   consecutive failures that open an endpoint's circuit
+     * @param circuitOpenMs      how long an open circuit takes no batches before a trial batch
+     * @param enqueueTimeoutMs   how long a producer waits for queue space before its text is rejected
+     * @param maxAttempts        failed single-text calls after which a text's future fails
+     */
+    public EmbeddingEndpointPool(List<EndpointState> endpoints, List<Integer> workersPerEndpoint,
+            int apiBatchSize, int queueCapacity, int failureThreshold, long circuitOpenMs, long enqueueTimeoutMs,
+            int maxAttempts) {
         this.endpoints = List.copyOf(endpoints);
-        this.taskQueue = new LinkedBlockingQueue<>();
-        this.skipDurationMs = TimeUnit.MINUTES.toMillis(skipDurationMin);
         this.apiBatchSize = Math.max(1, apiBatchSize);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.enqueueTimeoutMs = Math.max(0, enqueueTimeoutMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
 
         int totalWorkers = 0;
         for (int i = 0; i < endpoints.size(); i++) {
-            int w = i < workersPerEndpoint.size() ? Math.max(1, workersPerEndpoint.get(i)) : 1;
-            totalWorkers += w;
+            int workers = i < workersPerEndpoint.size() ? Math.max(1, workersPerEndpoint.get(i)) : 1;
+            endpoints.get(i).configure(workers, failureThreshold, circuitOpenMs);
+            totalWorkers += workers;
         }
-        int totalWorkersFinal = totalWorkers;
-        this.executor = Executors.newFixedThreadPool(totalWorkers, r -> {
+        this.executor = Executors.newFixedThreadPool(Math.max(1, totalWorkers), r -> {
             Thread t = new Thread(r, "embedding-pool-worker");
             t.setDaemon(false);
             return t;
         });
+        this.dispatcher = new Thread(this::runDispatcher, "embedding-pool-dispatcher");
+        this.dispatcher.start();
 
-        for (int i = 0; i < endpoints.size(); i++) {
-            EndpointState endpoint = endpoints.get(i);
-            int workers = i < workersPerEndpoint.size() ? Math.max(1, workersPerEndpoint.get(i)) : 1;
-            for (int w = 0; w < workers; w++) {
-                executor.submit(() -> runWorker(endpoint));
-            }
-        }
-
-        log.info("EmbeddingEndpointPool started with {} endpoints, {} workers total, api-batch-size={}",
-                endpoints.size(), totalWorkersFinal, this.apiBatchSize);
+        log.info("EmbeddingEndpointPool started with {} endpoints, {} workers total, api-batch-size={}, "
+                        + "queue-capacity={}, circuit-failure-threshold={}, max-attempts={}",
+                endpoints.size(), totalWorkers, this.apiBatchSize, this.queueCapacity, failureThreshold,
+                this.maxAttempts);
     }
 
-    private void runWorker(EndpointState endpoint) {
+    private void runDispatcher() {
         while (!shutdown.get()) {
+            EndpointState endpoint;
+            List<EmbeddingTask> batch;
+            lock.lock();
             try {
-                EmbeddingTask task = taskQueue.poll(1, TimeUnit.SECONDS);
-                if (task == null) {
+                endpoint = awaitDispatch();
+                if (endpoint == null) {
                     continue;
                 }
-
-                if (endpoint.isSkipped()) {
-                    long elapsed = System.currentTimeMillis() - endpoint.getLastFailureTime();
-                    if (elapsed >= skipDurationMs) {
-                        endpoint.setSkipped(false);
-                        log.debug("Endpoint {} recovered from skip, retrying", endpoint.getUrl());
-                    } else {
-                        taskQueue.offer(task);
-                        Thread.sleep(Math.min(5000, skipDurationMs - elapsed));
-                        continue;
-                    }
-                }
-
-                try {
-                    processTask(endpoint, task);
-                } catch (Exception e) {
-                    log.warn("Endpoint {} failed for batch (size={}): {}",
-                            endpoint.getUrl(), task.getTexts().size(), e.getMessage());
-                    endpoint.setLastFailureTime(System.currentTimeMillis());
-                    endpoint.setSkipped(true);
-                    taskQueue.offer(task);
-                }
+                endpoint.acquire();
+                batch = takeBatch();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 break;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                executor.execute(() -> processBatch(endpoint, batch));
+            } catch (RejectedExecutionException e) {
+                endpoint.recordFailure(System.currentTimeMillis());
+                batch.forEach(task -> task.future().completeExceptionally(e));
             }
         }
+        failPending();
     }
 
-    private void processTask(EndpointState endpoint, EmbeddingTask task) {
-        List<String> texts = task.getTexts();
-        List<CompletableFuture<List<Double>>> futures = task.getFutures();
+    /**
+     * Waits until texts are queued and an endpoint can take a batch. Must hold {@link #lock}.
+     *
+     * @return the best available endpoint, or null when woken without one (shutdown or timeout)
+     */
+    private EndpointState awaitDispatch() throws InterruptedException {
+        if (queue.isEmpty() && retries.isEmpty()) {
+            dispatchable.await(IDLE_WAIT_MS, TimeUnit.MILLISECONDS);
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        EndpointState best = null;
+        double bestScore = Double.MAX_VALUE;
+        long waitMs = IDLE_WAIT_MS;
+        for (EndpointState endpoint : endpoints) {
+            if (endpoint.isAvailable(now)) {
+                double score = endpoint.score();
+                if (score < bestScore) {
+                    best = endpoint;
+                    bestScore = score;
+                }
+            } else {
+                long untilTrial = endpoint.millisUntilTrial(now);
+                if (untilTrial > 0) {
+                    waitMs = Math.min(waitMs, untilTrial);
+                }
+            }
+        }
+        if (best == null) {
+            dispatchable.await(waitMs, TimeUnit.MILLISECONDS);
+        }
+        return best;
+    }
 
-        List<List<Double>> results = embedBatchWithModel(endpoint.getEmbeddingModel(), texts);
+    /**
+     * Takes the oldest retried batch on its own, or else up to {@code apiBatchSize} queued texts.
+     * Must hold {@link #lock}.
+     */
+    private List<EmbeddingTask> takeBatch() {
+        if (!retries.isEmpty()) {
+            return retries.pollFirst();
+        }
+        List<EmbeddingTask> batch = new ArrayList<>(Math.min(apiBatchSize, queue.size()));
+        while (batch.size() < apiBatchSize && !queue.isEmpty()) {
+            batch.add(queue.pollFirst());
+        }
+        notFull.signalAll();
+        return batch;
+    }
+
+    private void processBatch(EndpointState endpoint, List<EmbeddingTask> batch) {
+        long start = System.nanoTime();
+        List<float[]> results;
+        try {
+            results = embedBatchWithModel(endpoint.getEmbeddingModel(), batch.stream().map(EmbeddingTask::text).toList());
+        } catch (Exception e) {
+            boolean opened = endpoint.recordFailure(System.currentTimeMillis());
+            log.warn("Endpoint {} failed for batch (size={}){}: {}", endpoint.getUrl(), batch.size(),
+                    opened ? ", circuit opened" : "", e.getMessage());
+            retry(batch, e);
+            return;
+        }
+        endpoint.recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), batch.size());
+        signalDispatcher();
 
-        for (int i = 0; i < futures.size(); i++) {
-            List<Double> embedding = i < results.size() ? results.get(i) : List.of();
-            futures.get(i).complete(embedding);
+        for (int i = 0; i < batch.size(); i++) {
+            float[] embedding = i < results.size() ? results.get(i) : new float[0];
+            batch.get(i).future().complete(embedding);
         }
 
-        int completed = texts.size();
-        endpoint.getCompletedCount().addAndGet(completed);
-        int n = totalCompleted.addAndGet(completed);
-        if (n % STATS_LOG_INTERVAL == 0) {
+        int n = totalCompleted.addAndGet(batch.size());
+        if (n / STATS_LOG_INTERVAL != (n - batch.size()) / STATS_LOG_INTERVAL) {
             String stats = endpoints.stream()
-                    .map(e -> e.getUrl() + "=" + e.getCompletedCount().get())
+                    .map(e -> String.format("%s=%d (%.0fms, %s)", e.getUrl(), e.getCompletedCount().get(),
+                            e.getLatencyEwmaMs(), e.getCircuitState()))
                     .reduce((a, b) -> a + ", " + b)
                     .orElse("");
             log.info("EmbeddingEndpointPool: {} tasks completed, per-endpoint: [{}]", n, stats);
         }
     }
 
-    private static List<List<Double>> embedBatchWithModel(EmbeddingModel model, List<String> texts) {
+    /**
+     * Puts a failed batch back at the front of the queue split in halves, or fails a single text that has used up
+     * its attempts.
+     */
+    private void retry(List<EmbeddingTask> batch, Exception failure) {
+        List<List<EmbeddingTask>> parts;
+        if (batch.size() > 1) {
+            int half = batch.size() / 2;
+            parts = List.of(batch.subList(0, half), batch.subList(half, batch.size()));
+        } else {
+            EmbeddingTask task = batch.get(0).failedAttempt();
+            if (task.attempts() >= maxAttempts) {
+                log.warn("Giving up on embedding text after {} failed attempts: {}", task.attempts(),
+                        failure.getMessage());
+                task.future().completeExceptionally(new EmbeddingException(
+                        "Embedding failed after " + task.attempts() + " attempts: " + failure.getMessage(), failure));
+                signalDispatcher();
+                return;
+            }
+            parts = List.of(List.of(task));
+        }
+        lock.lock();
+        try {
+            if (shutdown.get()) {
+                RejectedExecutionException e = new RejectedExecutionException("Embedding pool is shut down");
+                batch.forEach(task -> task.future().completeExceptionally(e));
+                return;
+            }
+            for (int i = parts.size() - 1; i >= 0; i--) {
+                retries.addFirst(List.copyOf(parts.get(i)));
+            }
+            dispatchable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalDispatcher() {
+        lock.lock();
+        try {
+            dispatchable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<float[]> embedBatchWithModel(EmbeddingModel model, List<String> texts) {
         if (texts.isEmpty()) {
             return List.of();
         }
         EmbeddingResponse response = model.embedForResponse(texts);
-        List<List<Double>> results = new ArrayList<>(response.getResults().size());
+        List<float[]> results = new ArrayList<>(response.getResults().size());
         for (var embeddingResult : response.getResults()) {
-            float[] output = embeddingResult.getOutput();
-            List<Double> vec = new ArrayList<>(output.length);
-            for (float v : output) {
-                vec.add((double) v);
-            }
-            results.add(vec);
+            results.add(embeddingResult.getOutput());
         }
         return results;
     }
 
     /**
-     * Submits a single text for embedding.
+     * Submits a single text for embedding, blocking while the queue is full.
      *
      * @param text text to embed
      * @return future that completes with the embedding vector
      */
-    public CompletableFuture<List<Double>> embed(String text) {
+    public CompletableFuture<float[]> embed(String text) {
         EmbeddingTask task = new EmbeddingTask(text);
-        taskQueue.offer(task);
-        return task.getFutures().get(0);
+        enqueue(task);
+        return task.future();
     }
 
     /**
-     * Submits multiple texts for embedding in parallel.
-     * When apiBatchSize &gt; 1, groups texts into sub-batches for fewer API calls (2-5x faster).
+     * Submits multiple texts for embedding, blocking while the queue is full.
+     * Texts are coalesced with other queued texts into API calls of up to {@code apiBatchSize} texts.
      *
      * @param texts texts to embed
      * @return list of futures, one per text (order preserved)
      */
-    public List<CompletableFuture<List<Double>>> embedBatch(List<String> texts) {
+    public List<CompletableFuture<float[]>> embedBatch(List<String> texts) {
         if (texts.isEmpty()) {
             return List.of();
         }
+        List<CompletableFuture<float[]>> futures = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            futures.add(embed(text));
+        }
+        return futures;
+    }
 
-        if (apiBatchSize <= 1) {
-            List<CompletableFuture<List<Double>>> futures = new ArrayList<>(texts.size());
-            for (String text : texts) {
-                EmbeddingTask task = new EmbeddingTask(text);
-                taskQueue.offer(task);
-                futures.add(task.getFutures().get(0));
+    private void enqueue(EmbeddingTask task) {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMs);
+        lock.lock();
+        try {
+            while (queue.size() >= queueCapacity && !shutdown.get()) {
+                if (remainingNanos <= 0) {
+                    task.future().completeExceptionally(new RejectedExecutionException(
+                            "Embedding queue full (" + queueCapacity + " texts) for " + enqueueTimeoutMs + " ms"));
+                    return;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            if (shutdown.get()) {
+                task.future().completeExceptionally(new RejectedExecutionException("Embedding pool is shut down"));
+                return;
             }
-            return futures;
+            queue.addLast(task);
+            dispatchable.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.future().completeExceptionally(e);
+        } finally {
+            lock.unlock();
         }
+    }
 
-        List<CompletableFuture<List<Double>>> allFutures = new ArrayList<>(texts.size());
-        for (int i = 0; i < texts.size(); i += apiBatchSize) {
-            int end = Math.min(i + apiBatchSize, texts.size());
-            List<String> subBatch = texts.subList(i, end);
-            List<CompletableFuture<List<Double>>> subFutures = new ArrayList<>(subBatch.size());
-            for (int j = 0; j < subBatch.size(); j++) {
-                subFutures.add(new CompletableFuture<>());
-            }
-            EmbeddingTask task = new EmbeddingTask(subBatch, subFutures);
-            taskQueue.offer(task);
-            allFutures.addAll(subFutures);
+    private void failPending() {
+        lock.lock();
+        try {
+            RejectedExecutionException e = new RejectedExecutionException("Embedding pool is shut down");
+            retries.forEach(batch -> batch.forEach(task -> task.future().completeExceptionally(e)));
+            queue.forEach(task -> task.future().completeExceptionally(e));
+            retries.clear();
+            queue.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of texts waiting for dispatch, including retried texts.
+     */
+    public int getQueuedCount() {
+        lock.lock();
+        try {
+            return queue.size() + retries.stream().mapToInt(List::size).sum();
+        } finally {
+            lock.unlock();
         }
-        return allFutures;
+    }
+
+    /**
+     * Endpoints with their scheduling statistics and circuit state.
+     */
+    public List<EndpointState> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Model served by the pool's endpoints, which share one model; null if the endpoints do not name one.
+     */
+    public String getModel() {
+        return endpoints.isEmpty() ? null : endpoints.get(0).getModel();
     }
 
     public boolean isTerminated() {
@@ -207,8 +401,10 @@ public class EmbeddingEndpointPool {
     @PreDestroy
     public void shutdown() {
         if (shutdown.compareAndSet(false, true)) {
+            dispatcher.interrupt();
             executor.shutdown();
             try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(30));
                 if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
                     executor.shutdownNow();
                 }
@@ -1,30 +1,23 @@
 package com.berdachuk.medexpertmatch.embedding.multiendpoint;
 
-import lombok.Getter;
-
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Embedding task submitted to the endpoint pool.
- * Supports both single-text and batch mode (multiple texts per API call).
+ * One text waiting in the endpoint pool, with the future its embedding completes.
+ * The pool coalesces queued tasks into batches of up to {@code apiBatchSize} texts per API call.
+ *
+ * @param attempts failed API calls that carried this text on its own
  */
-@Getter
-class EmbeddingTask {
-    private final List<String> texts;
-    private final List<CompletableFuture<List<Double>>> futures;
+record EmbeddingTask(String text, CompletableFuture<float[]> future, int attempts) {
 
     EmbeddingTask(String text) {
-        this.texts = List.of(text);
-        CompletableFuture<List<Double>> f = new CompletableFuture<>();
-        this.futures = List.of(f);
+        this(text, new CompletableFuture<>(), 0);
     }
 
-    EmbeddingTask(List<String> texts, List<CompletableFuture<List<Double>>> futures) {
-        if (texts.size() != futures.size()) {
-            throw new IllegalArgumentException("texts and futures must have same size");
-        }
-        this.texts = List.copyOf(texts);
-        this.futures = List.copyOf(futures);
+    /**
+     * The same text and future after one more failed single-text call.
+     */
+    EmbeddingTask failedAttempt() {
+        return new EmbeddingTask(text, future, attempts + 1);
     }
 }
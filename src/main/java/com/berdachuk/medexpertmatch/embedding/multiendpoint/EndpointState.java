@@ -1,31 +1,151 @@
 package com.berdachuk.medexpertmatch.embedding.multiendpoint;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 import org.springframework.ai.embedding.EmbeddingModel;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Thread-safe state for a single embedding endpoint.
+ * <p>
+ * Besides the endpoint's model, it tracks what {@link EmbeddingEndpointPool} schedules on: in-flight batches against
+ * the endpoint's worker limit, an EWMA of batch latency and error rate, and a circuit breaker that opens after
+ * consecutive failures and lets a single trial batch through once the open interval has passed.
  */
 @Getter
 public class EndpointState {
+
+    /**
+     * Circuit breaker state.
+     */
+    public enum CircuitState {
+        /**
+         * Endpoint takes batches up to its worker limit.
+         */
+        CLOSED,
+        /**
+         * Endpoint takes no batches until the open interval has passed.
+         */
+        OPEN,
+        /**
+         * One trial batch is in flight; its outcome closes or reopens the circuit.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Weight of the newest sample in the latency and error-rate averages.
+     */
+    static final double EWMA_ALPHA = 0.2;
+
+    /**
+     * Floor for the success rate in {@link #score()}, so a failing endpoint scores high rather than infinite.
+     */
+    private static final double MIN_SUCCESS_RATE = 0.05;
+
     private final String url;
     private final String model;
     private final EmbeddingModel embeddingModel;
     private final AtomicInteger completedCount = new AtomicInteger(0);
 
-    @Setter
     private volatile long lastFailureTime;
-    @Setter
-    private volatile boolean skipped;
+    private volatile double latencyEwmaMs;
+    private volatile double errorRateEwma;
+    private volatile CircuitState circuitState = CircuitState.CLOSED;
+    private volatile int inFlight;
+
+    @Getter(AccessLevel.NONE)
+    private int maxInFlight = 1;
+    @Getter(AccessLevel.NONE)
+    private int failureThreshold = 1;
+    @Getter(AccessLevel.NONE)
+    private long openDurationMs;
+    @Getter(AccessLevel.NONE)
+    private int consecutiveFailures;
+    @Getter(AccessLevel.NONE)
+    private long openedAt;
 
     public EndpointState(String url, String model, EmbeddingModel embeddingModel) {
         this.url = url;
         this.model = model;
         this.embeddingModel = embeddingModel;
         this.lastFailureTime = 0;
-        this.skipped = false;
+    }
+
+    /**
+     * Sets the scheduling limits; called by the pool before any batch is dispatched.
+     */
+    synchronized void configure(int maxInFlight, int failureThreshold, long openDurationMs) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = Math.max(0, openDurationMs);
+    }
+
+    /**
+     * Whether a batch can be dispatched now: a free worker slot and a closed circuit, or an open circuit whose
+     * interval has passed with no trial batch in flight.
+     */
+    synchronized boolean isAvailable(long nowMs) {
+        return switch (circuitState) {
+            case CLOSED -> inFlight < maxInFlight;
+            case OPEN -> nowMs - openedAt >= openDurationMs && inFlight == 0;
+            case HALF_OPEN -> false;
+        };
+    }
+
+    /**
+     * Milliseconds until an open circuit admits a trial batch; 0 when not open.
+     */
+    synchronized long millisUntilTrial(long nowMs) {
+        return circuitState == CircuitState.OPEN ? Math.max(0, openedAt + openDurationMs - nowMs) : 0;
+    }
+
+    /**
+     * Expected cost of one more batch: latency EWMA (plus 1 ms, so error rate still separates fast endpoints) scaled
+     * by the batches already in flight and divided by the success rate. Lower is better; an endpoint without latency
+     * samples scores like a 0 ms endpoint, so new endpoints are tried right away.
+     */
+    synchronized double score() {
+        return (latencyEwmaMs + 1.0) * (inFlight + 1) / Math.max(MIN_SUCCESS_RATE, 1.0 - errorRateEwma);
+    }
+
+    /**
+     * Takes a worker slot for a dispatched batch; an open circuit moves to half-open for its trial batch.
+     */
+    synchronized void acquire() {
+        if (circuitState == CircuitState.OPEN) {
+            circuitState = CircuitState.HALF_OPEN;
+        }
+        inFlight++;
+    }
+
+    synchronized void recordSuccess(long latencyMs, int texts) {
+        inFlight--;
+        latencyEwmaMs = latencyEwmaMs == 0 ? latencyMs : latencyEwmaMs + EWMA_ALPHA * (latencyMs - latencyEwmaMs);
+        errorRateEwma = errorRateEwma * (1 - EWMA_ALPHA);
+        consecutiveFailures = 0;
+        circuitState = CircuitState.CLOSED;
+        completedCount.addAndGet(texts);
+    }
+
+    /**
+     * Records a failed batch; opens the circuit on a failed trial or after {@code failureThreshold} consecutive
+     * failures.
+     *
+     * @return true if this failure opened the circuit
+     */
+    synchronized boolean recordFailure(long nowMs) {
+        inFlight--;
+        lastFailureTime = nowMs;
+        errorRateEwma = errorRateEwma + EWMA_ALPHA * (1.0 - errorRateEwma);
+        consecutiveFailures++;
+        if (circuitState == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            boolean opened = circuitState != CircuitState.OPEN;
+            circuitState = CircuitState.OPEN;
+            openedAt = nowMs;
+            return opened;
+        }
+        return false;
     }
 }
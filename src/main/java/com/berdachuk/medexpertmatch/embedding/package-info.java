@@ -6,6 +6,7 @@
  * - Optional multi-endpoint pool ({@code EmbeddingEndpointPool}) for parallel OpenAI-compatible backends
  * - Integration with Spring AI EmbeddingModel
  * - Batch embedding generation support
+ * - Two-tier content-addressed embedding cache (in-heap Caffeine, {@code embedding_cache} table)
  */
 @org.springframework.modulith.ApplicationModule(allowedDependencies = {"core :: *", "medicalcase :: *"})
 package com.berdachuk.medexpertmatch.embedding;
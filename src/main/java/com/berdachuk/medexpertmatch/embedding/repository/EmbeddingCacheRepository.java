@@ -0,0 +1,28 @@
+package com.berdachuk.medexpertmatch.embedding.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Persistent tier of the embedding cache, keyed by content key (SHA-256 of model, dimensions and normalized text).
+ */
+public interface EmbeddingCacheRepository {
+
+    /**
+     * Finds stored embeddings for the given content keys; keys without a row are absent from the result.
+     */
+    Map<String, float[]> findByContentKeys(Collection<String> contentKeys);
+
+    /**
+     * Stores embeddings by content key; keys that already have a row are left unchanged.
+     */
+    void insertBatch(String model, int dimensions, Map<String, float[]> embeddingsByContentKey);
+
+    /**
+     * Deletes at most {@code batchSize} entries created before the cutoff.
+     *
+     * @return Number of deleted entries
+     */
+    int deleteCreatedBefore(Instant cutoff, int batchSize);
+}
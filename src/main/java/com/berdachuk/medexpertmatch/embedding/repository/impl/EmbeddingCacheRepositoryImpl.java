@@ -0,0 +1,71 @@
+package com.berdachuk.medexpertmatch.embedding.repository.impl;
+
+import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
+import com.berdachuk.medexpertmatch.core.repository.sql.PgVectorCodec;
+import com.berdachuk.medexpertmatch.embedding.repository.EmbeddingCacheRepository;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class EmbeddingCacheRepositoryImpl implements EmbeddingCacheRepository {
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @InjectSql("/sql/embeddingcache/findByContentKeys.sql")
+    private String findByContentKeysSql;
+
+    @InjectSql("/sql/embeddingcache/insertBatch.sql")
+    private String insertBatchSql;
+
+    @InjectSql("/sql/embeddingcache/deleteCreatedBefore.sql")
+    private String deleteCreatedBeforeSql;
+
+    public EmbeddingCacheRepositoryImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @Override
+    public Map<String, float[]> findByContentKeys(Collection<String> contentKeys) {
+        Map<String, float[]> embeddings = new HashMap<>();
+        if (contentKeys.isEmpty()) {
+            return embeddings;
+        }
+        namedJdbcTemplate.query(findByContentKeysSql, Map.of("contentKeys", contentKeys), rs -> {
+            embeddings.put(rs.getString("content_key"), PgVectorCodec.parse(rs.getString("embedding")));
+        });
+        return embeddings;
+    }
+
+    @Override
+    public void insertBatch(String model, int dimensions, Map<String, float[]> embeddingsByContentKey) {
+        if (embeddingsByContentKey.isEmpty()) {
+            return;
+        }
+
+        SqlParameterSource[] batchParams = embeddingsByContentKey.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("contentKey", entry.getKey())
+                        .addValue("model", model)
+                        .addValue("dimensions", dimensions)
+                        .addValue("embedding", PgVectorCodec.parameter(entry.getValue())))
+                .toArray(SqlParameterSource[]::new);
+
+        namedJdbcTemplate.batchUpdate(insertBatchSql, batchParams);
+    }
+
+    @Override
+    public int deleteCreatedBefore(Instant cutoff, int batchSize) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.from(cutoff))
+                .addValue("batchSize", batchSize);
+        return namedJdbcTemplate.update(deleteCreatedBeforeSql, params);
+    }
+}
@@ -2,54 +2,113 @@ package com.berdachuk.medexpertmatch.embedding.service;
 
 import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Service interface for embedding operations.
+ * <p>
+ * Vectors are primitive {@code float[]} from the model response to the database binding; the
+ * {@code List<Double>} methods are adapters kept for existing callers.
  */
 public interface EmbeddingService {
 
     /**
-     * Generates an embedding vector for a text string.
+     * Generates an embedding vector for a text string as a float array.
+     * Returned arrays may be shared with the embedding cache and must not be modified.
      *
      * @param text The text to generate embedding for
-     * @return List of embedding values as Double objects
+     * @return Embedding vector as float array, empty if the model returned no result
      */
-    List<Double> generateEmbedding(String text);
+    float[] generateEmbeddingAsFloatArray(String text);
 
     /**
-     * Generates embedding vectors for multiple text strings.
+     * Generates embedding vectors for multiple text strings as float arrays.
      *
      * @param texts List of texts to generate embeddings for
-     * @return List of embedding vectors, where each vector is a list of Double values
+     * @return One embedding vector per text, in input order
      */
-    List<List<Double>> generateEmbeddings(List<String> texts);
+    List<float[]> generateEmbeddingsAsFloatArrays(List<String> texts);
 
     /**
-     * Generates an embedding vector for a text string as a float array.
-     * This is more efficient for vector operations and database storage.
+     * Generates an embedding vector for a medical case as a float array.
+     * Uses LLM to enhance the medical case text before embedding, falling back to simple text concatenation if LLM fails.
      *
-     * @param text The text to generate embedding for
+     * @param medicalCase The medical case to generate embedding for
      * @return Embedding vector as float array
      */
-    float[] generateEmbeddingAsFloatArray(String text);
+    float[] generateEmbeddingForMedicalCaseAsFloatArray(MedicalCase medicalCase);
+
+    /**
+     * Generates embedding vectors for multiple medical cases (batch processing) as float arrays.
+     * Uses batch embedding API calls and parallel text building.
+     *
+     * @param medicalCases List of medical cases to generate embeddings for
+     * @return List of embedding vectors, where each vector corresponds to the medical case at the same index
+     */
+    List<float[]> generateEmbeddingsForMedicalCasesAsFloatArrays(List<MedicalCase> medicalCases);
+
+    /**
+     * Generates an embedding vector for a text string.
+     *
+     * @param text The text to generate embedding for
+     * @return List of embedding values as Double objects
+     * @deprecated Boxes every component; use {@link #generateEmbeddingAsFloatArray(String)}
+     */
+    @Deprecated
+    default List<Double> generateEmbedding(String text) {
+        return boxed(generateEmbeddingAsFloatArray(text));
+    }
+
+    /**
+     * Generates embedding vectors for multiple text strings.
+     *
+     * @param texts List of texts to generate embeddings for
+     * @return List of embedding vectors, where each vector is a list of Double values
+     * @deprecated Boxes every component; use {@link #generateEmbeddingsAsFloatArrays(List)}
+     */
+    @Deprecated
+    default List<List<Double>> generateEmbeddings(List<String> texts) {
+        return boxed(generateEmbeddingsAsFloatArrays(texts));
+    }
 
     /**
      * Generates an embedding vector for a medical case.
-     * Uses LLM to enhance the medical case text before embedding, falling back to simple text concatenation if LLM fails.
      *
      * @param medicalCase The medical case to generate embedding for
      * @return List of embedding values as Double objects
+     * @deprecated Boxes every component; use {@link #generateEmbeddingForMedicalCaseAsFloatArray(MedicalCase)}
      */
-    List<Double> generateEmbeddingForMedicalCase(MedicalCase medicalCase);
+    @Deprecated
+    default List<Double> generateEmbeddingForMedicalCase(MedicalCase medicalCase) {
+        return boxed(generateEmbeddingForMedicalCaseAsFloatArray(medicalCase));
+    }
 
     /**
      * Generates embedding vectors for multiple medical cases (batch processing).
-     * More efficient than calling generateEmbeddingForMedicalCase() individually.
-     * Uses batch embedding API calls and parallel text building.
      *
      * @param medicalCases List of medical cases to generate embeddings for
      * @return List of embedding vectors, where each vector corresponds to the medical case at the same index
+     * @deprecated Boxes every component; use {@link #generateEmbeddingsForMedicalCasesAsFloatArrays(List)}
      */
-    List<List<Double>> generateEmbeddingsForMedicalCases(List<MedicalCase> medicalCases);
+    @Deprecated
+    default List<List<Double>> generateEmbeddingsForMedicalCases(List<MedicalCase> medicalCases) {
+        return boxed(generateEmbeddingsForMedicalCasesAsFloatArrays(medicalCases));
+    }
+
+    private static List<Double> boxed(float[] vector) {
+        List<Double> boxed = new ArrayList<>(vector.length);
+        for (float value : vector) {
+            boxed.add((double) value);
+        }
+        return boxed;
+    }
+
+    private static List<List<Double>> boxed(List<float[]> vectors) {
+        List<List<Double>> boxed = new ArrayList<>(vectors.size());
+        for (float[] vector : vectors) {
+            boxed.add(boxed(vector));
+        }
+        return boxed;
+    }
 }
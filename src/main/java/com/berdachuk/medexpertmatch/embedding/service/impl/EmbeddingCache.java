@@ -0,0 +1,244 @@
+package com.berdachuk.medexpertmatch.embedding.service.impl;
+
+import com.berdachuk.medexpertmatch.core.config.CacheConfig;
+import com.berdachuk.medexpertmatch.embedding.multiendpoint.EmbeddingEndpointPool;
+import com.berdachuk.medexpertmatch.embedding.repository.EmbeddingCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Two-tier, content-addressed embedding cache consulted by the {@code EmbeddingService} implementations before
+ * calling the model.
+ * <p>
+ * Entries are keyed by the SHA-256 of the serving model, its dimensions and the normalized text (NFC, trimmed,
+ * whitespace runs collapsed), so a model or dimension change never serves stale vectors. The serving model is the
+ * one shared by the {@link EmbeddingEndpointPool} endpoints when the pool is active, which rejects endpoints with
+ * different models, and {@code spring.ai.custom.embedding.model} otherwise. The in-heap tier is the
+ * bounded {@link CacheConfig#EMBEDDING_RESULTS_CACHE} Caffeine cache; misses fall through to the
+ * {@code embedding_cache} table, which survives restarts and is shared by every instance. Only texts missing from
+ * both tiers reach the model, in one batch call. Persistent-tier failures are logged and treated as misses.
+ * <p>
+ * Lookups are counted in {@code embedding.cache.requests} (tags {@code tier}, {@code result}); the share of texts
+ * served without a model call is exported as {@code embedding.cache.hit.ratio}.
+ */
+@Slf4j
+@Component
+class EmbeddingCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Cache memory;
+    private final EmbeddingCacheRepository repository;
+    private final boolean enabled;
+    private final boolean persistent;
+    private final String model;
+    private final int dimensions;
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter persistentHits;
+    private final Counter persistentMisses;
+
+    @Autowired
+    EmbeddingCache(CacheManager cacheManager,
+                   EmbeddingCacheRepository repository,
+                   MeterRegistry meterRegistry,
+                   @Value("${medexpertmatch.embedding.cache.enabled:true}") boolean enabled,
+                   @Value("${medexpertmatch.embedding.cache.persistent:true}") boolean persistent,
+                   ObjectProvider<EmbeddingEndpointPool> endpointPool,
+                   @Value("${spring.ai.custom.embedding.model:}") String model,
+                   @Value("${spring.ai.custom.embedding.dimensions:0}") int dimensions) {
+        this(enabled ? cacheManager.getCache(CacheConfig.EMBEDDING_RESULTS_CACHE) : null,
+                repository, meterRegistry, persistent, servingModel(endpointPool.getIfAvailable(), model), dimensions);
+    }
+
+    /**
+     * @param memory In-heap tier; {@code null} disables the cache and every lookup goes to the model
+     */
+    EmbeddingCache(Cache memory,
+                   EmbeddingCacheRepository repository,
+                   MeterRegistry meterRegistry,
+                   boolean persistent,
+                   String model,
+                   int dimensions) {
+        this.memory = memory;
+        this.repository = repository;
+        this.enabled = memory != null;
+        this.persistent = persistent && repository != null;
+        this.model = model != null ? model : "";
+        this.dimensions = dimensions;
+
+        this.memoryHits = requests(meterRegistry, "memory", "hit");
+        this.memoryMisses = requests(meterRegistry, "memory", "miss");
+        this.persistentHits = requests(meterRegistry, "persistent", "hit");
+        this.persistentMisses = requests(meterRegistry, "persistent", "miss");
+        Gauge.builder("embedding.cache.hit.ratio", this, EmbeddingCache::hitRatio)
+                .description("Share of embedding lookups served from the in-heap or persistent tier")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Model that embeds cache misses: the pool's model when the multi-endpoint pool serves requests.
+     */
+    static String servingModel(EmbeddingEndpointPool endpointPool, String configuredModel) {
+        if (endpointPool != null && endpointPool.getModel() != null && !endpointPool.getModel().isBlank()) {
+            return endpointPool.getModel();
+        }
+        return configuredModel;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("embedding.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached embedding for a text, calling {@code embedder} on a miss.
+     */
+    float[] get(String text, Function<String, float[]> embedder) {
+        return getAll(List.of(text), texts -> List.of(embedder.apply(texts.get(0)))).get(0);
+    }
+
+    /**
+     * Returns cached embeddings in input order, calling {@code embedder} once with the texts missing from both tiers.
+     * Duplicate texts are embedded once; a text the model returned no vector for maps to an empty array.
+     */
+    List<float[]> getAll(List<String> texts, Function<List<String>, List<float[]>> embedder) {
+        if (!enabled || texts.isEmpty()) {
+            return embedder.apply(texts);
+        }
+
+        List<String> keys = new ArrayList<>(texts.size());
+        Map<String, float[]> found = new LinkedHashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (String text : texts) {
+            String key = contentKey(text);
+            keys.add(key);
+            if (found.containsKey(key) || missing.containsKey(key)) {
+                continue;
+            }
+            Cache.ValueWrapper cached = memory.get(key);
+            if (cached != null && cached.get() instanceof float[] embedding) {
+                found.put(key, embedding);
+            } else {
+                missing.put(key, text);
+            }
+        }
+        memoryHits.increment(found.size());
+        memoryMisses.increment(missing.size());
+
+        if (persistent && !missing.isEmpty()) {
+            Map<String, float[]> stored = findPersisted(List.copyOf(missing.keySet()));
+            stored.forEach((key, embedding) -> {
+                memory.put(key, embedding);
+                found.put(key, embedding);
+                missing.remove(key);
+            });
+            persistentHits.increment(stored.size());
+            persistentMisses.increment(missing.size());
+        }
+
+        if (!missing.isEmpty()) {
+            found.putAll(embedAndStore(missing, embedder));
+        }
+
+        List<float[]> embeddings = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            embeddings.add(found.getOrDefault(key, new float[0]));
+        }
+        return embeddings;
+    }
+
+    private Map<String, float[]> embedAndStore(Map<String, String> missing, Function<List<String>, List<float[]>> embedder) {
+        List<String> missingKeys = List.copyOf(missing.keySet());
+        List<float[]> computed = embedder.apply(List.copyOf(missing.values()));
+        if (computed.size() != missingKeys.size()) {
+            log.warn("Embedding model returned {} results for {} texts", computed.size(), missingKeys.size());
+        }
+
+        Map<String, float[]> embeddings = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(missingKeys.size(), computed.size()); i++) {
+            float[] embedding = computed.get(i);
+            if (embedding != null && embedding.length > 0) {
+                embeddings.put(missingKeys.get(i), embedding);
+                memory.put(missingKeys.get(i), embedding);
+            }
+        }
+        if (persistent) {
+            persist(embeddings);
+        }
+        return embeddings;
+    }
+
+    private Map<String, float[]> findPersisted(Collection<String> keys) {
+        try {
+            return repository.findByContentKeys(keys);
+        } catch (DataAccessException e) {
+            log.warn("Embedding cache lookup failed, embedding {} texts without it: {}", keys.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void persist(Map<String, float[]> embeddings) {
+        try {
+            repository.insertBatch(model, dimensions, embeddings);
+        } catch (DataAccessException e) {
+            log.warn("Failed to persist {} embeddings to cache: {}", embeddings.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * SHA-256 (hex) of model, dimensions and normalized text.
+     */
+    String contentKey(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Integer.toString(dimensions).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(text).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).strip();
+        return WHITESPACE.matcher(normalized).replaceAll(" ");
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + persistentHits.count();
+        double lookups = memoryHits.count() + memoryMisses.count();
+        return lookups == 0 ? 0.0 : hits / lookups;
+    }
+}
@@ -0,0 +1,67 @@
+package com.berdachuk.medexpertmatch.embedding.service.impl;
+
+import com.berdachuk.medexpertmatch.embedding.repository.EmbeddingCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bounds the persistent tier of the {@link EmbeddingCache}: entries older than {@code max-age-days} are deleted in
+ * batches of {@code batch-size} on the {@code cron} schedule, using the {@code created_at} index. An expired text is
+ * re-embedded once on its next lookup. A {@code max-age-days} of 0 keeps entries indefinitely.
+ */
+@Slf4j
+@Component
+class EmbeddingCacheRetentionScheduler {
+
+    private final EmbeddingCacheRepository repository;
+    private final Clock clock;
+    private final int maxAgeDays;
+    private final int batchSize;
+
+    EmbeddingCacheRetentionScheduler(EmbeddingCacheRepository repository,
+                                     @Value("${medexpertmatch.embedding.cache.retention.max-age-days:90}") int maxAgeDays,
+                                     @Value("${medexpertmatch.embedding.cache.retention.batch-size:1000}") int batchSize) {
+        this(repository, Clock.systemUTC(), maxAgeDays, batchSize);
+    }
+
+    EmbeddingCacheRetentionScheduler(EmbeddingCacheRepository repository, Clock clock, int maxAgeDays, int batchSize) {
+        this.repository = repository;
+        this.clock = clock;
+        this.maxAgeDays = maxAgeDays;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Deletes expired entries until a batch comes back short.
+     *
+     * @return Number of deleted entries
+     */
+    @Scheduled(cron = "${medexpertmatch.embedding.cache.retention.cron:0 30 3 * * *}")
+    public int purgeExpiredEntries() {
+        if (maxAgeDays <= 0) {
+            return 0;
+        }
+        Instant cutoff = clock.instant().minus(maxAgeDays, ChronoUnit.DAYS);
+        int purged = 0;
+        try {
+            int deleted;
+            do {
+                deleted = repository.deleteCreatedBefore(cutoff, batchSize);
+                purged += deleted;
+            } while (deleted == batchSize);
+        } catch (DataAccessException e) {
+            log.warn("Embedding cache retention purge failed after {} entries: {}", purged, e.getMessage());
+        }
+        if (purged > 0) {
+            log.info("Embedding cache retention purged {} entries created before {}", purged, cutoff);
+        }
+        return purged;
+    }
+}
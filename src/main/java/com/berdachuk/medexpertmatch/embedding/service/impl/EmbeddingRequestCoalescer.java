@@ -0,0 +1,157 @@
+package com.berdachuk.medexpertmatch.embedding.service.impl;
+
+import com.berdachuk.medexpertmatch.core.util.LlmCallLimiter;
+import com.berdachuk.medexpertmatch.core.util.LlmClientType;
+import com.berdachuk.medexpertmatch.embedding.exception.EmbeddingException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Merges concurrent single-text embedding requests into one batch call.
+ * <p>
+ * The first caller to find no open batch becomes its leader: it waits up to {@code maxWaitMs} for other callers to
+ * join, then takes the {@link LlmClientType#EMBEDDING} permit and embeds every text collected by then in one call.
+ * Callers keep joining while the leader waits for the permit, so requests that would have queued behind the permit
+ * share the next call instead. A batch that reaches {@code maxBatchSize} is sealed at once and later callers start a
+ * new one. Identical texts in the same batch are embedded once. No background thread is involved; each batch runs on
+ * its leader's thread.
+ */
+@Slf4j
+final class EmbeddingRequestCoalescer {
+
+    private final Function<List<String>, List<float[]>> batchEmbedder;
+    private final LlmCallLimiter llmCallLimiter;
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition sealed = lock.newCondition();
+    private Batch open;
+
+    EmbeddingRequestCoalescer(Function<List<String>, List<float[]>> batchEmbedder,
+                              LlmCallLimiter llmCallLimiter,
+                              long maxWaitMs,
+                              int maxBatchSize) {
+        this.batchEmbedder = batchEmbedder;
+        this.llmCallLimiter = llmCallLimiter;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Embeds one text, sharing the model call with requests that arrive within the wait window.
+     *
+     * @param text Input text to embed
+     * @return Embedding vector
+     */
+    float[] embed(String text) {
+        Batch batch;
+        CompletableFuture<float[]> future;
+        boolean leader;
+        lock.lock();
+        try {
+            leader = open == null;
+            if (leader) {
+                open = new Batch();
+            }
+            batch = open;
+            future = batch.futures.computeIfAbsent(text, t -> new CompletableFuture<>());
+            if (batch.futures.size() >= maxBatchSize) {
+                seal(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            awaitJoiners(batch);
+            dispatch(batch);
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new EmbeddingException("Embedding failed", e.getCause());
+        }
+    }
+
+    private void awaitJoiners(Batch batch) {
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (!batch.sealed && remaining > 0) {
+                remaining = sealed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        List<String> texts = new ArrayList<>();
+        try {
+            List<float[]> embeddings = llmCallLimiter.execute(LlmClientType.EMBEDDING, () -> {
+                lock.lock();
+                try {
+                    seal(batch);
+                    texts.addAll(batch.futures.keySet());
+                } finally {
+                    lock.unlock();
+                }
+                return batchEmbedder.apply(texts);
+            });
+            if (embeddings.size() != texts.size()) {
+                throw new EmbeddingException("Embedding model returned " + embeddings.size()
+                        + " results for " + texts.size() + " texts");
+            }
+            log.debug("Coalesced {} embedding requests into one call", texts.size());
+            for (int i = 0; i < texts.size(); i++) {
+                batch.futures.get(texts.get(i)).complete(embeddings.get(i));
+            }
+        } catch (RuntimeException | Error e) {
+            lock.lock();
+            try {
+                seal(batch);
+            } finally {
+                lock.unlock();
+            }
+            batch.futures.values().forEach(f -> f.completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Closes the batch to new callers; must be called with the lock held.
+     */
+    private void seal(Batch batch) {
+        if (!batch.sealed) {
+            batch.sealed = true;
+            if (open == batch) {
+                open = null;
+            }
+            sealed.signalAll();
+        }
+    }
+
+    private static final class Batch {
+        private final Map<String, CompletableFuture<float[]>> futures = new LinkedHashMap<>();
+        private boolean sealed;
+    }
+}
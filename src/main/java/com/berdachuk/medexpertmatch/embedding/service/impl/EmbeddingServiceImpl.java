@@ -6,20 +6,21 @@ import com.berdachuk.medexpertmatch.embedding.service.EmbeddingService;
 import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
 import com.berdachuk.medexpertmatch.medicalcase.service.MedicalCaseDescriptionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.Embedding;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service for generating vector embeddings using primary EmbeddingModel.
  * Uses mocked model in tests, real model in production (1536 dimensions).
+ * Texts already in the {@link EmbeddingCache} are not sent to the model. Concurrent single-text requests
+ * are coalesced into batch calls unless {@code medexpertmatch.embedding.coalescing.enabled} is false.
  */
 @Slf4j
 @Service
@@ -29,6 +30,8 @@ public class EmbeddingServiceImpl implements EmbeddingService {
     private final EmbeddingModel embeddingModel;
     private final MedicalCaseDescriptionService descriptionService;
     private final LlmCallLimiter llmCallLimiter;
+    private final EmbeddingCache embeddingCache;
+    private final EmbeddingRequestCoalescer coalescer;
 
     /**
      * Constructor using primary EmbeddingModel bean (mocked in tests, real in production).
@@ -37,37 +40,48 @@ public class EmbeddingServiceImpl implements EmbeddingService {
     public EmbeddingServiceImpl(
             EmbeddingModel embeddingModel,
             MedicalCaseDescriptionService descriptionService,
-            LlmCallLimiter llmCallLimiter) {
+            LlmCallLimiter llmCallLimiter,
+            EmbeddingCache embeddingCache,
+            @Value("${medexpertmatch.embedding.coalescing.enabled:true}") boolean coalescingEnabled,
+            @Value("${medexpertmatch.embedding.coalescing.max-wait-ms:5}") long coalescingMaxWaitMs,
+            @Value("${medexpertmatch.embedding.coalescing.max-batch-size:32}") int coalescingMaxBatchSize) {
         this.embeddingModel = embeddingModel;
         this.descriptionService = descriptionService;
         this.llmCallLimiter = llmCallLimiter;
+        this.embeddingCache = embeddingCache;
+        this.coalescer = coalescingEnabled
+                ? new EmbeddingRequestCoalescer(this::embedAll, llmCallLimiter,
+                coalescingMaxWaitMs, coalescingMaxBatchSize)
+                : null;
     }
 
     /**
-     * Generates embedding for text.
+     * Generates embedding for text as the model's float array, without boxing.
      *
      * @param text Input text to embed
-     * @return List of embedding values (as Double for compatibility)
+     * @return Embedding vector, empty if the model returned no result
      */
     @Override
-    @Cacheable(value = "embeddingResults", key = "#text")
-    public List<Double> generateEmbedding(String text) {
+    public float[] generateEmbeddingAsFloatArray(String text) {
         if (embeddingModel == null) {
             throw new IllegalStateException("EmbeddingModel is not configured");
         }
 
+        return embeddingCache.get(text, this::embed);
+    }
+
+    private float[] embed(String text) {
+        if (coalescer != null) {
+            return coalescer.embed(text);
+        }
+
         EmbeddingResponse response = embeddingModel.embedForResponse(List.of(text));
 
         if (response.getResults().isEmpty()) {
-            return List.of();
+            return new float[0];
         }
 
-        float[] output = response.getResults().get(0).getOutput();
-        List<Double> result = new ArrayList<>(output.length);
-        for (float value : output) {
-            result.add((double) value);
-        }
-        return result;
+        return response.getResults().get(0).getOutput();
     }
 
     /**
@@ -77,7 +91,7 @@ public class EmbeddingServiceImpl implements EmbeddingService {
      * @return List of embedding vectors
      */
     @Override
-    public List<List<Double>> generateEmbeddings(List<String> texts) {
+    public List<float[]> generateEmbeddingsAsFloatArrays(List<String> texts) {
         if (embeddingModel == null) {
             throw new IllegalStateException("EmbeddingModel is not configured");
         }
@@ -86,31 +100,15 @@ public class EmbeddingServiceImpl implements EmbeddingService {
             return List.of();
         }
 
+        return embeddingCache.getAll(texts, this::embedAll);
+    }
+
+    private List<float[]> embedAll(List<String> texts) {
         EmbeddingResponse response = embeddingModel.embedForResponse(texts);
 
         return response.getResults().stream()
-                .map(result -> {
-                    float[] output = result.getOutput();
-                    List<Double> embedding = new ArrayList<>(output.length);
-                    for (float value : output) {
-                        embedding.add((double) value);
-                    }
-                    return embedding;
-                })
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Generates embedding as float array (more efficient for vector operations).
-     */
-    @Override
-    public float[] generateEmbeddingAsFloatArray(String text) {
-        List<Double> embedding = generateEmbedding(text);
-        float[] result = new float[embedding.size()];
-        for (int i = 0; i < embedding.size(); i++) {
-            result[i] = embedding.get(i).floatValue();
-        }
-        return result;
+                .map(Embedding::getOutput)
+                .toList();
     }
 
     /**
@@ -118,24 +116,25 @@ public class EmbeddingServiceImpl implements EmbeddingService {
      * Uses stored abstract or generates one using MedicalCaseDescriptionService.
      *
      * @param medicalCase The medical case to generate embedding for
-     * @return List of embedding values as Double objects
+     * @return Embedding vector as float array
      */
     @Override
-    public List<Double> generateEmbeddingForMedicalCase(MedicalCase medicalCase) {
-        return MedicalCaseEmbeddingSupport.embeddingForMedicalCase(medicalCase, descriptionService, this::generateEmbedding);
+    public float[] generateEmbeddingForMedicalCaseAsFloatArray(MedicalCase medicalCase) {
+        return MedicalCaseEmbeddingSupport.embeddingForMedicalCase(
+                medicalCase, descriptionService, this::generateEmbeddingAsFloatArray);
     }
 
     /**
      * Generates embedding vectors for multiple medical cases (batch processing).
-     * More efficient than calling generateEmbeddingForMedicalCase() individually.
+     * More efficient than calling generateEmbeddingForMedicalCaseAsFloatArray() individually.
      * Uses batch embedding API calls and parallel text building.
      *
      * @param medicalCases List of medical cases to generate embeddings for
      * @return List of embedding vectors, where each vector corresponds to the medical case at the same index
      */
     @Override
-    public List<List<Double>> generateEmbeddingsForMedicalCases(List<MedicalCase> medicalCases) {
+    public List<float[]> generateEmbeddingsForMedicalCasesAsFloatArrays(List<MedicalCase> medicalCases) {
         return MedicalCaseEmbeddingSupport.embeddingsForMedicalCases(
-                medicalCases, descriptionService, llmCallLimiter, this::generateEmbeddings);
+                medicalCases, descriptionService, llmCallLimiter, this::generateEmbeddingsAsFloatArrays);
     }
 }
@@ -16,19 +16,19 @@ final class MedicalCaseEmbeddingSupport {
     private MedicalCaseEmbeddingSupport() {
     }
 
-    static List<Double> embeddingForMedicalCase(
+    static float[] embeddingForMedicalCase(
             MedicalCase medicalCase,
             MedicalCaseDescriptionService descriptionService,
-            Function<String, List<Double>> embedText) {
+            Function<String, float[]> embedText) {
         String text = descriptionService.getOrGenerateDescription(medicalCase);
         return embedText.apply(text);
     }
 
-    static List<List<Double>> embeddingsForMedicalCases(
+    static List<float[]> embeddingsForMedicalCases(
             List<MedicalCase> medicalCases,
             MedicalCaseDescriptionService descriptionService,
             LlmCallLimiter llmCallLimiter,
-            Function<List<String>, List<List<Double>>> embedTexts) {
+            Function<List<String>, List<float[]>> embedTexts) {
         if (medicalCases.isEmpty()) {
             return List.of();
         }
@@ -20,6 +20,7 @@ import java.util.concurrent.TimeoutException;
 /**
  * EmbeddingService that delegates text embedding to a multi-endpoint pool.
  * Active when {@link EmbeddingEndpointPool} is configured.
+ * Texts already in the {@link EmbeddingCache} are not sent to the pool.
  */
 @Service
 @Primary
@@ -31,18 +32,33 @@ public class MultiEndpointEmbeddingServiceImpl implements EmbeddingService {
     private final EmbeddingEndpointPool pool;
     private final MedicalCaseDescriptionService descriptionService;
     private final LlmCallLimiter llmCallLimiter;
+    private final EmbeddingCache embeddingCache;
 
     public MultiEndpointEmbeddingServiceImpl(
             EmbeddingEndpointPool pool,
             MedicalCaseDescriptionService descriptionService,
-            LlmCallLimiter llmCallLimiter) {
+            LlmCallLimiter llmCallLimiter,
+            EmbeddingCache embeddingCache) {
         this.pool = pool;
         this.descriptionService = descriptionService;
         this.llmCallLimiter = llmCallLimiter;
+        this.embeddingCache = embeddingCache;
     }
 
     @Override
-    public List<Double> generateEmbedding(String text) {
+    public float[] generateEmbeddingAsFloatArray(String text) {
+        return embeddingCache.get(text, this::embed);
+    }
+
+    @Override
+    public List<float[]> generateEmbeddingsAsFloatArrays(List<String> texts) {
+        if (texts.isEmpty()) {
+            return List.of();
+        }
+        return embeddingCache.getAll(texts, this::embedAll);
+    }
+
+    private float[] embed(String text) {
         try {
             return pool.embed(text)
                     .get(EMBEDDING_TIMEOUT_MINUTES, TimeUnit.MINUTES);
@@ -56,13 +72,8 @@ public class MultiEndpointEmbeddingServiceImpl implements EmbeddingService {
         }
     }
 
-    @Override
-    public List<List<Double>> generateEmbeddings(List<String> texts) {
-        if (texts.isEmpty()) {
-            return List.of();
-        }
-
-        List<CompletableFuture<List<Double>>> futures = pool.embedBatch(texts);
+    private List<float[]> embedAll(List<String> texts) {
+        List<CompletableFuture<float[]>> futures = pool.embedBatch(texts);
         try {
             CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
                     .get(EMBEDDING_TIMEOUT_MINUTES, TimeUnit.MINUTES);
@@ -75,31 +86,22 @@ public class MultiEndpointEmbeddingServiceImpl implements EmbeddingService {
             throw new EmbeddingException("Batch embedding timed out", e);
         }
 
-        List<List<Double>> results = new ArrayList<>(texts.size());
-        for (CompletableFuture<List<Double>> future : futures) {
+        List<float[]> results = new ArrayList<>(texts.size());
+        for (CompletableFuture<float[]> future : futures) {
             results.add(future.join());
         }
         return results;
     }
 
     @Override
-    public float[] generateEmbeddingAsFloatArray(String text) {
-        List<Double> embedding = generateEmbedding(text);
-        float[] result = new float[embedding.size()];
-        for (int i = 0; i < embedding.size(); i++) {
-            result[i] = embedding.get(i).floatValue();
-        }
-        return result;
-    }
-
-    @Override
-    public List<Double> generateEmbeddingForMedicalCase(MedicalCase medicalCase) {
-        return MedicalCaseEmbeddingSupport.embeddingForMedicalCase(medicalCase, descriptionService, this::generateEmbedding);
+    public float[] generateEmbeddingForMedicalCaseAsFloatArray(MedicalCase medicalCase) {
+        return MedicalCaseEmbeddingSupport.embeddingForMedicalCase(
+                medicalCase, descriptionService, this::generateEmbeddingAsFloatArray);
     }
 
     @Override
-    public List<List<Double>> generateEmbeddingsForMedicalCases(List<MedicalCase> medicalCases) {
+    public List<float[]> generateEmbeddingsForMedicalCasesAsFloatArrays(List<MedicalCase> medicalCases) {
         return MedicalCaseEmbeddingSupport.embeddingsForMedicalCases(
-                medicalCases, descriptionService, llmCallLimiter, this::generateEmbeddings);
+                medicalCases, descriptionService, llmCallLimiter, this::generateEmbeddingsAsFloatArrays);
     }
 }
@@ -0,0 +1,50 @@
+package com.berdachuk.medexpertmatch.graph.repository;
+
+import java.util.Map;
+
+/**
+ * Repository for bulk-loading the Apache AGE graph into a staging graph and swapping it in by name.
+ * <p>
+ * Rows are written straight into AGE label tables with set-based SQL from the relational tables,
+ * bypassing Cypher MERGE. Callers run the staging steps in one transaction and the swap in another.
+ */
+public interface GraphBulkLoadRepository {
+
+    /**
+     * Drops any leftover staging graph and creates an empty one with all vertex and edge labels.
+     */
+    void createStagingGraph();
+
+    /**
+     * Inserts Doctor, MedicalCase, ICD10Code, MedicalSpecialty and Facility vertices into the staging graph.
+     */
+    void loadStagingVertices();
+
+    /**
+     * Inserts all relationship edges into the staging graph by joining relational rows to staged vertex ids.
+     * Must run in the same transaction as {@link #loadStagingVertices()}.
+     */
+    void loadStagingEdges();
+
+    /**
+     * Creates property and adjacency indexes on the staging label tables and analyzes them.
+     */
+    void createStagingIndexes();
+
+    /**
+     * Counts rows per label in the staging graph.
+     *
+     * @return Row count keyed by label name, in build order
+     */
+    Map<String, Long> countStagingLabels();
+
+    /**
+     * Renames the live graph to the previous-graph name and the staging graph to the live name.
+     */
+    void swapStagingGraph();
+
+    /**
+     * Drops the graph replaced by the last swap, if any.
+     */
+    void dropPreviousGraph();
+}
@@ -0,0 +1,62 @@
+package com.berdachuk.medexpertmatch.graph.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository for doctor centrality scores computed by the graph analytics job over a snapshot of the graph.
+ * Tables are replaced as a whole on every run, so reads always see one consistent computation.
+ */
+public interface GraphCentralityRepository {
+
+    /**
+     * Global centrality of one doctor in the doctor-case co-treatment graph.
+     *
+     * @param weightedDegree TREATED edges count 1.0, CONSULTED_ON edges 0.5
+     * @param pagerank       Global PageRank (sums to 1 over doctors and cases)
+     * @param communityId    Co-treatment community; dense ids, stable only within one computation
+     * @param computedAt     Computation time (null before insert)
+     */
+    record DoctorCentrality(String doctorId, double weightedDegree, double pagerank, int communityId,
+                            Instant computedAt) {
+    }
+
+    /**
+     * Condition-specific centrality of one doctor.
+     *
+     * @param caseCount Cases with the code the doctor treated or consulted on
+     * @param score     Personalized PageRank seeded by the code's cases, normalized to 1.0 for the top doctor
+     */
+    record ConditionCentrality(String icd10Code, String doctorId, int caseCount, double score) {
+    }
+
+    /**
+     * Replaces all stored centrality scores in one transaction.
+     * Doctors that no longer exist are skipped.
+     */
+    void replaceAll(List<DoctorCentrality> doctors, List<ConditionCentrality> conditions);
+
+    /**
+     * Finds the highest-scoring doctors for an ICD-10 code.
+     */
+    List<ConditionCentrality> findTopByCondition(String icd10Code, int limit);
+
+    /**
+     * Finds the global centrality of a doctor.
+     */
+    Optional<DoctorCentrality> findByDoctorId(String doctorId);
+
+    /**
+     * Finds the most central doctors of a community, by PageRank.
+     */
+    List<DoctorCentrality> findTopByCommunity(int communityId, int limit);
+
+    /**
+     * Finds each doctor's best condition score over the given ICD-10 codes.
+     *
+     * @return Doctor ID to score; doctors without a score for any of the codes are absent
+     */
+    Map<String, Double> findConditionScores(List<String> doctorIds, List<String> icd10Codes);
+}
@@ -0,0 +1,67 @@
+package com.berdachuk.medexpertmatch.graph.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for the graph outbox: change records written by database triggers on doctors,
+ * medical cases and clinical experiences, consumed to keep the Apache AGE graph in sync.
+ */
+public interface GraphOutboxRepository {
+
+    /**
+     * Graph entity whose vertex or edges must be re-synced from relational state.
+     */
+    enum EntityType {
+        /**
+         * Doctor vertex with its SPECIALIZES_IN and AFFILIATED_WITH edges; entity id is the doctor id.
+         */
+        DOCTOR,
+        /**
+         * MedicalCase vertex with its HAS_CONDITION and REQUIRES_SPECIALTY edges; entity id is the case id.
+         */
+        MEDICAL_CASE,
+        /**
+         * TREATED and TREATS_CONDITION edges of one doctor; entity id is the doctor id.
+         */
+        DOCTOR_TREATMENTS
+    }
+
+    /**
+     * One pending outbox row.
+     */
+    record GraphOutboxEntry(long id, EntityType entityType, String entityId, int attempts, Instant createdAt) {
+    }
+
+    /**
+     * Pending row count and creation time of the oldest pending row (null when empty).
+     */
+    record OutboxBacklog(long pending, Instant oldestCreatedAt) {
+    }
+
+    /**
+     * Finds the oldest pending entries in insertion order.
+     */
+    List<GraphOutboxEntry> findPending(int limit);
+
+    /**
+     * Deletes entries that were applied or given up on.
+     */
+    void deleteByIds(List<Long> ids);
+
+    /**
+     * Records a failed apply attempt for the given entries.
+     */
+    void incrementAttempts(List<Long> ids);
+
+    /**
+     * Returns the ids of all committed entries. A full build started after this read reflects their
+     * changes, so it deletes exactly these ids; entries committed later stay pending.
+     */
+    List<Long> findIds();
+
+    /**
+     * Returns the current backlog for lag metrics.
+     */
+    OutboxBacklog findBacklog();
+}
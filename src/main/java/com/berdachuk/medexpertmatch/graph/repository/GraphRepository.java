@@ -1,7 +1,10 @@
 package com.berdachuk.medexpertmatch.graph.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for graph operations.
@@ -18,6 +21,17 @@ public interface GraphRepository {
      */
     List<Map<String, Object>> executeCypher(String cypherQuery, Map<String, Object> parameters);
 
+    /**
+     * Executes a Cypher query like {@link #executeCypher}, but propagates execution failures instead of
+     * returning an empty result, so callers that must not lose writes can retry or roll back.
+     *
+     * @param cypherQuery The Cypher query to execute
+     * @param parameters  Map of parameter names to values for the query
+     * @return List of result rows, where each row is a map of column names to values
+     * @throws org.springframework.dao.DataAccessException if the query execution fails
+     */
+    List<Map<String, Object>> executeCypherOrThrow(String cypherQuery, Map<String, Object> parameters);
+
     /**
      * Executes a Cypher query and extracts a specific field from the results.
      *
@@ -36,6 +50,13 @@ public interface GraphRepository {
      */
     boolean graphExists();
 
+    /**
+     * Lists the graph's vertex and edge labels from the {@code ag_label} catalog, including labels without rows.
+     *
+     * @return Labels ordered vertices first, or empty if the graph doesn't exist or Apache AGE is unavailable
+     */
+    Optional<List<GraphLabel>> findGraphLabels();
+
     /**
      * Creates the Apache AGE graph if it doesn't exist.
      * This method is idempotent - it will not fail if the graph already exists.
@@ -88,4 +109,119 @@ public interface GraphRepository {
      * @return List of vertex results
      */
     List<Map<String, Object>> getVertices(int limit, String vertexType);
+
+    /**
+     * Counts rows of every vertex and edge label in one SQL statement over the {@code ag_label} catalog.
+     *
+     * @param exact true for exact per-label counts; false for planner row estimates, falling back to an
+     *              exact count for label tables that were never analyzed
+     * @return Non-empty labels ordered by kind and name; empty list if the graph doesn't exist
+     */
+    List<LabelCount> countRowsByLabel(boolean exact);
+
+    /**
+     * Gets one keyset page of vertices ordered by graph id, read straight from the AGE label tables.
+     *
+     * @param afterGraphId Exclusive lower bound on the graph id (0 for the first page)
+     * @param offset       Vertices to skip after the bound (0 when paging by cursor)
+     * @param limit        Maximum number of vertices to return
+     * @param vertexType   Optional vertex label filter (null for all labels)
+     * @return Vertices in graph id order; empty list if the graph or the label doesn't exist
+     */
+    List<VertexRow> findVertexPage(long afterGraphId, int offset, int limit, String vertexType);
+
+    /**
+     * Streams every vertex, or every vertex of one label plus the other endpoints of its edges, in graph id order
+     * without materializing the result. Must run inside a transaction so the JDBC driver fetches rows with a cursor.
+     *
+     * @param vertexType Optional vertex label filter (null for all labels)
+     * @param consumer   Receives each vertex as its row is read
+     */
+    void streamVertices(String vertexType, Consumer<VertexRow> consumer);
+
+    /**
+     * Streams edges ordered by source and target graph id, with the endpoints' business keys.
+     * Must run inside a transaction so the JDBC driver fetches rows with a cursor.
+     *
+     * @param vertexType Optional vertex label; only edges with at least one endpoint of that label are streamed
+     * @param consumer   Receives each edge as its row is read
+     */
+    void streamEdges(String vertexType, Consumer<KeyedEdgeRow> consumer);
+
+    /**
+     * Gets vertices by graph id.
+     *
+     * @param graphIds Vertex graph ids
+     * @return Vertices in graph id order
+     */
+    List<VertexRow> findVerticesByGraphIds(Collection<Long> graphIds);
+
+    /**
+     * Gets edges with at least one endpoint in the given vertex set.
+     *
+     * @param graphIds Vertex graph ids
+     * @param limit    Maximum number of edges to return
+     * @return Edges in graph id order
+     */
+    List<EdgeRow> findEdgesTouching(Collection<Long> graphIds, int limit);
+
+    /**
+     * Groups every vertex into a coarse cluster (specialty, ICD-10 chapter or facility type) and
+     * aggregates edges between clusters, in one SQL statement over the label tables.
+     *
+     * @return Cluster sizes and inter-cluster edge counts; empty summary if the graph doesn't exist
+     */
+    ClusterSummary findClusterSummary();
+
+    /**
+     * Label registered for the graph in the {@code ag_label} catalog.
+     */
+    record GraphLabel(String name, boolean edge) {
+    }
+
+    /**
+     * Row count of one graph label.
+     */
+    record LabelCount(String label, boolean edge, long count) {
+    }
+
+    /**
+     * Vertex projected to the properties used by graph visualization.
+     *
+     * @param key Business key: the {@code id} property, else {@code code}, else the graph id
+     */
+    record VertexRow(long graphId, String label, String key, String name, String chiefComplaint,
+                     String code, String description) {
+    }
+
+    /**
+     * Edge between two vertex graph ids.
+     */
+    record EdgeRow(long graphId, String label, long startId, long endId) {
+    }
+
+    /**
+     * Edge with the business keys of its endpoints.
+     */
+    record KeyedEdgeRow(long graphId, String label, long startId, long endId, String sourceKey, String targetKey) {
+    }
+
+    /**
+     * Vertices of one label sharing a cluster key.
+     */
+    record VertexCluster(String label, String key, long size) {
+    }
+
+    /**
+     * Edges of one label between two clusters.
+     */
+    record ClusterEdge(String sourceLabel, String sourceKey, String targetLabel, String targetKey,
+                       String edgeLabel, long count) {
+    }
+
+    /**
+     * Clusters ordered by size and the edges between them.
+     */
+    record ClusterSummary(List<VertexCluster> clusters, List<ClusterEdge> edges) {
+    }
 }
@@ -0,0 +1,83 @@
+package com.berdachuk.medexpertmatch.graph.repository.impl;
+
+import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
+import com.berdachuk.medexpertmatch.graph.repository.GraphBulkLoadRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bulk-load repository writing directly into Apache AGE label tables.
+ */
+@Repository
+public class GraphBulkLoadRepositoryImpl implements GraphBulkLoadRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @InjectSql("/sql/graph/createStagingGraph.sql")
+    private String createStagingGraphSql;
+
+    @InjectSql("/sql/graph/loadStagingVertices.sql")
+    private String loadStagingVerticesSql;
+
+    @InjectSql("/sql/graph/loadStagingEdges.sql")
+    private String loadStagingEdgesSql;
+
+    @InjectSql("/sql/graph/createStagingIndexes.sql")
+    private String createStagingIndexesSql;
+
+    @InjectSql("/sql/graph/countStagingLabels.sql")
+    private String countStagingLabelsSql;
+
+    @InjectSql("/sql/graph/swapStagingGraph.sql")
+    private String swapStagingGraphSql;
+
+    @InjectSql("/sql/graph/dropPreviousGraph.sql")
+    private String dropPreviousGraphSql;
+
+    public GraphBulkLoadRepositoryImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = namedJdbcTemplate.getJdbcTemplate();
+    }
+
+    @Override
+    public void createStagingGraph() {
+        jdbcTemplate.execute(createStagingGraphSql);
+    }
+
+    @Override
+    public void loadStagingVertices() {
+        jdbcTemplate.execute(loadStagingVerticesSql);
+    }
+
+    @Override
+    public void loadStagingEdges() {
+        jdbcTemplate.execute(loadStagingEdgesSql);
+    }
+
+    @Override
+    public void createStagingIndexes() {
+        jdbcTemplate.execute(createStagingIndexesSql);
+    }
+
+    @Override
+    public Map<String, Long> countStagingLabels() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(countStagingLabelsSql, rs -> {
+            counts.put(rs.getString("label"), rs.getLong("row_count"));
+        });
+        return counts;
+    }
+
+    @Override
+    public void swapStagingGraph() {
+        jdbcTemplate.execute(swapStagingGraphSql);
+    }
+
+    @Override
+    public void dropPreviousGraph() {
+        jdbcTemplate.execute(dropPreviousGraphSql);
+    }
+}
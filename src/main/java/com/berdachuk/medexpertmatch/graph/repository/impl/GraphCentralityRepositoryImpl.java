@@ -0,0 +1,139 @@
+package com.berdachuk.medexpertmatch.graph.repository.impl;
+
+import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC repository for the doctor centrality tables.
+ */
+@Repository
+public class GraphCentralityRepositoryImpl implements GraphCentralityRepository {
+
+    private static final RowMapper<DoctorCentrality> DOCTOR_MAPPER = (rs, rowNum) -> new DoctorCentrality(
+            rs.getString("doctor_id"),
+            rs.getDouble("weighted_degree"),
+            rs.getDouble("pagerank"),
+            rs.getInt("community_id"),
+            toInstant(rs.getTimestamp("computed_at")));
+
+    private static final RowMapper<ConditionCentrality> CONDITION_MAPPER = (rs, rowNum) -> new ConditionCentrality(
+            rs.getString("icd10_code"),
+            rs.getString("doctor_id"),
+            rs.getInt("case_count"),
+            rs.getDouble("score"));
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @InjectSql("/sql/graph/centralityDeleteDoctors.sql")
+    private String deleteDoctorsSql;
+
+    @InjectSql("/sql/graph/centralityDeleteConditions.sql")
+    private String deleteConditionsSql;
+
+    @InjectSql("/sql/graph/centralityInsertDoctor.sql")
+    private String insertDoctorSql;
+
+    @InjectSql("/sql/graph/centralityInsertCondition.sql")
+    private String insertConditionSql;
+
+    @InjectSql("/sql/graph/centralityFindTopByCondition.sql")
+    private String findTopByConditionSql;
+
+    @InjectSql("/sql/graph/centralityFindByDoctorId.sql")
+    private String findByDoctorIdSql;
+
+    @InjectSql("/sql/graph/centralityFindTopByCommunity.sql")
+    private String findTopByCommunitySql;
+
+    @InjectSql("/sql/graph/centralityFindConditionScores.sql")
+    private String findConditionScoresSql;
+
+    public GraphCentralityRepositoryImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void replaceAll(List<DoctorCentrality> doctors, List<ConditionCentrality> conditions) {
+        namedJdbcTemplate.getJdbcTemplate().update(deleteConditionsSql);
+        namedJdbcTemplate.getJdbcTemplate().update(deleteDoctorsSql);
+
+        MapSqlParameterSource[] doctorParams = doctors.stream()
+                .map(doctor -> new MapSqlParameterSource()
+                        .addValue("doctorId", doctor.doctorId())
+                        .addValue("weightedDegree", doctor.weightedDegree())
+                        .addValue("pagerank", doctor.pagerank())
+                        .addValue("communityId", doctor.communityId()))
+                .toArray(MapSqlParameterSource[]::new);
+        if (doctorParams.length > 0) {
+            namedJdbcTemplate.batchUpdate(insertDoctorSql, doctorParams);
+        }
+
+        MapSqlParameterSource[] conditionParams = conditions.stream()
+                .map(condition -> new MapSqlParameterSource()
+                        .addValue("icd10Code", condition.icd10Code())
+                        .addValue("doctorId", condition.doctorId())
+                        .addValue("caseCount", condition.caseCount())
+                        .addValue("score", condition.score()))
+                .toArray(MapSqlParameterSource[]::new);
+        if (conditionParams.length > 0) {
+            namedJdbcTemplate.batchUpdate(insertConditionSql, conditionParams);
+        }
+    }
+
+    @Override
+    public List<ConditionCentrality> findTopByCondition(String icd10Code, int limit) {
+        if (icd10Code == null || icd10Code.isBlank()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(findTopByConditionSql,
+                Map.of("icd10Code", icd10Code.trim(), "limit", limit), CONDITION_MAPPER);
+    }
+
+    @Override
+    public Optional<DoctorCentrality> findByDoctorId(String doctorId) {
+        if (doctorId == null || doctorId.isBlank()) {
+            return Optional.empty();
+        }
+        List<DoctorCentrality> results = namedJdbcTemplate.query(findByDoctorIdSql,
+                Map.of("doctorId", doctorId.trim()), DOCTOR_MAPPER);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    @Override
+    public List<DoctorCentrality> findTopByCommunity(int communityId, int limit) {
+        return namedJdbcTemplate.query(findTopByCommunitySql,
+                Map.of("communityId", communityId, "limit", limit), DOCTOR_MAPPER);
+    }
+
+    @Override
+    public Map<String, Double> findConditionScores(List<String> doctorIds, List<String> icd10Codes) {
+        if (doctorIds == null || doctorIds.isEmpty() || icd10Codes == null || icd10Codes.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Object> params = Map.of(
+                "doctorIds", doctorIds.toArray(new String[0]),
+                "icd10Codes", icd10Codes.toArray(new String[0]));
+        Map<String, Double> scores = new HashMap<>();
+        namedJdbcTemplate.query(findConditionScoresSql, params,
+                (RowCallbackHandler) rs -> scores.put(rs.getString("doctor_id"), rs.getDouble("score")));
+        return scores;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.berdachuk.medexpertmatch.graph.repository.impl;
+
+import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC repository for the graph outbox table.
+ */
+@Repository
+public class GraphOutboxRepositoryImpl implements GraphOutboxRepository {
+
+    private static final RowMapper<GraphOutboxEntry> ENTRY_MAPPER = (rs, rowNum) -> new GraphOutboxEntry(
+            rs.getLong("id"),
+            EntityType.valueOf(rs.getString("entity_type")),
+            rs.getString("entity_id"),
+            rs.getInt("attempts"),
+            toInstant(rs.getTimestamp("created_at")));
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @InjectSql("/sql/graph/outboxFindPending.sql")
+    private String findPendingSql;
+
+    @InjectSql("/sql/graph/outboxDeleteByIds.sql")
+    private String deleteByIdsSql;
+
+    @InjectSql("/sql/graph/outboxIncrementAttempts.sql")
+    private String incrementAttemptsSql;
+
+    @InjectSql("/sql/graph/outboxFindIds.sql")
+    private String findIdsSql;
+
+    @InjectSql("/sql/graph/outboxFindBacklog.sql")
+    private String findBacklogSql;
+
+    public GraphOutboxRepositoryImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @Override
+    public List<GraphOutboxEntry> findPending(int limit) {
+        return namedJdbcTemplate.query(findPendingSql, Map.of("limit", limit), ENTRY_MAPPER);
+    }
+
+    @Override
+    public void deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.update(deleteByIdsSql, Map.of("ids", ids.toArray(new Long[0])));
+    }
+
+    @Override
+    public void incrementAttempts(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.update(incrementAttemptsSql, Map.of("ids", ids.toArray(new Long[0])));
+    }
+
+    @Override
+    public List<Long> findIds() {
+        return namedJdbcTemplate.queryForList(findIdsSql, Map.of(), Long.class);
+    }
+
+    @Override
+    public OutboxBacklog findBacklog() {
+        return namedJdbcTemplate.queryForObject(findBacklogSql, Map.of(), (rs, rowNum) -> new OutboxBacklog(
+                rs.getLong("pending"),
+                toInstant(rs.getTimestamp("oldest_created_at"))));
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
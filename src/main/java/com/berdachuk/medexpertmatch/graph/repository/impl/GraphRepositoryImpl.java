@@ -1,10 +1,15 @@
 package com.berdachuk.medexpertmatch.graph.repository.impl;
 
+import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
 import com.berdachuk.medexpertmatch.graph.repository.GraphRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -12,25 +17,77 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 /**
  * Repository for Apache AGE graph operations.
  * Handles graph creation, vertex/edge management, and Cypher query execution.
+ * <p>
+ * Read-only Cypher runs as a prepared statement: parameters are bound as one agtype map argument of
+ * {@code ag_catalog.cypher(graph, query, params)} and the SQL wrapper is compiled once per query template
+ * and kept in a bounded cache, so repeated scoring queries share one SQL string and server-side plan.
+ * Writes keep embedding literal parameter values, which Apache AGE handles in every MERGE/SET position.
  */
 @Slf4j
 @Repository
 public class GraphRepositoryImpl implements GraphRepository {
     private static final String GRAPH_NAME = "medexpertmatch_graph";
+    /**
+     * Low bits of an AGE graph id holding the entry id; the label id sits above them.
+     */
+    private static final int GRAPH_ID_ENTRY_BITS = 48;
+    private static final Pattern WRITE_CLAUSE = Pattern.compile(
+            "\\b(CREATE|MERGE|SET|DELETE|REMOVE)\\b", Pattern.CASE_INSENSITIVE);
     private final NamedParameterJdbcTemplate namedJdbcTemplate;
     private final JdbcTemplate jdbcTemplate;
+    private final boolean preparedEnabled;
+    private final Cache<String, PreparedCypher> preparedByTemplate;
+
+    @InjectSql("/sql/graph/countRowsByLabel.sql")
+    private String countRowsByLabelSql;
+
+    @InjectSql("/sql/graph/findVertexLabelId.sql")
+    private String findVertexLabelIdSql;
+
+    @InjectSql("/sql/graph/findVertexPage.sql")
+    private String findVertexPageSql;
+
+    @InjectSql("/sql/graph/findVerticesByGraphIds.sql")
+    private String findVerticesByGraphIdsSql;
+
+    @InjectSql("/sql/graph/findEdgesTouching.sql")
+    private String findEdgesTouchingSql;
+
+    @InjectSql("/sql/graph/findClusterSummary.sql")
+    private String findClusterSummarySql;
+
+    @InjectSql("/sql/graph/streamEdges.sql")
+    private String streamEdgesSql;
 
-    public GraphRepositoryImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
+    @InjectSql("/sql/graph/streamVerticesWithNeighbours.sql")
+    private String streamVerticesWithNeighboursSql;
+
+    @InjectSql("/sql/graph/findGraphLabels.sql")
+    private String findGraphLabelsSql;
+
+    public GraphRepositoryImpl(
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            @Value("${medexpertmatch.graph.cypher.prepared.enabled:true}") boolean preparedEnabled,
+            @Value("${medexpertmatch.graph.cypher.prepared.cache-size:512}") int preparedCacheSize) {
         this.namedJdbcTemplate = namedJdbcTemplate;
         this.jdbcTemplate = namedJdbcTemplate.getJdbcTemplate();
+        this.preparedEnabled = preparedEnabled;
+        this.preparedByTemplate = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, preparedCacheSize))
+                .build();
     }
 
     /**
@@ -47,6 +104,25 @@ public class GraphRepositoryImpl implements GraphRepository {
         }
     }
 
+    /**
+     * Loads AGE and puts ag_catalog on the search_path of the connection about to run Cypher.
+     */
+    private void prepareAgeSession(Connection connection) {
+        // Load AGE extension on this connection before executing Cypher query
+        loadAgeExtension(connection);
+
+        // Set search_path to include ag_catalog FIRST (before any other operations)
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("SET search_path = ag_catalog, public, \"$user\", medexpertmatch");
+            stmt.execute("LOAD 'age'");
+        } catch (Exception e) {
+            log.debug("Could not set search_path or load AGE: {}", e.getMessage());
+        }
+
+        // Load AGE extension again to ensure it's available
+        loadAgeExtension(connection);
+    }
+
     /**
      * Validates input parameters for Cypher query execution.
      *
@@ -197,10 +273,11 @@ public class GraphRepositoryImpl implements GraphRepository {
     /**
      * Executes the Cypher query and processes the results.
      *
-     * @param sql SQL statement to execute
+     * @param sql         SQL statement to execute
+     * @param failOnError Rethrows execution failures instead of logging them and returning no rows
      * @return List of processed result maps
      */
-    private List<Map<String, Object>> executeAndProcessResults(String sql) {
+    private List<Map<String, Object>> executeAndProcessResults(String sql, boolean failOnError) {
         // Check if this is a CREATE/MERGE operation
         boolean isCreateOrMerge = sql.contains("CREATE") || sql.contains("MERGE");
 
@@ -208,19 +285,7 @@ public class GraphRepositoryImpl implements GraphRepository {
             // For CREATE/MERGE operations, use jdbcTemplate.execute() with search_path
             try {
                 return jdbcTemplate.execute((ConnectionCallback<List<Map<String, Object>>>) connection -> {
-                    // Load AGE extension on this connection before executing Cypher query
-                    loadAgeExtension(connection);
-
-                    // Set search_path to include ag_catalog FIRST (before any other operations)
-                    try (Statement stmt = connection.createStatement()) {
-                        stmt.execute("SET search_path = ag_catalog, public, \"$user\", medexpertmatch");
-                        stmt.execute("LOAD 'age'");
-                    } catch (Exception e) {
-                        log.debug("Could not set search_path or load AGE: {}", e.getMessage());
-                    }
-
-                    // Load AGE extension again to ensure it's available
-                    loadAgeExtension(connection);
+                    prepareAgeSession(connection);
 
                     // Execute the query
                     try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -229,7 +294,10 @@ public class GraphRepositoryImpl implements GraphRepository {
                         return new ArrayList<>();
                     }
                 });
-            } catch (Exception e) {
+            } catch (RuntimeException e) {
+                if (failOnError) {
+                    throw e;
+                }
                 log.error("Error executing CREATE/MERGE operation: {}", e.getMessage(), e);
                 return new ArrayList<>();
             }
@@ -237,19 +305,7 @@ public class GraphRepositoryImpl implements GraphRepository {
             // For SELECT operations, use executeQuery() to get results
             try {
                 return jdbcTemplate.execute((ConnectionCallback<List<Map<String, Object>>>) connection -> {
-                    // Load AGE extension on this connection before executing Cypher query
-                    loadAgeExtension(connection);
-
-                    // Set search_path to include ag_catalog FIRST (before any other operations)
-                    try (Statement stmt = connection.createStatement()) {
-                        stmt.execute("SET search_path = ag_catalog, public, \"$user\", medexpertmatch");
-                        stmt.execute("LOAD 'age'");
-                    } catch (Exception e) {
-                        log.debug("Could not set search_path or load AGE: {}", e.getMessage());
-                    }
-
-                    // Load AGE extension again to ensure it's available
-                    loadAgeExtension(connection);
+                    prepareAgeSession(connection);
 
                     // Execute the query
                     try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -258,7 +314,10 @@ public class GraphRepositoryImpl implements GraphRepository {
                         }
                     }
                 });
-            } catch (Exception e) {
+            } catch (RuntimeException e) {
+                if (failOnError) {
+                    throw e;
+                }
                 log.error("Error executing Cypher query: {}", e.getMessage(), e);
                 return new ArrayList<>();
             }
@@ -521,12 +580,26 @@ public class GraphRepositoryImpl implements GraphRepository {
      * @return List of result maps
      */
     public List<Map<String, Object>> executeCypher(String cypherQuery, Map<String, Object> parameters) {
+        return executeCypher(cypherQuery, parameters, false);
+    }
+
+    @Override
+    public List<Map<String, Object>> executeCypherOrThrow(String cypherQuery, Map<String, Object> parameters) {
+        return executeCypher(cypherQuery, parameters, true);
+    }
+
+    private List<Map<String, Object>> executeCypher(String cypherQuery, Map<String, Object> parameters,
+                                                    boolean failOnError) {
         // Validate input parameters
         parameters = validateAndPrepareParameters(cypherQuery, parameters);
 
         // Ensure graph exists
         ensureGraphExists();
 
+        if (preparedEnabled && !WRITE_CLAUSE.matcher(cypherQuery).find()) {
+            return executePrepared(cypherQuery, parameters, failOnError);
+        }
+
         // Prepare Cypher query
         String escapedCypherQuery = prepareCypherQuery(cypherQuery, parameters);
         String sql = buildCypherSql(escapedCypherQuery);
@@ -537,7 +610,64 @@ public class GraphRepositoryImpl implements GraphRepository {
         log.debug("DEBUG: Full SQL: {}", sql);
 
         // Execute and process results
-        return executeAndProcessResults(sql);
+        return executeAndProcessResults(sql, failOnError);
+    }
+
+    /**
+     * Executes a read-only Cypher template with its parameters bound as an agtype map.
+     *
+     * @param cypherQuery Cypher query with $paramName placeholders, used verbatim as the cache key
+     * @param parameters  Parameters bound through the third argument of ag_catalog.cypher
+     * @param failOnError Rethrows execution failures instead of logging them and returning no rows
+     * @return List of result maps
+     */
+    private List<Map<String, Object>> executePrepared(String cypherQuery, Map<String, Object> parameters,
+                                                      boolean failOnError) {
+        PreparedCypher prepared = preparedByTemplate.get(cypherQuery, this::compilePreparedCypher);
+        String parametersJson = prepared.bindsParameters() ? parametersToJson(parameters) : null;
+        log.debug("Executing prepared Cypher query: {}", prepared.sql());
+        try {
+            return jdbcTemplate.execute((ConnectionCallback<List<Map<String, Object>>>) connection -> {
+                prepareAgeSession(connection);
+                try (PreparedStatement pstmt = connection.prepareStatement(prepared.sql())) {
+                    if (prepared.bindsParameters()) {
+                        // Types.OTHER sends the value untyped, so the ::agtype cast types the parameter itself
+                        pstmt.setObject(1, parametersJson, Types.OTHER);
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return processResultSet(rs);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            if (failOnError) {
+                throw e;
+            }
+            log.error("Error executing prepared Cypher query: {}", e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Compiles the SQL wrapper for a read-only Cypher template once per template.
+     * The template is not escaped: it carries no values, only $name placeholders resolved by AGE.
+     */
+    private PreparedCypher compilePreparedCypher(String cypherQuery) {
+        if (cypherQuery.contains("$query$")) {
+            throw new IllegalArgumentException("Cypher query cannot contain the $query$ delimiter");
+        }
+        String sql = buildCypherSql(cypherQuery);
+        if (cypherQuery.indexOf('$') < 0) {
+            return new PreparedCypher(sql, false);
+        }
+        // AGE requires the params argument to be a statement parameter, not a literal
+        return new PreparedCypher(sql.replace("$query$) AS t(", "$query$, ?::ag_catalog.agtype) AS t("), true);
+    }
+
+    /**
+     * Cached SQL wrapper for one Cypher template.
+     */
+    private record PreparedCypher(String sql, boolean bindsParameters) {
     }
 
     /**
@@ -607,6 +737,7 @@ public class GraphRepositoryImpl implements GraphRepository {
 
     /**
      * Formats a value for JSON representation.
+     * Collections become JSON arrays so prepared queries can use IN / UNWIND on list parameters.
      *
      * @param value The value to format
      * @return JSON-formatted string representation
@@ -614,23 +745,47 @@ public class GraphRepositoryImpl implements GraphRepository {
     private String formatJsonValue(Object value) {
         if (value == null) {
             return "null";
-        } else if (value instanceof String) {
-            // Escape quotes and backslashes for JSON
-            String strValue = value.toString()
-                    .replace("\\", "\\\\")
-                    .replace("\"", "\\\"");
-            return "\"" + strValue + "\"";
         } else if (value instanceof Number || value instanceof Boolean) {
             return value.toString();
+        } else if (value instanceof Collection<?> collection) {
+            StringBuilder array = new StringBuilder("[");
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    array.append(",");
+                }
+                first = false;
+                array.append(formatJsonValue(element));
+            }
+            return array.append("]").toString();
         } else {
-            // For other types, convert to string and escape
-            String strValue = value.toString()
-                    .replace("\\", "\\\\")
-                    .replace("\"", "\\\"");
-            return "\"" + strValue + "\"";
+            // Strings and other types are JSON strings
+            return "\"" + escapeJsonString(value.toString()) + "\"";
         }
     }
 
+    private String escapeJsonString(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
     /**
      * Formats a value for embedding in a Cypher query string.
      * Properly escapes and formats based on the value type.
@@ -658,6 +813,18 @@ public class GraphRepositoryImpl implements GraphRepository {
             return value.toString();
         } else if (value instanceof Boolean) {
             return value.toString();
+        } else if (value instanceof java.util.Collection<?> collection) {
+            // Lists are embedded as Cypher list literals so queries can use IN / UNWIND
+            StringBuilder list = new StringBuilder("[");
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    list.append(", ");
+                }
+                first = false;
+                list.append(formatCypherValue(element));
+            }
+            return list.append("]").toString();
         } else {
             // For other types, convert to string and escape
             String escaped = value.toString()
@@ -737,6 +904,29 @@ public class GraphRepositoryImpl implements GraphRepository {
         }
     }
 
+    /**
+     * Lists graph labels with one catalog query; the graph row is left-joined so a graph without labels
+     * yields one row with a null label. Returns empty if Apache AGE is not available.
+     */
+    @Override
+    public Optional<List<GraphLabel>> findGraphLabels() {
+        try {
+            List<GraphLabel> labels = new ArrayList<>();
+            boolean[] found = {false};
+            namedJdbcTemplate.query(findGraphLabelsSql, Map.of("graphName", GRAPH_NAME), rs -> {
+                found[0] = true;
+                String label = rs.getString("label");
+                if (label != null) {
+                    labels.add(new GraphLabel(label, "e".equals(rs.getString("kind"))));
+                }
+            });
+            return found[0] ? Optional.of(List.copyOf(labels)) : Optional.empty();
+        } catch (DataAccessException e) {
+            log.debug("Graph label lookup failed (AGE may not be available): {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     /**
      * Creates the Apache AGE graph if it doesn't exist.
      * This method is idempotent - it will not fail if the graph already exists.
@@ -922,6 +1112,154 @@ public class GraphRepositoryImpl implements GraphRepository {
         return executeCypher(queryBuilder.toString(), new HashMap<>());
     }
 
+    @Override
+    public List<LabelCount> countRowsByLabel(boolean exact) {
+        return namedJdbcTemplate.query(countRowsByLabelSql,
+                Map.of("graphName", GRAPH_NAME, "exact", exact),
+                (rs, rowNum) -> new LabelCount(
+                        rs.getString("label"),
+                        "e".equals(rs.getString("kind")),
+                        rs.getLong("row_count")));
+    }
+
+    @Override
+    public List<VertexRow> findVertexPage(long afterGraphId, int offset, int limit, String vertexType) {
+        if (!graphExists()) {
+            return new ArrayList<>();
+        }
+        long[] range = graphIdRange(vertexType);
+        if (range == null) {
+            return new ArrayList<>();
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("afterId", Math.max(range[0], afterGraphId));
+        params.put("beforeId", range[1]);
+        params.put("offset", Math.max(0, offset));
+        params.put("limit", (long) Math.max(0, limit));
+        return namedJdbcTemplate.query(findVertexPageSql, params, this::mapVertexRow);
+    }
+
+    @Override
+    public void streamVertices(String vertexType, Consumer<VertexRow> consumer) {
+        if (!graphExists()) {
+            return;
+        }
+        long[] range = graphIdRange(vertexType);
+        if (range == null) {
+            return;
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("afterId", range[0]);
+        params.put("beforeId", range[1]);
+        params.put("offset", 0);
+        params.put("limit", Long.MAX_VALUE);
+        // Without a label filter every edge endpoint is already in the range
+        boolean filtered = vertexType != null && !vertexType.isEmpty();
+        namedJdbcTemplate.query(filtered ? streamVerticesWithNeighboursSql : findVertexPageSql, params,
+                (RowCallbackHandler) rs -> consumer.accept(mapVertexRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public void streamEdges(String vertexType, Consumer<KeyedEdgeRow> consumer) {
+        if (!graphExists()) {
+            return;
+        }
+        long[] range = graphIdRange(vertexType);
+        if (range == null) {
+            return;
+        }
+        namedJdbcTemplate.query(streamEdgesSql, Map.of("afterId", range[0], "beforeId", range[1]),
+                (RowCallbackHandler) rs -> consumer.accept(new KeyedEdgeRow(
+                        rs.getLong("graph_id"),
+                        rs.getString("label"),
+                        rs.getLong("start_id"),
+                        rs.getLong("end_id"),
+                        rs.getString("source_key"),
+                        rs.getString("target_key"))));
+    }
+
+    /**
+     * Exclusive graph id bounds of one vertex label, or of all vertices when no label is given.
+     * Graph ids of one label share the label id in their high 16 bits.
+     *
+     * @return {lower, upper}, or null if the label doesn't exist
+     */
+    private long[] graphIdRange(String vertexType) {
+        if (vertexType == null || vertexType.isEmpty()) {
+            return new long[]{0L, Long.MAX_VALUE};
+        }
+        List<Integer> labelIds = namedJdbcTemplate.queryForList(findVertexLabelIdSql,
+                Map.of("graphName", GRAPH_NAME, "label", vertexType), Integer.class);
+        if (labelIds.isEmpty()) {
+            return null;
+        }
+        long labelId = labelIds.getFirst();
+        long upper = labelId + 1 < (1L << (Long.SIZE - 1 - GRAPH_ID_ENTRY_BITS))
+                ? (labelId + 1) << GRAPH_ID_ENTRY_BITS
+                : Long.MAX_VALUE;
+        return new long[]{(labelId << GRAPH_ID_ENTRY_BITS) - 1, upper};
+    }
+
+    @Override
+    public List<VertexRow> findVerticesByGraphIds(Collection<Long> graphIds) {
+        if (graphIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return namedJdbcTemplate.query(findVerticesByGraphIdsSql,
+                Map.of("graphIds", graphIds.toArray(new Long[0])), this::mapVertexRow);
+    }
+
+    @Override
+    public List<EdgeRow> findEdgesTouching(Collection<Long> graphIds, int limit) {
+        if (graphIds.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        return namedJdbcTemplate.query(findEdgesTouchingSql,
+                Map.of("graphIds", graphIds.toArray(new Long[0]), "limit", limit),
+                (rs, rowNum) -> new EdgeRow(
+                        rs.getLong("graph_id"),
+                        rs.getString("label"),
+                        rs.getLong("start_id"),
+                        rs.getLong("end_id")));
+    }
+
+    @Override
+    public ClusterSummary findClusterSummary() {
+        List<VertexCluster> clusters = new ArrayList<>();
+        List<ClusterEdge> edges = new ArrayList<>();
+        if (!graphExists()) {
+            return new ClusterSummary(clusters, edges);
+        }
+        namedJdbcTemplate.query(findClusterSummarySql, Map.of("graphName", GRAPH_NAME), rs -> {
+            if ("v".equals(rs.getString("kind"))) {
+                clusters.add(new VertexCluster(
+                        rs.getString("source_label"),
+                        rs.getString("source_key"),
+                        rs.getLong("row_count")));
+            } else {
+                edges.add(new ClusterEdge(
+                        rs.getString("source_label"),
+                        rs.getString("source_key"),
+                        rs.getString("target_label"),
+                        rs.getString("target_key"),
+                        rs.getString("edge_label"),
+                        rs.getLong("row_count")));
+            }
+        });
+        return new ClusterSummary(clusters, edges);
+    }
+
+    private VertexRow mapVertexRow(ResultSet rs, int rowNum) throws java.sql.SQLException {
+        return new VertexRow(
+                rs.getLong("graph_id"),
+                rs.getString("label"),
+                rs.getString("vertex_key"),
+                rs.getString("name"),
+                rs.getString("chief_complaint"),
+                rs.getString("code"),
+                rs.getString("description"));
+    }
+
     /**
      * Extracts string value from Apache AGE agtype result.
      */
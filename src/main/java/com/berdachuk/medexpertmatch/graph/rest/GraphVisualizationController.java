@@ -9,12 +9,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -63,6 +66,7 @@ public class GraphVisualizationController {
      *
      * @param limit        Maximum number of nodes to return (default: 1000)
      * @param offset       Offset for pagination (default: 0)
+     * @param after        Graph id cursor from the previous page's nextCursor (default: 0)
      * @param vertexType   Optional filter by vertex type (e.g., "Doctor", "MedicalCase")
      * @param clusterLevel Level of detail/clustering (default: 0)
      * @return Graph data in Cytoscape.js format
@@ -86,13 +90,15 @@ public class GraphVisualizationController {
             @RequestParam(defaultValue = "1000") int limit,
             @Parameter(description = "Offset for pagination", example = "0")
             @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Graph id cursor returned as nextCursor by the previous page", example = "0")
+            @RequestParam(defaultValue = "0") long after,
             @Parameter(description = "Filter by vertex type (e.g., Doctor, MedicalCase)", example = "Doctor")
             @RequestParam(required = false) String vertexType,
-            @Parameter(description = "Level of detail/clustering (0 = full detail)", example = "0")
+            @Parameter(description = "Level of detail/clustering (0 = full detail, 1+ = specialty/ICD-10 chapter clusters)", example = "0")
             @RequestParam(defaultValue = "0") int clusterLevel
     ) {
-        log.info("GET /api/v1/graph/data - limit: {}, offset: {}, vertexType: {}, clusterLevel: {}",
-                limit, offset, vertexType, clusterLevel);
+        log.info("GET /api/v1/graph/data - limit: {}, offset: {}, after: {}, vertexType: {}, clusterLevel: {}",
+                limit, offset, after, vertexType, clusterLevel);
 
         // Enforce reasonable limits
         if (limit > 10000) {
@@ -105,8 +111,51 @@ public class GraphVisualizationController {
         if (offset < 0) {
             offset = 0;
         }
+        if (after < 0) {
+            after = 0;
+        }
 
-        Map<String, Object> data = graphVisualizationService.getGraphData(limit, offset, vertexType, clusterLevel);
+        Map<String, Object> data = graphVisualizationService.getGraphData(limit, after, offset, vertexType, clusterLevel);
         return ResponseEntity.ok(data);
     }
+
+    /**
+     * Streams the whole graph, or one vertex type, for visualization clients loading large graphs.
+     *
+     * @param format     "ndjson" (default) or "binary"
+     * @param vertexType Optional filter by vertex type (e.g., "Doctor", "MedicalCase")
+     * @return Chunked response written while rows are read from the database
+     */
+    @Operation(
+            summary = "Export graph",
+            description = "Streams nodes then edges as NDJSON lines, or in a compact binary adjacency format "
+                    + "(int-indexed nodes, delta-encoded per-source edge lists)",
+            operationId = "exportGraph"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Graph export streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown export format")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportGraph(
+            @Parameter(description = "Export format: ndjson or binary", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Filter by vertex type (e.g., Doctor, MedicalCase)", example = "Doctor")
+            @RequestParam(required = false) String vertexType
+    ) {
+        log.info("GET /api/v1/graph/export - format: {}, vertexType: {}", format, vertexType);
+
+        GraphVisualizationService.ExportFormat exportFormat;
+        try {
+            exportFormat = GraphVisualizationService.ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        MediaType mediaType = exportFormat == GraphVisualizationService.ExportFormat.BINARY
+                ? MediaType.APPLICATION_OCTET_STREAM
+                : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = out -> graphVisualizationService.exportGraph(exportFormat, vertexType, out);
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
 }
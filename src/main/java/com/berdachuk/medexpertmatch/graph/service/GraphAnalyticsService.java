@@ -0,0 +1,17 @@
+package com.berdachuk.medexpertmatch.graph.service;
+
+/**
+ * Service for graph analytics computed offline over a snapshot of the graph and persisted for indexed reads:
+ * doctor weighted degree, global PageRank, co-treatment communities and per-condition centrality.
+ * Runs on a schedule; top-expert tools and match ranking read the stored scores.
+ */
+public interface GraphAnalyticsService {
+
+    /**
+     * Recomputes and replaces all stored centrality scores from the current graph.
+     * Skipped while a full graph build is running, or when the graph does not exist.
+     *
+     * @return Number of doctors scored, or 0 when skipped
+     */
+    int computeCentrality();
+}
@@ -0,0 +1,18 @@
+package com.berdachuk.medexpertmatch.graph.service;
+
+/**
+ * Service for keeping the Apache AGE graph in sync with relational data between full builds.
+ * Database triggers record changed doctors, medical cases and clinical experiences in the graph outbox;
+ * this service applies them to the graph in micro-batches.
+ */
+public interface GraphMaintenanceService {
+
+    /**
+     * Applies one micro-batch of pending outbox entries to the graph.
+     * Each changed entity is re-synced from its current relational state, so entries are idempotent
+     * and duplicates in a batch are applied once. Skipped while a full graph build is running.
+     *
+     * @return Number of outbox entries applied
+     */
+    int applyPendingChanges();
+}
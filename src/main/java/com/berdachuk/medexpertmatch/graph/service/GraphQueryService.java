@@ -1,6 +1,7 @@
 package com.berdachuk.medexpertmatch.graph.service;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for specialized graph queries used in Semantic Graph Retrieval.
@@ -47,4 +48,53 @@ public interface GraphQueryService {
      * @return Similar cases score (0.0 to 1.0)
      */
     double calculateSimilarCasesScore(String doctorId, List<String> icd10Codes, String sessionId);
+
+    /**
+     * Calculates direct relationship scores for a set of doctors against one case.
+     *
+     * @param doctorIds Candidate doctor IDs
+     * @param caseId    Medical case ID
+     * @param sessionId Session ID for logging
+     * @return Map of doctor ID to direct relationship score (0.0 to 1.0); every requested doctor is present
+     */
+    Map<String, Double> calculateDirectRelationshipScores(List<String> doctorIds, String caseId, String sessionId);
+
+    /**
+     * Calculates condition expertise scores for a set of doctors.
+     *
+     * @param doctorIds  Candidate doctor IDs
+     * @param icd10Codes List of ICD-10 codes from the medical case
+     * @param sessionId  Session ID for logging
+     * @return Map of doctor ID to condition expertise score (0.0 to 1.0); every requested doctor is present
+     */
+    Map<String, Double> calculateConditionExpertiseScores(List<String> doctorIds, List<String> icd10Codes, String sessionId);
+
+    /**
+     * Calculates specialization match scores for a set of doctors.
+     *
+     * @param doctorIds     Candidate doctor IDs
+     * @param specialtyName Required specialty name
+     * @param sessionId     Session ID for logging
+     * @return Map of doctor ID to specialization match score (0.0 to 1.0); every requested doctor is present
+     */
+    Map<String, Double> calculateSpecializationMatchScores(List<String> doctorIds, String specialtyName, String sessionId);
+
+    /**
+     * Calculates similar cases scores for a set of doctors.
+     *
+     * @param doctorIds  Candidate doctor IDs
+     * @param icd10Codes List of ICD-10 codes from the medical case
+     * @param sessionId  Session ID for logging
+     * @return Map of doctor ID to similar cases score (0.0 to 1.0); every requested doctor is present
+     */
+    Map<String, Double> calculateSimilarCasesScores(List<String> doctorIds, List<String> icd10Codes, String sessionId);
+
+    /**
+     * Finds doctors connected to any of the given ICD-10 codes by TREATS_CONDITION, for candidate generation.
+     *
+     * @param icd10Codes ICD-10 codes from the medical case
+     * @param limit      Maximum number of doctors
+     * @return Doctor ID to number of shared codes, ordered from most to fewest shared codes
+     */
+    Map<String, Integer> findDoctorsSharingConditions(List<String> icd10Codes, int limit);
 }
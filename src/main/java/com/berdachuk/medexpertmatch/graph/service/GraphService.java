@@ -2,6 +2,7 @@ package com.berdachuk.medexpertmatch.graph.service;
 
 import com.berdachuk.medexpertmatch.core.exception.RetrievalException;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +20,17 @@ public interface GraphService {
      */
     List<Map<String, Object>> executeCypher(String cypherQuery, Map<String, Object> parameters);
 
+    /**
+     * Executes a Cypher query like {@link #executeCypher}, but propagates execution failures instead of
+     * returning an empty result. Used by graph writes that must retry or roll back on failure.
+     *
+     * @param cypherQuery The Cypher query to execute
+     * @param parameters  Map of parameter names to values for the query
+     * @return List of result rows, where each row is a map of column names to values
+     * @throws org.springframework.dao.DataAccessException if the query execution fails
+     */
+    List<Map<String, Object>> executeCypherOrThrow(String cypherQuery, Map<String, Object> parameters);
+
     /**
      * Executes a Cypher query and extracts a specific field from the results.
      *
@@ -37,6 +49,15 @@ public interface GraphService {
      */
     boolean graphExists();
 
+    /**
+     * Returns the cached graph metadata: existence, labels and build version.
+     * Served from memory without a database round trip; refreshed when the graph is created, built,
+     * cleared or incrementally updated, and on a fixed interval.
+     *
+     * @return Current graph metadata snapshot
+     */
+    GraphMetadata getGraphMetadata();
+
     /**
      * Creates the Apache AGE graph if it doesn't exist.
      * This method is idempotent - it will not fail if the graph already exists.
@@ -89,4 +110,16 @@ public interface GraphService {
      * @return List of vertex results
      */
     List<Map<String, Object>> getVertices(int limit, String vertexType);
+
+    /**
+     * Snapshot of the graph's catalog metadata.
+     *
+     * @param buildVersion Incremented whenever the graph is built, cleared or updated, or its labels change;
+     *                     caches derived from graph contents can key on it
+     * @param builtAt      Completion time of the last full build in this process, or null if none ran
+     * @param refreshedAt  Time the snapshot was read from the catalog
+     */
+    record GraphMetadata(boolean exists, List<String> vertexLabels, List<String> edgeLabels,
+                         long buildVersion, Instant builtAt, Instant refreshedAt) {
+    }
 }
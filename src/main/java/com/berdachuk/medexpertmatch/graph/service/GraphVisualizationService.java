@@ -1,5 +1,7 @@
 package com.berdachuk.medexpertmatch.graph.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 /**
@@ -24,5 +26,45 @@ public interface GraphVisualizationService {
      * @param clusterLevel Level of detail/clustering (0 = full detail, higher = more clustering)
      * @return Map with "nodes" and "edges" arrays in Cytoscape.js format
      */
-    Map<String, Object> getGraphData(int limit, int offset, String vertexType, int clusterLevel);
+    default Map<String, Object> getGraphData(int limit, int offset, String vertexType, int clusterLevel) {
+        return getGraphData(limit, 0L, offset, vertexType, clusterLevel);
+    }
+
+    /**
+     * Gets one keyset page of graph data formatted for Cytoscape.js visualization.
+     * Edges are limited to those touching the page's vertices.
+     *
+     * @param limit        Maximum number of vertices (or clusters) to return
+     * @param afterGraphId Graph id cursor from the previous page's "nextCursor" (0 for the first page)
+     * @param offset       Vertices to skip after the cursor
+     * @param vertexType   Optional filter by vertex type (e.g., "Doctor", "MedicalCase")
+     * @param clusterLevel 0 for full detail; above 0 returns precomputed clusters (doctors by specialty,
+     *                     cases and ICD-10 codes by chapter, facilities by type) with aggregated edges
+     * @return Map with "nodes" and "edges" arrays in Cytoscape.js format, and "nextCursor" when more vertices follow
+     */
+    Map<String, Object> getGraphData(int limit, long afterGraphId, int offset, String vertexType, int clusterLevel);
+
+    /**
+     * Streams the graph to the output as it is read from the database, without building it in memory.
+     *
+     * @param format     NDJSON lines (all nodes, then all edges) or the compact binary adjacency format
+     * @param vertexType Optional filter by vertex type; edges are kept when both endpoints have that type
+     * @param out        Destination stream; flushed but not closed
+     * @throws IOException if writing to the output fails
+     */
+    void exportGraph(ExportFormat format, String vertexType, OutputStream out) throws IOException;
+
+    /**
+     * Graph export encodings.
+     */
+    enum ExportFormat {
+        /**
+         * One JSON object per line: {@code {"type":"node",...}} for every node, then {@code {"type":"edge",...}}.
+         */
+        NDJSON,
+        /**
+         * Int-indexed nodes and delta-encoded per-source edge lists (see {@code GraphBinaryAdjacencyWriter}).
+         */
+        BINARY
+    }
 }
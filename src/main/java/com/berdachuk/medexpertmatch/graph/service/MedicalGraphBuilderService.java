@@ -13,12 +13,21 @@ public interface MedicalGraphBuilderService {
      */
     void buildGraph();
 
+    /**
+     * Rebuilds the graph from scratch.
+     * With bulk load enabled, vertex and edge rows are written straight into a staging graph's label tables,
+     * indexed, and swapped in by name in one transaction, so the current graph keeps serving queries until
+     * the swap. Otherwise clears the graph and runs {@link #buildGraph()}.
+     */
+    void rebuildGraph();
+
     /**
      * Creates a doctor vertex in the graph.
      *
      * @param doctorId The unique identifier of the doctor (external system ID)
      * @param name     The name of the doctor
      * @param email    The email address of the doctor
+     * @throws org.springframework.dao.DataAccessException if the vertex cannot be written
      */
     void createDoctorVertex(String doctorId, String name, String email);
 
@@ -28,6 +37,7 @@ public interface MedicalGraphBuilderService {
      * @param caseId         The unique identifier of the medical case
      * @param chiefComplaint The chief complaint of the case
      * @param urgencyLevel   The urgency level of the case
+     * @throws org.springframework.dao.DataAccessException if the vertex cannot be written
      */
     void createMedicalCaseVertex(String caseId, String chiefComplaint, String urgencyLevel);
 
@@ -36,6 +46,7 @@ public interface MedicalGraphBuilderService {
      *
      * @param code        The ICD-10 code string (e.g., "I21.9")
      * @param description The description of the ICD-10 code
+     * @throws org.springframework.dao.DataAccessException if the vertex cannot be written
      */
     void createIcd10CodeVertex(String code, String description);
 
@@ -44,6 +55,7 @@ public interface MedicalGraphBuilderService {
      *
      * @param specialtyId The unique identifier of the medical specialty
      * @param name        The name of the medical specialty
+     * @throws org.springframework.dao.DataAccessException if the vertex cannot be written
      */
     void createMedicalSpecialtyVertex(String specialtyId, String name);
 
@@ -53,6 +65,7 @@ public interface MedicalGraphBuilderService {
      * @param facilityId   The unique identifier of the facility (external system ID)
      * @param name         The name of the facility
      * @param facilityType The type of the facility
+     * @throws org.springframework.dao.DataAccessException if the vertex cannot be written
      */
     void createFacilityVertex(String facilityId, String name, String facilityType);
 
@@ -0,0 +1,38 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+/**
+ * Helpers for reading scalar agtype values returned by Apache AGE Cypher queries.
+ */
+final class AgtypeValues {
+
+    private AgtypeValues() {
+    }
+
+    /**
+     * Strips the JSON quotes Apache AGE puts around string-typed agtype values.
+     */
+    static String unquote(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String raw = value.toString();
+        if (raw.length() >= 2 && raw.startsWith("\"") && raw.endsWith("\"")) {
+            raw = raw.substring(1, raw.length() - 1);
+        }
+        return raw;
+    }
+
+    /**
+     * Parses an agtype integer count, treating missing or malformed values as zero.
+     */
+    static int parseCount(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory snapshot of the doctor-case bipartite graph with case conditions, used by the graph
+ * analytics job.
+ * <p>
+ * Doctors, cases and ICD-10 codes are mapped to dense int indexes in sorted key order, and every relationship is
+ * a compressed sparse row structure: an offsets array plus one sorted target segment per source. Doctor-case
+ * edges are stored in both directions with their weight (TREATED 1.0, CONSULTED_ON 0.5; the heavier relationship
+ * wins when a doctor has both with one case).
+ */
+final class CoTreatmentGraph {
+
+    static final double TREATED_WEIGHT = 1.0;
+    static final double CONSULTED_ON_WEIGHT = 0.5;
+
+    final String[] doctorIds;
+    final String[] caseIds;
+    final String[] codes;
+
+    final int[] doctorOffsets;
+    final int[] doctorCases;
+    final double[] doctorCaseWeights;
+
+    final int[] caseOffsets;
+    final int[] caseDoctors;
+    final double[] caseDoctorWeights;
+
+    final int[] codeOffsets;
+    final int[] codeCases;
+
+    private CoTreatmentGraph(Builder builder) {
+        doctorIds = sortedKeys(builder.treatments.keySet());
+        Set<String> allCases = new HashSet<>();
+        builder.treatments.values().forEach(cases -> allCases.addAll(cases.keySet()));
+        builder.conditionCases.values().forEach(allCases::addAll);
+        caseIds = sortedKeys(allCases);
+        codes = sortedKeys(builder.conditionCases.keySet());
+
+        // Doctor -> case rows, in sorted case order
+        doctorOffsets = new int[doctorIds.length + 1];
+        int edgeCount = builder.treatments.values().stream().mapToInt(Map::size).sum();
+        doctorCases = new int[edgeCount];
+        doctorCaseWeights = new double[edgeCount];
+        int[] caseDegree = new int[caseIds.length];
+        int position = 0;
+        for (int doctor = 0; doctor < doctorIds.length; doctor++) {
+            doctorOffsets[doctor] = position;
+            Map<String, Double> cases = builder.treatments.get(doctorIds[doctor]);
+            int start = position;
+            for (Map.Entry<String, Double> entry : cases.entrySet()) {
+                doctorCases[position] = Arrays.binarySearch(caseIds, entry.getKey());
+                position++;
+            }
+            Arrays.sort(doctorCases, start, position);
+            for (int i = start; i < position; i++) {
+                doctorCaseWeights[i] = cases.get(caseIds[doctorCases[i]]);
+                caseDegree[doctorCases[i]]++;
+            }
+        }
+        doctorOffsets[doctorIds.length] = position;
+
+        // Case -> doctor rows: the transpose; doctors are visited in order, so segments stay sorted
+        caseOffsets = offsets(caseDegree);
+        caseDoctors = new int[edgeCount];
+        caseDoctorWeights = new double[edgeCount];
+        int[] next = Arrays.copyOf(caseOffsets, caseIds.length);
+        for (int doctor = 0; doctor < doctorIds.length; doctor++) {
+            for (int i = doctorOffsets[doctor]; i < doctorOffsets[doctor + 1]; i++) {
+                int slot = next[doctorCases[i]]++;
+                caseDoctors[slot] = doctor;
+                caseDoctorWeights[slot] = doctorCaseWeights[i];
+            }
+        }
+
+        // Code -> case rows
+        int[] codeDegree = new int[codes.length];
+        for (int code = 0; code < codes.length; code++) {
+            codeDegree[code] = builder.conditionCases.get(codes[code]).size();
+        }
+        codeOffsets = offsets(codeDegree);
+        codeCases = new int[codeOffsets[codes.length]];
+        for (int code = 0; code < codes.length; code++) {
+            int start = codeOffsets[code];
+            int slot = start;
+            for (String caseId : builder.conditionCases.get(codes[code])) {
+                codeCases[slot++] = Arrays.binarySearch(caseIds, caseId);
+            }
+            Arrays.sort(codeCases, start, slot);
+        }
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    int doctorCount() {
+        return doctorIds.length;
+    }
+
+    int caseCount() {
+        return caseIds.length;
+    }
+
+    int codeCount() {
+        return codes.length;
+    }
+
+    int edgeCount() {
+        return doctorCases.length;
+    }
+
+    private static String[] sortedKeys(Set<String> keys) {
+        String[] sorted = keys.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static int[] offsets(int[] degrees) {
+        int[] offsets = new int[degrees.length + 1];
+        for (int i = 0; i < degrees.length; i++) {
+            offsets[i + 1] = offsets[i] + degrees[i];
+        }
+        return offsets;
+    }
+
+    /**
+     * Collects edges in any order; duplicates are merged.
+     */
+    static final class Builder {
+
+        private final Map<String, Map<String, Double>> treatments = new HashMap<>();
+        private final Map<String, List<String>> conditionCases = new HashMap<>();
+        private final Set<String> conditionEdges = new HashSet<>();
+
+        private Builder() {
+        }
+
+        Builder addTreatment(String doctorId, String caseId, double weight) {
+            if (doctorId == null || caseId == null) {
+                return this;
+            }
+            treatments.computeIfAbsent(doctorId, key -> new HashMap<>()).merge(caseId, weight, Math::max);
+            return this;
+        }
+
+        Builder addCondition(String caseId, String code) {
+            if (caseId == null || code == null || !conditionEdges.add(code + '\u0000' + caseId)) {
+                return this;
+            }
+            conditionCases.computeIfAbsent(code, key -> new ArrayList<>()).add(caseId);
+            return this;
+        }
+
+        CoTreatmentGraph build() {
+            return new CoTreatmentGraph(this);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.graph.service.GraphService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process adjacency index over the graph edges used by Semantic Graph Retrieval scoring
+ * (TREATED, CONSULTED_ON, TREATS_CONDITION, SPECIALIZES_IN, HAS_CONDITION).
+ * <p>
+ * Vertices are mapped to dense int IDs and each relationship is stored as a compressed sparse row
+ * structure: one sorted int array segment per source vertex. The index is loaded from Apache AGE
+ * after every graph build and on startup, and is invalidated whenever the graph is modified outside
+ * a build, so callers fall back to Cypher until the next reload.
+ * <p>
+ * Every invalidation bumps a version; a reload publishes its snapshot only if no invalidation happened
+ * while it was reading, so a change made during a reload is never hidden behind the older snapshot.
+ * A failed reload publishes nothing and leaves the current state (snapshot or Cypher fallback) in place.
+ */
+@Slf4j
+@Component
+public class GraphAdjacencyIndex {
+
+    private static final String TREATED_EDGES = "MATCH (d:Doctor)-[:TREATED]->(c:MedicalCase) RETURN d.id, c.id";
+    private static final String CONSULTED_ON_EDGES = "MATCH (d:Doctor)-[:CONSULTED_ON]->(c:MedicalCase) RETURN d.id, c.id";
+    private static final String TREATS_CONDITION_EDGES = "MATCH (d:Doctor)-[:TREATS_CONDITION]->(i:ICD10Code) RETURN d.id, i.code";
+    private static final String SPECIALIZES_IN_EDGES = "MATCH (d:Doctor)-[:SPECIALIZES_IN]->(s:MedicalSpecialty) RETURN d.id, s.name";
+    private static final String HAS_CONDITION_EDGES = "MATCH (c:MedicalCase)-[:HAS_CONDITION]->(i:ICD10Code) RETURN c.id, i.code";
+
+    private final GraphService graphService;
+    private final boolean enabled;
+
+    private final AtomicReference<Published> published = new AtomicReference<>(new Published(0, null));
+
+    public GraphAdjacencyIndex(
+            GraphService graphService,
+            @Value("${medexpertmatch.graph.adjacency-index.enabled:true}") boolean enabled) {
+        this.graphService = graphService;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the current snapshot, or null when the index is disabled, not loaded yet, or invalidated.
+     */
+    public Snapshot current() {
+        return enabled ? published.get().snapshot() : null;
+    }
+
+    /**
+     * Drops the current snapshot so graph scoring falls back to Apache AGE, and discards the result of any
+     * reload already in progress.
+     */
+    public void invalidate() {
+        published.updateAndGet(current -> new Published(current.version() + 1, null));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (graphService.graphExists()) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("Graph adjacency index warm-up failed, graph scoring will use Apache AGE: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the index from the current Apache AGE graph with one edge-list query per relationship type.
+     *
+     * @throws org.springframework.dao.DataAccessException if an edge query fails; nothing is published then
+     */
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        Published start = published.get();
+
+        Builder builder = new Builder();
+        forEachEdge(TREATED_EDGES, builder::addTreated);
+        forEachEdge(CONSULTED_ON_EDGES, builder::addConsultedOn);
+        forEachEdge(TREATS_CONDITION_EDGES, builder::addTreatsCondition);
+        forEachEdge(SPECIALIZES_IN_EDGES, builder::addSpecializesIn);
+        forEachEdge(HAS_CONDITION_EDGES, builder::addHasCondition);
+
+        Snapshot loaded = builder.build();
+        if (!published.compareAndSet(start, new Published(start.version(), loaded))) {
+            log.debug("Graph changed while the adjacency index was loading, discarding the loaded snapshot");
+            return;
+        }
+        log.info("Graph adjacency index loaded: {} doctors, {} cases, {} ICD-10 codes in {}ms",
+                loaded.doctorIds.size(), loaded.caseIds.size(), loaded.codeIds.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    private void forEachEdge(String cypherQuery, EdgeConsumer consumer) {
+        for (Map<String, Object> row : graphService.executeCypherOrThrow(cypherQuery, new HashMap<>())) {
+            String source = AgtypeValues.unquote(row.get("c0"));
+            String target = AgtypeValues.unquote(row.get("c1"));
+            if (source != null && target != null) {
+                consumer.accept(source, target);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface EdgeConsumer {
+        void accept(String source, String target);
+    }
+
+    /**
+     * Snapshot together with the invalidation version it was loaded at; a null snapshot means Cypher fallback.
+     */
+    private record Published(long version, Snapshot snapshot) {
+    }
+
+    /**
+     * Immutable adjacency snapshot keyed by dense int vertex IDs.
+     */
+    public static final class Snapshot {
+
+        private final Map<String, Integer> doctorIds;
+        private final Map<String, Integer> caseIds;
+        private final Map<String, Integer> codeIds;
+        private final String[] specialtyNames;
+        private final Csr treated;
+        private final Csr consultedOn;
+        private final Csr treatsCondition;
+        private final Csr specializesIn;
+        private final Csr hasCondition;
+
+        private Snapshot(Builder builder) {
+            this.doctorIds = Map.copyOf(builder.doctorIds);
+            this.caseIds = Map.copyOf(builder.caseIds);
+            this.codeIds = Map.copyOf(builder.codeIds);
+            this.specialtyNames = builder.specialtyNames.toArray(String[]::new);
+            int doctorCount = doctorIds.size();
+            this.treated = Csr.of(doctorCount, builder.treated);
+            this.consultedOn = Csr.of(doctorCount, builder.consultedOn);
+            this.treatsCondition = Csr.of(doctorCount, builder.treatsCondition);
+            this.specializesIn = Csr.of(doctorCount, builder.specializesIn);
+            this.hasCondition = Csr.of(caseIds.size(), builder.hasCondition);
+        }
+
+        /**
+         * Whether the doctor has a TREATED or CONSULTED_ON edge to the case.
+         */
+        public boolean hasDirectRelationship(String doctorId, String caseId) {
+            int doctor = doctorIds.getOrDefault(doctorId, -1);
+            int medicalCase = caseIds.getOrDefault(caseId, -1);
+            if (doctor < 0 || medicalCase < 0) {
+                return false;
+            }
+            return treated.contains(doctor, medicalCase) || consultedOn.contains(doctor, medicalCase);
+        }
+
+        /**
+         * Whether the doctor has a TREATS_CONDITION edge to the ICD-10 code.
+         */
+        public boolean treatsCondition(String doctorId, String icd10Code) {
+            int doctor = doctorIds.getOrDefault(doctorId, -1);
+            int code = codeIds.getOrDefault(icd10Code, -1);
+            return doctor >= 0 && code >= 0 && treatsCondition.contains(doctor, code);
+        }
+
+        /**
+         * Counts cases the doctor TREATED that have a HAS_CONDITION edge to the ICD-10 code.
+         */
+        public int countTreatedCasesWithCondition(String doctorId, String icd10Code) {
+            int doctor = doctorIds.getOrDefault(doctorId, -1);
+            int code = codeIds.getOrDefault(icd10Code, -1);
+            if (doctor < 0 || code < 0) {
+                return 0;
+            }
+            int count = 0;
+            for (int i = treated.start(doctor); i < treated.end(doctor); i++) {
+                if (hasCondition.contains(treated.targets[i], code)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Returns the names of specialties the doctor SPECIALIZES_IN.
+         */
+        public List<String> specialtyNames(String doctorId) {
+            int doctor = doctorIds.getOrDefault(doctorId, -1);
+            if (doctor < 0) {
+                return List.of();
+            }
+            List<String> names = new ArrayList<>(specializesIn.end(doctor) - specializesIn.start(doctor));
+            for (int i = specializesIn.start(doctor); i < specializesIn.end(doctor); i++) {
+                names.add(specialtyNames[specializesIn.targets[i]]);
+            }
+            return names;
+        }
+    }
+
+    /**
+     * Accumulates string edges and assigns dense int IDs to vertices.
+     */
+    static final class Builder {
+
+        private final Map<String, Integer> doctorIds = new HashMap<>();
+        private final Map<String, Integer> caseIds = new HashMap<>();
+        private final Map<String, Integer> codeIds = new HashMap<>();
+        private final Map<String, Integer> specialtyIds = new HashMap<>();
+        private final List<String> specialtyNames = new ArrayList<>();
+        private final IntPairs treated = new IntPairs();
+        private final IntPairs consultedOn = new IntPairs();
+        private final IntPairs treatsCondition = new IntPairs();
+        private final IntPairs specializesIn = new IntPairs();
+        private final IntPairs hasCondition = new IntPairs();
+
+        Builder addTreated(String doctorId, String caseId) {
+            treated.add(id(doctorIds, doctorId), id(caseIds, caseId));
+            return this;
+        }
+
+        Builder addConsultedOn(String doctorId, String caseId) {
+            consultedOn.add(id(doctorIds, doctorId), id(caseIds, caseId));
+            return this;
+        }
+
+        Builder addTreatsCondition(String doctorId, String icd10Code) {
+            treatsCondition.add(id(doctorIds, doctorId), id(codeIds, icd10Code));
+            return this;
+        }
+
+        Builder addSpecializesIn(String doctorId, String specialtyName) {
+            int specialty = specialtyIds.computeIfAbsent(specialtyName, name -> {
+                specialtyNames.add(name);
+                return specialtyNames.size() - 1;
+            });
+            specializesIn.add(id(doctorIds, doctorId), specialty);
+            return this;
+        }
+
+        Builder addHasCondition(String caseId, String icd10Code) {
+            hasCondition.add(id(caseIds, caseId), id(codeIds, icd10Code));
+            return this;
+        }
+
+        Snapshot build() {
+            return new Snapshot(this);
+        }
+
+        private static int id(Map<String, Integer> ids, String key) {
+            return ids.computeIfAbsent(key, k -> ids.size());
+        }
+    }
+
+    /**
+     * Growable list of (source, target) int pairs.
+     */
+    private static final class IntPairs {
+
+        private int[] sources = new int[64];
+        private int[] targets = new int[64];
+        private int size;
+
+        void add(int source, int target) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            size++;
+        }
+    }
+
+    /**
+     * Compressed sparse rows: targets of source {@code s} are the sorted, distinct
+     * {@code targets[offsets[s] .. offsets[s + 1])}.
+     */
+    private static final class Csr {
+
+        private final int[] offsets;
+        private final int[] targets;
+
+        private Csr(int[] offsets, int[] targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        static Csr of(int sourceCount, IntPairs edges) {
+            // Counting sort by source, then sort and de-duplicate each segment
+            int[] counts = new int[sourceCount + 1];
+            for (int i = 0; i < edges.size; i++) {
+                counts[edges.sources[i] + 1]++;
+            }
+            for (int s = 0; s < sourceCount; s++) {
+                counts[s + 1] += counts[s];
+            }
+            int[] fill = Arrays.copyOf(counts, sourceCount);
+            int[] sorted = new int[edges.size];
+            for (int i = 0; i < edges.size; i++) {
+                sorted[fill[edges.sources[i]]++] = edges.targets[i];
+            }
+
+            int[] offsets = new int[sourceCount + 1];
+            int[] targets = new int[edges.size];
+            int size = 0;
+            for (int s = 0; s < sourceCount; s++) {
+                offsets[s] = size;
+                Arrays.sort(sorted, counts[s], counts[s + 1]);
+                for (int i = counts[s]; i < counts[s + 1]; i++) {
+                    if (size == offsets[s] || targets[size - 1] != sorted[i]) {
+                        targets[size++] = sorted[i];
+                    }
+                }
+            }
+            offsets[sourceCount] = size;
+            return new Csr(offsets, Arrays.copyOf(targets, size));
+        }
+
+        int start(int source) {
+            return offsets[source];
+        }
+
+        int end(int source) {
+            return offsets[source + 1];
+        }
+
+        boolean contains(int source, int target) {
+            return Arrays.binarySearch(targets, offsets[source], offsets[source + 1], target) >= 0;
+        }
+    }
+}
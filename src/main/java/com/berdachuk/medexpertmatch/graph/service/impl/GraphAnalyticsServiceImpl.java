@@ -0,0 +1,121 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphRepository;
+import com.berdachuk.medexpertmatch.graph.service.GraphAnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes doctor centrality on a fixed delay and persists it through {@link GraphCentralityRepository}.
+ * <p>
+ * TREATED, CONSULTED_ON and HAS_CONDITION edges are streamed from Apache AGE in one read-only transaction into a
+ * {@link CoTreatmentGraph}; the graph lock is held only while loading, so builds and outbox batches wait for the
+ * snapshot but not for the computation. Scores are computed by {@link GraphCentralityCalculator} on a fork/join
+ * pool of {@code medexpertmatch.graph.analytics.parallelism} workers created for the run.
+ */
+@Slf4j
+@Service
+public class GraphAnalyticsServiceImpl implements GraphAnalyticsService {
+
+    private final GraphRepository graphRepository;
+    private final GraphCentralityRepository centralityRepository;
+    private final GraphWriteLock graphWriteLock;
+    private final TransactionTemplate readOnlyTransaction;
+    private final GraphCentralityCalculator calculator;
+    private final boolean enabled;
+    private final int parallelism;
+
+    public GraphAnalyticsServiceImpl(
+            GraphRepository graphRepository,
+            GraphCentralityRepository centralityRepository,
+            GraphWriteLock graphWriteLock,
+            PlatformTransactionManager transactionManager,
+            @Value("${medexpertmatch.graph.analytics.enabled:true}") boolean enabled,
+            @Value("${medexpertmatch.graph.analytics.parallelism:0}") int parallelism,
+            @Value("${medexpertmatch.graph.analytics.damping:0.85}") double damping,
+            @Value("${medexpertmatch.graph.analytics.max-iterations:50}") int maxIterations,
+            @Value("${medexpertmatch.graph.analytics.tolerance:1e-6}") double tolerance,
+            @Value("${medexpertmatch.graph.analytics.push-epsilon:1e-5}") double pushEpsilon,
+            @Value("${medexpertmatch.graph.analytics.top-doctors-per-code:50}") int topDoctorsPerCode) {
+        this.graphRepository = graphRepository;
+        this.centralityRepository = centralityRepository;
+        this.graphWriteLock = graphWriteLock;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.calculator = new GraphCentralityCalculator(damping, maxIterations, tolerance, pushEpsilon,
+                topDoctorsPerCode);
+        this.enabled = enabled;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Scheduled(fixedDelayString = "${medexpertmatch.graph.analytics.interval-ms:3600000}",
+            initialDelayString = "${medexpertmatch.graph.analytics.initial-delay-ms:120000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            computeCentrality();
+        } catch (Exception e) {
+            log.warn("Graph centrality computation failed, previous scores are kept: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int computeCentrality() {
+        long startTime = System.currentTimeMillis();
+        CoTreatmentGraph graph = loadSnapshot();
+        if (graph == null) {
+            return 0;
+        }
+        long loadedTime = System.currentTimeMillis();
+
+        GraphCentralityCalculator.Result result;
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            result = calculator.compute(graph, pool);
+        }
+        centralityRepository.replaceAll(result.doctors(), result.conditions());
+
+        log.info("Graph centrality computed - doctors: {}, cases: {}, codes: {}, edges: {}, condition scores: {}, "
+                        + "load: {} ms, total: {} ms",
+                graph.doctorCount(), graph.caseCount(), graph.codeCount(), graph.edgeCount(),
+                result.conditions().size(), loadedTime - startTime, System.currentTimeMillis() - startTime);
+        return result.doctors().size();
+    }
+
+    private CoTreatmentGraph loadSnapshot() {
+        if (!graphWriteLock.tryLock()) {
+            log.debug("Graph build in progress, deferring graph centrality computation");
+            return null;
+        }
+        try {
+            if (!graphRepository.graphExists()) {
+                log.debug("Graph does not exist, skipping graph centrality computation");
+                return null;
+            }
+            CoTreatmentGraph.Builder builder = CoTreatmentGraph.builder();
+            // In a transaction the edge query streams through a cursor instead of being materialized
+            readOnlyTransaction.executeWithoutResult(status -> graphRepository.streamEdges(null, edge -> {
+                switch (edge.label()) {
+                    case "TREATED" -> builder.addTreatment(edge.sourceKey(), edge.targetKey(),
+                            CoTreatmentGraph.TREATED_WEIGHT);
+                    case "CONSULTED_ON" -> builder.addTreatment(edge.sourceKey(), edge.targetKey(),
+                            CoTreatmentGraph.CONSULTED_ON_WEIGHT);
+                    case "HAS_CONDITION" -> builder.addCondition(edge.sourceKey(), edge.targetKey());
+                    default -> {
+                    }
+                }
+            }));
+            return builder.build();
+        } finally {
+            graphWriteLock.unlock();
+        }
+    }
+}
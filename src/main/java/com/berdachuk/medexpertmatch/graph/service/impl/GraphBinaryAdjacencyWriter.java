@@ -0,0 +1,149 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the compact binary adjacency graph export incrementally, as vertices and edges are read.
+ * <p>
+ * Integers are unsigned LEB128 varints and strings are a varint byte length followed by UTF-8 bytes.
+ * The stream is the magic {@code MEGA}, a version byte, then tagged records:
+ * <ul>
+ *   <li>{@code 0x03 name}: defines the next label index (vertex and edge labels share one table)</li>
+ *   <li>{@code 0x01 labelIndex id name}: a node; node indexes follow the order of appearance</li>
+ *   <li>{@code 0x02 sourceIndex count (targetDelta labelIndex)*count}: the edges of one source in ascending
+ *       target order; the first delta is the target index itself, later ones the difference to the previous target</li>
+ *   <li>{@code 0x00}: end of stream</li>
+ * </ul>
+ * Nodes must be written in ascending graph id order before any edge, and edges sorted by source and target
+ * graph id. Only the node graph ids (8 bytes per node) and the targets of the current source are held in memory.
+ */
+class GraphBinaryAdjacencyWriter {
+
+    static final byte[] MAGIC = {'M', 'E', 'G', 'A'};
+    static final int VERSION = 1;
+    static final int TAG_END = 0x00;
+    static final int TAG_NODE = 0x01;
+    static final int TAG_EDGES = 0x02;
+    static final int TAG_LABEL = 0x03;
+
+    private final OutputStream out;
+    private final Map<String, Integer> labelIndexes = new HashMap<>();
+
+    private long[] nodeGraphIds = new long[1024];
+    private int nodeCount;
+
+    private int currentSource = -1;
+    private int[] targets = new int[16];
+    private int[] targetLabels = new int[16];
+    private int targetCount;
+
+    GraphBinaryAdjacencyWriter(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    void writeNode(long graphId, String id, String label, String name) throws IOException {
+        if (nodeCount > 0 && graphId <= nodeGraphIds[nodeCount - 1]) {
+            throw new IllegalStateException("Nodes must be written in ascending graph id order");
+        }
+        if (nodeCount == nodeGraphIds.length) {
+            nodeGraphIds = Arrays.copyOf(nodeGraphIds, nodeCount * 2);
+        }
+        nodeGraphIds[nodeCount++] = graphId;
+
+        int labelIndex = labelIndex(label);
+        out.write(TAG_NODE);
+        writeVarint(labelIndex);
+        writeString(id);
+        writeString(name);
+    }
+
+    /**
+     * Adds an edge; edges whose endpoints were not written as nodes are skipped.
+     *
+     * @return true if the edge was written
+     */
+    boolean writeEdge(long startGraphId, long endGraphId, String label) throws IOException {
+        int source = Arrays.binarySearch(nodeGraphIds, 0, nodeCount, startGraphId);
+        int target = Arrays.binarySearch(nodeGraphIds, 0, nodeCount, endGraphId);
+        if (source < 0 || target < 0) {
+            return false;
+        }
+        if (source != currentSource) {
+            if (source < currentSource) {
+                throw new IllegalStateException("Edges must be written in ascending source order");
+            }
+            flushEdges();
+            currentSource = source;
+        }
+        if (targetCount > 0 && target < targets[targetCount - 1]) {
+            throw new IllegalStateException("Edges of one source must be written in ascending target order");
+        }
+        if (targetCount == targets.length) {
+            targets = Arrays.copyOf(targets, targetCount * 2);
+            targetLabels = Arrays.copyOf(targetLabels, targetCount * 2);
+        }
+        targets[targetCount] = target;
+        targetLabels[targetCount] = labelIndex(label);
+        targetCount++;
+        return true;
+    }
+
+    /**
+     * Writes the pending edges and the end marker, and flushes the stream.
+     */
+    void finish() throws IOException {
+        flushEdges();
+        out.write(TAG_END);
+        out.flush();
+    }
+
+    private void flushEdges() throws IOException {
+        if (targetCount == 0) {
+            return;
+        }
+        out.write(TAG_EDGES);
+        writeVarint(currentSource);
+        writeVarint(targetCount);
+        int previous = 0;
+        for (int i = 0; i < targetCount; i++) {
+            writeVarint(targets[i] - previous);
+            writeVarint(targetLabels[i]);
+            previous = targets[i];
+        }
+        targetCount = 0;
+    }
+
+    private int labelIndex(String label) throws IOException {
+        String key = label != null ? label : "";
+        Integer index = labelIndexes.get(key);
+        if (index == null) {
+            index = labelIndexes.size();
+            labelIndexes.put(key, index);
+            out.write(TAG_LABEL);
+            writeString(key);
+        }
+        return index;
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarint(int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+}
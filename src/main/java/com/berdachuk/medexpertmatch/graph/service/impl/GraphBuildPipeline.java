@@ -0,0 +1,195 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.graph.exception.GraphOperationException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs graph build stages on a bounded worker pool.
+ * <p>
+ * Phases run one after another (vertices, then indexes, then edges). Within a phase a stage starts
+ * only when no running stage writes any of the same graph labels, so concurrent MERGEs never race
+ * on one label. The first failing stage stops further scheduling and is rethrown once running
+ * stages finish.
+ */
+@Slf4j
+class GraphBuildPipeline {
+
+    /**
+     * One unit of build work; the task returns the number of rows (vertices or edges) it wrote.
+     */
+    record Stage(String name, Set<String> writes, IntSupplier task) {
+    }
+
+    /**
+     * Outcome of one stage, used for the build summary.
+     */
+    record StageReport(String name, int rows, long elapsedMs) {
+
+        double rowsPerSecond() {
+            return elapsedMs > 0 ? rows * 1000.0 / elapsedMs : rows;
+        }
+    }
+
+    private record StageOutcome(Stage stage, StageReport report, RuntimeException failure) {
+    }
+
+    private final int workers;
+
+    GraphBuildPipeline(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
+    /**
+     * Runs the stages of one phase and returns their reports in completion order.
+     */
+    List<StageReport> runPhase(String phase, List<Stage> stages) {
+        log.info("Building graph {} ({} stages, {} workers)...", phase, stages.size(), workers);
+        List<StageReport> reports = new ArrayList<>();
+        if (workers == 1 || stages.size() <= 1) {
+            for (Stage stage : stages) {
+                StageOutcome outcome = runStage(stage);
+                if (outcome.failure() != null) {
+                    throw outcome.failure();
+                }
+                reports.add(outcome.report());
+            }
+            return reports;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, stages.size()));
+        try {
+            CompletionService<StageOutcome> completion = new ExecutorCompletionService<>(executor);
+            List<Stage> pending = new ArrayList<>(stages);
+            Set<String> busyLabels = new HashSet<>();
+            RuntimeException failure = null;
+            int running = 0;
+            while (!pending.isEmpty() || running > 0) {
+                Iterator<Stage> iterator = pending.iterator();
+                while (failure == null && running < workers && iterator.hasNext()) {
+                    Stage stage = iterator.next();
+                    if (Collections.disjoint(stage.writes(), busyLabels)) {
+                        busyLabels.addAll(stage.writes());
+                        completion.submit(() -> runStage(stage));
+                        iterator.remove();
+                        running++;
+                    }
+                }
+                if (running == 0) {
+                    break;
+                }
+                StageOutcome outcome = take(completion);
+                running--;
+                busyLabels.removeAll(outcome.stage().writes());
+                if (outcome.failure() != null) {
+                    if (failure == null) {
+                        failure = outcome.failure();
+                    }
+                    pending.clear();
+                } else {
+                    reports.add(outcome.report());
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return reports;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static StageOutcome take(CompletionService<StageOutcome> completion) {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GraphOperationException("Interrupted while building graph", e);
+        } catch (ExecutionException e) {
+            // runStage never throws; this only happens if the executor itself fails
+            throw new GraphOperationException("Graph build stage failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static StageOutcome runStage(Stage stage) {
+        long start = System.currentTimeMillis();
+        try {
+            int rows = stage.task().getAsInt();
+            StageReport report = new StageReport(stage.name(), rows, System.currentTimeMillis() - start);
+            log.info("  {}: {} rows in {}ms ({} rows/s)", stage.name(), rows, report.elapsedMs(),
+                    String.format("%.1f", report.rowsPerSecond()));
+            return new StageOutcome(stage, report, null);
+        } catch (RuntimeException e) {
+            log.error("  {} failed after {}ms: {}", stage.name(), System.currentTimeMillis() - start, e.getMessage());
+            return new StageOutcome(stage, null, e);
+        }
+    }
+
+    /**
+     * Splits items into batches and overlaps preparing batch N+1 (loading rows, building Cypher) with
+     * executing batch N. With a single worker both steps run inline on the calling thread.
+     *
+     * @param prepare Builds the executable form of a batch; runs on a separate thread and must not
+     *                share mutable state with {@code execute}
+     * @param execute Executes one prepared batch on the calling thread
+     */
+    <T, P> void pipelineBatches(List<T> items, int batchSize, Function<List<T>, P> prepare,
+                                BiConsumer<List<T>, P> execute) {
+        if (items.isEmpty()) {
+            return;
+        }
+        int size = Math.max(1, batchSize);
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            batches.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        if (workers == 1 || batches.size() == 1) {
+            batches.forEach(batch -> execute.accept(batch, prepare.apply(batch)));
+            return;
+        }
+
+        ExecutorService preparer = Executors.newSingleThreadExecutor();
+        try {
+            Future<P> next = preparer.submit(() -> prepare.apply(batches.get(0)));
+            for (int i = 0; i < batches.size(); i++) {
+                P prepared = await(next);
+                if (i + 1 < batches.size()) {
+                    List<T> following = batches.get(i + 1);
+                    next = preparer.submit(() -> prepare.apply(following));
+                }
+                execute.accept(batches.get(i), prepared);
+            }
+        } finally {
+            preparer.shutdownNow();
+        }
+    }
+
+    private static <P> P await(Future<P> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GraphOperationException("Interrupted while preparing graph batch", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new GraphOperationException("Failed to prepare graph batch: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository.ConditionCentrality;
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository.DoctorCentrality;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Centrality measures over a {@link CoTreatmentGraph}, treated as an undirected weighted graph whose nodes are
+ * doctors followed by cases.
+ * <ul>
+ *   <li>Weighted degree of each doctor.</li>
+ *   <li>Global PageRank by power iteration; each iteration pulls ranks into all nodes in parallel.</li>
+ *   <li>Per ICD-10 code, PageRank personalized on the code's cases, approximated by local forward push
+ *       (work bounded by the push epsilon, not by the graph size). Codes are split across fork/join tasks,
+ *       each reusing one workspace for its codes; the top doctors among those who treated a case with the
+ *       code are kept, normalized to 1.0 for the best one.</li>
+ *   <li>Co-treatment communities by label propagation over doctors sharing cases: doctors are visited in
+ *       key order, take the label with the highest shared-case weight and the smallest label on ties, so
+ *       results are deterministic.</li>
+ * </ul>
+ */
+final class GraphCentralityCalculator {
+
+    private static final int CODES_PER_TASK = 16;
+    private static final int MAX_LABEL_PROPAGATION_ROUNDS = 20;
+
+    private final double damping;
+    private final int maxIterations;
+    private final double tolerance;
+    private final double pushEpsilon;
+    private final int topDoctorsPerCode;
+
+    record Result(List<DoctorCentrality> doctors, List<ConditionCentrality> conditions) {
+    }
+
+    GraphCentralityCalculator(double damping, int maxIterations, double tolerance, double pushEpsilon,
+                              int topDoctorsPerCode) {
+        if (damping <= 0.0 || damping >= 1.0) {
+            throw new IllegalArgumentException("PageRank damping must be between 0 and 1 (exclusive)");
+        }
+        this.damping = damping;
+        this.maxIterations = Math.max(1, maxIterations);
+        this.tolerance = tolerance;
+        this.pushEpsilon = pushEpsilon;
+        this.topDoctorsPerCode = Math.max(1, topDoctorsPerCode);
+    }
+
+    Result compute(CoTreatmentGraph graph, ForkJoinPool pool) {
+        double[] doctorDegree = weightedDegrees(graph.doctorOffsets, graph.doctorCaseWeights, graph.doctorCount());
+        double[] caseDegree = weightedDegrees(graph.caseOffsets, graph.caseDoctorWeights, graph.caseCount());
+
+        double[] pagerank = pageRank(graph, doctorDegree, caseDegree, pool);
+        int[] community = communities(graph);
+
+        List<DoctorCentrality> doctors = new ArrayList<>(graph.doctorCount());
+        for (int doctor = 0; doctor < graph.doctorCount(); doctor++) {
+            doctors.add(new DoctorCentrality(graph.doctorIds[doctor], doctorDegree[doctor], pagerank[doctor],
+                    community[doctor], null));
+        }
+        List<ConditionCentrality> conditions = graph.codeCount() == 0
+                ? List.of()
+                : pool.invoke(new ConditionTask(this, graph, new ConcurrentHashMap<>(), doctorDegree, caseDegree,
+                0, graph.codeCount()));
+        return new Result(doctors, conditions);
+    }
+
+    /**
+     * Global PageRank with uniform teleport; rank of isolated nodes is redistributed uniformly.
+     *
+     * @return Rank of each doctor, then of each case; sums to 1
+     */
+    double[] pageRank(CoTreatmentGraph graph, double[] doctorDegree, double[] caseDegree, ForkJoinPool pool) {
+        int doctors = graph.doctorCount();
+        int nodes = doctors + graph.caseCount();
+        if (nodes == 0) {
+            return new double[0];
+        }
+        double[] rank = new double[nodes];
+        double[] next = new double[nodes];
+        Arrays.fill(rank, 1.0 / nodes);
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double dangling = 0.0;
+            for (int node = 0; node < nodes; node++) {
+                double degree = node < doctors ? doctorDegree[node] : caseDegree[node - doctors];
+                if (degree == 0.0) {
+                    dangling += rank[node];
+                }
+            }
+            double base = (1.0 - damping) / nodes + damping * dangling / nodes;
+            double[] current = rank;
+            double[] target = next;
+            pool.submit(() -> IntStream.range(0, nodes).parallel().forEach(node -> {
+                double incoming = 0.0;
+                if (node < doctors) {
+                    for (int i = graph.doctorOffsets[node]; i < graph.doctorOffsets[node + 1]; i++) {
+                        int caseIndex = graph.doctorCases[i];
+                        incoming += current[doctors + caseIndex] * graph.doctorCaseWeights[i] / caseDegree[caseIndex];
+                    }
+                } else {
+                    int caseIndex = node - doctors;
+                    for (int i = graph.caseOffsets[caseIndex]; i < graph.caseOffsets[caseIndex + 1]; i++) {
+                        int doctor = graph.caseDoctors[i];
+                        incoming += current[doctor] * graph.caseDoctorWeights[i] / doctorDegree[doctor];
+                    }
+                }
+                target[node] = base + damping * incoming;
+            })).join();
+
+            double delta = 0.0;
+            for (int node = 0; node < nodes; node++) {
+                delta += Math.abs(next[node] - rank[node]);
+            }
+            rank = next;
+            next = current;
+            if (delta < tolerance) {
+                break;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Label propagation over the doctor co-treatment projection, weighted by the product of both doctors'
+     * edge weights to each shared case.
+     *
+     * @return Dense community id of each doctor, numbered in doctor order
+     */
+    int[] communities(CoTreatmentGraph graph) {
+        int doctors = graph.doctorCount();
+        int[] labels = new int[doctors];
+        for (int doctor = 0; doctor < doctors; doctor++) {
+            labels[doctor] = doctor;
+        }
+        double[] labelWeight = new double[doctors];
+        int[] touchedLabels = new int[doctors];
+
+        for (int round = 0; round < MAX_LABEL_PROPAGATION_ROUNDS; round++) {
+            boolean changed = false;
+            for (int doctor = 0; doctor < doctors; doctor++) {
+                int touched = 0;
+                for (int i = graph.doctorOffsets[doctor]; i < graph.doctorOffsets[doctor + 1]; i++) {
+                    int caseIndex = graph.doctorCases[i];
+                    for (int j = graph.caseOffsets[caseIndex]; j < graph.caseOffsets[caseIndex + 1]; j++) {
+                        int peer = graph.caseDoctors[j];
+                        if (peer == doctor) {
+                            continue;
+                        }
+                        int label = labels[peer];
+                        if (labelWeight[label] == 0.0) {
+                            touchedLabels[touched++] = label;
+                        }
+                        labelWeight[label] += graph.doctorCaseWeights[i] * graph.caseDoctorWeights[j];
+                    }
+                }
+                if (touched == 0) {
+                    continue;
+                }
+                int best = -1;
+                for (int t = 0; t < touched; t++) {
+                    int label = touchedLabels[t];
+                    if (best < 0 || labelWeight[label] > labelWeight[best]
+                            || (labelWeight[label] == labelWeight[best] && label < best)) {
+                        best = label;
+                    }
+                }
+                for (int t = 0; t < touched; t++) {
+                    labelWeight[touchedLabels[t]] = 0.0;
+                }
+                if (best != labels[doctor]) {
+                    labels[doctor] = best;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+
+        int[] denseIds = new int[doctors];
+        Arrays.fill(denseIds, -1);
+        int nextId = 0;
+        int[] community = new int[doctors];
+        for (int doctor = 0; doctor < doctors; doctor++) {
+            int label = labels[doctor];
+            if (denseIds[label] < 0) {
+                denseIds[label] = nextId++;
+            }
+            community[doctor] = denseIds[label];
+        }
+        return community;
+    }
+
+    private static double[] weightedDegrees(int[] offsets, double[] weights, int count) {
+        double[] degrees = new double[count];
+        for (int node = 0; node < count; node++) {
+            double sum = 0.0;
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                sum += weights[i];
+            }
+            degrees[node] = sum;
+        }
+        return degrees;
+    }
+
+    /**
+     * Scores a contiguous range of codes, splitting it in halves until it is small enough.
+     * Leaves share one workspace per worker thread; a leaf never forks, so a thread runs one leaf at a time.
+     */
+    private static final class ConditionTask extends RecursiveTask<List<ConditionCentrality>> {
+
+        private final GraphCentralityCalculator calculator;
+        private final CoTreatmentGraph graph;
+        private final Map<Thread, PushWorkspace> workspaces;
+        private final double[] doctorDegree;
+        private final double[] caseDegree;
+        private final int from;
+        private final int to;
+
+        ConditionTask(GraphCentralityCalculator calculator, CoTreatmentGraph graph,
+                      Map<Thread, PushWorkspace> workspaces, double[] doctorDegree, double[] caseDegree,
+                      int from, int to) {
+            this.calculator = calculator;
+            this.graph = graph;
+            this.workspaces = workspaces;
+            this.doctorDegree = doctorDegree;
+            this.caseDegree = caseDegree;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<ConditionCentrality> compute() {
+            if (to - from <= CODES_PER_TASK) {
+                PushWorkspace workspace = workspaces.computeIfAbsent(Thread.currentThread(),
+                        thread -> new PushWorkspace(graph, doctorDegree, caseDegree));
+                List<ConditionCentrality> results = new ArrayList<>();
+                for (int code = from; code < to; code++) {
+                    results.addAll(calculator.conditionScores(graph, code, workspace));
+                }
+                return results;
+            }
+            int middle = (from + to) >>> 1;
+            ConditionTask left = new ConditionTask(calculator, graph, workspaces, doctorDegree, caseDegree,
+                    from, middle);
+            ConditionTask right = new ConditionTask(calculator, graph, workspaces, doctorDegree, caseDegree,
+                    middle, to);
+            left.fork();
+            List<ConditionCentrality> rightResults = right.compute();
+            List<ConditionCentrality> results = new ArrayList<>(left.join());
+            results.addAll(rightResults);
+            return results;
+        }
+    }
+
+    List<ConditionCentrality> conditionScores(CoTreatmentGraph graph, int code, PushWorkspace workspace) {
+        int seedStart = graph.codeOffsets[code];
+        int seedEnd = graph.codeOffsets[code + 1];
+        if (seedStart == seedEnd) {
+            return List.of();
+        }
+        try {
+            workspace.personalizedPageRank(graph.codeCases, seedStart, seedEnd, damping, pushEpsilon);
+
+            // Candidates: doctors with at least one of the code's cases
+            List<Integer> candidates = new ArrayList<>();
+            for (int s = seedStart; s < seedEnd; s++) {
+                int caseIndex = graph.codeCases[s];
+                for (int i = graph.caseOffsets[caseIndex]; i < graph.caseOffsets[caseIndex + 1]; i++) {
+                    int doctor = graph.caseDoctors[i];
+                    if (workspace.caseCount[doctor]++ == 0) {
+                        candidates.add(doctor);
+                    }
+                }
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+            double[] score = new double[candidates.size()];
+            for (int c = 0; c < candidates.size(); c++) {
+                score[c] = workspace.estimate(candidates.get(c), damping);
+            }
+            Integer[] order = new Integer[candidates.size()];
+            for (int c = 0; c < order.length; c++) {
+                order[c] = c;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(c -> -score[c])
+                    .thenComparingInt(c -> -workspace.caseCount[candidates.get(c)])
+                    .thenComparing(c -> graph.doctorIds[candidates.get(c)]));
+
+            double best = score[order[0]];
+            int kept = Math.min(topDoctorsPerCode, order.length);
+            List<ConditionCentrality> results = new ArrayList<>(kept);
+            for (int k = 0; k < kept; k++) {
+                int doctor = candidates.get(order[k]);
+                double normalized = best > 0.0 ? Math.min(1.0, score[order[k]] / best) : 0.0;
+                results.add(new ConditionCentrality(graph.codes[code], graph.doctorIds[doctor],
+                        workspace.caseCount[doctor], normalized));
+            }
+            for (int doctor : candidates) {
+                workspace.caseCount[doctor] = 0;
+            }
+            return results;
+        } finally {
+            workspace.reset();
+        }
+    }
+
+    /**
+     * Per-thread buffers for forward-push personalized PageRank, cleared between codes by touching only the
+     * entries the previous code used.
+     */
+    static final class PushWorkspace {
+
+        private final CoTreatmentGraph graph;
+        private final double[] doctorDegree;
+        private final double[] caseDegree;
+        private final int doctors;
+        private final double[] estimate;
+        private final double[] residual;
+        private final boolean[] queued;
+        private final int[] queue;
+        private final boolean[] visited;
+        private final int[] touched;
+        private int touchedCount;
+        final int[] caseCount;
+
+        PushWorkspace(CoTreatmentGraph graph, double[] doctorDegree, double[] caseDegree) {
+            this.graph = graph;
+            this.doctorDegree = doctorDegree;
+            this.caseDegree = caseDegree;
+            this.doctors = graph.doctorCount();
+            int nodes = doctors + graph.caseCount();
+            this.estimate = new double[nodes];
+            this.residual = new double[nodes];
+            this.queued = new boolean[nodes];
+            this.queue = new int[nodes];
+            this.visited = new boolean[nodes];
+            this.touched = new int[nodes];
+            this.caseCount = new int[doctors];
+        }
+
+        /**
+         * Forward push from the seed cases until every residual is below epsilon times the node's degree.
+         */
+        void personalizedPageRank(int[] seeds, int from, int to, double damping, double epsilon) {
+            int capacity = queue.length;
+            int head = 0;
+            int size = 0;
+            double seedMass = 1.0 / (to - from);
+            for (int s = from; s < to; s++) {
+                int node = doctors + seeds[s];
+                touch(node);
+                residual[node] += seedMass;
+                if (!queued[node]) {
+                    queued[node] = true;
+                    queue[(head + size++) % capacity] = node;
+                }
+            }
+            while (size > 0) {
+                int node = queue[head];
+                head = (head + 1) % capacity;
+                size--;
+                queued[node] = false;
+
+                double mass = residual[node];
+                residual[node] = 0.0;
+                double degree = degree(node);
+                if (degree == 0.0) {
+                    estimate[node] += mass;
+                    continue;
+                }
+                estimate[node] += (1.0 - damping) * mass;
+                double push = damping * mass / degree;
+                int[] offsets = node < doctors ? graph.doctorOffsets : graph.caseOffsets;
+                int[] targets = node < doctors ? graph.doctorCases : graph.caseDoctors;
+                double[] weights = node < doctors ? graph.doctorCaseWeights : graph.caseDoctorWeights;
+                int row = node < doctors ? node : node - doctors;
+                for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                    int neighbor = node < doctors ? doctors + targets[i] : targets[i];
+                    touch(neighbor);
+                    residual[neighbor] += push * weights[i];
+                    if (!queued[neighbor] && residual[neighbor] >= epsilon * degree(neighbor)) {
+                        queued[neighbor] = true;
+                        queue[(head + size++) % capacity] = neighbor;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Settled rank plus the share of the remaining residual that would settle on the doctor.
+         */
+        double estimate(int doctor, double damping) {
+            return estimate[doctor] + (1.0 - damping) * residual[doctor];
+        }
+
+        void reset() {
+            for (int t = 0; t < touchedCount; t++) {
+                int node = touched[t];
+                estimate[node] = 0.0;
+                residual[node] = 0.0;
+                queued[node] = false;
+                visited[node] = false;
+            }
+            touchedCount = 0;
+        }
+
+        private double degree(int node) {
+            return node < doctors ? doctorDegree[node] : caseDegree[node - doctors];
+        }
+
+        private void touch(int node) {
+            if (!visited[node]) {
+                visited[node] = true;
+                touched[touchedCount++] = node;
+            }
+        }
+    }
+}
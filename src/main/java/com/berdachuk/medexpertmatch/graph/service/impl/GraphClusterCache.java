@@ -0,0 +1,51 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.graph.repository.GraphRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Cluster summary of the current graph served to clustered graph visualization ({@code clusterLevel > 0}).
+ * <p>
+ * The summary is computed once per build version of {@link GraphMetadataRegistry}, so it is recomputed after the
+ * graph is built, rebuilt, cleared or incrementally updated
+ * ({@code medexpertmatch.graph.clusters.cache-enabled=false} recomputes it on every request).
+ */
+@Component
+class GraphClusterCache {
+
+    private record Entry(long buildVersion, GraphRepository.ClusterSummary summary) {
+    }
+
+    private final GraphMetadataRegistry metadataRegistry;
+
+    private final boolean enabled;
+
+    private volatile Entry entry;
+
+    GraphClusterCache(
+            GraphMetadataRegistry metadataRegistry,
+            @Value("${medexpertmatch.graph.clusters.cache-enabled:true}") boolean enabled) {
+        this.metadataRegistry = metadataRegistry;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the summary cached for the current build version, computing it with the loader when missing.
+     */
+    GraphRepository.ClusterSummary get(Supplier<GraphRepository.ClusterSummary> loader) {
+        long loadVersion = metadataRegistry.current().buildVersion();
+        Entry current = entry;
+        if (enabled && current != null && current.buildVersion() == loadVersion) {
+            return current.summary();
+        }
+        GraphRepository.ClusterSummary loaded = loader.get();
+        // A summary loaded across a graph change may predate it, so it is not kept
+        if (enabled && metadataRegistry.current().buildVersion() == loadVersion) {
+            entry = new Entry(loadVersion, loaded);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,401 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
+import com.berdachuk.medexpertmatch.facility.domain.Facility;
+import com.berdachuk.medexpertmatch.facility.repository.FacilityRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository.EntityType;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository.GraphOutboxEntry;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository.OutboxBacklog;
+import com.berdachuk.medexpertmatch.graph.service.GraphMaintenanceService;
+import com.berdachuk.medexpertmatch.graph.service.GraphService;
+import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService;
+import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService.AffiliatedWithRelationship;
+import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService.HasConditionRelationship;
+import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService.RequiresSpecialtyRelationship;
+import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService.SpecializesInRelationship;
+import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService.TreatedRelationship;
+import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService.TreatsConditionRelationship;
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
+import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies graph outbox entries to Apache AGE in micro-batches on a fixed delay.
+ * <p>
+ * Entries are coalesced per entity and applied vertices first (doctors, medical cases), then doctor
+ * treatment edges, which need both endpoints. Each entity is re-synced from its current relational row:
+ * the vertex is upserted or detach-deleted and its outgoing edges are replaced. The graph writes and the
+ * deletion of the entity's outbox entries share one transaction, so a failed write rolls back the edge
+ * deletes and leaves the entries pending. A failing entity is retried on later polls until
+ * {@code medexpertmatch.graph.outbox.max-attempts}, then dropped with an error log; the next full build
+ * repairs it.
+ * <p>
+ * A batch invalidates the graph adjacency index, so scoring falls back to Apache AGE, but the index is
+ * reloaded at most once per {@code medexpertmatch.graph.outbox.index-reload-interval-ms}: a steady trickle
+ * of changes does not turn every micro-batch into a full edge scan.
+ */
+@Slf4j
+@Service
+public class GraphMaintenanceServiceImpl implements GraphMaintenanceService {
+
+    private static final String TREATED_CASES_SQL = """
+            SELECT DISTINCT case_id
+            FROM medexpertmatch.clinical_experiences
+            WHERE doctor_id = :doctorId AND case_id IS NOT NULL
+            """;
+    private static final String TREATED_CONDITIONS_SQL = """
+            SELECT DISTINCT c.icd10_code
+            FROM medexpertmatch.clinical_experiences ce
+            JOIN medexpertmatch.medical_cases mc ON ce.case_id = mc.id
+            CROSS JOIN LATERAL unnest(mc.icd10_codes) AS c(icd10_code)
+            WHERE ce.doctor_id = :doctorId AND c.icd10_code IS NOT NULL AND c.icd10_code <> ''
+            """;
+
+    private final GraphOutboxRepository outboxRepository;
+    private final MedicalGraphBuilderService graphBuilderService;
+    private final GraphService graphService;
+    private final DoctorRepository doctorRepository;
+    private final MedicalCaseRepository medicalCaseRepository;
+    private final FacilityRepository facilityRepository;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final GraphAdjacencyIndex adjacencyIndex;
+    private final GraphWriteLock graphWriteLock;
+    private final GraphStatisticsCache statisticsCache;
+    private final GraphMetadataRegistry metadataRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long indexReloadIntervalMs;
+
+    private final AtomicLong pendingEntries = new AtomicLong();
+    private final AtomicReference<Instant> oldestPendingAt = new AtomicReference<>();
+    private final Map<EntityType, Counter> appliedCounters = new EnumMap<>(EntityType.class);
+    private final Counter failedCounter;
+    private final Timer propagationTimer;
+    private final Timer batchTimer;
+
+    // Guarded by graphWriteLock
+    private boolean indexStale;
+    private long lastIndexReloadAt;
+
+    public GraphMaintenanceServiceImpl(
+            GraphOutboxRepository outboxRepository,
+            MedicalGraphBuilderService graphBuilderService,
+            GraphService graphService,
+            DoctorRepository doctorRepository,
+            MedicalCaseRepository medicalCaseRepository,
+            FacilityRepository facilityRepository,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            GraphAdjacencyIndex adjacencyIndex,
+            GraphWriteLock graphWriteLock,
+            GraphStatisticsCache statisticsCache,
+            GraphMetadataRegistry metadataRegistry,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${medexpertmatch.graph.outbox.enabled:true}") boolean enabled,
+            @Value("${medexpertmatch.graph.outbox.batch-size:500}") int batchSize,
+            @Value("${medexpertmatch.graph.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${medexpertmatch.graph.outbox.index-reload-interval-ms:30000}") long indexReloadIntervalMs) {
+        this.outboxRepository = outboxRepository;
+        this.graphBuilderService = graphBuilderService;
+        this.graphService = graphService;
+        this.doctorRepository = doctorRepository;
+        this.medicalCaseRepository = medicalCaseRepository;
+        this.facilityRepository = facilityRepository;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.adjacencyIndex = adjacencyIndex;
+        this.graphWriteLock = graphWriteLock;
+        this.statisticsCache = statisticsCache;
+        this.metadataRegistry = metadataRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.indexReloadIntervalMs = Math.max(0, indexReloadIntervalMs);
+
+        Gauge.builder("graph.outbox.pending", pendingEntries, AtomicLong::get)
+                .description("Graph outbox entries not yet applied to the graph")
+                .register(meterRegistry);
+        Gauge.builder("graph.outbox.lag", oldestPendingAt, GraphMaintenanceServiceImpl::lagSeconds)
+                .description("Age of the oldest pending graph outbox entry")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        for (EntityType type : EntityType.values()) {
+            appliedCounters.put(type, Counter.builder("graph.outbox.applied")
+                    .description("Graph outbox entries applied to the graph")
+                    .tag("entity_type", type.name())
+                    .register(meterRegistry));
+        }
+        this.failedCounter = Counter.builder("graph.outbox.failed")
+                .description("Graph outbox entity applies that failed")
+                .register(meterRegistry);
+        this.propagationTimer = Timer.builder("graph.outbox.propagation")
+                .description("Time from a relational change to its application in the graph")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("graph.outbox.batch.latency")
+                .description("Time to apply one graph outbox micro-batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${medexpertmatch.graph.outbox.poll-interval-ms:5000}",
+            initialDelayString = "${medexpertmatch.graph.outbox.initial-delay-ms:15000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            applyPendingChanges();
+        } catch (Exception e) {
+            log.warn("Graph outbox poll failed, pending changes will be retried: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int applyPendingChanges() {
+        if (!graphWriteLock.tryLock()) {
+            log.debug("Graph build in progress, deferring graph outbox");
+            return 0;
+        }
+        try {
+            // Without a graph, entries wait for the first full build, which discards them
+            List<GraphOutboxEntry> entries = graphService.graphExists()
+                    ? outboxRepository.findPending(batchSize)
+                    : List.of();
+            if (!entries.isEmpty()) {
+                adjacencyIndex.invalidate();
+                indexStale = true;
+            }
+            int applied = entries.isEmpty() ? 0 : batchTimer.record(() -> applyBatch(entries));
+            if (!entries.isEmpty()) {
+                statisticsCache.invalidate();
+                metadataRegistry.graphChanged();
+            }
+            reloadAdjacencyIndexIfDue();
+            refreshBacklog();
+            return applied;
+        } finally {
+            graphWriteLock.unlock();
+        }
+    }
+
+    private int applyBatch(List<GraphOutboxEntry> entries) {
+        Map<EntityKey, List<GraphOutboxEntry>> entriesByEntity = entries.stream()
+                .collect(Collectors.groupingBy(entry -> new EntityKey(entry.entityType(), entry.entityId()),
+                        LinkedHashMap::new, Collectors.toList()));
+        Map<String, Doctor> doctorsById = doctorRepository.findByIds(entityIds(entriesByEntity,
+                        EntityType.DOCTOR, EntityType.DOCTOR_TREATMENTS)).stream()
+                .collect(Collectors.toMap(Doctor::id, Function.identity(), (existing, replacement) -> existing));
+        Map<String, MedicalCase> casesById = medicalCaseRepository.findByIds(entityIds(entriesByEntity,
+                        EntityType.MEDICAL_CASE)).stream()
+                .collect(Collectors.toMap(MedicalCase::id, Function.identity(), (existing, replacement) -> existing));
+
+        int applied = 0;
+        List<Long> retryIds = new ArrayList<>();
+        List<Long> abandonedIds = new ArrayList<>();
+        // Enum order applies vertices before the treatment edges that reference them
+        List<EntityKey> keys = entriesByEntity.keySet().stream()
+                .sorted(Comparator.comparing(EntityKey::type))
+                .toList();
+        for (EntityKey key : keys) {
+            List<GraphOutboxEntry> entityEntries = entriesByEntity.get(key);
+            try {
+                // Entries are deleted only if the graph writes commit with them
+                transactionTemplate.executeWithoutResult(status -> {
+                    switch (key.type()) {
+                        case DOCTOR -> syncDoctor(key.id(), doctorsById.get(key.id()));
+                        case MEDICAL_CASE -> syncMedicalCase(key.id(), casesById.get(key.id()));
+                        case DOCTOR_TREATMENTS -> syncDoctorTreatments(key.id(), doctorsById.containsKey(key.id()));
+                    }
+                    outboxRepository.deleteByIds(entityEntries.stream().map(GraphOutboxEntry::id).toList());
+                });
+                applied += entityEntries.size();
+                Instant appliedAt = Instant.now();
+                for (GraphOutboxEntry entry : entityEntries) {
+                    if (entry.createdAt() != null) {
+                        propagationTimer.record(Duration.between(entry.createdAt(), appliedAt));
+                    }
+                }
+                appliedCounters.get(key.type()).increment(entityEntries.size());
+            } catch (Exception e) {
+                failedCounter.increment();
+                for (GraphOutboxEntry entry : entityEntries) {
+                    if (entry.attempts() + 1 >= maxAttempts) {
+                        abandonedIds.add(entry.id());
+                    } else {
+                        retryIds.add(entry.id());
+                    }
+                }
+                log.warn("Failed to apply graph outbox change for {} {}: {}", key.type(), key.id(), e.getMessage());
+            }
+        }
+
+        if (!abandonedIds.isEmpty()) {
+            log.error("Dropping {} graph outbox entries after {} attempts, the next full graph build will repair them",
+                    abandonedIds.size(), maxAttempts);
+        }
+        outboxRepository.deleteByIds(abandonedIds);
+        outboxRepository.incrementAttempts(retryIds);
+        log.debug("Applied {} graph outbox entries for {} entities ({} to retry, {} dropped)",
+                applied, keys.size(), retryIds.size(), abandonedIds.size());
+        return applied;
+    }
+
+    /**
+     * Upserts the doctor vertex and replaces its SPECIALIZES_IN and AFFILIATED_WITH edges,
+     * or detach-deletes the vertex when the doctor no longer exists.
+     */
+    private void syncDoctor(String doctorId, Doctor doctor) {
+        if (doctor == null) {
+            executeCypher("MATCH (d:Doctor {id: $doctorId}) DETACH DELETE d", Map.of("doctorId", doctorId));
+            return;
+        }
+        executeCypher("MERGE (d:Doctor {id: $doctorId}) SET d.name = $name, d.email = $email", Map.of(
+                "doctorId", doctorId,
+                "name", doctor.name() != null ? doctor.name() : "",
+                "email", doctor.email() != null ? doctor.email() : ""));
+        deleteOutgoingEdges("Doctor", "doctorId", doctorId, "SPECIALIZES_IN");
+        deleteOutgoingEdges("Doctor", "doctorId", doctorId, "AFFILIATED_WITH");
+
+        graphBuilderService.createSpecializesInRelationshipsBatch(nonBlank(doctor.specialties()).stream()
+                .map(specialty -> new SpecializesInRelationship(doctorId, specialty))
+                .toList());
+        List<AffiliatedWithRelationship> affiliations = new ArrayList<>();
+        for (String facilityId : nonBlank(doctor.facilityIds())) {
+            Facility facility = facilityRepository.findById(facilityId).orElse(null);
+            if (facility == null) {
+                continue;
+            }
+            graphBuilderService.createFacilityVertex(facility.id(), facility.name(),
+                    facility.facilityType() != null ? facility.facilityType() : "");
+            affiliations.add(new AffiliatedWithRelationship(doctorId, facilityId));
+        }
+        graphBuilderService.createAffiliatedWithRelationshipsBatch(affiliations);
+    }
+
+    /**
+     * Upserts the medical case vertex and replaces its HAS_CONDITION and REQUIRES_SPECIALTY edges,
+     * or detach-deletes the vertex when the case no longer exists.
+     */
+    private void syncMedicalCase(String caseId, MedicalCase medicalCase) {
+        if (medicalCase == null) {
+            executeCypher("MATCH (c:MedicalCase {id: $caseId}) DETACH DELETE c", Map.of("caseId", caseId));
+            return;
+        }
+        executeCypher("MERGE (c:MedicalCase {id: $caseId}) SET c.chiefComplaint = $chiefComplaint, c.urgencyLevel = $urgencyLevel",
+                Map.of("caseId", caseId,
+                        "chiefComplaint", medicalCase.chiefComplaint() != null ? medicalCase.chiefComplaint() : "",
+                        "urgencyLevel", medicalCase.urgencyLevel() != null ? medicalCase.urgencyLevel().name() : "MEDIUM"));
+        deleteOutgoingEdges("MedicalCase", "caseId", caseId, "HAS_CONDITION");
+        deleteOutgoingEdges("MedicalCase", "caseId", caseId, "REQUIRES_SPECIALTY");
+
+        graphBuilderService.createHasConditionRelationshipsBatch(nonBlank(medicalCase.icd10Codes()).stream()
+                .map(code -> new HasConditionRelationship(caseId, code))
+                .toList());
+        if (medicalCase.requiredSpecialty() != null && !medicalCase.requiredSpecialty().isBlank()) {
+            graphBuilderService.createRequiresSpecialtyRelationshipsBatch(
+                    List.of(new RequiresSpecialtyRelationship(caseId, medicalCase.requiredSpecialty())));
+        }
+    }
+
+    /**
+     * Replaces the doctor's TREATED and TREATS_CONDITION edges from clinical experiences.
+     * A deleted doctor is handled by its DOCTOR entry, which detach-deletes the vertex.
+     */
+    private void syncDoctorTreatments(String doctorId, boolean doctorExists) {
+        if (!doctorExists) {
+            return;
+        }
+        deleteOutgoingEdges("Doctor", "doctorId", doctorId, "TREATED");
+        deleteOutgoingEdges("Doctor", "doctorId", doctorId, "TREATS_CONDITION");
+
+        Map<String, Object> params = Map.of("doctorId", doctorId);
+        graphBuilderService.createTreatedRelationshipsBatch(
+                namedJdbcTemplate.queryForList(TREATED_CASES_SQL, params, String.class).stream()
+                        .map(caseId -> new TreatedRelationship(doctorId, caseId))
+                        .toList());
+        graphBuilderService.createTreatsConditionRelationshipsBatch(
+                namedJdbcTemplate.queryForList(TREATED_CONDITIONS_SQL, params, String.class).stream()
+                        .map(code -> new TreatsConditionRelationship(doctorId, code))
+                        .toList());
+    }
+
+    private void deleteOutgoingEdges(String label, String idParam, String id, String edgeType) {
+        executeCypher(String.format("MATCH (n:%s {id: $%s})-[r:%s]->() DELETE r", label, idParam, edgeType),
+                Map.of(idParam, id));
+    }
+
+    private void executeCypher(String cypher, Map<String, Object> params) {
+        graphService.executeCypherOrThrow(cypher, new HashMap<>(params));
+    }
+
+    private void reloadAdjacencyIndexIfDue() {
+        long now = System.currentTimeMillis();
+        if (!indexStale || now - lastIndexReloadAt < indexReloadIntervalMs) {
+            return;
+        }
+        indexStale = false;
+        lastIndexReloadAt = now;
+        try {
+            adjacencyIndex.reload();
+        } catch (Exception e) {
+            log.warn("Failed to reload graph adjacency index, graph scoring will use Apache AGE: {}", e.getMessage());
+        }
+    }
+
+    private void refreshBacklog() {
+        OutboxBacklog backlog = outboxRepository.findBacklog();
+        pendingEntries.set(backlog.pending());
+        oldestPendingAt.set(backlog.oldestCreatedAt());
+    }
+
+    private static double lagSeconds(AtomicReference<Instant> oldestPendingAt) {
+        Instant oldest = oldestPendingAt.get();
+        return oldest != null ? Math.max(0, Duration.between(oldest, Instant.now()).toMillis() / 1000.0) : 0.0;
+    }
+
+    private static List<String> entityIds(Map<EntityKey, List<GraphOutboxEntry>> entriesByEntity, EntityType... types) {
+        List<EntityType> wanted = List.of(types);
+        return entriesByEntity.keySet().stream()
+                .filter(key -> wanted.contains(key.type()))
+                .map(EntityKey::id)
+                .distinct()
+                .toList();
+    }
+
+    private static List<String> nonBlank(List<String> values) {
+        return values == null ? List.of() : values.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .distinct()
+                .toList();
+    }
+
+    private record EntityKey(EntityType type, String id) {
+    }
+}
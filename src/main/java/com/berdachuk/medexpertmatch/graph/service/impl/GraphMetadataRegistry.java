@@ -0,0 +1,136 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.graph.repository.GraphRepository;
+import com.berdachuk.medexpertmatch.graph.service.GraphService.GraphMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Graph existence, labels and build version held in memory for hot paths.
+ * <p>
+ * Readers get the current snapshot with a volatile read; refreshes run one at a time, reading the
+ * {@code ag_label} catalog in their own read-only transaction. The build version is bumped when the graph is
+ * built, cleared or updated in this process, and when a refresh finds a different existence or label set, so
+ * changes made elsewhere are picked up within {@code medexpertmatch.graph.metadata.refresh-interval-ms}
+ * ({@code medexpertmatch.graph.metadata.cache-enabled=false} reads the catalog on every call).
+ */
+@Slf4j
+@Component
+class GraphMetadataRegistry {
+
+    private final GraphRepository graphRepository;
+    private final TransactionTemplate catalogTransaction;
+    private final boolean enabled;
+
+    private volatile GraphMetadata metadata;
+
+    GraphMetadataRegistry(
+            GraphRepository graphRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${medexpertmatch.graph.metadata.cache-enabled:true}") boolean enabled) {
+        this.graphRepository = graphRepository;
+        this.catalogTransaction = new TransactionTemplate(transactionManager);
+        this.catalogTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.catalogTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the current snapshot, reading the catalog only when none is held or caching is disabled.
+     */
+    GraphMetadata current() {
+        GraphMetadata current = metadata;
+        if (current != null && enabled) {
+            return current;
+        }
+        return refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${medexpertmatch.graph.metadata.refresh-interval-ms:60000}",
+            initialDelayString = "${medexpertmatch.graph.metadata.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    /**
+     * Re-reads the catalog; the build version changes only if existence or labels changed.
+     */
+    synchronized GraphMetadata refresh() {
+        return reload(false, false);
+    }
+
+    /**
+     * Records an update to graph contents (creation, clear or incremental batch) and re-reads the catalog.
+     */
+    synchronized GraphMetadata graphChanged() {
+        refreshAfterCommit();
+        return reload(true, false);
+    }
+
+    /**
+     * Records a completed full build and re-reads the catalog.
+     */
+    synchronized GraphMetadata graphBuilt() {
+        refreshAfterCommit();
+        return reload(true, true);
+    }
+
+    /**
+     * Catalog reads run in their own transaction, so changes made in the caller's transaction are read again
+     * once it commits.
+     */
+    private void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        }
+    }
+
+    private GraphMetadata reload(boolean changed, boolean built) {
+        GraphMetadata previous = metadata;
+        Optional<List<GraphRepository.GraphLabel>> labels;
+        try {
+            labels = catalogTransaction.execute(status -> graphRepository.findGraphLabels());
+        } catch (Exception e) {
+            log.debug("Graph metadata refresh failed: {}", e.getMessage());
+            labels = Optional.empty();
+        }
+        boolean exists = labels != null && labels.isPresent();
+        List<String> vertexLabels = exists ? labels.get().stream().filter(label -> !label.edge())
+                .map(GraphRepository.GraphLabel::name).toList() : List.of();
+        List<String> edgeLabels = exists ? labels.get().stream().filter(GraphRepository.GraphLabel::edge)
+                .map(GraphRepository.GraphLabel::name).toList() : List.of();
+
+        long version = previous != null ? previous.buildVersion() : 0;
+        if (changed || previous == null || previous.exists() != exists
+                || !previous.vertexLabels().equals(vertexLabels) || !previous.edgeLabels().equals(edgeLabels)) {
+            version++;
+        }
+        Instant now = Instant.now();
+        Instant builtAt = built ? now : previous != null ? previous.builtAt() : null;
+        GraphMetadata refreshed = new GraphMetadata(exists, vertexLabels, edgeLabels, version, builtAt, now);
+        metadata = refreshed;
+        if (previous != null && previous.buildVersion() != version) {
+            log.debug("Graph metadata version {} - exists: {}, vertex labels: {}, edge labels: {}",
+                    version, exists, vertexLabels.size(), edgeLabels.size());
+        }
+        return refreshed;
+    }
+}
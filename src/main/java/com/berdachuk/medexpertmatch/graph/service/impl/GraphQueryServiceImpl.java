@@ -1,121 +1,212 @@
 package com.berdachuk.medexpertmatch.graph.service.impl;
 
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository;
 import com.berdachuk.medexpertmatch.graph.service.GraphQueryService;
 import com.berdachuk.medexpertmatch.graph.service.GraphService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Implementation of GraphQueryService that encapsulates specific Cypher queries
  * used in Semantic Graph Retrieval.
+ * Signals are served from the in-process {@link GraphAdjacencyIndex} when it is loaded,
+ * with Apache AGE Cypher queries as the fallback.
+ * Condition expertise credits related ICD-10 codes through {@link Icd10HierarchyIndex} with decayed weights,
+ * checked in the same single lookup as exact codes, and can blend in the per-condition centrality persisted
+ * by the graph analytics job ({@code medexpertmatch.graph.analytics.match-weight}).
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class GraphQueryServiceImpl implements GraphQueryService {
 
+    private static final List<String> DIRECT_RELATIONSHIP_TYPES = List.of("TREATED", "CONSULTED_ON");
+
     private final GraphService graphService;
+    private final GraphAdjacencyIndex adjacencyIndex;
+    private final GraphCentralityRepository centralityRepository;
+    private final Icd10HierarchyIndex conditionHierarchy;
+
+    /**
+     * Share of condition expertise taken from persisted condition centrality (0 = exact code matches only).
+     */
+    private final double centralityMatchWeight;
+
+    public GraphQueryServiceImpl(
+            GraphService graphService,
+            GraphAdjacencyIndex adjacencyIndex,
+            GraphCentralityRepository centralityRepository,
+            Icd10HierarchyIndex conditionHierarchy,
+            @Value("${medexpertmatch.graph.analytics.match-weight:0.0}") double centralityMatchWeight) {
+        this.graphService = graphService;
+        this.adjacencyIndex = adjacencyIndex;
+        this.centralityRepository = centralityRepository;
+        this.conditionHierarchy = conditionHierarchy;
+        this.centralityMatchWeight = centralityMatchWeight;
+    }
 
     @Override
     public double calculateDirectRelationshipScore(String doctorId, String caseId, String sessionId) {
-        // First check for TREATED relationship
-        String cypherQuery1 = """
-                MATCH (d:Doctor {id: $doctorId})-[:TREATED]->(c:MedicalCase {id: $caseId})
-                RETURN count(*)
-                """;
+        return calculateDirectRelationshipScores(List.of(doctorId), caseId, sessionId).getOrDefault(doctorId, 0.0);
+    }
 
-        Map<String, Object> params = new HashMap<>();
-        params.put("doctorId", doctorId);
-        params.put("caseId", caseId);
+    @Override
+    public double calculateConditionExpertiseScore(String doctorId, List<String> icd10Codes, String sessionId) {
+        if (icd10Codes == null || icd10Codes.isEmpty()) {
+            return 0.5; // No ICD-10 codes, return neutral score
+        }
+        return calculateConditionExpertiseScores(List.of(doctorId), icd10Codes, sessionId).getOrDefault(doctorId, 0.0);
+    }
 
-        List<Map<String, Object>> results1 = graphService.executeCypher(cypherQuery1, params);
+    @Override
+    public double calculateSpecializationMatchScore(String doctorId, String specialtyName, String sessionId) {
+        if (specialtyName == null || specialtyName.isEmpty()) {
+            return 0.5; // No specialty name, return neutral score
+        }
+        return calculateSpecializationMatchScores(List.of(doctorId), specialtyName, sessionId).getOrDefault(doctorId, 0.0);
+    }
 
-        int treatedCount = 0;
-        if (!results1.isEmpty()) {
-            // The result is stored under "c" for single-column queries
-            Object countObj = results1.get(0).get("c");
-            if (countObj != null) {
-                treatedCount = Integer.parseInt(countObj.toString());
-            }
+    @Override
+    public double calculateSimilarCasesScore(String doctorId, List<String> icd10Codes, String sessionId) {
+        if (icd10Codes == null || icd10Codes.isEmpty()) {
+            return 0.5; // No ICD-10 codes, return neutral score
+        }
+        return calculateSimilarCasesScores(List.of(doctorId), icd10Codes, sessionId).getOrDefault(doctorId, 0.0);
+    }
+
+    @Override
+    public Map<String, Double> calculateDirectRelationshipScores(List<String> doctorIds, String caseId, String sessionId) {
+        Map<String, Double> scores = initScores(doctorIds, 0.0);
+        if (scores.isEmpty()) {
+            return scores;
+        }
+
+        GraphAdjacencyIndex.Snapshot index = adjacencyIndex.current();
+        if (index != null) {
+            scores.replaceAll((doctorId, score) -> index.hasDirectRelationship(doctorId, caseId) ? 1.0 : 0.0);
+            return scores;
         }
 
-        // Then check for CONSULTED_ON relationship
-        String cypherQuery2 = """
-                MATCH (d:Doctor {id: $doctorId})-[:CONSULTED_ON]->(c:MedicalCase {id: $caseId})
-                RETURN count(*)
+        // TREATED and CONSULTED_ON are checked in one traversal; either relationship scores 1.0
+        String cypherQuery = """
+                MATCH (d:Doctor)-[r]->(c:MedicalCase {id: $caseId})
+                WHERE d.id IN $doctorIds AND type(r) IN $relationshipTypes
+                RETURN d.id, count(*)
                 """;
 
-        List<Map<String, Object>> results2 = graphService.executeCypher(cypherQuery2, params);
+        Map<String, Object> params = new HashMap<>();
+        params.put("doctorIds", List.copyOf(scores.keySet()));
+        params.put("caseId", caseId);
+        params.put("relationshipTypes", DIRECT_RELATIONSHIP_TYPES);
 
-        int consultedCount = 0;
-        if (!results2.isEmpty()) {
-            // The result is stored under "c" for single-column queries
-            Object countObj = results2.get(0).get("c");
-            if (countObj != null) {
-                consultedCount = Integer.parseInt(countObj.toString());
+        for (Map<String, Object> row : graphService.executeCypher(cypherQuery, params)) {
+            String doctorId = AgtypeValues.unquote(row.get("c0"));
+            if (doctorId != null && scores.containsKey(doctorId) && AgtypeValues.parseCount(row.get("c1")) > 0) {
+                scores.put(doctorId, 1.0);
             }
         }
-
-        // If either relationship exists, return 1.0, otherwise 0.0
-        int totalCount = treatedCount + consultedCount;
-        double score = Math.min(1.0, totalCount);
-        return score;
+        return scores;
     }
 
     @Override
-    public double calculateConditionExpertiseScore(String doctorId, List<String> icd10Codes, String sessionId) {
+    public Map<String, Double> calculateConditionExpertiseScores(List<String> doctorIds, List<String> icd10Codes, String sessionId) {
         if (icd10Codes == null || icd10Codes.isEmpty()) {
-            // Logging removed for modularity - caller can handle logging if needed
-            return 0.5; // No ICD-10 codes, return neutral score
+            return initScores(doctorIds, 0.5);
+        }
+        Map<String, Double> scores = initScores(doctorIds, 0.0);
+        if (scores.isEmpty()) {
+            return scores;
+        }
+
+        // Each case code expands to itself and its hierarchy neighbours; all of them are checked in one pass
+        Map<String, Map<String, Double>> expansions = conditionHierarchy.expand(icd10Codes);
+
+        GraphAdjacencyIndex.Snapshot index = adjacencyIndex.current();
+        if (index != null) {
+            scores.replaceAll((doctorId, score) -> conditionCredit(icd10Codes, expansions,
+                    code -> index.treatsCondition(doctorId, code)));
+            return blendConditionCentrality(scores, icd10Codes);
         }
 
-        // Logging removed for modularity - caller can handle logging if needed
-
-        // Count how many case ICD-10 codes the doctor treats
-        int matchingConditions = 0;
-        for (String icd10Code : icd10Codes) {
-            String cypherQuery = """
-                    MATCH (d:Doctor {id: $doctorId})-[:TREATS_CONDITION]->(i:ICD10Code {code: $icd10Code})
-                    RETURN count(*)
-                    """;
-
-            Map<String, Object> params = new HashMap<>();
-            params.put("doctorId", doctorId);
-            params.put("icd10Code", icd10Code);
-
-            List<Map<String, Object>> results = graphService.executeCypher(cypherQuery, params);
-            if (!results.isEmpty()) {
-                // The result is stored under "c" for single-column queries
-                Object countObj = results.get(0).get("c");
-                if (countObj != null) {
-                    int count = Integer.parseInt(countObj.toString());
-                    if (count > 0) {
-                        matchingConditions++;
-                    }
+        // One query for all expanded codes and doctors, returning per-doctor, per-code counts
+        String cypherQuery = """
+                MATCH (d:Doctor)-[:TREATS_CONDITION]->(i:ICD10Code)
+                WHERE d.id IN $doctorIds AND i.code IN $icd10Codes
+                RETURN d.id, i.code, count(*)
+                """;
+        Set<String> queriedCodes = new LinkedHashSet<>(icd10Codes);
+        expansions.values().forEach(expansion -> queriedCodes.addAll(expansion.keySet()));
+        Map<String, Map<String, Integer>> countsByDoctor = executeCodeCountQuery(cypherQuery, scores,
+                new ArrayList<>(queriedCodes));
+
+        // Normalize: all conditions match = 1.0, none match = 0.0
+        countsByDoctor.forEach((doctorId, codeCounts) -> scores.put(doctorId, conditionCredit(icd10Codes, expansions,
+                code -> codeCounts.getOrDefault(code, 0) > 0)));
+        return blendConditionCentrality(scores, icd10Codes);
+    }
+
+    /**
+     * Averages, over the case codes, the best weight among each code's expansion the doctor treats;
+     * codes without an expansion count exact matches only.
+     */
+    private static double conditionCredit(List<String> icd10Codes, Map<String, Map<String, Double>> expansions,
+                                          Predicate<String> treats) {
+        double credit = 0.0;
+        for (String code : icd10Codes) {
+            double best = 0.0;
+            for (Map.Entry<String, Double> related : expansions.getOrDefault(code,
+                    Collections.singletonMap(code, 1.0)).entrySet()) {
+                if (related.getValue() > best && treats.test(related.getKey())) {
+                    best = related.getValue();
                 }
             }
+            credit += best;
         }
+        return credit / icd10Codes.size();
+    }
 
-        double score = icd10Codes.isEmpty() ? 0.5 :
-                (double) matchingConditions / icd10Codes.size();
-        // Logging removed for modularity - caller can handle logging if needed
-        // Normalize: all conditions match = 1.0, none match = 0.0
-        return score;
+    /**
+     * Mixes each doctor's best stored condition centrality over the case's codes into the exact-match scores.
+     */
+    private Map<String, Double> blendConditionCentrality(Map<String, Double> scores, List<String> icd10Codes) {
+        double weight = Math.min(1.0, centralityMatchWeight);
+        if (weight <= 0.0) {
+            return scores;
+        }
+        Map<String, Double> centrality = centralityRepository.findConditionScores(List.copyOf(scores.keySet()), icd10Codes);
+        scores.replaceAll((doctorId, score) -> (1.0 - weight) * score + weight * centrality.getOrDefault(doctorId, 0.0));
+        return scores;
     }
 
     @Override
-    public double calculateSpecializationMatchScore(String doctorId, String specialtyName, String sessionId) {
+    public Map<String, Double> calculateSpecializationMatchScores(List<String> doctorIds, String specialtyName, String sessionId) {
         if (specialtyName == null || specialtyName.isEmpty()) {
-            // Logging removed for modularity - caller can handle logging if needed
-            return 0.5; // No specialty name, return neutral score
+            return initScores(doctorIds, 0.5);
+        }
+        Map<String, Double> scores = initScores(doctorIds, 0.0);
+        if (scores.isEmpty()) {
+            return scores;
+        }
+
+        String normalizedSpecialty = specialtyName.toLowerCase(java.util.Locale.ROOT).trim();
+        GraphAdjacencyIndex.Snapshot index = adjacencyIndex.current();
+        if (index != null) {
+            scores.replaceAll((doctorId, score) -> index.specialtyNames(doctorId).stream()
+                    .anyMatch(name -> specialtyMatches(normalizedSpecialty, name)) ? 1.0 : 0.0);
+            return scores;
         }
 
-        // M75: pull all SPECIALIZES_IN edges for this doctor and do a
+        // M75: pull all SPECIALIZES_IN edges for the doctors and do a
         // bidirectional case-insensitive substring match in Java.
         // The pre-M75 exact-name match failed for the Find Specialist
         // run on case 6a280f43ae781e00015d0113 (89 yo, angina,
@@ -128,103 +219,157 @@ public class GraphQueryServiceImpl implements GraphQueryService {
         // specialties ("Cardiology" and "Urology" share no substrings
         // of length 5+).
         String cypherQuery = """
-                MATCH (d:Doctor {id: $doctorId})-[:SPECIALIZES_IN]->(s:MedicalSpecialty)
-                RETURN s.name AS name
+                MATCH (d:Doctor)-[:SPECIALIZES_IN]->(s:MedicalSpecialty)
+                WHERE d.id IN $doctorIds
+                RETURN d.id, s.name
                 """;
 
         Map<String, Object> params = new HashMap<>();
-        params.put("doctorId", doctorId);
+        params.put("doctorIds", List.copyOf(scores.keySet()));
 
-        List<Map<String, Object>> results = graphService.executeCypher(cypherQuery, params);
+        for (Map<String, Object> row : graphService.executeCypher(cypherQuery, params)) {
+            String doctorId = AgtypeValues.unquote(row.get("c0"));
+            if (doctorId != null && scores.containsKey(doctorId)
+                    && specialtyMatches(normalizedSpecialty, row.get("c1"))) {
+                scores.put(doctorId, 1.0);
+            }
+        }
+        return scores;
+    }
 
-        if (results.isEmpty()) {
-            // Logging removed for modularity - caller can handle logging if needed
-            return 0.0;
+    @Override
+    public Map<String, Double> calculateSimilarCasesScores(List<String> doctorIds, List<String> icd10Codes, String sessionId) {
+        if (icd10Codes == null || icd10Codes.isEmpty()) {
+            return initScores(doctorIds, 0.5);
+        }
+        Map<String, Double> scores = initScores(doctorIds, 0.0);
+        if (scores.isEmpty()) {
+            return scores;
         }
 
-        String normalizedSpecialty = specialtyName.toLowerCase(java.util.Locale.ROOT).trim();
-        for (Map<String, Object> result : results) {
-            Object nameObj = result.get("name");
-            if (nameObj == null) {
-                // Apache AGE returns single-column results under "c" too
-                nameObj = result.get("c");
-            }
-            if (nameObj == null) {
-                continue;
-            }
-            // Apache AGE 1.6 returns string-typed results wrapped in
-            // JSON quotes, e.g. `"Cardiology"`. Strip the surrounding
-            // quotes so the substring comparison works on the raw name.
-            String raw = nameObj.toString();
-            if (raw.length() >= 2 && raw.startsWith("\"") && raw.endsWith("\"")) {
-                raw = raw.substring(1, raw.length() - 1);
-            }
-            String doctorSpecialty = raw.toLowerCase(java.util.Locale.ROOT).trim();
-            if (doctorSpecialty.isEmpty()) {
-                continue;
-            }
-            // Bidirectional substring: either contains the other.
-            // Both sides trimmed + lowercased to avoid case / whitespace
-            // mismatches ("Cardiology" vs "cardiology ", etc.).
-            if (normalizedSpecialty.contains(doctorSpecialty)
-                    || doctorSpecialty.contains(normalizedSpecialty)) {
-                return 1.0;
-            }
+        GraphAdjacencyIndex.Snapshot index = adjacencyIndex.current();
+        if (index != null) {
+            scores.replaceAll((doctorId, score) -> similarCasesScore(icd10Codes.stream()
+                    .mapToInt(code -> index.countTreatedCasesWithCondition(doctorId, code))
+                    .max()
+                    .orElse(0)));
+            return scores;
         }
 
-        // Logging removed for modularity - caller can handle logging if needed
-        // Specialization match = 1.0, no match = 0.0
-        return 0.0;
+        // Count cases treated by each doctor that share an ICD-10 code with this case, per code
+        String cypherQuery = """
+                MATCH (d:Doctor)-[:TREATED]->(c:MedicalCase)-[:HAS_CONDITION]->(i:ICD10Code)
+                WHERE d.id IN $doctorIds AND i.code IN $icd10Codes
+                RETURN d.id, i.code, count(*)
+                """;
+        Map<String, Map<String, Integer>> countsByDoctor = executeCodeCountQuery(cypherQuery, scores, icd10Codes);
+
+        countsByDoctor.forEach((doctorId, codeCounts) -> {
+            int similarCases = codeCounts.values().stream()
+                    .mapToInt(Integer::intValue)
+                    .max()
+                    .orElse(0); // Use max across all codes
+            scores.put(doctorId, similarCasesScore(similarCases));
+        });
+        return scores;
     }
 
     @Override
-    public double calculateSimilarCasesScore(String doctorId, List<String> icd10Codes, String sessionId) {
-        if (icd10Codes == null || icd10Codes.isEmpty()) {
-            // Logging removed for modularity - caller can handle logging if needed
-            return 0.5; // No ICD-10 codes, return neutral score
+    public Map<String, Integer> findDoctorsSharingConditions(List<String> icd10Codes, int limit) {
+        if (icd10Codes == null || icd10Codes.isEmpty() || limit <= 0) {
+            return Map.of();
         }
 
-        // Logging removed for modularity - caller can handle logging if needed
-
-        // Count cases treated by doctor that share at least one ICD-10 code with this case
-        // Query for each ICD-10 code separately and aggregate (more compatible with Apache AGE)
-        int totalSimilarCases = 0;
-        for (String icd10Code : icd10Codes) {
-            String cypherQuery = """
-                    MATCH (d:Doctor {id: $doctorId})-[:TREATED]->(c:MedicalCase)-[:HAS_CONDITION]->(i:ICD10Code {code: $icd10Code})
-                    RETURN count(*)
-                    """;
+        // Ranked in Java: the result is small and ORDER BY on aggregates is not portable across AGE versions
+        String cypherQuery = """
+                MATCH (d:Doctor)-[:TREATS_CONDITION]->(i:ICD10Code)
+                WHERE i.code IN $icd10Codes
+                RETURN d.id, count(DISTINCT i.code)
+                """;
+        Map<String, Object> params = new HashMap<>();
+        params.put("icd10Codes", icd10Codes.stream().distinct().toList());
 
-            Map<String, Object> params = new HashMap<>();
-            params.put("doctorId", doctorId);
-            params.put("icd10Code", icd10Code);
+        Map<String, Integer> sharedCodes = new HashMap<>();
+        for (Map<String, Object> row : graphService.executeCypher(cypherQuery, params)) {
+            String doctorId = AgtypeValues.unquote(row.get("c0"));
+            if (doctorId != null) {
+                sharedCodes.merge(doctorId, AgtypeValues.parseCount(row.get("c1")), Integer::sum);
+            }
+        }
 
-            List<Map<String, Object>> results = graphService.executeCypher(cypherQuery, params);
+        Map<String, Integer> ranked = new LinkedHashMap<>();
+        sharedCodes.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEachOrdered(entry -> ranked.put(entry.getKey(), entry.getValue()));
+        return ranked;
+    }
 
-            if (!results.isEmpty()) {
-                // The result is stored under "c" for single-column queries
-                Object countObj = results.get(0).get("c");
-                if (countObj != null) {
-                    int count = Integer.parseInt(countObj.toString());
-                    totalSimilarCases = Math.max(totalSimilarCases, count); // Use max across all codes
-                }
+    /**
+     * Runs a query returning {@code d.id, i.code, count} rows and groups the counts by doctor and code.
+     */
+    private Map<String, Map<String, Integer>> executeCodeCountQuery(String cypherQuery, Map<String, Double> scores,
+                                                                    List<String> icd10Codes) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("doctorIds", List.copyOf(scores.keySet()));
+        params.put("icd10Codes", icd10Codes.stream().distinct().toList());
+
+        Map<String, Map<String, Integer>> countsByDoctor = new HashMap<>();
+        for (Map<String, Object> row : graphService.executeCypher(cypherQuery, params)) {
+            String doctorId = AgtypeValues.unquote(row.get("c0"));
+            String code = AgtypeValues.unquote(row.get("c1"));
+            if (doctorId != null && code != null && scores.containsKey(doctorId)) {
+                countsByDoctor.computeIfAbsent(doctorId, id -> new HashMap<>())
+                        .merge(code, AgtypeValues.parseCount(row.get("c2")), Integer::sum);
             }
         }
+        return countsByDoctor;
+    }
 
-        // Normalize: 1+ similar cases = 1.0, 0 = 0.0
-        // Use logarithmic scaling to prevent overwhelming signal from doctors with many cases
-        double score;
-        if (totalSimilarCases == 0) {
-            score = 0.0;
-        } else if (totalSimilarCases == 1) {
-            score = 0.5;
-        } else if (totalSimilarCases <= 5) {
-            score = 0.75;
-        } else {
-            score = 1.0;
+    /**
+     * Normalizes a similar-case count: 0 = 0.0, 1 = 0.5, 2-5 = 0.75, more = 1.0.
+     * Stepped scaling prevents an overwhelming signal from doctors with many cases.
+     */
+    private static double similarCasesScore(int similarCases) {
+        if (similarCases == 0) {
+            return 0.0;
+        } else if (similarCases == 1) {
+            return 0.5;
+        } else if (similarCases <= 5) {
+            return 0.75;
         }
+        return 1.0;
+    }
 
-        // Logging removed for modularity - caller can handle logging if needed
-        return score;
+    /**
+     * Bidirectional case-insensitive substring match between the required specialty
+     * and a doctor's SPECIALIZES_IN name (see M75 note in calculateSpecializationMatchScores).
+     */
+    private static boolean specialtyMatches(String normalizedSpecialty, Object nameObj) {
+        String raw = AgtypeValues.unquote(nameObj);
+        if (raw == null) {
+            return false;
+        }
+        String doctorSpecialty = raw.toLowerCase(java.util.Locale.ROOT).trim();
+        if (doctorSpecialty.isEmpty()) {
+            return false;
+        }
+        return normalizedSpecialty.contains(doctorSpecialty) || doctorSpecialty.contains(normalizedSpecialty);
+    }
+
+    /**
+     * Creates a score map with every distinct, non-blank doctor ID set to the default score.
+     */
+    private static Map<String, Double> initScores(List<String> doctorIds, double defaultScore) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        if (doctorIds != null) {
+            for (String doctorId : doctorIds) {
+                if (doctorId != null && !doctorId.isBlank()) {
+                    scores.putIfAbsent(doctorId, defaultScore);
+                }
+            }
+        }
+        return scores;
     }
 }
@@ -18,9 +18,11 @@ import java.util.Map;
 @Service
 public class GraphServiceImpl implements GraphService {
     private final GraphRepository graphRepository;
+    private final GraphMetadataRegistry metadataRegistry;
 
-    public GraphServiceImpl(GraphRepository graphRepository) {
+    public GraphServiceImpl(GraphRepository graphRepository, GraphMetadataRegistry metadataRegistry) {
         this.graphRepository = graphRepository;
+        this.metadataRegistry = metadataRegistry;
     }
 
     /**
@@ -37,6 +39,21 @@ public class GraphServiceImpl implements GraphService {
         return graphRepository.executeCypher(cypherQuery, parameters);
     }
 
+    /**
+     * Executes a Cypher query and propagates failures. Joins the caller's transaction, so several writes
+     * commit or roll back together.
+     *
+     * @param cypherQuery The Cypher query to execute
+     * @param parameters  Map of parameter names to values for the query
+     * @return List of result rows, where each row is a map of column names to values
+     * @throws org.springframework.dao.DataAccessException if the query execution fails
+     */
+    @Override
+    @Transactional
+    public List<Map<String, Object>> executeCypherOrThrow(String cypherQuery, Map<String, Object> parameters) {
+        return graphRepository.executeCypherOrThrow(cypherQuery, parameters);
+    }
+
     /**
      * Executes a Cypher query and extracts a specific field from the results.
      *
@@ -52,24 +69,37 @@ public class GraphServiceImpl implements GraphService {
     }
 
     /**
-     * Checks if the Apache AGE graph exists in the database.
+     * Checks if the Apache AGE graph exists, from the cached graph metadata.
      *
      * @return true if the graph exists, false otherwise
      */
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public boolean graphExists() {
-        return graphRepository.graphExists();
+        return metadataRegistry.current().exists();
+    }
+
+    /**
+     * Returns the cached graph metadata: existence, labels and build version.
+     *
+     * @return Current graph metadata snapshot
+     */
+    @Override
+    public GraphMetadata getGraphMetadata() {
+        return metadataRegistry.current();
     }
 
     /**
      * Creates the Apache AGE graph if it doesn't exist.
      * This method is idempotent - it will not fail if the graph already exists.
+     * A newly created graph is recorded in the graph metadata once the transaction commits.
      */
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void createGraphIfNotExists() {
         graphRepository.createGraphIfNotExists();
+        if (!metadataRegistry.current().exists()) {
+            metadataRegistry.graphChanged();
+        }
     }
 
     /**
@@ -0,0 +1,56 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of the graph statistics served to the admin dashboard and health checks.
+ * <p>
+ * Entries expire after {@code medexpertmatch.graph.statistics.cache-ttl-ms} (0 disables caching) and are
+ * dropped whenever the graph is built, rebuilt, cleared or incrementally updated in this process.
+ */
+@Component
+class GraphStatisticsCache {
+
+    private record Entry(Map<String, Object> statistics, long expiresAtMillis) {
+    }
+
+    private final long ttlMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Entry entry;
+
+    GraphStatisticsCache(@Value("${medexpertmatch.graph.statistics.cache-ttl-ms:30000}") long ttlMillis) {
+        this.ttlMillis = Math.max(0, ttlMillis);
+    }
+
+    /**
+     * Returns the cached statistics, computing them with the loader when missing or expired.
+     */
+    Map<String, Object> get(Supplier<Map<String, Object>> loader) {
+        Entry current = entry;
+        long now = System.currentTimeMillis();
+        if (current != null && now < current.expiresAtMillis()) {
+            return current.statistics();
+        }
+        long loadGeneration = generation.get();
+        Map<String, Object> statistics = Collections.unmodifiableMap(new HashMap<>(loader.get()));
+        // Statistics loaded across an invalidation may predate the change, so they are not cached
+        if (ttlMillis > 0 && !statistics.containsKey("error") && generation.get() == loadGeneration) {
+            entry = new Entry(statistics, now + ttlMillis);
+        }
+        return statistics;
+    }
+
+    void invalidate() {
+        generation.incrementAndGet();
+        entry = null;
+    }
+}
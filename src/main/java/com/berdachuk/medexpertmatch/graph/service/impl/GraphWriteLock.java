@@ -0,0 +1,29 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes full graph builds with incremental outbox maintenance in this process.
+ * <p>
+ * Builds hold the lock for their whole run; the outbox consumer only tries it and skips the poll
+ * while a build is running, so deltas are never applied to a graph that is about to be replaced.
+ */
+@Component
+class GraphWriteLock {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    void lock() {
+        lock.lock();
+    }
+
+    boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+}
@@ -0,0 +1,217 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.medicalcoding.repository.ICD10CodeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * In-process ICD-10 hierarchy from {@code icd10_codes.parent_code}, used to credit condition expertise on
+ * related codes: a doctor who treats I21.4 earns partial credit for a case coded I21.9.
+ * <p>
+ * Codes are mapped to dense int IDs with one parent array and a compressed sparse row array of children.
+ * Expansion walks parent and child links breadth-first up to {@code medexpertmatch.graph.condition-hierarchy.max-depth}
+ * hops, weighting each related code by {@code decay^hops} and keeping at most {@code max-expanded-codes} per code.
+ * The hierarchy is loaded on first use. ICD-10 codes change independently of graph builds, so a scheduled
+ * background refresh compares the table's modification counter from PostgreSQL statistics with the one seen at
+ * the last load and reloads only when it moved; request threads never wait for a reload.
+ */
+@Slf4j
+@Component
+class Icd10HierarchyIndex {
+
+    private record Loaded(long modifications, Hierarchy hierarchy) {
+    }
+
+    private final ICD10CodeRepository icd10CodeRepository;
+    private final boolean enabled;
+    private final int maxDepth;
+    private final double decay;
+    private final int maxExpandedCodes;
+
+    private volatile Loaded loaded;
+
+    Icd10HierarchyIndex(
+            ICD10CodeRepository icd10CodeRepository,
+            @Value("${medexpertmatch.graph.condition-hierarchy.enabled:true}") boolean enabled,
+            @Value("${medexpertmatch.graph.condition-hierarchy.max-depth:2}") int maxDepth,
+            @Value("${medexpertmatch.graph.condition-hierarchy.decay:0.5}") double decay,
+            @Value("${medexpertmatch.graph.condition-hierarchy.max-expanded-codes:32}") int maxExpandedCodes) {
+        this.icd10CodeRepository = icd10CodeRepository;
+        this.enabled = enabled;
+        this.maxDepth = Math.max(0, maxDepth);
+        this.decay = Math.clamp(decay, 0.0, 1.0);
+        this.maxExpandedCodes = Math.max(1, maxExpandedCodes);
+    }
+
+    /**
+     * Expands each code to itself (weight 1.0) and its related codes within the configured depth.
+     *
+     * @return Weighted expansion per distinct non-null code, in breadth-first order;
+     * empty when the hierarchy is disabled or cannot be loaded, so callers score exact matches only
+     */
+    Map<String, Map<String, Double>> expand(Collection<String> icd10Codes) {
+        Hierarchy hierarchy = current();
+        if (hierarchy == null || maxDepth == 0) {
+            return Map.of();
+        }
+        Map<String, Map<String, Double>> expansions = new HashMap<>();
+        for (String code : icd10Codes) {
+            if (code != null) {
+                expansions.computeIfAbsent(code, c -> hierarchy.expand(c, maxDepth, decay, maxExpandedCodes));
+            }
+        }
+        return expansions;
+    }
+
+    /**
+     * Returns the loaded hierarchy, loading it on first use only.
+     */
+    Hierarchy current() {
+        if (!enabled) {
+            return null;
+        }
+        Loaded current = loaded;
+        return current != null ? current.hierarchy() : load(false);
+    }
+
+    /**
+     * Reloads the hierarchy when {@code icd10_codes} was modified since the last load.
+     */
+    @Scheduled(fixedDelayString = "${medexpertmatch.graph.condition-hierarchy.refresh-interval-ms:300000}",
+            initialDelayString = "${medexpertmatch.graph.condition-hierarchy.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (enabled) {
+            load(true);
+        }
+    }
+
+    private synchronized Hierarchy load(boolean ifModified) {
+        Loaded current = loaded;
+        if (current != null && !ifModified) {
+            return current.hierarchy();
+        }
+        try {
+            // Read the counter first: a write racing the load moves it again and triggers the next reload
+            long modifications = icd10CodeRepository.countModifications();
+            if (current != null && current.modifications() == modifications) {
+                return current.hierarchy();
+            }
+            Hierarchy hierarchy = Hierarchy.of(icd10CodeRepository.findParentCodes());
+            loaded = new Loaded(modifications, hierarchy);
+            log.debug("ICD-10 hierarchy loaded: {} codes", hierarchy.codes.length);
+            return hierarchy;
+        } catch (Exception e) {
+            log.warn("Failed to load ICD-10 hierarchy, condition expertise will use {}: {}",
+                    current != null ? "the previous hierarchy" : "exact code matches", e.getMessage());
+            return current != null ? current.hierarchy() : null;
+        }
+    }
+
+    /**
+     * Immutable ICD-10 tree keyed by dense int code IDs.
+     */
+    static final class Hierarchy {
+
+        final String[] codes;
+        final Map<String, Integer> ids;
+        /**
+         * Parent ID per code, -1 for roots.
+         */
+        final int[] parents;
+        /**
+         * Children of code {@code i} are {@code children[childOffsets[i]..childOffsets[i + 1])}, in code order.
+         */
+        final int[] childOffsets;
+        final int[] children;
+
+        private Hierarchy(String[] codes, Map<String, Integer> ids, int[] parents) {
+            this.codes = codes;
+            this.ids = ids;
+            this.parents = parents;
+            this.childOffsets = new int[codes.length + 1];
+            for (int parent : parents) {
+                if (parent >= 0) {
+                    childOffsets[parent + 1]++;
+                }
+            }
+            for (int i = 0; i < codes.length; i++) {
+                childOffsets[i + 1] += childOffsets[i];
+            }
+            this.children = new int[childOffsets[codes.length]];
+            int[] next = Arrays.copyOf(childOffsets, codes.length);
+            for (int child = 0; child < codes.length; child++) {
+                if (parents[child] >= 0) {
+                    children[next[parents[child]]++] = child;
+                }
+            }
+        }
+
+        /**
+         * Builds the hierarchy from a code-to-parent map; parents missing from the map's keys become roots.
+         */
+        static Hierarchy of(Map<String, String> parentCodes) {
+            TreeSet<String> sorted = new TreeSet<>(parentCodes.keySet());
+            sorted.addAll(parentCodes.values());
+            String[] codes = sorted.toArray(new String[0]);
+            Map<String, Integer> ids = new HashMap<>(codes.length * 2);
+            for (int i = 0; i < codes.length; i++) {
+                ids.put(codes[i], i);
+            }
+            int[] parents = new int[codes.length];
+            Arrays.fill(parents, -1);
+            parentCodes.forEach((code, parent) -> parents[ids.get(code)] = ids.get(parent));
+            return new Hierarchy(codes, ids, parents);
+        }
+
+        /**
+         * Breadth-first expansion over parent and child links; the code itself has weight 1.0 and
+         * each hop multiplies the weight by {@code decay}.
+         */
+        Map<String, Double> expand(String code, int maxDepth, double decay, int maxCodes) {
+            Map<String, Double> expansion = new LinkedHashMap<>();
+            expansion.put(code, 1.0);
+            Integer start = ids.get(code);
+            if (start == null) {
+                return expansion;
+            }
+            // The expansion doubles as the visited set, so a hop never holds more than maxCodes nodes
+            int[] frontier = {start};
+            int frontierSize = 1;
+            double weight = 1.0;
+            for (int depth = 1; depth <= maxDepth && frontierSize > 0; depth++) {
+                weight *= decay;
+                int[] next = new int[maxCodes];
+                int nextSize = 0;
+                for (int f = 0; f < frontierSize; f++) {
+                    int node = frontier[f];
+                    int parent = parents[node];
+                    // Position childOffsets[node] - 1 stands for the parent link
+                    int first = parent >= 0 ? childOffsets[node] - 1 : childOffsets[node];
+                    for (int i = first; i < childOffsets[node + 1]; i++) {
+                        int neighbor = i < childOffsets[node] ? parent : children[i];
+                        if (expansion.containsKey(codes[neighbor])) {
+                            continue;
+                        }
+                        if (expansion.size() >= maxCodes) {
+                            return expansion;
+                        }
+                        expansion.put(codes[neighbor], weight);
+                        next[nextSize++] = neighbor;
+                    }
+                }
+                frontier = next;
+                frontierSize = nextSize;
+            }
+            return expansion;
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package com.berdachuk.medexpertmatch.graph.service.impl;
 
 import com.berdachuk.medexpertmatch.clinicalexperience.repository.ClinicalExperienceRepository;
+import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+import com.berdachuk.medexpertmatch.doctor.domain.MedicalSpecialty;
 import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
 import com.berdachuk.medexpertmatch.doctor.repository.MedicalSpecialtyRepository;
 import com.berdachuk.medexpertmatch.facility.repository.FacilityRepository;
 import com.berdachuk.medexpertmatch.graph.exception.GraphOperationException;
+import com.berdachuk.medexpertmatch.graph.repository.GraphBulkLoadRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository;
 import com.berdachuk.medexpertmatch.graph.service.GraphService;
 import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService;
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
 import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code;
 import com.berdachuk.medexpertmatch.medicalcoding.repository.ICD10CodeRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation for building medical graph relationships from database data.
  * Populates Apache AGE graph with doctors, medical cases, ICD-10 codes, specialties, and facilities.
+ * <p>
+ * {@link #buildGraph()} runs vertices, then indexes, then edges; stages within a phase run on
+ * {@code medexpertmatch.graph.build.workers} threads when they write disjoint labels, and each stage
+ * prepares its next UNWIND batch while the current one executes.
+ * <p>
+ * Full builds hold the {@link GraphWriteLock} and drop the graph outbox entries recorded before they
+ * started, since the build already reflects those changes; later entries are applied incrementally.
  */
 @Slf4j
 @Service
@@ -31,6 +51,19 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
     private final ICD10CodeRepository icd10CodeRepository;
     private final MedicalSpecialtyRepository medicalSpecialtyRepository;
     private final FacilityRepository facilityRepository;
+    private final GraphAdjacencyIndex adjacencyIndex;
+    private final GraphBulkLoadRepository bulkLoadRepository;
+    private final GraphOutboxRepository outboxRepository;
+    private final GraphWriteLock graphWriteLock;
+    private final GraphStatisticsCache statisticsCache;
+    private final GraphMetadataRegistry metadataRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int batchSize;
+    private final boolean bulkLoadEnabled;
+
+    @InjectSql("/sql/graph/createGraphIndexes.sql")
+    private String createGraphIndexesSql;
 
     public MedicalGraphBuilderServiceImpl(
             NamedParameterJdbcTemplate namedJdbcTemplate,
@@ -40,7 +73,17 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
             ClinicalExperienceRepository clinicalExperienceRepository,
             ICD10CodeRepository icd10CodeRepository,
             MedicalSpecialtyRepository medicalSpecialtyRepository,
-            FacilityRepository facilityRepository) {
+            FacilityRepository facilityRepository,
+            GraphAdjacencyIndex adjacencyIndex,
+            GraphBulkLoadRepository bulkLoadRepository,
+            GraphOutboxRepository outboxRepository,
+            GraphWriteLock graphWriteLock,
+            GraphStatisticsCache statisticsCache,
+            GraphMetadataRegistry metadataRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${medexpertmatch.graph.build.workers:4}") int workers,
+            @Value("${medexpertmatch.graph.build.batch-size:1000}") int batchSize,
+            @Value("${medexpertmatch.graph.build.bulk-load.enabled:true}") boolean bulkLoadEnabled) {
         this.namedJdbcTemplate = namedJdbcTemplate;
         this.graphService = graphService;
         this.doctorRepository = doctorRepository;
@@ -49,242 +92,322 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
         this.icd10CodeRepository = icd10CodeRepository;
         this.medicalSpecialtyRepository = medicalSpecialtyRepository;
         this.facilityRepository = facilityRepository;
+        this.adjacencyIndex = adjacencyIndex;
+        this.bulkLoadRepository = bulkLoadRepository;
+        this.outboxRepository = outboxRepository;
+        this.graphWriteLock = graphWriteLock;
+        this.statisticsCache = statisticsCache;
+        this.metadataRegistry = metadataRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.bulkLoadEnabled = bulkLoadEnabled;
     }
 
     @Override
     public void buildGraph() {
+        runFullBuild(this::buildAllStages);
+    }
+
+    private void buildAllStages() {
         long startTime = System.currentTimeMillis();
-        log.info("Starting medical graph build process...");
+        // Workers use their own pooled connections, so a caller's transaction keeps the build on its thread
+        int effectiveWorkers = TransactionSynchronizationManager.isActualTransactionActive() ? 1 : workers;
+        GraphBuildPipeline pipeline = new GraphBuildPipeline(effectiveWorkers);
+        log.info("Starting medical graph build process ({} workers, batch size {})...", effectiveWorkers, batchSize);
+        // Serve graph signals from Apache AGE while the graph is being rebuilt
+        adjacencyIndex.invalidate();
 
         log.info("Ensuring graph structure exists...");
         graphService.createGraphIfNotExists();
         log.info("Graph structure ready");
 
-        log.info("Building graph vertices and edges...");
         long verticesStartTime = System.currentTimeMillis();
-
-        log.info("  Creating doctor vertices...");
-        long doctorStartTime = System.currentTimeMillis();
-        createDoctorVertices();
-        long doctorEndTime = System.currentTimeMillis();
-        log.info("  Doctor vertices created in {}ms", doctorEndTime - doctorStartTime);
-
-        log.info("  Creating medical case vertices...");
-        long caseStartTime = System.currentTimeMillis();
-        createMedicalCaseVertices();
-        long caseEndTime = System.currentTimeMillis();
-        log.info("  Medical case vertices created in {}ms", caseEndTime - caseStartTime);
-
-        log.info("  Creating ICD-10 code vertices...");
-        long icd10StartTime = System.currentTimeMillis();
-        createIcd10CodeVertices();
-        long icd10EndTime = System.currentTimeMillis();
-        log.info("  ICD-10 code vertices created in {}ms", icd10EndTime - icd10StartTime);
-
-        log.info("  Creating medical specialty vertices...");
-        long specialtyStartTime = System.currentTimeMillis();
-        createMedicalSpecialtyVertices();
-        long specialtyEndTime = System.currentTimeMillis();
-        log.info("  Medical specialty vertices created in {}ms", specialtyEndTime - specialtyStartTime);
-
-        log.info("  Creating facility vertices...");
-        long facilityStartTime = System.currentTimeMillis();
-        createFacilityVertices();
-        long facilityEndTime = System.currentTimeMillis();
-        log.info("  Facility vertices created in {}ms", facilityEndTime - facilityStartTime);
-
-        long verticesEndTime = System.currentTimeMillis();
-        log.info("Graph vertices creation completed in {}ms", verticesEndTime - verticesStartTime);
+        List<GraphBuildPipeline.StageReport> reports = new ArrayList<>(pipeline.runPhase("vertices", List.of(
+                new GraphBuildPipeline.Stage("Doctor vertices", Set.of("Doctor"),
+                        () -> createDoctorVertices(pipeline)),
+                new GraphBuildPipeline.Stage("MedicalCase vertices", Set.of("MedicalCase"),
+                        () -> createMedicalCaseVertices(pipeline)),
+                new GraphBuildPipeline.Stage("ICD10Code vertices", Set.of("ICD10Code"),
+                        () -> createIcd10CodeVertices(pipeline)),
+                new GraphBuildPipeline.Stage("MedicalSpecialty vertices", Set.of("MedicalSpecialty"),
+                        this::createMedicalSpecialtyVertices),
+                new GraphBuildPipeline.Stage("Facility vertices", Set.of("Facility"),
+                        this::createFacilityVertices))));
+        long verticesTime = System.currentTimeMillis() - verticesStartTime;
 
         log.info("Creating graph indexes...");
+        long indexesStartTime = System.currentTimeMillis();
         createGraphIndexes();
-        log.info("Graph indexes creation completed");
+        long indexesTime = System.currentTimeMillis() - indexesStartTime;
+        log.info("Graph indexes creation completed in {}ms", indexesTime);
 
-        log.info("Building graph relationships...");
+        // Edge stages that MERGE ICD10Code or MedicalSpecialty vertices also claim that label
         long relationshipsStartTime = System.currentTimeMillis();
+        Map<String, MedicalSpecialty> specialtiesByName = loadSpecialtiesByName();
+        Map<String, ICD10Code> icd10CodesByCode = loadIcd10CodesByCode();
+        reports.addAll(pipeline.runPhase("relationships", List.of(
+                new GraphBuildPipeline.Stage("TREATED edges", Set.of("TREATED"),
+                        () -> createTreatedRelationships(pipeline)),
+                new GraphBuildPipeline.Stage("SPECIALIZES_IN edges", Set.of("SPECIALIZES_IN", "MedicalSpecialty"),
+                        () -> createSpecializesInRelationships(pipeline, specialtiesByName)),
+                new GraphBuildPipeline.Stage("HAS_CONDITION edges", Set.of("HAS_CONDITION", "ICD10Code"),
+                        () -> createHasConditionRelationships(pipeline, icd10CodesByCode)),
+                new GraphBuildPipeline.Stage("TREATS_CONDITION edges", Set.of("TREATS_CONDITION", "ICD10Code"),
+                        () -> createTreatsConditionRelationships(pipeline, icd10CodesByCode)),
+                new GraphBuildPipeline.Stage("REQUIRES_SPECIALTY edges", Set.of("REQUIRES_SPECIALTY", "MedicalSpecialty"),
+                        () -> createRequiresSpecialtyRelationships(pipeline, specialtiesByName)),
+                new GraphBuildPipeline.Stage("AFFILIATED_WITH edges", Set.of("AFFILIATED_WITH"),
+                        () -> createAffiliatedWithRelationships(pipeline)))));
+        long relationshipsTime = System.currentTimeMillis() - relationshipsStartTime;
+        long edgeIndexesStartTime = System.currentTimeMillis();
+        createGraphIndexes();
+        indexesTime += System.currentTimeMillis() - edgeIndexesStartTime;
 
-        log.info("  Creating treated relationships...");
-        createTreatedRelationships();
-        log.info("  Treated relationships created");
-
-        log.info("  Creating specializes-in relationships...");
-        createSpecializesInRelationships();
-        log.info("  Specializes-in relationships created");
-
-        log.info("  Creating has-condition relationships...");
-        createHasConditionRelationships();
-        log.info("  Has-condition relationships created");
-
-        log.info("  Creating treats-condition relationships...");
-        createTreatsConditionRelationships();
-        log.info("  Treats-condition relationships created");
-
-        log.info("  Creating requires-specialty relationships...");
-        createRequiresSpecialtyRelationships();
-        log.info("  Requires-specialty relationships created");
-
-        log.info("  Creating affiliated-with relationships...");
-        createAffiliatedWithRelationships();
-        log.info("  Affiliated-with relationships created");
-
-        long relationshipsEndTime = System.currentTimeMillis();
-        log.info("Graph relationships creation completed in {}ms", relationshipsEndTime - relationshipsStartTime);
+        try {
+            adjacencyIndex.reload();
+        } catch (Exception e) {
+            log.warn("Failed to reload graph adjacency index, graph scoring will use Apache AGE: {}", e.getMessage());
+        }
 
-        long endTime = System.currentTimeMillis();
-        long totalTime = endTime - startTime;
+        long totalTime = System.currentTimeMillis() - startTime;
         log.info("Medical graph build process completed successfully in {}ms", totalTime);
         log.info("Graph build summary:");
         log.info("  - Total execution time: {}ms", totalTime);
-        log.info("  - Vertices creation time: {}ms", verticesEndTime - verticesStartTime);
-        log.info("  - Relationships creation time: {}ms", relationshipsEndTime - relationshipsStartTime);
+        log.info("  - Vertices creation time: {}ms", verticesTime);
+        log.info("  - Indexes creation time: {}ms", indexesTime);
+        log.info("  - Relationships creation time: {}ms", relationshipsTime);
+        for (GraphBuildPipeline.StageReport report : reports) {
+            log.info("  - {}: {} rows in {}ms ({} rows/s)", report.name(), report.rows(), report.elapsedMs(),
+                    String.format("%.1f", report.rowsPerSecond()));
+        }
     }
 
+    @Override
+    public void rebuildGraph() {
+        if (!bulkLoadEnabled) {
+            runFullBuild(() -> {
+                clearGraph();
+                buildAllStages();
+            });
+            return;
+        }
+        runFullBuild(this::bulkLoadAndSwap);
+    }
 
     /**
-     * Creates graph indexes for frequently queried properties.
+     * Runs a full build under the graph write lock, then discards the outbox entries it already covers.
+     * Only entries committed before the build started are discarded: a lower id can still commit later,
+     * so an id watermark would drop changes the build never read.
      */
-    private void createGraphIndexes() {
+    private void runFullBuild(Runnable build) {
+        graphWriteLock.lock();
+        boolean built = false;
         try {
-            String graphName = GRAPH_NAME;
-
-            // Check if graph tables exist before creating indexes
-            String checkTableSql = String.format("""
-                    SELECT EXISTS (
-                        SELECT FROM information_schema.tables 
-                        WHERE table_schema = 'ag_catalog' 
-                        AND table_name = 'ag_%s_Doctor'
-                    )
-                    """, graphName);
-
-            Boolean tableExists = namedJdbcTemplate.getJdbcTemplate().queryForObject(checkTableSql, Boolean.class);
-            if (tableExists == null || !tableExists) {
-                log.debug("Graph tables do not exist yet, skipping index creation");
-                return;
+            List<Long> coveredOutboxIds = outboxRepository.findIds();
+            build.run();
+            built = true;
+            outboxRepository.deleteByIds(coveredOutboxIds);
+            if (!coveredOutboxIds.isEmpty()) {
+                log.info("Discarded {} graph outbox entries covered by the full build", coveredOutboxIds.size());
             }
-
-            // Create GIN indexes on properties JSONB column for efficient property lookups
-            try {
-                String doctorIndexSql = String.format("""
-                        CREATE INDEX IF NOT EXISTS idx_%s_doctor_props_id 
-                        ON ag_catalog.ag_%s_Doctor USING gin ((properties jsonb_path_ops))
-                        """, graphName, graphName);
-                namedJdbcTemplate.getJdbcTemplate().execute(doctorIndexSql);
-            } catch (Exception e) {
-                log.debug("Could not create Doctor index: {}", e.getMessage());
+        } finally {
+            statisticsCache.invalidate();
+            if (built) {
+                metadataRegistry.graphBuilt();
+            } else {
+                metadataRegistry.graphChanged();
             }
+            graphWriteLock.unlock();
+        }
+    }
 
-            try {
-                String caseIndexSql = String.format("""
-                        CREATE INDEX IF NOT EXISTS idx_%s_medicalcase_props_id 
-                        ON ag_catalog.ag_%s_MedicalCase USING gin ((properties jsonb_path_ops))
-                        """, graphName, graphName);
-                namedJdbcTemplate.getJdbcTemplate().execute(caseIndexSql);
-            } catch (Exception e) {
-                log.debug("Could not create MedicalCase index: {}", e.getMessage());
-            }
+    private void bulkLoadAndSwap() {
+        long startTime = System.currentTimeMillis();
+        log.info("Starting bulk graph rebuild into staging graph...");
 
-            try {
-                String facilityIndexSql = String.format("""
-                        CREATE INDEX IF NOT EXISTS idx_%s_facility_props_id 
-                        ON ag_catalog.ag_%s_Facility USING gin ((properties jsonb_path_ops))
-                        """, graphName, graphName);
-                namedJdbcTemplate.getJdbcTemplate().execute(facilityIndexSql);
-            } catch (Exception e) {
-                log.debug("Could not create Facility index: {}", e.getMessage());
-            }
+        // The live graph and adjacency index keep serving scoring queries until the swap commits
+        Map<String, Long> labelCounts;
+        long loadTime;
+        long indexesTime;
+        try {
+            long[] phaseTimes = new long[2];
+            labelCounts = transactionTemplate.execute(status -> {
+                long loadStartTime = System.currentTimeMillis();
+                bulkLoadRepository.createStagingGraph();
+                bulkLoadRepository.loadStagingVertices();
+                bulkLoadRepository.loadStagingEdges();
+                phaseTimes[0] = System.currentTimeMillis() - loadStartTime;
+                long indexesStartTime = System.currentTimeMillis();
+                bulkLoadRepository.createStagingIndexes();
+                phaseTimes[1] = System.currentTimeMillis() - indexesStartTime;
+                return bulkLoadRepository.countStagingLabels();
+            });
+            loadTime = phaseTimes[0];
+            indexesTime = phaseTimes[1];
 
-            log.debug("Graph indexes created successfully");
+            long swapStartTime = System.currentTimeMillis();
+            transactionTemplate.executeWithoutResult(status -> bulkLoadRepository.swapStagingGraph());
+            adjacencyIndex.invalidate();
+            log.info("Staging graph swapped in as {} in {}ms", GRAPH_NAME, System.currentTimeMillis() - swapStartTime);
         } catch (Exception e) {
-            // Index creation might fail if tables don't exist yet or indexes already exist
-            // Log but continue - indexes are optional for functionality
-            log.debug("Could not create graph indexes: {}", e.getMessage());
+            log.error("Bulk graph rebuild failed, live graph left unchanged: {}", e.getMessage(), e);
+            throw new GraphOperationException("Bulk graph rebuild failed: " + e.getMessage(), e);
+        }
+
+        try {
+            bulkLoadRepository.dropPreviousGraph();
+        } catch (Exception e) {
+            log.warn("Failed to drop previous graph after swap, it will be dropped on the next rebuild: {}", e.getMessage());
+        }
+        try {
+            adjacencyIndex.reload();
+        } catch (Exception e) {
+            log.warn("Failed to reload graph adjacency index, graph scoring will use Apache AGE: {}", e.getMessage());
+        }
+
+        long totalTime = System.currentTimeMillis() - startTime;
+        long totalRows = labelCounts.values().stream().mapToLong(Long::longValue).sum();
+        log.info("Bulk graph rebuild completed successfully in {}ms", totalTime);
+        log.info("Graph rebuild summary:");
+        log.info("  - Total execution time: {}ms", totalTime);
+        log.info("  - Load time: {}ms ({} rows/s)", loadTime,
+                String.format("%.1f", loadTime > 0 ? totalRows * 1000.0 / loadTime : totalRows));
+        log.info("  - Indexes creation time: {}ms", indexesTime);
+        labelCounts.forEach((label, count) -> log.info("  - {}: {} rows", label, count));
+    }
+
+    /**
+     * Creates the property, graph id and start_id/end_id indexes the bulk build creates on its staging graph.
+     * Label tables that do not exist yet are skipped, so this runs after the vertex and again after the edge phase.
+     */
+    private void createGraphIndexes() {
+        try {
+            namedJdbcTemplate.getJdbcTemplate().execute(createGraphIndexesSql);
+            log.debug("Graph indexes created");
+        } catch (Exception e) {
+            // Indexes only speed up lookups and paging, so a failure does not fail the build
+            log.warn("Could not create graph indexes: {}", e.getMessage());
         }
     }
 
     /**
      * Creates Doctor vertices from doctors table.
      */
-    private void createDoctorVertices() {
+    private int createDoctorVertices(GraphBuildPipeline pipeline) {
         List<String> doctorIds = doctorRepository.findAllIds(0);
         int[] created = {0};
         int[] failed = {0};
-        for (String doctorId : doctorIds) {
-            doctorRepository.findById(doctorId).ifPresent(doctor -> {
-                try {
-                    createDoctorVertex(doctor.id(), doctor.name(), doctor.email());
-                    created[0]++;
-                } catch (Exception e) {
-                    failed[0]++;
-                    log.warn("Failed to create doctor vertex for doctor {}: {}", doctor.id(), e.getMessage());
-                    // Continue with next doctor
+        pipeline.pipelineBatches(doctorIds, batchSize, doctorRepository::findByIds, (ids, doctors) -> {
+            if (doctors.isEmpty()) {
+                return;
+            }
+            try {
+                executeStatement(String.format("""
+                        UNWIND %s AS v
+                        MERGE (d:Doctor {id: v.id, name: v.name, email: v.email})
+                        """, cypherList(doctors, doctor -> cypherMap(
+                        "id", doctor.id(), "name", doctor.name(), "email", doctor.email()))));
+                created[0] += doctors.size();
+            } catch (RuntimeException e) {
+                rethrowInCallerTransaction(e);
+                log.warn("Batch doctor vertex creation failed, retrying {} doctors individually: {}", doctors.size(), e.getMessage());
+                for (Doctor doctor : doctors) {
+                    try {
+                        createDoctorVertex(doctor.id(), doctor.name(), doctor.email());
+                        created[0]++;
+                    } catch (Exception rowError) {
+                        failed[0]++;
+                        log.warn("Failed to create doctor vertex for doctor {}: {}", doctor.id(), rowError.getMessage());
+                    }
                 }
-            });
-            if ((created[0] + failed[0]) % 100 == 0) {
-                log.debug("  Processed {}/{} doctor vertices ({} created, {} failed)", created[0] + failed[0], doctorIds.size(), created[0], failed[0]);
             }
-        }
+            log.debug("  Processed {}/{} doctor vertices ({} created, {} failed)", created[0] + failed[0], doctorIds.size(), created[0], failed[0]);
+        });
         log.info("  Created {} doctor vertices ({} failed)", created[0], failed[0]);
+        return created[0];
     }
 
     /**
      * Creates MedicalCase vertices from medical_cases table.
      */
-    private void createMedicalCaseVertices() {
+    private int createMedicalCaseVertices(GraphBuildPipeline pipeline) {
         List<String> caseIds = medicalCaseRepository.findAllIds(0);
         int[] created = {0};
         int[] failed = {0};
-        for (String caseId : caseIds) {
-            medicalCaseRepository.findById(caseId).ifPresent(medicalCase -> {
-                try {
-                    createMedicalCaseVertex(
-                            medicalCase.id(),
-                            medicalCase.chiefComplaint() != null ? medicalCase.chiefComplaint() : "",
-                            medicalCase.urgencyLevel() != null ? medicalCase.urgencyLevel().name() : "MEDIUM"
-                    );
-                    created[0]++;
-                } catch (Exception e) {
-                    failed[0]++;
-                    log.warn("Failed to create medical case vertex for case {}: {}", medicalCase.id(), e.getMessage());
-                    // Continue with next case
+        pipeline.pipelineBatches(caseIds, batchSize, medicalCaseRepository::findByIds, (ids, medicalCases) -> {
+            if (medicalCases.isEmpty()) {
+                return;
+            }
+            try {
+                executeStatement(String.format("""
+                        UNWIND %s AS v
+                        MERGE (c:MedicalCase {id: v.id, chiefComplaint: v.chiefComplaint, urgencyLevel: v.urgencyLevel})
+                        """, cypherList(medicalCases, medicalCase -> cypherMap(
+                        "id", medicalCase.id(),
+                        "chiefComplaint", medicalCase.chiefComplaint(),
+                        "urgencyLevel", urgencyLevelOf(medicalCase)))));
+                created[0] += medicalCases.size();
+            } catch (RuntimeException e) {
+                rethrowInCallerTransaction(e);
+                log.warn("Batch medical case vertex creation failed, retrying {} cases individually: {}", medicalCases.size(), e.getMessage());
+                for (MedicalCase medicalCase : medicalCases) {
+                    try {
+                        createMedicalCaseVertex(
+                                medicalCase.id(),
+                                medicalCase.chiefComplaint() != null ? medicalCase.chiefComplaint() : "",
+                                urgencyLevelOf(medicalCase)
+                        );
+                        created[0]++;
+                    } catch (Exception rowError) {
+                        failed[0]++;
+                        log.warn("Failed to create medical case vertex for case {}: {}", medicalCase.id(), rowError.getMessage());
+                    }
                 }
-            });
-            if ((created[0] + failed[0]) % 100 == 0) {
-                log.debug("  Processed {}/{} medical case vertices ({} created, {} failed)", created[0] + failed[0], caseIds.size(), created[0], failed[0]);
             }
-        }
+            log.debug("  Processed {}/{} medical case vertices ({} created, {} failed)", created[0] + failed[0], caseIds.size(), created[0], failed[0]);
+        });
         log.info("  Created {} medical case vertices ({} failed)", created[0], failed[0]);
+        return created[0];
     }
 
     /**
-     * Creates ICD10Code vertices from icd10_codes table.
+     * A failed statement aborts the caller's transaction, so per-row retries could only fail as well.
      */
-    private void createIcd10CodeVertices() {
-        List<com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code> codes = icd10CodeRepository.findAll();
-        int created = 0;
-        for (var code : codes) {
-            createIcd10CodeVertex(code.code(), code.description() != null ? code.description() : "");
-            created++;
-            if (created % 100 == 0) {
-                log.debug("  Processed {}/{} ICD-10 code vertices", created, codes.size());
-            }
+    private static void rethrowInCallerTransaction(RuntimeException e) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw e;
         }
-        log.info("  Created {} ICD-10 code vertices", created);
+    }
+
+    private static String urgencyLevelOf(MedicalCase medicalCase) {
+        return medicalCase.urgencyLevel() != null ? medicalCase.urgencyLevel().name() : "MEDIUM";
+    }
+
+    /**
+     * Creates ICD10Code vertices from icd10_codes table.
+     */
+    private int createIcd10CodeVertices(GraphBuildPipeline pipeline) {
+        List<ICD10Code> codes = icd10CodeRepository.findAll();
+        pipeline.pipelineBatches(codes, batchSize,
+                batch -> String.format("""
+                        UNWIND %s AS v
+                        MERGE (i:ICD10Code {code: v.code, description: v.description})
+                        """, cypherList(batch, code -> cypherMap("code", code.code(), "description", code.description()))),
+                (batch, cypher) -> executeStatement(cypher));
+        log.info("  Created {} ICD-10 code vertices", codes.size());
+        return codes.size();
     }
 
     /**
      * Creates MedicalSpecialty vertices from medical_specialties table.
      */
-    private void createMedicalSpecialtyVertices() {
-        List<com.berdachuk.medexpertmatch.doctor.domain.MedicalSpecialty> specialties = medicalSpecialtyRepository.findAll();
-        Set<String> assignedSpecialtyNames = new HashSet<>();
-        List<String> doctorIds = doctorRepository.findAllIds(0);
-        for (String doctorId : doctorIds) {
-            doctorRepository.findById(doctorId).ifPresent(doctor -> {
-                if (doctor.specialties() != null) {
-                    assignedSpecialtyNames.addAll(doctor.specialties());
-                }
-            });
-        }
+    private int createMedicalSpecialtyVertices() {
+        List<MedicalSpecialty> specialties = medicalSpecialtyRepository.findAll();
+        Set<String> assignedSpecialtyNames = new HashSet<>(namedJdbcTemplate.queryForList("""
+                SELECT DISTINCT unnest(specialties)
+                FROM medexpertmatch.doctors
+                """, Map.of(), String.class));
         int created = 0;
         int skipped = 0;
         for (var specialty : specialties) {
@@ -296,22 +419,18 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
             created++;
         }
         log.info("  Created {} medical specialty vertices ({} skipped)", created, skipped);
+        return created;
     }
 
     /**
      * Creates Facility vertices from facilities table.
      */
-    private void createFacilityVertices() {
+    private int createFacilityVertices() {
         List<com.berdachuk.medexpertmatch.facility.domain.Facility> facilities = facilityRepository.findAll();
-        Set<String> assignedFacilityIds = new HashSet<>();
-        List<String> doctorIds = doctorRepository.findAllIds(0);
-        for (String doctorId : doctorIds) {
-            doctorRepository.findById(doctorId).ifPresent(doctor -> {
-                if (doctor.facilityIds() != null) {
-                    assignedFacilityIds.addAll(doctor.facilityIds());
-                }
-            });
-        }
+        Set<String> assignedFacilityIds = new HashSet<>(namedJdbcTemplate.queryForList("""
+                SELECT DISTINCT unnest(facility_ids)
+                FROM medexpertmatch.doctors
+                """, Map.of(), String.class));
         int created = 0;
         int skipped = 0;
         int failed = 0;
@@ -327,266 +446,112 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
                         facility.facilityType() != null ? facility.facilityType() : ""
                 );
                 created++;
-            } catch (Exception e) {
+            } catch (RuntimeException e) {
+                rethrowInCallerTransaction(e);
                 failed++;
                 log.warn("Failed to create facility vertex for facility {}: {}", facility.id(), e.getMessage());
             }
         }
         log.info("  Created {} facility vertices ({} skipped, {} failed)", created, skipped, failed);
+        return created;
     }
 
     /**
      * Creates TREATED relationships from clinical experiences.
      */
-    private void createTreatedRelationships() {
-        long startTime = System.currentTimeMillis();
-        String sql = """
-                SELECT doctor_id, case_id
+    private int createTreatedRelationships(GraphBuildPipeline pipeline) {
+        List<TreatedRelationship> relationships = namedJdbcTemplate.query("""
+                SELECT DISTINCT doctor_id, case_id
                 FROM medexpertmatch.clinical_experiences
                 WHERE doctor_id IS NOT NULL AND case_id IS NOT NULL
-                """;
-
-        List<TreatedRelationship> relationships = namedJdbcTemplate.query(sql, (rs, rowNum) -> {
-            String doctorId = rs.getString("doctor_id");
-            String caseId = rs.getString("case_id");
-            if (doctorId != null && caseId != null) {
-                return new TreatedRelationship(doctorId, caseId);
-            }
-            return null;
-        }).stream().filter(r -> r != null).distinct().toList();
-
-        // Process in chunks of 1000
-        int batchSize = 1000;
-        int totalRelationships = relationships.size();
-        int processed = 0;
-
-        for (int i = 0; i < relationships.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, relationships.size());
-            List<TreatedRelationship> batch = relationships.subList(i, end);
-            createTreatedRelationshipsBatch(batch);
-            processed += batch.size();
-            if (processed % 5000 == 0 || processed == totalRelationships) {
-                log.debug("  Processed {}/{} treated relationships", processed, totalRelationships);
-            }
-        }
-
-        long endTime = System.currentTimeMillis();
-        log.info("  Created {} treated relationships in {}ms", totalRelationships, endTime - startTime);
+                """, (rs, rowNum) -> new TreatedRelationship(rs.getString("doctor_id"), rs.getString("case_id")));
+        return executeRelationships(pipeline, "treated", relationships, this::treatedStatements);
     }
 
     /**
      * Creates SPECIALIZES_IN relationships from doctor specialties.
      */
-    private void createSpecializesInRelationships() {
-        long startTime = System.currentTimeMillis();
-        List<String> doctorIds = doctorRepository.findAllIds(0);
-        List<SpecializesInRelationship> relationships = new ArrayList<>();
-
-        for (String doctorId : doctorIds) {
-            doctorRepository.findById(doctorId).ifPresent(doctor -> {
-                if (doctor.specialties() != null) {
-                    for (String specialty : doctor.specialties()) {
-                        if (specialty != null && !specialty.isEmpty()) {
-                            relationships.add(new SpecializesInRelationship(doctorId, specialty));
-                        }
-                    }
-                }
-            });
-        }
-
-        // Deduplicate
-        Set<SpecializesInRelationship> relationshipSet = new LinkedHashSet<>(relationships);
-        List<SpecializesInRelationship> uniqueRelationships = new ArrayList<>(relationshipSet);
-
-        // Process in chunks of 1000
-        int batchSize = 1000;
-        int totalRelationships = uniqueRelationships.size();
-        int processed = 0;
-
-        for (int i = 0; i < uniqueRelationships.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, uniqueRelationships.size());
-            List<SpecializesInRelationship> batch = uniqueRelationships.subList(i, end);
-            createSpecializesInRelationshipsBatch(batch);
-            processed += batch.size();
-            if (processed % 5000 == 0 || processed == totalRelationships) {
-                log.debug("  Processed {}/{} specializes-in relationships", processed, totalRelationships);
-            }
-        }
-
-        long endTime = System.currentTimeMillis();
-        log.info("  Created {} specializes-in relationships in {}ms", totalRelationships, endTime - startTime);
+    private int createSpecializesInRelationships(GraphBuildPipeline pipeline,
+                                                 Map<String, MedicalSpecialty> specialtiesByName) {
+        List<SpecializesInRelationship> relationships = namedJdbcTemplate.query("""
+                SELECT DISTINCT d.id AS doctor_id, s.specialty
+                FROM medexpertmatch.doctors d
+                CROSS JOIN LATERAL unnest(d.specialties) AS s(specialty)
+                WHERE s.specialty IS NOT NULL AND s.specialty <> ''
+                """, (rs, rowNum) -> new SpecializesInRelationship(rs.getString("doctor_id"), rs.getString("specialty")));
+        return executeRelationships(pipeline, "specializes-in", relationships,
+                batch -> specializesInStatements(batch, specialtiesByName));
     }
 
     /**
      * Creates HAS_CONDITION relationships from medical case ICD-10 codes.
      */
-    private void createHasConditionRelationships() {
-        long startTime = System.currentTimeMillis();
-        List<String> caseIds = medicalCaseRepository.findAllIds(0);
-        List<HasConditionRelationship> relationships = new ArrayList<>();
-
-        for (String caseId : caseIds) {
-            medicalCaseRepository.findById(caseId).ifPresent(medicalCase -> {
-                if (medicalCase.icd10Codes() != null) {
-                    for (String icd10Code : medicalCase.icd10Codes()) {
-                        if (icd10Code != null && !icd10Code.isEmpty()) {
-                            relationships.add(new HasConditionRelationship(caseId, icd10Code));
-                        }
-                    }
-                }
-            });
-        }
-
-        // Deduplicate
-        Set<HasConditionRelationship> relationshipSet = new LinkedHashSet<>(relationships);
-        List<HasConditionRelationship> uniqueRelationships = new ArrayList<>(relationshipSet);
-
-        // Process in chunks of 1000
-        int batchSize = 1000;
-        int totalRelationships = uniqueRelationships.size();
-        int processed = 0;
-
-        for (int i = 0; i < uniqueRelationships.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, uniqueRelationships.size());
-            List<HasConditionRelationship> batch = uniqueRelationships.subList(i, end);
-            createHasConditionRelationshipsBatch(batch);
-            processed += batch.size();
-            if (processed % 5000 == 0 || processed == totalRelationships) {
-                log.debug("  Processed {}/{} has-condition relationships", processed, totalRelationships);
-            }
-        }
-
-        long endTime = System.currentTimeMillis();
-        log.info("  Created {} has-condition relationships in {}ms", totalRelationships, endTime - startTime);
+    private int createHasConditionRelationships(GraphBuildPipeline pipeline, Map<String, ICD10Code> icd10CodesByCode) {
+        List<HasConditionRelationship> relationships = namedJdbcTemplate.query("""
+                SELECT DISTINCT mc.id AS case_id, c.icd10_code
+                FROM medexpertmatch.medical_cases mc
+                CROSS JOIN LATERAL unnest(mc.icd10_codes) AS c(icd10_code)
+                WHERE c.icd10_code IS NOT NULL AND c.icd10_code <> ''
+                """, (rs, rowNum) -> new HasConditionRelationship(rs.getString("case_id"), rs.getString("icd10_code")));
+        return executeRelationships(pipeline, "has-condition", relationships,
+                batch -> hasConditionStatements(batch, icd10CodesByCode));
     }
 
     /**
      * Creates TREATS_CONDITION relationships from clinical experiences and medical cases.
      */
-    private void createTreatsConditionRelationships() {
-        long startTime = System.currentTimeMillis();
-
-        // Get all experiences via SQL
-        String sql = """
-                SELECT DISTINCT ce.doctor_id, mc.icd10_codes
+    private int createTreatsConditionRelationships(GraphBuildPipeline pipeline, Map<String, ICD10Code> icd10CodesByCode) {
+        List<TreatsConditionRelationship> relationships = namedJdbcTemplate.query("""
+                SELECT DISTINCT ce.doctor_id, c.icd10_code
                 FROM medexpertmatch.clinical_experiences ce
                 JOIN medexpertmatch.medical_cases mc ON ce.case_id = mc.id
-                WHERE ce.doctor_id IS NOT NULL AND mc.icd10_codes IS NOT NULL
-                """;
-
-        List<TreatsConditionRelationship> relationships = new ArrayList<>();
-        namedJdbcTemplate.query(sql, (rs, rowNum) -> {
-            String doctorId = rs.getString("doctor_id");
-            String[] icd10Codes = (String[]) rs.getArray("icd10_codes").getArray();
-            if (doctorId != null && icd10Codes != null) {
-                for (String icd10Code : icd10Codes) {
-                    if (icd10Code != null && !icd10Code.isEmpty()) {
-                        relationships.add(new TreatsConditionRelationship(doctorId, icd10Code));
-                    }
-                }
-            }
-            return null;
-        });
-
-        // Deduplicate
-        Set<TreatsConditionRelationship> relationshipSet = new LinkedHashSet<>(relationships);
-        List<TreatsConditionRelationship> uniqueRelationships = new ArrayList<>(relationshipSet);
-
-        // Process in chunks of 1000
-        int batchSize = 1000;
-        int totalRelationships = uniqueRelationships.size();
-        int processed = 0;
-
-        for (int i = 0; i < uniqueRelationships.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, uniqueRelationships.size());
-            List<TreatsConditionRelationship> batch = uniqueRelationships.subList(i, end);
-            createTreatsConditionRelationshipsBatch(batch);
-            processed += batch.size();
-            if (processed % 5000 == 0 || processed == totalRelationships) {
-                log.debug("  Processed {}/{} treats-condition relationships", processed, totalRelationships);
-            }
-        }
-
-        long endTime = System.currentTimeMillis();
-        log.info("  Created {} treats-condition relationships in {}ms", totalRelationships, endTime - startTime);
+                CROSS JOIN LATERAL unnest(mc.icd10_codes) AS c(icd10_code)
+                WHERE ce.doctor_id IS NOT NULL AND c.icd10_code IS NOT NULL AND c.icd10_code <> ''
+                """, (rs, rowNum) -> new TreatsConditionRelationship(rs.getString("doctor_id"), rs.getString("icd10_code")));
+        return executeRelationships(pipeline, "treats-condition", relationships,
+                batch -> treatsConditionStatements(batch, icd10CodesByCode));
     }
 
     /**
      * Creates REQUIRES_SPECIALTY relationships from medical case required specialty.
      */
-    private void createRequiresSpecialtyRelationships() {
-        long startTime = System.currentTimeMillis();
-        List<String> caseIds = medicalCaseRepository.findAllIds(0);
-        List<RequiresSpecialtyRelationship> relationships = new ArrayList<>();
-
-        for (String caseId : caseIds) {
-            medicalCaseRepository.findById(caseId).ifPresent(medicalCase -> {
-                if (medicalCase.requiredSpecialty() != null && !medicalCase.requiredSpecialty().isEmpty()) {
-                    relationships.add(new RequiresSpecialtyRelationship(caseId, medicalCase.requiredSpecialty()));
-                }
-            });
-        }
-
-        // Process in chunks of 1000
-        int batchSize = 1000;
-        int totalRelationships = relationships.size();
-        int processed = 0;
-
-        for (int i = 0; i < relationships.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, relationships.size());
-            List<RequiresSpecialtyRelationship> batch = relationships.subList(i, end);
-            createRequiresSpecialtyRelationshipsBatch(batch);
-            processed += batch.size();
-            if (processed % 5000 == 0 || processed == totalRelationships) {
-                log.debug("  Processed {}/{} requires-specialty relationships", processed, totalRelationships);
-            }
-        }
-
-        long endTime = System.currentTimeMillis();
-        log.info("  Created {} requires-specialty relationships in {}ms", totalRelationships, endTime - startTime);
+    private int createRequiresSpecialtyRelationships(GraphBuildPipeline pipeline,
+                                                     Map<String, MedicalSpecialty> specialtiesByName) {
+        List<RequiresSpecialtyRelationship> relationships = namedJdbcTemplate.query("""
+                SELECT id AS case_id, required_specialty
+                FROM medexpertmatch.medical_cases
+                WHERE required_specialty IS NOT NULL AND required_specialty <> ''
+                """, (rs, rowNum) -> new RequiresSpecialtyRelationship(rs.getString("case_id"), rs.getString("required_specialty")));
+        return executeRelationships(pipeline, "requires-specialty", relationships,
+                batch -> requiresSpecialtyStatements(batch, specialtiesByName));
     }
 
     /**
      * Creates AFFILIATED_WITH relationships from doctor facility IDs.
      */
-    private void createAffiliatedWithRelationships() {
-        long startTime = System.currentTimeMillis();
-        List<String> doctorIds = doctorRepository.findAllIds(0);
-        List<AffiliatedWithRelationship> relationships = new ArrayList<>();
-
-        for (String doctorId : doctorIds) {
-            doctorRepository.findById(doctorId).ifPresent(doctor -> {
-                if (doctor.facilityIds() != null) {
-                    for (String facilityId : doctor.facilityIds()) {
-                        if (facilityId != null && !facilityId.isEmpty()) {
-                            relationships.add(new AffiliatedWithRelationship(doctorId, facilityId));
-                        }
-                    }
-                }
-            });
-        }
-
-        // Deduplicate
-        Set<AffiliatedWithRelationship> relationshipSet = new LinkedHashSet<>(relationships);
-        List<AffiliatedWithRelationship> uniqueRelationships = new ArrayList<>(relationshipSet);
-
-        // Process in chunks of 1000
-        int batchSize = 1000;
-        int totalRelationships = uniqueRelationships.size();
-        int processed = 0;
-
-        for (int i = 0; i < uniqueRelationships.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, uniqueRelationships.size());
-            List<AffiliatedWithRelationship> batch = uniqueRelationships.subList(i, end);
-            createAffiliatedWithRelationshipsBatch(batch);
-            processed += batch.size();
-            if (processed % 5000 == 0 || processed == totalRelationships) {
-                log.debug("  Processed {}/{} affiliated-with relationships", processed, totalRelationships);
-            }
-        }
+    private int createAffiliatedWithRelationships(GraphBuildPipeline pipeline) {
+        List<AffiliatedWithRelationship> relationships = namedJdbcTemplate.query("""
+                SELECT DISTINCT d.id AS doctor_id, f.facility_id
+                FROM medexpertmatch.doctors d
+                CROSS JOIN LATERAL unnest(d.facility_ids) AS f(facility_id)
+                WHERE f.facility_id IS NOT NULL AND f.facility_id <> ''
+                """, (rs, rowNum) -> new AffiliatedWithRelationship(rs.getString("doctor_id"), rs.getString("facility_id")));
+        return executeRelationships(pipeline, "affiliated-with", relationships, this::affiliatedWithStatements);
+    }
 
-        long endTime = System.currentTimeMillis();
-        log.info("  Created {} affiliated-with relationships in {}ms", totalRelationships, endTime - startTime);
+    /**
+     * Executes relationships in batches, building the Cypher for the next batch while the current one runs.
+     */
+    private <R> int executeRelationships(GraphBuildPipeline pipeline, String type, List<R> relationships,
+                                         Function<List<R>, List<String>> statements) {
+        int[] processed = {0};
+        pipeline.pipelineBatches(relationships, batchSize, statements, (batch, cypher) -> {
+            cypher.forEach(this::executeStatement);
+            processed[0] += batch.size();
+            log.debug("  Processed {}/{} {} relationships", processed[0], relationships.size(), type);
+        });
+        log.info("  Created {} {} relationships", processed[0], type);
+        return processed[0];
     }
 
     // Individual vertex creation methods
@@ -602,7 +567,7 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
         params.put("name", name != null ? name : "");
         params.put("email", email != null ? email : "");
 
-        graphService.executeCypher(cypher, params);
+        graphService.executeCypherOrThrow(cypher, params);
     }
 
     @Override
@@ -615,7 +580,7 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
         params.put("chiefComplaint", chiefComplaint != null ? chiefComplaint : "");
         params.put("urgencyLevel", urgencyLevel != null ? urgencyLevel : "MEDIUM");
 
-        graphService.executeCypher(cypher, params);
+        graphService.executeCypherOrThrow(cypher, params);
     }
 
     @Override
@@ -627,7 +592,7 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
         params.put("code", code);
         params.put("description", description != null ? description : "");
 
-        graphService.executeCypher(cypher, params);
+        graphService.executeCypherOrThrow(cypher, params);
     }
 
     @Override
@@ -639,7 +604,7 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
         params.put("specialtyId", specialtyId);
         params.put("name", name);
 
-        graphService.executeCypher(cypher, params);
+        graphService.executeCypherOrThrow(cypher, params);
     }
 
     @Override
@@ -652,13 +617,14 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
         params.put("name", name != null ? name : "");
         params.put("facilityType", facilityType != null ? facilityType : "");
 
-        graphService.executeCypher(cypher, params);
+        graphService.executeCypherOrThrow(cypher, params);
     }
 
     // Individual relationship creation methods
 
     @Override
     public void createTreatedRelationship(String doctorId, String caseId) {
+        adjacencyIndex.invalidate();
         String cypher = """
                 MATCH (d:Doctor {id: $doctorId})
                 MATCH (c:MedicalCase {id: $caseId})
@@ -674,6 +640,7 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
 
     @Override
     public void createConsultedOnRelationship(String doctorId, String caseId) {
+        adjacencyIndex.invalidate();
         String cypher = """
                 MATCH (d:Doctor {id: $doctorId})
                 MATCH (c:MedicalCase {id: $caseId})
@@ -689,8 +656,9 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
 
     @Override
     public void createSpecializesInRelationship(String doctorId, String specialtyName) {
+        adjacencyIndex.invalidate();
         // Look up specialty to get full entity data (id and name)
-        Optional<com.berdachuk.medexpertmatch.doctor.domain.MedicalSpecialty> specialty =
+        Optional<MedicalSpecialty> specialty =
                 medicalSpecialtyRepository.findByName(specialtyName);
 
         if (specialty.isEmpty()) {
@@ -722,8 +690,9 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
 
     @Override
     public void createTreatsConditionRelationship(String doctorId, String icd10Code) {
+        adjacencyIndex.invalidate();
         // Look up ICD-10 code to get full entity data (code and description)
-        Optional<com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code> code =
+        Optional<ICD10Code> code =
                 icd10CodeRepository.findByCode(icd10Code);
 
         if (code.isEmpty()) {
@@ -755,8 +724,9 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
 
     @Override
     public void createHasConditionRelationship(String caseId, String icd10Code) {
+        adjacencyIndex.invalidate();
         // Look up ICD-10 code to get full entity data (code and description)
-        Optional<com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code> code =
+        Optional<ICD10Code> code =
                 icd10CodeRepository.findByCode(icd10Code);
 
         if (code.isEmpty()) {
@@ -789,7 +759,7 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
     @Override
     public void createRequiresSpecialtyRelationship(String caseId, String specialtyName) {
         // Look up specialty to get full entity data (id and name)
-        Optional<com.berdachuk.medexpertmatch.doctor.domain.MedicalSpecialty> specialty =
+        Optional<MedicalSpecialty> specialty =
                 medicalSpecialtyRepository.findByName(specialtyName);
 
         if (specialty.isEmpty()) {
@@ -838,386 +808,224 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
 
     @Override
     public void createTreatedRelationshipsBatch(List<TreatedRelationship> relationships) {
+        adjacencyIndex.invalidate();
         if (relationships == null || relationships.isEmpty()) {
             return;
         }
+        treatedStatements(relationships).forEach(this::executeStatement);
+    }
 
-        StringBuilder relationshipsList = new StringBuilder("[");
-        boolean first = true;
-        for (TreatedRelationship rel : relationships) {
-            if (!first) {
-                relationshipsList.append(", ");
-            }
-            first = false;
-            String doctorId = escapeCypherString(rel.doctorId());
-            String caseId = escapeCypherString(rel.caseId());
-            relationshipsList.append("{doctorId: '").append(doctorId)
-                    .append("', caseId: '").append(caseId).append("'}");
+    @Override
+    public void createSpecializesInRelationshipsBatch(List<SpecializesInRelationship> relationships) {
+        adjacencyIndex.invalidate();
+        if (relationships == null || relationships.isEmpty()) {
+            return;
         }
-        relationshipsList.append("]");
+        specializesInStatements(relationships, loadSpecialtiesByName()).forEach(this::executeStatement);
+    }
 
-        String cypher = String.format("""
-                UNWIND %s AS rel
-                MATCH (d:Doctor {id: rel.doctorId})
-                MATCH (c:MedicalCase {id: rel.caseId})
-                MERGE (d)-[:TREATED]->(c)
-                """, relationshipsList);
+    @Override
+    public void createHasConditionRelationshipsBatch(List<HasConditionRelationship> relationships) {
+        adjacencyIndex.invalidate();
+        if (relationships == null || relationships.isEmpty()) {
+            return;
+        }
+        hasConditionStatements(relationships, loadIcd10CodesByCode()).forEach(this::executeStatement);
+    }
 
-        graphService.executeCypher(cypher, new HashMap<>());
+    @Override
+    public void createTreatsConditionRelationshipsBatch(List<TreatsConditionRelationship> relationships) {
+        adjacencyIndex.invalidate();
+        if (relationships == null || relationships.isEmpty()) {
+            return;
+        }
+        treatsConditionStatements(relationships, loadIcd10CodesByCode()).forEach(this::executeStatement);
     }
 
     @Override
-    public void createSpecializesInRelationshipsBatch(List<SpecializesInRelationship> relationships) {
+    public void createRequiresSpecialtyRelationshipsBatch(List<RequiresSpecialtyRelationship> relationships) {
         if (relationships == null || relationships.isEmpty()) {
             return;
         }
+        requiresSpecialtyStatements(relationships, loadSpecialtiesByName()).forEach(this::executeStatement);
+    }
 
-        // Pre-load all specialties into a map for efficient lookup
-        Map<String, com.berdachuk.medexpertmatch.doctor.domain.MedicalSpecialty> specialtyMap =
-                medicalSpecialtyRepository.findAll().stream()
-                        .collect(java.util.stream.Collectors.toMap(
-                                com.berdachuk.medexpertmatch.doctor.domain.MedicalSpecialty::name,
-                                specialty -> specialty,
-                                (existing, replacement) -> existing // Keep first if duplicates
-                        ));
-
-        // Split into two batches: with id (most common) and without id (fallback)
-        List<SpecializesInRelationship> withId = new ArrayList<>();
-        List<SpecializesInRelationship> withoutId = new ArrayList<>();
-
-        for (SpecializesInRelationship rel : relationships) {
-            if (specialtyMap.containsKey(rel.specialtyName())) {
-                withId.add(rel);
-            } else {
-                withoutId.add(rel);
-            }
+    @Override
+    public void createAffiliatedWithRelationshipsBatch(List<AffiliatedWithRelationship> relationships) {
+        if (relationships == null || relationships.isEmpty()) {
+            return;
         }
+        affiliatedWithStatements(relationships).forEach(this::executeStatement);
+    }
 
-        // Process batch with id (use full entity data: id and name)
-        if (!withId.isEmpty()) {
-            StringBuilder withIdList = new StringBuilder("[");
-            boolean first = true;
-            for (SpecializesInRelationship rel : withId) {
-                if (!first) {
-                    withIdList.append(", ");
-                }
-                first = false;
-                String doctorId = escapeCypherString(rel.doctorId());
-                String specialtyName = escapeCypherString(rel.specialtyName());
-                String specialtyId = escapeCypherString(specialtyMap.get(specialtyName).id());
-                withIdList.append("{doctorId: '").append(doctorId)
-                        .append("', specialtyId: '").append(specialtyId)
-                        .append("', specialtyName: '").append(specialtyName).append("'}");
-            }
-            withIdList.append("]");
+    // Batch Cypher builders: pure functions of the batch and lookup maps, safe to run ahead of execution
 
-            String cypherWithId = String.format("""
+    private List<String> treatedStatements(List<TreatedRelationship> relationships) {
+        return List.of(String.format("""
+                UNWIND %s AS rel
+                MATCH (d:Doctor {id: rel.doctorId})
+                MATCH (c:MedicalCase {id: rel.caseId})
+                MERGE (d)-[:TREATED]->(c)
+                """, cypherList(relationships, rel -> cypherMap("doctorId", rel.doctorId(), "caseId", rel.caseId()))));
+    }
+
+    private List<String> specializesInStatements(List<SpecializesInRelationship> relationships,
+                                                 Map<String, MedicalSpecialty> specialtiesByName) {
+        // Split into with id (most common) and name-only fallback for specialties missing from the table
+        Map<Boolean, List<SpecializesInRelationship>> known = relationships.stream()
+                .collect(Collectors.partitioningBy(rel -> specialtiesByName.containsKey(rel.specialtyName())));
+        List<String> statements = new ArrayList<>();
+        if (!known.get(true).isEmpty()) {
+            statements.add(String.format("""
                     UNWIND %s AS rel
                     MATCH (d:Doctor {id: rel.doctorId})
                     MERGE (s:MedicalSpecialty {id: rel.specialtyId, name: rel.specialtyName})
                     MERGE (d)-[:SPECIALIZES_IN]->(s)
-                    """, withIdList);
-            graphService.executeCypher(cypherWithId, new HashMap<>());
+                    """, cypherList(known.get(true), rel -> cypherMap(
+                    "doctorId", rel.doctorId(),
+                    "specialtyId", specialtiesByName.get(rel.specialtyName()).id(),
+                    "specialtyName", rel.specialtyName()))));
         }
-
-        // Process batch without id (fallback: use name only)
-        if (!withoutId.isEmpty()) {
-            StringBuilder withoutIdList = new StringBuilder("[");
-            boolean first = true;
-            for (SpecializesInRelationship rel : withoutId) {
-                if (!first) {
-                    withoutIdList.append(", ");
-                }
-                first = false;
-                String doctorId = escapeCypherString(rel.doctorId());
-                String specialtyName = escapeCypherString(rel.specialtyName());
-                withoutIdList.append("{doctorId: '").append(doctorId)
-                        .append("', specialtyName: '").append(specialtyName).append("'}");
-            }
-            withoutIdList.append("]");
-
-            String cypherWithoutId = String.format("""
+        if (!known.get(false).isEmpty()) {
+            statements.add(String.format("""
                     UNWIND %s AS rel
                     MATCH (d:Doctor {id: rel.doctorId})
                     MERGE (s:MedicalSpecialty {name: rel.specialtyName})
                     MERGE (d)-[:SPECIALIZES_IN]->(s)
-                    """, withoutIdList);
-            graphService.executeCypher(cypherWithoutId, new HashMap<>());
+                    """, cypherList(known.get(false), rel -> cypherMap(
+                    "doctorId", rel.doctorId(), "specialtyName", rel.specialtyName()))));
         }
+        return statements;
     }
 
-    @Override
-    public void createHasConditionRelationshipsBatch(List<HasConditionRelationship> relationships) {
-        if (relationships == null || relationships.isEmpty()) {
-            return;
-        }
-
-        // Pre-load all ICD-10 codes into a map for efficient lookup
-        Map<String, com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code> codeMap =
-                icd10CodeRepository.findAll().stream()
-                        .collect(java.util.stream.Collectors.toMap(
-                                com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code::code,
-                                code -> code,
-                                (existing, replacement) -> existing // Keep first if duplicates
-                        ));
-
-        // Split into two batches: with description (most common) and without description (fallback)
-        List<HasConditionRelationship> withDescription = new ArrayList<>();
-        List<HasConditionRelationship> withoutDescription = new ArrayList<>();
-
-        for (HasConditionRelationship rel : relationships) {
-            if (codeMap.containsKey(rel.icd10Code())) {
-                withDescription.add(rel);
-            } else {
-                withoutDescription.add(rel);
-            }
-        }
-
-        // Process batch with description (use full entity data: code and description)
-        if (!withDescription.isEmpty()) {
-            StringBuilder withDescList = new StringBuilder("[");
-            boolean first = true;
-            for (HasConditionRelationship rel : withDescription) {
-                if (!first) {
-                    withDescList.append(", ");
-                }
-                first = false;
-                String caseId = escapeCypherString(rel.caseId());
-                String icd10Code = escapeCypherString(rel.icd10Code());
-                String description = escapeCypherString(
-                        codeMap.get(icd10Code).description() != null ?
-                                codeMap.get(icd10Code).description() : "");
-                withDescList.append("{caseId: '").append(caseId)
-                        .append("', icd10Code: '").append(icd10Code)
-                        .append("', description: '").append(description).append("'}");
-            }
-            withDescList.append("]");
-
-            String cypherWithDesc = String.format("""
+    private List<String> hasConditionStatements(List<HasConditionRelationship> relationships,
+                                                Map<String, ICD10Code> icd10CodesByCode) {
+        // Split into with description (most common) and code-only fallback for unknown codes
+        Map<Boolean, List<HasConditionRelationship>> known = relationships.stream()
+                .collect(Collectors.partitioningBy(rel -> icd10CodesByCode.containsKey(rel.icd10Code())));
+        List<String> statements = new ArrayList<>();
+        if (!known.get(true).isEmpty()) {
+            statements.add(String.format("""
                     UNWIND %s AS rel
                     MATCH (c:MedicalCase {id: rel.caseId})
                     MERGE (i:ICD10Code {code: rel.icd10Code, description: rel.description})
                     MERGE (c)-[:HAS_CONDITION]->(i)
-                    """, withDescList);
-            graphService.executeCypher(cypherWithDesc, new HashMap<>());
+                    """, cypherList(known.get(true), rel -> cypherMap(
+                    "caseId", rel.caseId(),
+                    "icd10Code", rel.icd10Code(),
+                    "description", icd10CodesByCode.get(rel.icd10Code()).description()))));
         }
-
-        // Process batch without description (fallback: use code only)
-        if (!withoutDescription.isEmpty()) {
-            StringBuilder withoutDescList = new StringBuilder("[");
-            boolean first = true;
-            for (HasConditionRelationship rel : withoutDescription) {
-                if (!first) {
-                    withoutDescList.append(", ");
-                }
-                first = false;
-                String caseId = escapeCypherString(rel.caseId());
-                String icd10Code = escapeCypherString(rel.icd10Code());
-                withoutDescList.append("{caseId: '").append(caseId)
-                        .append("', icd10Code: '").append(icd10Code).append("'}");
-            }
-            withoutDescList.append("]");
-
-            String cypherWithoutDesc = String.format("""
+        if (!known.get(false).isEmpty()) {
+            statements.add(String.format("""
                     UNWIND %s AS rel
                     MATCH (c:MedicalCase {id: rel.caseId})
                     MERGE (i:ICD10Code {code: rel.icd10Code})
                     MERGE (c)-[:HAS_CONDITION]->(i)
-                    """, withoutDescList);
-            graphService.executeCypher(cypherWithoutDesc, new HashMap<>());
+                    """, cypherList(known.get(false), rel -> cypherMap(
+                    "caseId", rel.caseId(), "icd10Code", rel.icd10Code()))));
         }
+        return statements;
     }
 
-    @Override
-    public void createTreatsConditionRelationshipsBatch(List<TreatsConditionRelationship> relationships) {
-        if (relationships == null || relationships.isEmpty()) {
-            return;
-        }
-
-        // Pre-load all ICD-10 codes into a map for efficient lookup
-        Map<String, com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code> codeMap =
-                icd10CodeRepository.findAll().stream()
-                        .collect(java.util.stream.Collectors.toMap(
-                                com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code::code,
-                                code -> code,
-                                (existing, replacement) -> existing // Keep first if duplicates
-                        ));
-
-        // Split into two batches: with description (most common) and without description (fallback)
-        List<TreatsConditionRelationship> withDescription = new ArrayList<>();
-        List<TreatsConditionRelationship> withoutDescription = new ArrayList<>();
-
-        for (TreatsConditionRelationship rel : relationships) {
-            if (codeMap.containsKey(rel.icd10Code())) {
-                withDescription.add(rel);
-            } else {
-                withoutDescription.add(rel);
-            }
-        }
-
-        // Process batch with description (use full entity data: code and description)
-        if (!withDescription.isEmpty()) {
-            StringBuilder withDescList = new StringBuilder("[");
-            boolean first = true;
-            for (TreatsConditionRelationship rel : withDescription) {
-                if (!first) {
-                    withDescList.append(", ");
-                }
-                first = false;
-                String doctorId = escapeCypherString(rel.doctorId());
-                String icd10Code = escapeCypherString(rel.icd10Code());
-                String description = escapeCypherString(
-                        codeMap.get(icd10Code).description() != null ?
-                                codeMap.get(icd10Code).description() : "");
-                withDescList.append("{doctorId: '").append(doctorId)
-                        .append("', icd10Code: '").append(icd10Code)
-                        .append("', description: '").append(description).append("'}");
-            }
-            withDescList.append("]");
-
-            String cypherWithDesc = String.format("""
+    private List<String> treatsConditionStatements(List<TreatsConditionRelationship> relationships,
+                                                   Map<String, ICD10Code> icd10CodesByCode) {
+        // Split into with description (most common) and code-only fallback for unknown codes
+        Map<Boolean, List<TreatsConditionRelationship>> known = relationships.stream()
+                .collect(Collectors.partitioningBy(rel -> icd10CodesByCode.containsKey(rel.icd10Code())));
+        List<String> statements = new ArrayList<>();
+        if (!known.get(true).isEmpty()) {
+            statements.add(String.format("""
                     UNWIND %s AS rel
                     MATCH (d:Doctor {id: rel.doctorId})
                     MERGE (i:ICD10Code {code: rel.icd10Code, description: rel.description})
                     MERGE (d)-[:TREATS_CONDITION]->(i)
-                    """, withDescList);
-            graphService.executeCypher(cypherWithDesc, new HashMap<>());
+                    """, cypherList(known.get(true), rel -> cypherMap(
+                    "doctorId", rel.doctorId(),
+                    "icd10Code", rel.icd10Code(),
+                    "description", icd10CodesByCode.get(rel.icd10Code()).description()))));
         }
-
-        // Process batch without description (fallback: use code only)
-        if (!withoutDescription.isEmpty()) {
-            StringBuilder withoutDescList = new StringBuilder("[");
-            boolean first = true;
-            for (TreatsConditionRelationship rel : withoutDescription) {
-                if (!first) {
-                    withoutDescList.append(", ");
-                }
-                first = false;
-                String doctorId = escapeCypherString(rel.doctorId());
-                String icd10Code = escapeCypherString(rel.icd10Code());
-                withoutDescList.append("{doctorId: '").append(doctorId)
-                        .append("', icd10Code: '").append(icd10Code).append("'}");
-            }
-            withoutDescList.append("]");
-
-            String cypherWithoutDesc = String.format("""
+        if (!known.get(false).isEmpty()) {
+            statements.add(String.format("""
                     UNWIND %s AS rel
                     MATCH (d:Doctor {id: rel.doctorId})
                     MERGE (i:ICD10Code {code: rel.icd10Code})
                     MERGE (d)-[:TREATS_CONDITION]->(i)
-                    """, withoutDescList);
-            graphService.executeCypher(cypherWithoutDesc, new HashMap<>());
+                    """, cypherList(known.get(false), rel -> cypherMap(
+                    "doctorId", rel.doctorId(), "icd10Code", rel.icd10Code()))));
         }
+        return statements;
     }
 
-    @Override
-    public void createRequiresSpecialtyRelationshipsBatch(List<RequiresSpecialtyRelationship> relationships) {
-        if (relationships == null || relationships.isEmpty()) {
-            return;
-        }
-
-        // Pre-load all specialties into a map for efficient lookup
-        Map<String, com.berdachuk.medexpertmatch.doctor.domain.MedicalSpecialty> specialtyMap =
-                medicalSpecialtyRepository.findAll().stream()
-                        .collect(java.util.stream.Collectors.toMap(
-                                com.berdachuk.medexpertmatch.doctor.domain.MedicalSpecialty::name,
-                                specialty -> specialty,
-                                (existing, replacement) -> existing // Keep first if duplicates
-                        ));
-
-        // Split into two batches: with id (most common) and without id (fallback)
-        List<RequiresSpecialtyRelationship> withId = new ArrayList<>();
-        List<RequiresSpecialtyRelationship> withoutId = new ArrayList<>();
-
-        for (RequiresSpecialtyRelationship rel : relationships) {
-            if (specialtyMap.containsKey(rel.specialtyName())) {
-                withId.add(rel);
-            } else {
-                withoutId.add(rel);
-            }
-        }
-
-        // Process batch with id (use full entity data: id and name)
-        if (!withId.isEmpty()) {
-            StringBuilder withIdList = new StringBuilder("[");
-            boolean first = true;
-            for (RequiresSpecialtyRelationship rel : withId) {
-                if (!first) {
-                    withIdList.append(", ");
-                }
-                first = false;
-                String caseId = escapeCypherString(rel.caseId());
-                String specialtyName = escapeCypherString(rel.specialtyName());
-                String specialtyId = escapeCypherString(specialtyMap.get(specialtyName).id());
-                withIdList.append("{caseId: '").append(caseId)
-                        .append("', specialtyId: '").append(specialtyId)
-                        .append("', specialtyName: '").append(specialtyName).append("'}");
-            }
-            withIdList.append("]");
-
-            String cypherWithId = String.format("""
+    private List<String> requiresSpecialtyStatements(List<RequiresSpecialtyRelationship> relationships,
+                                                     Map<String, MedicalSpecialty> specialtiesByName) {
+        // Split into with id (most common) and name-only fallback for specialties missing from the table
+        Map<Boolean, List<RequiresSpecialtyRelationship>> known = relationships.stream()
+                .collect(Collectors.partitioningBy(rel -> specialtiesByName.containsKey(rel.specialtyName())));
+        List<String> statements = new ArrayList<>();
+        if (!known.get(true).isEmpty()) {
+            statements.add(String.format("""
                     UNWIND %s AS rel
                     MATCH (c:MedicalCase {id: rel.caseId})
                     MERGE (s:MedicalSpecialty {id: rel.specialtyId, name: rel.specialtyName})
                     MERGE (c)-[:REQUIRES_SPECIALTY]->(s)
-                    """, withIdList);
-            graphService.executeCypher(cypherWithId, new HashMap<>());
+                    """, cypherList(known.get(true), rel -> cypherMap(
+                    "caseId", rel.caseId(),
+                    "specialtyId", specialtiesByName.get(rel.specialtyName()).id(),
+                    "specialtyName", rel.specialtyName()))));
         }
-
-        // Process batch without id (fallback: use name only)
-        if (!withoutId.isEmpty()) {
-            StringBuilder withoutIdList = new StringBuilder("[");
-            boolean first = true;
-            for (RequiresSpecialtyRelationship rel : withoutId) {
-                if (!first) {
-                    withoutIdList.append(", ");
-                }
-                first = false;
-                String caseId = escapeCypherString(rel.caseId());
-                String specialtyName = escapeCypherString(rel.specialtyName());
-                withoutIdList.append("{caseId: '").append(caseId)
-                        .append("', specialtyName: '").append(specialtyName).append("'}");
-            }
-            withoutIdList.append("]");
-
-            String cypherWithoutId = String.format("""
+        if (!known.get(false).isEmpty()) {
+            statements.add(String.format("""
                     UNWIND %s AS rel
                     MATCH (c:MedicalCase {id: rel.caseId})
                     MERGE (s:MedicalSpecialty {name: rel.specialtyName})
                     MERGE (c)-[:REQUIRES_SPECIALTY]->(s)
-                    """, withoutIdList);
-            graphService.executeCypher(cypherWithoutId, new HashMap<>());
+                    """, cypherList(known.get(false), rel -> cypherMap(
+                    "caseId", rel.caseId(), "specialtyName", rel.specialtyName()))));
         }
+        return statements;
     }
 
-    @Override
-    public void createAffiliatedWithRelationshipsBatch(List<AffiliatedWithRelationship> relationships) {
-        if (relationships == null || relationships.isEmpty()) {
-            return;
-        }
-
-        StringBuilder relationshipsList = new StringBuilder("[");
-        boolean first = true;
-        for (AffiliatedWithRelationship rel : relationships) {
-            if (!first) {
-                relationshipsList.append(", ");
-            }
-            first = false;
-            String doctorId = escapeCypherString(rel.doctorId());
-            String facilityId = escapeCypherString(rel.facilityId());
-            relationshipsList.append("{doctorId: '").append(doctorId)
-                    .append("', facilityId: '").append(facilityId).append("'}");
-        }
-        relationshipsList.append("]");
-
-        String cypher = String.format("""
+    private List<String> affiliatedWithStatements(List<AffiliatedWithRelationship> relationships) {
+        return List.of(String.format("""
                 UNWIND %s AS rel
                 MATCH (d:Doctor {id: rel.doctorId})
                 MATCH (f:Facility {id: rel.facilityId})
                 MERGE (d)-[:AFFILIATED_WITH]->(f)
-                """, relationshipsList);
+                """, cypherList(relationships, rel -> cypherMap("doctorId", rel.doctorId(), "facilityId", rel.facilityId()))));
+    }
+
+    private Map<String, MedicalSpecialty> loadSpecialtiesByName() {
+        return medicalSpecialtyRepository.findAll().stream()
+                .collect(Collectors.toMap(MedicalSpecialty::name, specialty -> specialty,
+                        (existing, replacement) -> existing)); // Keep first if duplicates
+    }
+
+    private Map<String, ICD10Code> loadIcd10CodesByCode() {
+        return icd10CodeRepository.findAll().stream()
+                .collect(Collectors.toMap(ICD10Code::code, code -> code,
+                        (existing, replacement) -> existing)); // Keep first if duplicates
+    }
+
+    private void executeStatement(String cypher) {
+        graphService.executeCypherOrThrow(cypher, new HashMap<>());
+    }
+
+    /**
+     * Renders rows as a Cypher list literal for UNWIND.
+     */
+    private <R> String cypherList(List<R> rows, Function<R, String> toMap) {
+        return rows.stream().map(toMap).collect(Collectors.joining(", ", "[", "]"));
+    }
 
-        graphService.executeCypher(cypher, new HashMap<>());
+    /**
+     * Renders alternating keys and values as a Cypher map literal of escaped strings.
+     */
+    private String cypherMap(String... keysAndValues) {
+        StringJoiner map = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.add(keysAndValues[i] + ": '" + escapeCypherString(keysAndValues[i + 1]) + "'");
+        }
+        return map.toString();
     }
 
     /**
@@ -1238,6 +1046,9 @@ public class MedicalGraphBuilderServiceImpl implements MedicalGraphBuilderServic
     @org.springframework.transaction.annotation.Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
     public void clearGraph() {
         log.info("clearGraph() called");
+        adjacencyIndex.invalidate();
+        statisticsCache.invalidate();
+        metadataRegistry.graphChanged();
         boolean graphExists = graphService.graphExists();
         log.info("Graph exists check result: {}", graphExists);
 
@@ -171,15 +171,15 @@ public class EmbeddingGeneratorServiceImpl implements EmbeddingGeneratorService
 
         try {
             long embeddingStartTime = System.currentTimeMillis();
-            List<List<Double>> embeddings = embeddingService.generateEmbeddingsForMedicalCases(batch);
+            List<float[]> embeddings = embeddingService.generateEmbeddingsForMedicalCasesAsFloatArrays(batch);
             long embeddingEndTime = System.currentTimeMillis();
 
             int batchSuccessCount = 0;
             for (int i = 0; i < batch.size() && i < embeddings.size(); i++) {
-                List<Double> embedding = embeddings.get(i);
-                if (embedding != null && !embedding.isEmpty()) {
+                float[] embedding = embeddings.get(i);
+                if (embedding != null && embedding.length > 0) {
                     MedicalCase medicalCase = batch.get(i);
-                    int originalDimension = embedding.size();
+                    int originalDimension = embedding.length;
                     medicalCaseRepository.updateEmbedding(medicalCase.id(), embedding, originalDimension);
                     batchSuccessCount++;
                     embeddingsGeneratedCounter.increment();
@@ -349,7 +349,8 @@ public class SyntheticDataPostProcessingServiceImpl implements SyntheticDataPost
         long startMs = System.currentTimeMillis();
         log.info("Building Apache AGE graph from generated data...");
         try {
-            graphBuilderService.buildGraph();
+            // Generated data replaces everything, so rebuild from scratch (bulk load + swap when enabled)
+            graphBuilderService.rebuildGraph();
             log.info("Graph building completed successfully");
             // M73: re-walk the doctor table and ensure every
             // (doctor, specialty) pair has a SPECIALIZES_IN edge in
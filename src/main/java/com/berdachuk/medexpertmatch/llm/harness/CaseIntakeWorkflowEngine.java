@@ -153,9 +153,9 @@ public class CaseIntakeWorkflowEngine {
         try {
             String abstractText = descriptionService.generateDescription(medicalCase);
             medicalCaseRepository.updateAbstract(caseId, abstractText);
-            List<Double> embedding = embeddingService.generateEmbedding(abstractText);
-            if (embedding != null && !embedding.isEmpty()) {
-                medicalCaseRepository.updateEmbedding(caseId, embedding, embedding.size());
+            float[] embedding = embeddingService.generateEmbeddingAsFloatArray(abstractText);
+            if (embedding != null && embedding.length > 0) {
+                medicalCaseRepository.updateEmbedding(caseId, embedding, embedding.length);
             }
         } catch (Exception e) {
             log.warn("Failed to generate abstract/embedding for case: {}", caseId, e);
@@ -1,11 +1,13 @@
 package com.berdachuk.medexpertmatch.llm.tools;
 
 import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.PerformanceStats;
 import com.berdachuk.medexpertmatch.clinicalexperience.repository.ClinicalExperienceRepository;
 import com.berdachuk.medexpertmatch.core.service.LogStreamService;
 import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
 import com.berdachuk.medexpertmatch.facility.domain.Facility;
 import com.berdachuk.medexpertmatch.facility.repository.FacilityRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository;
 import com.berdachuk.medexpertmatch.graph.service.GraphService;
 import com.berdachuk.medexpertmatch.llm.tools.support.AgentToolGraphRowSupport;
 import com.berdachuk.medexpertmatch.llm.tools.support.AgentToolSessionSupport;
@@ -25,10 +27,13 @@ import java.util.*;
 @Component
 public class GraphAnalyticsAgentTools {
 
+    private static final int MAX_COMMUNITY_PEERS = 5;
+
     private final DoctorRepository doctorRepository;
     private final FacilityRepository facilityRepository;
     private final ClinicalExperienceRepository clinicalExperienceRepository;
     private final GraphService graphService;
+    private final GraphCentralityRepository centralityRepository;
     private final MedicalCaseRepository medicalCaseRepository;
     private final LogStreamService logStreamService;
 
@@ -37,12 +42,14 @@ public class GraphAnalyticsAgentTools {
             FacilityRepository facilityRepository,
             ClinicalExperienceRepository clinicalExperienceRepository,
             GraphService graphService,
+            GraphCentralityRepository centralityRepository,
             MedicalCaseRepository medicalCaseRepository,
             LogStreamService logStreamService) {
         this.doctorRepository = doctorRepository;
         this.facilityRepository = facilityRepository;
         this.clinicalExperienceRepository = clinicalExperienceRepository;
         this.graphService = graphService;
+        this.centralityRepository = centralityRepository;
         this.medicalCaseRepository = medicalCaseRepository;
         this.logStreamService = logStreamService;
     }
@@ -66,60 +73,35 @@ public class GraphAnalyticsAgentTools {
 
             int limit = (maxResults != null && maxResults > 0) ? maxResults : 10;
 
-            if (!graphService.graphExists()) {
-                log.debug("Graph does not exist, returning empty results");
-                logStreamService.logToolResult(sessionId, "graph_query_top_experts",
-                        "Graph not available - returning empty results");
-                return List.of("Graph not available. Please ensure Apache AGE graph is populated.");
+            // Scores persisted by the graph analytics job; live Cypher only for codes it hasn't scored yet
+            List<ExpertRow> experts = centralityRepository.findTopByCondition(conditionCode, limit).stream()
+                    .map(row -> new ExpertRow(row.doctorId(), row.caseCount(), row.score()))
+                    .toList();
+            if (experts.isEmpty()) {
+                if (!graphService.graphExists()) {
+                    log.debug("Graph does not exist, returning empty results");
+                    logStreamService.logToolResult(sessionId, "graph_query_top_experts",
+                            "Graph not available - returning empty results");
+                    return List.of("Graph not available. Please ensure Apache AGE graph is populated.");
+                }
+                experts = queryTopExpertsFromGraph(conditionCode, limit);
             }
 
-            String cypherQuery = """
-                    MATCH (d:Doctor)-[:TREATED]->(c:MedicalCase)-[:HAS_CONDITION]->(i:ICD10Code {code: $conditionCode})
-                    RETURN d.id as doctorId, count(DISTINCT c) as caseCount, collect(DISTINCT c.id) as caseIds
-                    ORDER BY count(DISTINCT c) DESC
-                    LIMIT $maxResults
-                    """;
-
-            Map<String, Object> parameters = new HashMap<>();
-            parameters.put("conditionCode", conditionCode);
-            parameters.put("maxResults", limit);
-
-            List<Map<String, Object>> results = graphService.executeCypher(cypherQuery, parameters);
+            Map<String, PerformanceStats> statsByDoctor = clinicalExperienceRepository.findPerformanceStatsByDoctorIds(
+                    experts.stream().map(ExpertRow::doctorId).toList());
 
             List<String> expertResults = new ArrayList<>();
-            for (Map<String, Object> row : results) {
-                Object doctorIdObj = AgentToolGraphRowSupport.firstPresent(row, "doctorId", "c0");
-                Object caseCountObj = AgentToolGraphRowSupport.firstPresent(row, "caseCount", "c1");
-
-                if (doctorIdObj != null) {
-                    String doctorId = doctorIdObj.toString();
-                    long caseCount = caseCountObj != null ? Long.parseLong(caseCountObj.toString()) : 0;
-
-                    List<ClinicalExperience> experiences = clinicalExperienceRepository.findByDoctorId(doctorId);
-                    double avgRating = 0.0;
-                    int successCount = 0;
-                    int totalExperiences = experiences.size();
-
-                    if (!experiences.isEmpty()) {
-                        double totalRating = 0.0;
-                        for (ClinicalExperience exp : experiences) {
-                            if (exp.rating() != null) {
-                                totalRating += exp.rating();
-                            }
-                            if ("SUCCESS".equalsIgnoreCase(exp.outcome()) ||
-                                    "IMPROVED".equalsIgnoreCase(exp.outcome())) {
-                                successCount++;
-                            }
-                        }
-                        avgRating = totalExperiences > 0 ? totalRating / totalExperiences : 0.0;
-                    }
-
-                    double successRate = totalExperiences > 0 ? (double) successCount / totalExperiences : 0.0;
-
-                    String result = String.format("Doctor ID: %s, Cases: %d, Avg Rating: %.2f, Success Rate: %.2f%%",
-                            doctorId, caseCount, avgRating, successRate * 100);
-                    expertResults.add(result);
+            for (ExpertRow expert : experts) {
+                PerformanceStats stats = statsByDoctor.get(expert.doctorId());
+                double avgRating = stats != null ? stats.averageRating(0.0) : 0.0;
+                double successRate = stats != null ? stats.successRate() : 0.0;
+
+                String result = String.format("Doctor ID: %s, Cases: %d, Avg Rating: %.2f, Success Rate: %.2f%%",
+                        expert.doctorId(), expert.caseCount(), avgRating, successRate * 100);
+                if (expert.centrality() != null) {
+                    result += String.format(", Condition Centrality: %.3f", expert.centrality());
                 }
+                expertResults.add(result);
             }
 
             if (expertResults.isEmpty()) {
@@ -138,6 +120,36 @@ public class GraphAnalyticsAgentTools {
         }
     }
 
+    private List<ExpertRow> queryTopExpertsFromGraph(String conditionCode, int limit) {
+        String cypherQuery = """
+                MATCH (d:Doctor)-[:TREATED]->(c:MedicalCase)-[:HAS_CONDITION]->(i:ICD10Code {code: $conditionCode})
+                RETURN d.id as doctorId, count(DISTINCT c) as caseCount
+                ORDER BY count(DISTINCT c) DESC
+                LIMIT $maxResults
+                """;
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("conditionCode", conditionCode);
+        parameters.put("maxResults", limit);
+
+        List<ExpertRow> experts = new ArrayList<>();
+        for (Map<String, Object> row : graphService.executeCypher(cypherQuery, parameters)) {
+            Object doctorIdObj = AgentToolGraphRowSupport.firstPresent(row, "doctorId", "c0");
+            Object caseCountObj = AgentToolGraphRowSupport.firstPresent(row, "caseCount", "c1");
+            if (doctorIdObj != null) {
+                long caseCount = caseCountObj != null ? Long.parseLong(caseCountObj.toString()) : 0;
+                experts.add(new ExpertRow(doctorIdObj.toString(), caseCount, null));
+            }
+        }
+        return experts;
+    }
+
+    /**
+     * Expert candidate for a condition; centrality is null when ranked by live graph counts.
+     */
+    private record ExpertRow(String doctorId, long caseCount, Double centrality) {
+    }
+
     @Tool(description = "Aggregate performance metrics for doctors, conditions, or facilities.")
     public String aggregate_metrics(
             @ToolParam(description = "Type of entity: DOCTOR, CONDITION, or FACILITY") String entityType,
@@ -194,7 +206,7 @@ public class GraphAnalyticsAgentTools {
 
         if (doctorId != null && !doctorId.trim().isEmpty()) {
             List<ClinicalExperience> experiences = clinicalExperienceRepository.findByDoctorId(doctorId);
-            return aggregateDoctorMetricsFromExperiences(experiences, metricType);
+            return aggregateDoctorMetricsFromExperiences(experiences, metricType) + doctorNetworkMetrics(doctorId);
         }
 
         List<String> allDoctorIds = doctorRepository.findAllIds(1000);
@@ -233,6 +245,33 @@ public class GraphAnalyticsAgentTools {
         return metrics.toString();
     }
 
+    /**
+     * Centrality and co-treatment community from the last graph analytics run; empty if the doctor wasn't scored.
+     */
+    private String doctorNetworkMetrics(String doctorId) {
+        Optional<GraphCentralityRepository.DoctorCentrality> centralityOpt = centralityRepository.findByDoctorId(doctorId);
+        if (centralityOpt.isEmpty()) {
+            return "";
+        }
+        GraphCentralityRepository.DoctorCentrality centrality = centralityOpt.get();
+        List<String> peers = centralityRepository.findTopByCommunity(centrality.communityId(), MAX_COMMUNITY_PEERS + 1)
+                .stream()
+                .map(GraphCentralityRepository.DoctorCentrality::doctorId)
+                .filter(peerId -> !peerId.equals(centrality.doctorId()))
+                .limit(MAX_COMMUNITY_PEERS)
+                .toList();
+
+        StringBuilder metrics = new StringBuilder();
+        metrics.append("Network Centrality:\n");
+        metrics.append(String.format("  Weighted Degree: %.1f\n", centrality.weightedDegree()));
+        metrics.append(String.format("  PageRank: %.6f\n", centrality.pagerank()));
+        metrics.append(String.format("  Co-treatment Community: %d\n", centrality.communityId()));
+        if (!peers.isEmpty()) {
+            metrics.append(String.format("  Community Peers: %s\n", String.join(", ", peers)));
+        }
+        return metrics.toString();
+    }
+
     private String aggregateDoctorMetricsFromExperiences(List<ClinicalExperience> experiences, String metricType) {
         StringBuilder metrics = new StringBuilder();
 
@@ -2,6 +2,7 @@ package com.berdachuk.medexpertmatch.medicalcase.repository;
 
 import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -136,14 +137,31 @@ public interface MedicalCaseRepository {
      */
     void updateAbstract(String caseId, String abstractText);
 
+    /**
+     * Updates the embedding for a medical case.
+     *
+     * @param caseId    The medical case ID
+     * @param embedding The embedding vector; not modified
+     * @param dimension The dimension of the embedding vector
+     */
+    void updateEmbedding(String caseId, float[] embedding, int dimension);
+
     /**
      * Updates the embedding for a medical case.
      *
      * @param caseId    The medical case ID
      * @param embedding The embedding vector as a list of Double values
      * @param dimension The dimension of the embedding vector
+     * @deprecated Use {@link #updateEmbedding(String, float[], int)}
      */
-    void updateEmbedding(String caseId, List<Double> embedding, int dimension);
+    @Deprecated
+    default void updateEmbedding(String caseId, List<Double> embedding, int dimension) {
+        float[] embeddingArray = new float[embedding.size()];
+        for (int i = 0; i < embeddingArray.length; i++) {
+            embeddingArray[i] = embedding.get(i).floatValue();
+        }
+        updateEmbedding(caseId, embeddingArray, dimension);
+    }
 
     /**
      * Searches medical cases by text query and optional filters.
@@ -184,4 +202,43 @@ public interface MedicalCaseRepository {
      * @return The average cosine similarity, or null if no valid comparisons could be made
      */
     Double calculateVectorSimilarity(String queryCaseId, List<String> doctorCaseIds);
+
+    /**
+     * Finds the stored embedding of a medical case.
+     *
+     * @param caseId The medical case ID
+     * @return The embedding vector, or empty if the case has no embedding
+     */
+    Optional<float[]> findEmbedding(String caseId);
+
+    /**
+     * Streams cases updated after the given time with their stored embeddings, oldest first.
+     * Cases without an embedding, including ones whose embedding was cleared, are passed a null embedding.
+     *
+     * @param since   Exclusive lower bound on updated_at
+     * @param handler Callback invoked once per case
+     */
+    void forEachEmbeddingUpdatedSince(Instant since, CaseEmbeddingHandler handler);
+
+    /**
+     * Counts medical cases that have an embedding.
+     *
+     * @return Number of cases with a non-null embedding
+     */
+    long countWithEmbedding();
+
+    /**
+     * Finds the IDs of all medical cases that have an embedding.
+     *
+     * @return List of medical case IDs
+     */
+    List<String> findIdsWithEmbedding();
+
+    /**
+     * Receives one case embedding row.
+     */
+    @FunctionalInterface
+    interface CaseEmbeddingHandler {
+        void accept(String caseId, float[] embedding, Instant updatedAt);
+    }
 }
@@ -1,6 +1,7 @@
 package com.berdachuk.medexpertmatch.medicalcase.repository.impl;
 
 import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
+import com.berdachuk.medexpertmatch.core.repository.sql.PgVectorCodec;
 import com.berdachuk.medexpertmatch.core.util.IdGenerator;
 import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
 import com.berdachuk.medexpertmatch.medicalcase.domain.UrgencyLevel;
@@ -12,6 +13,8 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -82,6 +85,18 @@ public class MedicalCaseRepositoryImpl implements MedicalCaseRepository {
     @InjectSql("/sql/medicalcase/calculateVectorSimilarity.sql")
     private String calculateVectorSimilaritySql;
 
+    @InjectSql("/sql/medicalcase/findEmbedding.sql")
+    private String findEmbeddingSql;
+
+    @InjectSql("/sql/medicalcase/findEmbeddingsUpdatedSince.sql")
+    private String findEmbeddingsUpdatedSinceSql;
+
+    @InjectSql("/sql/medicalcase/countWithEmbedding.sql")
+    private String countWithEmbeddingSql;
+
+    @InjectSql("/sql/medicalcase/findIdsWithEmbedding.sql")
+    private String findIdsWithEmbeddingSql;
+
     public MedicalCaseRepositoryImpl(
             NamedParameterJdbcTemplate namedJdbcTemplate,
             MedicalCaseMapper medicalCaseMapper) {
@@ -386,26 +401,18 @@ public class MedicalCaseRepositoryImpl implements MedicalCaseRepository {
     }
 
     @Override
-    public void updateEmbedding(String caseId, List<Double> embedding, int dimension) {
+    public void updateEmbedding(String caseId, float[] embedding, int dimension) {
         // Normalize case ID to lowercase for case-insensitive lookup
         // Case IDs are 24-character hex strings (CHAR(24)) and should be case-insensitive
         String normalizedCaseId = caseId != null ? caseId.toLowerCase() : null;
 
-        // Convert to float array
-        float[] embeddingArray = new float[embedding.size()];
-        for (int i = 0; i < embedding.size(); i++) {
-            embeddingArray[i] = embedding.get(i).floatValue();
-        }
-
         // Normalize to 1536 dimensions (database schema supports max 1536)
-        float[] normalizedEmbedding = normalizeEmbeddingDimension(embeddingArray, 1536);
+        float[] normalizedEmbedding = normalizeEmbeddingDimension(embedding, 1536);
         int normalizedDimension = 1536; // Always use normalized dimension
 
-        String vectorString = formatVector(normalizedEmbedding);
-
         Map<String, Object> params = new HashMap<>();
         params.put("id", normalizedCaseId);
-        params.put("embedding", vectorString);
+        params.put("embedding", PgVectorCodec.parameter(normalizedEmbedding));
         params.put("dimension", normalizedDimension);
 
         namedJdbcTemplate.update(updateEmbeddingSql, params);
@@ -427,19 +434,6 @@ public class MedicalCaseRepositoryImpl implements MedicalCaseRepository {
         return normalized;
     }
 
-    /**
-     * Formats float array as PostgreSQL vector string.
-     */
-    private String formatVector(float[] vector) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vector.length; i++) {
-            if (i > 0) sb.append(",");
-            sb.append(String.format("%.6f", vector[i]));
-        }
-        sb.append("]");
-        return sb.toString();
-    }
-
     @Override
     public boolean hasEmbedding(String caseId) {
         String normalizedCaseId = caseId != null ? caseId.toLowerCase() : null;
@@ -463,4 +457,37 @@ public class MedicalCaseRepositoryImpl implements MedicalCaseRepository {
 
         return namedJdbcTemplate.queryForObject(calculateVectorSimilaritySql, params, Double.class);
     }
+
+    @Override
+    public Optional<float[]> findEmbedding(String caseId) {
+        if (caseId == null) {
+            return Optional.empty();
+        }
+        Map<String, Object> params = Map.of("caseId", caseId.toLowerCase());
+        List<float[]> embeddings = namedJdbcTemplate.query(findEmbeddingSql, params,
+                (rs, rowNum) -> PgVectorCodec.parse(rs.getString("embedding")));
+        return Optional.ofNullable(DataAccessUtils.singleResult(embeddings));
+    }
+
+    @Override
+    public void forEachEmbeddingUpdatedSince(Instant since, CaseEmbeddingHandler handler) {
+        Map<String, Object> params = Map.of("since", Timestamp.from(since));
+        namedJdbcTemplate.query(findEmbeddingsUpdatedSinceSql, params, rs -> {
+            handler.accept(
+                    rs.getString("id"),
+                    PgVectorCodec.parse(rs.getString("embedding")),
+                    rs.getTimestamp("updated_at").toInstant());
+        });
+    }
+
+    @Override
+    public long countWithEmbedding() {
+        Long count = namedJdbcTemplate.queryForObject(countWithEmbeddingSql, Map.of(), Long.class);
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public List<String> findIdsWithEmbedding() {
+        return namedJdbcTemplate.query(findIdsWithEmbeddingSql, Map.of(), (rs, rowNum) -> rs.getString("id"));
+    }
 }
@@ -3,6 +3,7 @@ package com.berdachuk.medexpertmatch.medicalcoding.repository;
 import com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -52,6 +53,23 @@ public interface ICD10CodeRepository {
      */
     List<ICD10Code> findByParentCode(String parentCode);
 
+    /**
+     * Finds the parent of every ICD-10 code that has one, without loading descriptions or related codes.
+     * Used to build the in-memory ICD-10 hierarchy.
+     *
+     * @return Map of code to parent code; codes without a parent are absent
+     */
+    Map<String, String> findParentCodes();
+
+    /**
+     * Returns the number of rows inserted, updated or deleted in {@code icd10_codes} as tracked by PostgreSQL's
+     * cumulative table statistics. The value only serves as a change signal: it grows with every write and may
+     * also change when statistics are reset.
+     *
+     * @return Modification counter, 0 if the table has no statistics
+     */
+    long countModifications();
+
     /**
      * Finds all ICD-10 codes.
      *
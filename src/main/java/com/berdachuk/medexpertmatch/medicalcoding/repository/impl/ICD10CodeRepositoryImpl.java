@@ -41,6 +41,12 @@ public class ICD10CodeRepositoryImpl implements ICD10CodeRepository {
     @InjectSql("/sql/medicalcoding/findAll.sql")
     private String findAllSql;
 
+    @InjectSql("/sql/medicalcoding/findParentCodes.sql")
+    private String findParentCodesSql;
+
+    @InjectSql("/sql/medicalcoding/countModifications.sql")
+    private String countModificationsSql;
+
     @InjectSql("/sql/medicalcoding/insert.sql")
     private String insertSql;
 
@@ -114,6 +120,21 @@ public class ICD10CodeRepositoryImpl implements ICD10CodeRepository {
         return namedJdbcTemplate.query(findAllSql, Map.of(), icd10CodeMapper);
     }
 
+    @Override
+    public Map<String, String> findParentCodes() {
+        Map<String, String> parentCodes = new HashMap<>();
+        namedJdbcTemplate.query(findParentCodesSql, Map.of(), rs -> {
+            parentCodes.put(rs.getString("code"), rs.getString("parent_code"));
+        });
+        return parentCodes;
+    }
+
+    @Override
+    public long countModifications() {
+        Long count = namedJdbcTemplate.queryForObject(countModificationsSql, Map.of(), Long.class);
+        return count != null ? count : 0L;
+    }
+
     @Override
     public String insert(ICD10Code icd10Code) {
         Map<String, Object> params = new HashMap<>();
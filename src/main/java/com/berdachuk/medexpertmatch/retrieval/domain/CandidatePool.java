@@ -0,0 +1,23 @@
+package com.berdachuk.medexpertmatch.retrieval.domain;
+
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded, de-duplicated set of candidate doctors for one match request.
+ */
+public record CandidatePool(
+        /**
+         * Candidate doctors, interleaved across sources in source priority order.
+         */
+        List<Doctor> doctors,
+
+        /**
+         * Sources that returned each candidate doctor, keyed by doctor ID.
+         */
+        Map<String, Set<CandidateSource>> sourcesByDoctor
+) {
+}
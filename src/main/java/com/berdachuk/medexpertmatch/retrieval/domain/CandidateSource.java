@@ -0,0 +1,23 @@
+package com.berdachuk.medexpertmatch.retrieval.domain;
+
+/**
+ * Source that contributed a doctor to the candidate pool before scoring.
+ */
+public enum CandidateSource {
+    /**
+     * Nearest doctors by embedding centroid (HNSW).
+     */
+    ANN,
+    /**
+     * Doctors sharing ICD-10 conditions with the case in the graph.
+     */
+    GRAPH,
+    /**
+     * Doctors in the required or preferred specialty.
+     */
+    SPECIALTY,
+    /**
+     * Unranked doctor pool, used when the pool is broadened or no other source returns doctors.
+     */
+    FALLBACK
+}
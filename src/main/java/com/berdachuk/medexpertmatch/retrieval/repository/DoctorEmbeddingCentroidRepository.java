@@ -0,0 +1,33 @@
+package com.berdachuk.medexpertmatch.retrieval.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository for per-doctor embedding centroids.
+ * A centroid is the mean of the L2-normalized embeddings of a doctor's cases, so its inner product with
+ * a normalized query embedding equals the doctor's average cosine similarity to the query case.
+ * Rows are maintained by database triggers on clinical experiences and case embeddings.
+ */
+public interface DoctorEmbeddingCentroidRepository {
+
+    /**
+     * Average cosine similarity between the query case and each doctor's cases, computed from centroids.
+     *
+     * @param queryCaseId Query medical case ID
+     * @param doctorIds   Doctor IDs to score
+     * @return Map of doctor ID to average similarity; doctors without a centroid are absent
+     */
+    Map<String, Double> findCentroidSimilarities(String queryCaseId, List<String> doctorIds);
+
+    /**
+     * Nearest doctors to the query case by centroid similarity, using the HNSW index. Raises
+     * {@code hnsw.ef_search} to {@code limit} (at most 1000) for the surrounding transaction, so the index scan
+     * is not cut at its default of 40 rows.
+     *
+     * @param queryCaseId Query medical case ID
+     * @param limit       Maximum number of doctors
+     * @return Doctor ID to average similarity, ordered from most to least similar
+     */
+    Map<String, Double> findNearestDoctors(String queryCaseId, int limit);
+}
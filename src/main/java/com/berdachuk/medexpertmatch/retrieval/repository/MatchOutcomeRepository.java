@@ -4,6 +4,7 @@ import com.berdachuk.medexpertmatch.retrieval.domain.DoctorOutcomeAffinity;
 import com.berdachuk.medexpertmatch.retrieval.domain.MatchOutcome;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -15,6 +16,11 @@ public interface MatchOutcomeRepository {
 
     Optional<MatchOutcome> findLatestForPair(String caseId, String doctorId);
 
+    /**
+     * Batch variant of {@link #findLatestForPair(String, String)}: latest outcome per doctor for one case.
+     */
+    Map<String, MatchOutcome> findLatestForPairs(String caseId, List<String> doctorIds);
+
     List<DoctorOutcomeAffinity> aggregateByDoctor();
 
     long count();
@@ -25,5 +31,10 @@ public interface MatchOutcomeRepository {
 
     Optional<DoctorOutcomeAffinity> findAffinityByDoctorId(String doctorId);
 
+    /**
+     * Batch variant of {@link #findAffinityByDoctorId(String)} keyed by doctor ID.
+     */
+    Map<String, DoctorOutcomeAffinity> findAffinitiesByDoctorIds(List<String> doctorIds);
+
     int deleteAllAffinities();
 }
@@ -0,0 +1,73 @@
+package com.berdachuk.medexpertmatch.retrieval.repository.impl;
+
+import com.berdachuk.medexpertmatch.core.repository.sql.InjectSql;
+import com.berdachuk.medexpertmatch.retrieval.repository.DoctorEmbeddingCentroidRepository;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class DoctorEmbeddingCentroidRepositoryImpl implements DoctorEmbeddingCentroidRepository {
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @InjectSql("/sql/doctorcentroid/findCentroidSimilarities.sql")
+    private String findCentroidSimilaritiesSql;
+
+    @InjectSql("/sql/doctorcentroid/findNearestDoctors.sql")
+    private String findNearestDoctorsSql;
+
+    @InjectSql("/sql/doctorcentroid/setHnswEfSearch.sql")
+    private String setHnswEfSearchSql;
+
+    public DoctorEmbeddingCentroidRepositoryImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @Override
+    public Map<String, Double> findCentroidSimilarities(String queryCaseId, List<String> doctorIds) {
+        if (queryCaseId == null || doctorIds == null || doctorIds.isEmpty()) {
+            return Map.of();
+        }
+        String[] ids = doctorIds.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .distinct()
+                .toArray(String[]::new);
+        if (ids.length == 0) {
+            return Map.of();
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("queryCaseId", queryCaseId.trim().toLowerCase());
+        params.put("doctorIds", ids);
+
+        Map<String, Double> similarities = new HashMap<>();
+        namedJdbcTemplate.query(findCentroidSimilaritiesSql, params, rs -> {
+            similarities.put(rs.getString("doctor_id"), rs.getDouble("avg_similarity"));
+        });
+        return similarities;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Double> findNearestDoctors(String queryCaseId, int limit) {
+        if (queryCaseId == null || limit <= 0) {
+            return Map.of();
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("queryCaseId", queryCaseId.trim().toLowerCase());
+        params.put("limit", limit);
+        namedJdbcTemplate.queryForObject(setHnswEfSearchSql, params, String.class);
+
+        Map<String, Double> nearest = new LinkedHashMap<>();
+        namedJdbcTemplate.query(findNearestDoctorsSql, params, rs -> {
+            nearest.put(rs.getString("doctor_id"), rs.getDouble("avg_similarity"));
+        });
+        return nearest;
+    }
+}
@@ -5,12 +5,14 @@ import com.berdachuk.medexpertmatch.retrieval.domain.DoctorOutcomeAffinity;
 import com.berdachuk.medexpertmatch.retrieval.domain.MatchOutcome;
 import com.berdachuk.medexpertmatch.retrieval.domain.MatchOutcomeLabel;
 import com.berdachuk.medexpertmatch.retrieval.repository.MatchOutcomeRepository;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -18,6 +20,21 @@ import java.util.Optional;
 @Repository
 public class MatchOutcomeRepositoryImpl implements MatchOutcomeRepository {
 
+    private static final RowMapper<MatchOutcome> MATCH_OUTCOME_MAPPER = (rs, rowNum) ->
+            new MatchOutcome(
+                    rs.getString("id"),
+                    rs.getString("case_id"),
+                    rs.getString("doctor_id"),
+                    MatchOutcomeLabel.valueOf(rs.getString("label")),
+                    rs.getTimestamp("recorded_at").toInstant());
+
+    private static final RowMapper<DoctorOutcomeAffinity> AFFINITY_MAPPER = (rs, rowNum) ->
+            new DoctorOutcomeAffinity(
+                    rs.getString("doctor_id"),
+                    rs.getDouble("affinity_score"),
+                    rs.getInt("sample_count"),
+                    rs.getTimestamp("calibrated_at").toInstant());
+
     private final NamedParameterJdbcTemplate namedJdbcTemplate;
 
     @InjectSql("/sql/matchoutcome/insert.sql")
@@ -26,6 +43,9 @@ public class MatchOutcomeRepositoryImpl implements MatchOutcomeRepository {
     @InjectSql("/sql/matchoutcome/findLatestForPair.sql")
     private String findLatestForPairSql;
 
+    @InjectSql("/sql/matchoutcome/findLatestForPairs.sql")
+    private String findLatestForPairsSql;
+
     @InjectSql("/sql/matchoutcome/aggregateByDoctor.sql")
     private String aggregateByDoctorSql;
 
@@ -41,6 +61,9 @@ public class MatchOutcomeRepositoryImpl implements MatchOutcomeRepository {
     @InjectSql("/sql/matchoutcome/findAffinityByDoctorId.sql")
     private String findAffinityByDoctorIdSql;
 
+    @InjectSql("/sql/matchoutcome/findAffinitiesByDoctorIds.sql")
+    private String findAffinitiesByDoctorIdsSql;
+
     @InjectSql("/sql/matchoutcome/deleteAllAffinities.sql")
     private String deleteAllAffinitiesSql;
 
@@ -68,16 +91,26 @@ public class MatchOutcomeRepositoryImpl implements MatchOutcomeRepository {
         Map<String, Object> params = Map.of(
                 "caseId", normalizeCaseId(caseId),
                 "doctorId", doctorId.trim());
-        List<MatchOutcome> results = namedJdbcTemplate.query(findLatestForPairSql, params, (rs, rowNum) ->
-                new MatchOutcome(
-                        rs.getString("id"),
-                        rs.getString("case_id"),
-                        rs.getString("doctor_id"),
-                        MatchOutcomeLabel.valueOf(rs.getString("label")),
-                        rs.getTimestamp("recorded_at").toInstant()));
+        List<MatchOutcome> results = namedJdbcTemplate.query(findLatestForPairSql, params, MATCH_OUTCOME_MAPPER);
         return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
     }
 
+    @Override
+    public Map<String, MatchOutcome> findLatestForPairs(String caseId, List<String> doctorIds) {
+        String[] normalizedDoctorIds = normalizeDoctorIds(doctorIds);
+        if (caseId == null || caseId.isBlank() || normalizedDoctorIds.length == 0) {
+            return Map.of();
+        }
+        Map<String, Object> params = Map.of(
+                "caseId", normalizeCaseId(caseId),
+                "doctorIds", normalizedDoctorIds);
+        Map<String, MatchOutcome> outcomes = new HashMap<>();
+        for (MatchOutcome outcome : namedJdbcTemplate.query(findLatestForPairsSql, params, MATCH_OUTCOME_MAPPER)) {
+            outcomes.put(outcome.doctorId(), outcome);
+        }
+        return outcomes;
+    }
+
     @Override
     public List<DoctorOutcomeAffinity> aggregateByDoctor() {
         return namedJdbcTemplate.query(aggregateByDoctorSql, Map.of(), (rs, rowNum) ->
@@ -116,14 +149,24 @@ public class MatchOutcomeRepositoryImpl implements MatchOutcomeRepository {
         List<DoctorOutcomeAffinity> results = namedJdbcTemplate.query(
                 findAffinityByDoctorIdSql,
                 Map.of("doctorId", doctorId.trim()),
-                (rs, rowNum) -> new DoctorOutcomeAffinity(
-                        rs.getString("doctor_id"),
-                        rs.getDouble("affinity_score"),
-                        rs.getInt("sample_count"),
-                        rs.getTimestamp("calibrated_at").toInstant()));
+                AFFINITY_MAPPER);
         return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
     }
 
+    @Override
+    public Map<String, DoctorOutcomeAffinity> findAffinitiesByDoctorIds(List<String> doctorIds) {
+        String[] normalizedDoctorIds = normalizeDoctorIds(doctorIds);
+        if (normalizedDoctorIds.length == 0) {
+            return Map.of();
+        }
+        Map<String, DoctorOutcomeAffinity> affinities = new HashMap<>();
+        for (DoctorOutcomeAffinity affinity : namedJdbcTemplate.query(
+                findAffinitiesByDoctorIdsSql, Map.of("doctorIds", normalizedDoctorIds), AFFINITY_MAPPER)) {
+            affinities.put(affinity.doctorId(), affinity);
+        }
+        return affinities;
+    }
+
     @Override
     public int deleteAllAffinities() {
         return namedJdbcTemplate.getJdbcTemplate().update(deleteAllAffinitiesSql);
@@ -132,4 +175,15 @@ public class MatchOutcomeRepositoryImpl implements MatchOutcomeRepository {
     private static String normalizeCaseId(String caseId) {
         return caseId.trim().toLowerCase();
     }
+
+    private static String[] normalizeDoctorIds(List<String> doctorIds) {
+        if (doctorIds == null) {
+            return new String[0];
+        }
+        return doctorIds.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toArray(String[]::new);
+    }
 }
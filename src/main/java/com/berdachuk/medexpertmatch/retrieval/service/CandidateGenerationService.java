@@ -0,0 +1,32 @@
+package com.berdachuk.medexpertmatch.retrieval.service;
+
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
+import com.berdachuk.medexpertmatch.retrieval.domain.CandidatePool;
+import com.berdachuk.medexpertmatch.retrieval.domain.MatchOptions;
+
+import java.util.List;
+
+/**
+ * Candidate generation stage that runs before scoring.
+ * Unions embedding nearest neighbours, graph neighbours via shared ICD-10 codes, and specialty hits
+ * into one bounded pool, so expensive scoring only sees plausible doctors.
+ */
+public interface CandidateGenerationService {
+
+    /**
+     * Generates the candidate pool for a medical case.
+     *
+     * @param medicalCase Medical case to match
+     * @param options     Match options (pool size, preferred specialties, broadened search)
+     * @return De-duplicated candidate pool with the contributing sources per doctor
+     */
+    CandidatePool generateCandidates(MedicalCase medicalCase, MatchOptions options);
+
+    /**
+     * Records per-source recall: the share of returned matches that each source had found.
+     *
+     * @param pool             Pool the matches were scored from
+     * @param matchedDoctorIds Doctor IDs of the returned matches
+     */
+    void recordRecall(CandidatePool pool, List<String> matchedDoctorIds);
+}
@@ -0,0 +1,32 @@
+package com.berdachuk.medexpertmatch.retrieval.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only store of medical case embeddings used to compute vector similarity scores
+ * without a PostgreSQL round trip per candidate.
+ */
+public interface CaseEmbeddingStore {
+
+    /**
+     * Whether the store is enabled and holds a loaded snapshot of case embeddings.
+     */
+    boolean isLoaded();
+
+    /**
+     * Computes the average cosine similarity between the query embedding and each doctor's cases
+     * in one pass over the stored embeddings.
+     *
+     * @param queryEmbedding Query case embedding
+     * @param doctorCaseIds  Map of doctor ID to the case IDs that doctor has handled
+     * @return Map of doctor ID to average similarity; doctors with no stored case embeddings are absent,
+     * and the map is empty when the store is not loaded
+     */
+    Map<String, Double> averageSimilarities(float[] queryEmbedding, Map<String, List<String>> doctorCaseIds);
+
+    /**
+     * Brings the store up to date with case embeddings changed since the last refresh.
+     */
+    void refresh();
+}
@@ -1,5 +1,8 @@
 package com.berdachuk.medexpertmatch.retrieval.service;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Calibrates doctor historical affinity from recorded match outcomes (M63).
  */
@@ -17,6 +20,12 @@ public interface MatchOutcomeCalibrationService {
      */
     double resolveOutcomeSignal(String caseId, String doctorId);
 
+    /**
+     * Resolves outcome signals for a candidate set with two set-based lookups
+     * (pair labels, then doctor affinities). Every non-blank requested doctor ID is present in the result.
+     */
+    Map<String, Double> resolveOutcomeSignals(String caseId, List<String> doctorIds);
+
     /**
      * Maps a label to a normalized score for eval and calibration.
      */
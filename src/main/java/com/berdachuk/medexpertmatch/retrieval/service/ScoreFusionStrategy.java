@@ -0,0 +1,39 @@
+package com.berdachuk.medexpertmatch.retrieval.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fuses per-channel doctor scores (vector, graph, historical) into one overall score.
+ * Implementations are selected by {@link #name()} through
+ * {@code medexpertmatch.retrieval.scoring.fusion-strategy}.
+ */
+public interface ScoreFusionStrategy {
+
+    /**
+     * Strategy name used in configuration (for example {@code weighted} or {@code rrf}).
+     */
+    String name();
+
+    /**
+     * Whether the fused score depends on a doctor's rank within the scored set rather than
+     * on its own channel scores only.
+     */
+    default boolean isRankBased() {
+        return false;
+    }
+
+    /**
+     * Fuses channel scores for a whole candidate set in one pass.
+     *
+     * @param doctorIds        Candidate doctor IDs, in candidate order
+     * @param vectorScores     Vector similarity score per doctor (0-1)
+     * @param graphScores      Graph relationship score per doctor (0-1)
+     * @param historicalScores Historical performance score per doctor (0-1)
+     * @return Map of doctor ID to fused score, before scaling to 0-100
+     */
+    Map<String, Double> fuse(List<String> doctorIds,
+                             Map<String, Double> vectorScores,
+                             Map<String, Double> graphScores,
+                             Map<String, Double> historicalScores);
+}
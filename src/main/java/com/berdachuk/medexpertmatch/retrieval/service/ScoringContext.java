@@ -0,0 +1,130 @@
+package com.berdachuk.medexpertmatch.retrieval.service;
+
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.PerformanceStats;
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-request memo of the lookups that Semantic Graph Retrieval scoring repeats across doctors:
+ * clinical experiences, performance aggregates, outcome signals, graph existence and the query case embedding.
+ * <p>
+ * Create one context per match request, prefetch it for the candidate set with
+ * {@link SemanticGraphRetrievalService#createScoringContext(MedicalCase, List)}, and pass it to every
+ * scoring call for that request. Batch lookups only fetch doctors that are not cached yet.
+ * Instances are thread-safe and must not be shared across requests.
+ */
+public final class ScoringContext {
+
+    private final MedicalCase medicalCase;
+    private final Map<String, List<ClinicalExperience>> experiencesByDoctor = new HashMap<>();
+    private final Map<String, Optional<PerformanceStats>> performanceStatsByDoctor = new HashMap<>();
+    private final Map<String, Double> outcomeSignalsByDoctor = new HashMap<>();
+    private Boolean graphExists;
+    private Boolean queryHasEmbedding;
+    private Optional<float[]> queryEmbedding;
+
+    private ScoringContext(MedicalCase medicalCase) {
+        this.medicalCase = medicalCase;
+    }
+
+    /**
+     * Creates an empty context for one medical case; lookups are loaded on first use.
+     */
+    public static ScoringContext forCase(MedicalCase medicalCase) {
+        if (medicalCase == null) {
+            throw new IllegalArgumentException("Medical case cannot be null");
+        }
+        return new ScoringContext(medicalCase);
+    }
+
+    public MedicalCase medicalCase() {
+        return medicalCase;
+    }
+
+    /**
+     * Returns clinical experiences for the given doctors, loading only uncached doctors in one call.
+     * Doctors without experiences map to an empty list.
+     */
+    public synchronized Map<String, List<ClinicalExperience>> experiences(
+            List<String> doctorIds, Function<List<String>, Map<String, List<ClinicalExperience>>> loader) {
+        return memoized(experiencesByDoctor, doctorIds, loader, List.of());
+    }
+
+    /**
+     * Returns maintained performance aggregates for the given doctors, loading only uncached doctors
+     * in one call. Doctors without clinical experiences map to an empty optional.
+     */
+    public synchronized Map<String, Optional<PerformanceStats>> performanceStats(
+            List<String> doctorIds, Function<List<String>, Map<String, PerformanceStats>> loader) {
+        return memoized(performanceStatsByDoctor, doctorIds, ids -> {
+            Map<String, Optional<PerformanceStats>> loaded = new HashMap<>();
+            loader.apply(ids).forEach((doctorId, stats) -> loaded.put(doctorId, Optional.ofNullable(stats)));
+            return loaded;
+        }, Optional.empty());
+    }
+
+    /**
+     * Returns outcome signals for the given doctors, loading only uncached doctors in one call.
+     * Doctors the loader does not return map to the given default.
+     */
+    public synchronized Map<String, Double> outcomeSignals(
+            List<String> doctorIds, Function<List<String>, Map<String, Double>> loader, double defaultSignal) {
+        return memoized(outcomeSignalsByDoctor, doctorIds, loader, defaultSignal);
+    }
+
+    /**
+     * Whether the graph exists, checked once per context.
+     */
+    public synchronized boolean graphExists(BooleanSupplier loader) {
+        if (graphExists == null) {
+            graphExists = loader.getAsBoolean();
+        }
+        return graphExists;
+    }
+
+    /**
+     * Whether the query case has an embedding, checked once per context.
+     */
+    public synchronized boolean queryHasEmbedding(BooleanSupplier loader) {
+        if (queryHasEmbedding == null) {
+            queryHasEmbedding = queryEmbedding != null ? queryEmbedding.isPresent() : loader.getAsBoolean();
+        }
+        return queryHasEmbedding;
+    }
+
+    /**
+     * The query case embedding, loaded once per context.
+     */
+    public synchronized Optional<float[]> queryEmbedding(Supplier<Optional<float[]>> loader) {
+        if (queryEmbedding == null) {
+            queryEmbedding = loader.get();
+            queryHasEmbedding = queryEmbedding.isPresent();
+        }
+        return queryEmbedding;
+    }
+
+    private static <V> Map<String, V> memoized(Map<String, V> cache, List<String> doctorIds,
+                                               Function<List<String>, Map<String, V>> loader, V absent) {
+        List<String> missing = doctorIds.stream()
+                .filter(doctorId -> !cache.containsKey(doctorId))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            Map<String, V> loaded = loader.apply(missing);
+            for (String doctorId : missing) {
+                cache.put(doctorId, loaded.getOrDefault(doctorId, absent));
+            }
+        }
+        Map<String, V> result = new HashMap<>();
+        doctorIds.forEach(doctorId -> result.put(doctorId, cache.get(doctorId)));
+        return result;
+    }
+}
@@ -7,6 +7,9 @@ import com.berdachuk.medexpertmatch.retrieval.domain.PriorityScore;
 import com.berdachuk.medexpertmatch.retrieval.domain.RouteScoreResult;
 import com.berdachuk.medexpertmatch.retrieval.domain.ScoreResult;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Semantic Graph Retrieval service.
  * Combines vector embeddings, graph relationships, and historical performance for scoring.
@@ -22,6 +25,47 @@ public interface SemanticGraphRetrievalService {
      */
     ScoreResult score(MedicalCase medicalCase, Doctor doctor);
 
+    /**
+     * Scores a whole candidate set against one case.
+     * Experiences, vector similarities, graph signals and outcome affinities are loaded with a fixed
+     * number of set-based queries, so cost grows with the number of queries rather than doctors.
+     * Channel scores match {@link #score(MedicalCase, Doctor)}; with a rank-based fusion strategy the
+     * channel rankings are computed once over this candidate set.
+     *
+     * @param medicalCase Medical case to match
+     * @param doctors     Candidate doctors to score
+     * @return Map of doctor ID to ScoreResult, in candidate order
+     */
+    Map<String, ScoreResult> scoreBatch(MedicalCase medicalCase, List<Doctor> doctors);
+
+    /**
+     * Creates a scoring context for one match request and batch-prefetches the lookups shared by
+     * {@link #score(ScoringContext, Doctor)} and {@link #scoreBatch(ScoringContext, List)} for the candidates.
+     *
+     * @param medicalCase Medical case to match
+     * @param doctors     Candidate doctors that will be scored with this context
+     * @return Prefetched scoring context
+     */
+    ScoringContext createScoringContext(MedicalCase medicalCase, List<Doctor> doctors);
+
+    /**
+     * Variant of {@link #score(MedicalCase, Doctor)} that reuses the lookups memoized in the context.
+     *
+     * @param context Scoring context of the current match request
+     * @param doctor  Doctor to score
+     * @return ScoreResult with overall score and component scores
+     */
+    ScoreResult score(ScoringContext context, Doctor doctor);
+
+    /**
+     * Variant of {@link #scoreBatch(MedicalCase, List)} that reuses the lookups memoized in the context.
+     *
+     * @param context Scoring context of the current match request
+     * @param doctors Candidate doctors to score
+     * @return Map of doctor ID to ScoreResult, in candidate order
+     */
+    Map<String, ScoreResult> scoreBatch(ScoringContext context, List<Doctor> doctors);
+
     /**
      * Scores facility-case routing using complexity, outcomes, capacity, proximity.
      *
@@ -0,0 +1,207 @@
+package com.berdachuk.medexpertmatch.retrieval.service.impl;
+
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
+import com.berdachuk.medexpertmatch.graph.service.GraphQueryService;
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
+import com.berdachuk.medexpertmatch.retrieval.domain.CandidatePool;
+import com.berdachuk.medexpertmatch.retrieval.domain.CandidateSource;
+import com.berdachuk.medexpertmatch.retrieval.domain.MatchOptions;
+import com.berdachuk.medexpertmatch.retrieval.repository.DoctorEmbeddingCentroidRepository;
+import com.berdachuk.medexpertmatch.retrieval.service.CandidateGenerationService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Candidate generation service implementation.
+ * Each source is queried independently and timed; hits are interleaved round-robin in source
+ * priority order (specialty, ANN, graph, fallback) so every source is represented in the bounded pool.
+ */
+@Slf4j
+@Service
+public class CandidateGenerationServiceImpl implements CandidateGenerationService {
+
+    private static final String SOURCE_TAG = "source";
+
+    private final DoctorRepository doctorRepository;
+    private final DoctorEmbeddingCentroidRepository doctorEmbeddingCentroidRepository;
+    private final GraphQueryService graphQueryService;
+    private final MeterRegistry meterRegistry;
+
+    public CandidateGenerationServiceImpl(
+            DoctorRepository doctorRepository,
+            DoctorEmbeddingCentroidRepository doctorEmbeddingCentroidRepository,
+            GraphQueryService graphQueryService,
+            MeterRegistry meterRegistry) {
+        this.doctorRepository = doctorRepository;
+        this.doctorEmbeddingCentroidRepository = doctorEmbeddingCentroidRepository;
+        this.graphQueryService = graphQueryService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public CandidatePool generateCandidates(MedicalCase medicalCase, MatchOptions options) {
+        List<String> excludedDoctorIds = options.excludedDoctorIds() != null
+                ? options.excludedDoctorIds()
+                : List.of();
+        boolean broadenSearch = Boolean.TRUE.equals(options.broadenCandidatePool())
+                || !excludedDoctorIds.isEmpty();
+        int poolSize = Math.max(options.maxResults() * 10, 50);
+
+        Map<CandidateSource, List<String>> hits = new EnumMap<>(CandidateSource.class);
+        Map<String, Doctor> loadedDoctors = new HashMap<>();
+
+        if (!broadenSearch) {
+            hits.put(CandidateSource.SPECIALTY, timed(CandidateSource.SPECIALTY,
+                    () -> findSpecialtyDoctorIds(medicalCase, options, loadedDoctors)));
+        }
+        // findNearestDoctors raises hnsw.ef_search to poolSize, so the HNSW scan is not cut at its default 40 rows
+        hits.put(CandidateSource.ANN, timed(CandidateSource.ANN, () -> new ArrayList<>(
+                doctorEmbeddingCentroidRepository.findNearestDoctors(medicalCase.id(), poolSize).keySet())));
+        if (medicalCase.icd10Codes() != null && !medicalCase.icd10Codes().isEmpty()) {
+            hits.put(CandidateSource.GRAPH, timed(CandidateSource.GRAPH, () -> new ArrayList<>(
+                    graphQueryService.findDoctorsSharingConditions(medicalCase.icd10Codes(), poolSize).keySet())));
+        }
+        boolean noRankedHits = hits.values().stream().allMatch(List::isEmpty);
+        if (broadenSearch || noRankedHits) {
+            if (noRankedHits && medicalCase.requiredSpecialty() != null) {
+                log.warn("No candidate doctors from specialty, ANN or graph sources; falling back to full pool for case {}",
+                        medicalCase.id());
+            }
+            hits.put(CandidateSource.FALLBACK, timed(CandidateSource.FALLBACK,
+                    () -> doctorRepository.findAllIds(poolSize)));
+        }
+
+        Map<String, Set<CandidateSource>> sourcesByDoctor = interleave(hits, poolSize);
+        List<Doctor> doctors = loadDoctors(sourcesByDoctor.keySet(), loadedDoctors);
+
+        hits.forEach((source, doctorIds) -> meterRegistry.summary("retrieval.candidates.hits", SOURCE_TAG, source.name())
+                .record(doctorIds.size()));
+        DistributionSummary.builder("retrieval.candidates.pool.size")
+                .description("Candidate doctors passed to scoring per match request")
+                .register(meterRegistry)
+                .record(doctors.size());
+        log.debug("Candidate pool for case {}: {} doctors from {}", medicalCase.id(), doctors.size(), hits.keySet());
+
+        return new CandidatePool(doctors, sourcesByDoctor);
+    }
+
+    @Override
+    public void recordRecall(CandidatePool pool, List<String> matchedDoctorIds) {
+        if (pool == null || matchedDoctorIds == null || matchedDoctorIds.isEmpty()) {
+            return;
+        }
+        // Only sources that contributed to this pool are measured
+        Map<CandidateSource, Integer> found = new EnumMap<>(CandidateSource.class);
+        pool.sourcesByDoctor().values().forEach(sources -> sources.forEach(source -> found.putIfAbsent(source, 0)));
+        for (String doctorId : matchedDoctorIds) {
+            for (CandidateSource source : pool.sourcesByDoctor().getOrDefault(doctorId, Set.of())) {
+                found.merge(source, 1, Integer::sum);
+            }
+        }
+        found.forEach((source, count) -> meterRegistry.summary("retrieval.candidates.recall", SOURCE_TAG, source.name())
+                .record((double) count / matchedDoctorIds.size()));
+    }
+
+    private List<String> findSpecialtyDoctorIds(MedicalCase medicalCase, MatchOptions options,
+                                                Map<String, Doctor> loadedDoctors) {
+        List<String> specialties = options.preferredSpecialties() != null && !options.preferredSpecialties().isEmpty()
+                ? options.preferredSpecialties()
+                : medicalCase.requiredSpecialty() != null ? List.of(medicalCase.requiredSpecialty()) : List.of();
+
+        List<String> doctorIds = new ArrayList<>();
+        for (String specialty : specialties) {
+            for (Doctor doctor : doctorRepository.findBySpecialty(specialty, options.maxResults() * 2)) {
+                loadedDoctors.putIfAbsent(doctor.id(), doctor);
+                doctorIds.add(doctor.id());
+            }
+        }
+        return doctorIds;
+    }
+
+    /**
+     * Runs one source, recording its latency; a failing source contributes no hits.
+     */
+    private List<String> timed(CandidateSource source, Supplier<List<String>> query) {
+        Timer timer = Timer.builder("retrieval.candidates.latency")
+                .description("Latency of candidate generation sources")
+                .tag(SOURCE_TAG, source.name())
+                .register(meterRegistry);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return query.get();
+        } catch (Exception e) {
+            log.warn("Candidate source {} failed: {}", source, e.getMessage());
+            return List.of();
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    /**
+     * Takes one hit per source in turn until the pool is full, keeping the first position of each doctor.
+     */
+    private static Map<String, Set<CandidateSource>> interleave(Map<CandidateSource, List<String>> hits, int poolSize) {
+        Map<CandidateSource, Iterator<String>> iterators = new EnumMap<>(CandidateSource.class);
+        hits.forEach((source, doctorIds) -> iterators.put(source, doctorIds.iterator()));
+        Map<String, Set<CandidateSource>> pool = new LinkedHashMap<>();
+        boolean progressed = true;
+        while (pool.size() < poolSize && progressed) {
+            progressed = false;
+            for (Iterator<String> iterator : iterators.values()) {
+                while (iterator.hasNext()) {
+                    String doctorId = iterator.next();
+                    if (doctorId != null && !pool.containsKey(doctorId)) {
+                        pool.put(doctorId, EnumSet.noneOf(CandidateSource.class));
+                        progressed = true;
+                        break;
+                    }
+                }
+                if (pool.size() >= poolSize) {
+                    break;
+                }
+            }
+        }
+
+        // Attribute every source that returned a pooled doctor, not only the one that placed it
+        hits.forEach((source, doctorIds) -> doctorIds.forEach(doctorId -> {
+            Set<CandidateSource> sources = pool.get(doctorId);
+            if (sources != null) {
+                sources.add(source);
+            }
+        }));
+        return pool;
+    }
+
+    private List<Doctor> loadDoctors(Set<String> doctorIds, Map<String, Doctor> loadedDoctors) {
+        List<String> missing = doctorIds.stream()
+                .filter(doctorId -> !loadedDoctors.containsKey(doctorId))
+                .toList();
+        Map<String, Doctor> doctorsById = new HashMap<>(loadedDoctors);
+        if (!missing.isEmpty()) {
+            doctorRepository.findByIds(missing).forEach(doctor -> doctorsById.putIfAbsent(doctor.id(), doctor));
+        }
+        List<Doctor> doctors = new ArrayList<>();
+        for (String doctorId : doctorIds) {
+            Doctor doctor = doctorsById.get(doctorId);
+            if (doctor != null) {
+                doctors.add(doctor);
+            }
+        }
+        return doctors;
+    }
+}
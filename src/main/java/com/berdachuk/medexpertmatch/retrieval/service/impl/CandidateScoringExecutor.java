@@ -0,0 +1,169 @@
+package com.berdachuk.medexpertmatch.retrieval.service.impl;
+
+import com.berdachuk.medexpertmatch.core.service.LogStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runs candidate scoring work in chunks on virtual threads.
+ * <p>
+ * The calling thread always scores chunks itself and is joined by at most {@code request-concurrency - 1} helper
+ * threads, each holding one of {@code max-workers} permits shared by all requests. Helpers only start when a permit
+ * is free right away, so a request never waits for another request's helpers and still completes on its own thread
+ * when none are free. Every chunk runs in a read-only transaction (joining the caller's on the calling thread), so
+ * helper connections are capped at {@code max-workers}; keep it well below the Hikari pool size, because request
+ * threads already hold connections of their own and helpers can otherwise wait on the pool. Results are returned in
+ * chunk order, and the first failing chunk stops the rest and is rethrown. When disabled, or when the work fits in
+ * one chunk, it runs inline on the calling thread and transaction.
+ */
+@Slf4j
+@Component
+public class CandidateScoringExecutor {
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final LogStreamService logStreamService;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int requestConcurrency;
+    private final Semaphore workerPermits;
+
+    public CandidateScoringExecutor(
+            PlatformTransactionManager transactionManager,
+            LogStreamService logStreamService,
+            @Value("${medexpertmatch.retrieval.scoring.parallel.enabled:false}") boolean enabled,
+            @Value("${medexpertmatch.retrieval.scoring.parallel.chunk-size:25}") int chunkSize,
+            @Value("${medexpertmatch.retrieval.scoring.parallel.request-concurrency:4}") int requestConcurrency,
+            @Value("${medexpertmatch.retrieval.scoring.parallel.max-workers:4}") int maxWorkers) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.logStreamService = logStreamService;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.requestConcurrency = Math.max(1, requestConcurrency);
+        this.workerPermits = new Semaphore(Math.max(0, maxWorkers));
+        if (enabled) {
+            log.info("Parallel candidate scoring enabled - chunkSize: {}, requestConcurrency: {}, maxWorkers: {}",
+                    this.chunkSize, this.requestConcurrency, workerPermits.availablePermits());
+        }
+    }
+
+    /**
+     * Applies the task to consecutive chunks of the items and returns one result per chunk, in order.
+     */
+    public <T, R> List<R> mapChunks(List<T> items, Function<List<T>, R> task) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        if (!enabled || items.size() <= chunkSize) {
+            return List.of(task.apply(items));
+        }
+
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            chunks.add(items.subList(from, Math.min(from + chunkSize, items.size())));
+        }
+        ChunkRun<T, R> run = new ChunkRun<>(chunks, task);
+
+        String sessionId = logStreamService.getCurrentSessionId();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> helpers = new ArrayList<>();
+            int wanted = Math.min(requestConcurrency, chunks.size()) - 1;
+            while (helpers.size() < wanted && workerPermits.tryAcquire()) {
+                helpers.add(executor.submit(() -> runHelper(run, sessionId)));
+            }
+            run.drain();
+            try {
+                for (Future<?> helper : helpers) {
+                    helper.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                helpers.forEach(helper -> helper.cancel(true));
+                throw new IllegalStateException("Interrupted while scoring candidates", e);
+            } catch (ExecutionException e) {
+                // Helpers record chunk failures in the run; this only happens if a helper itself fails
+                run.fail(e.getCause());
+            }
+        }
+        return run.results();
+    }
+
+    private <T, R> void runHelper(ChunkRun<T, R> run, String sessionId) {
+        try {
+            if (sessionId != null) {
+                logStreamService.setCurrentSessionId(sessionId);
+            }
+            run.drain();
+        } finally {
+            logStreamService.clearCurrentSessionId();
+            workerPermits.release();
+        }
+    }
+
+    /**
+     * Chunks of one call, claimed in order by the calling thread and its helpers.
+     */
+    private final class ChunkRun<T, R> {
+
+        private final List<List<T>> chunks;
+        private final Function<List<T>, R> task;
+        private final Object[] results;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private ChunkRun(List<List<T>> chunks, Function<List<T>, R> task) {
+            this.chunks = chunks;
+            this.task = task;
+            this.results = new Object[chunks.size()];
+        }
+
+        /**
+         * Scores unclaimed chunks until none are left or a chunk has failed.
+         */
+        void drain() {
+            int index;
+            while (failure.get() == null && (index = next.getAndIncrement()) < chunks.size()) {
+                List<T> chunk = chunks.get(index);
+                try {
+                    results[index] = readOnlyTransaction.execute(status -> task.apply(chunk));
+                } catch (RuntimeException | Error e) {
+                    fail(e);
+                }
+            }
+        }
+
+        void fail(Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> results() {
+            Throwable e = failure.get();
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e instanceof Error error) {
+                throw error;
+            }
+            if (e != null) {
+                throw new IllegalStateException("Candidate scoring failed", e);
+            }
+            return (List<R>) Arrays.asList(results);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.berdachuk.medexpertmatch.retrieval.service.impl;
+
+import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import com.berdachuk.medexpertmatch.retrieval.service.CaseEmbeddingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link CaseEmbeddingStore} backed by one contiguous float matrix.
+ * <p>
+ * Each case embedding is L2-normalized on load and stored as a dense row, so cosine similarity
+ * reduces to a dot product. Rows are trimmed to the longest non-zero prefix across all cases, which
+ * keeps zero-padded embeddings (e.g. 768-dimension models in a 1536-dimension column) compact.
+ * <p>
+ * The store is refreshed incrementally from {@code medical_cases.updated_at} and updated in place: a changed
+ * embedding is written to a free row before the case is pointed at it, and a case whose embedding was cleared
+ * is dropped. Deleted cases leave no updated row behind, so when the store holds more rows than the table has
+ * embeddings, the stored case IDs are reconciled against the table. Released rows are reused only from the
+ * next refresh on, so a reader still scoring a replaced row never sees it overwritten.
+ */
+@Slf4j
+@Component
+public class InMemoryCaseEmbeddingStore implements CaseEmbeddingStore {
+
+    /**
+     * Re-reads rows updated slightly before the last watermark to tolerate transactions that committed late.
+     */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(5);
+
+    private final MedicalCaseRepository medicalCaseRepository;
+    private final boolean enabled;
+
+    private volatile Matrix store;
+
+    public InMemoryCaseEmbeddingStore(
+            MedicalCaseRepository medicalCaseRepository,
+            @Value("${medexpertmatch.retrieval.vector.in-memory.enabled:false}") boolean enabled) {
+        this.medicalCaseRepository = medicalCaseRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return enabled && store != null;
+    }
+
+    @Override
+    public Map<String, Double> averageSimilarities(float[] queryEmbedding, Map<String, List<String>> doctorCaseIds) {
+        Matrix current = enabled ? store : null;
+        if (current == null || queryEmbedding == null || doctorCaseIds == null || doctorCaseIds.isEmpty()) {
+            return Map.of();
+        }
+        float[] query = current.normalizedQuery(queryEmbedding);
+        if (query == null) {
+            return Map.of();
+        }
+
+        Map<String, Double> similarities = new HashMap<>();
+        doctorCaseIds.forEach((doctorId, caseIds) -> {
+            if (doctorId == null || caseIds == null) {
+                return;
+            }
+            double sum = 0.0;
+            int count = 0;
+            for (String caseId : caseIds) {
+                int row = current.row(caseId);
+                if (row >= 0) {
+                    // Read the matrix after the row: it is published before any row pointing into it
+                    float[] matrix = current.values;
+                    sum += dot(matrix, row * current.dimension, query, current.dimension);
+                    count++;
+                }
+            }
+            if (count > 0) {
+                similarities.put(doctorId, sum / count);
+            }
+        });
+        return similarities;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${medexpertmatch.retrieval.vector.in-memory.refresh-interval-ms:60000}",
+            initialDelayString = "${medexpertmatch.retrieval.vector.in-memory.initial-delay-ms:10000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Matrix current = store;
+            if (current == null) {
+                store = loadAll();
+                return;
+            }
+
+            current.releaseRetiredRows();
+            List<CaseEmbedding> changes = new ArrayList<>();
+            medicalCaseRepository.forEachEmbeddingUpdatedSince(current.watermark.minus(REFRESH_OVERLAP),
+                    (caseId, embedding, updatedAt) -> changes.add(new CaseEmbedding(caseId, embedding, updatedAt)));
+            int requiredDimension = changes.stream()
+                    .mapToInt(change -> effectiveLength(change.embedding()))
+                    .max()
+                    .orElse(0);
+            if (requiredDimension > current.dimension) {
+                store = loadAll();
+                return;
+            }
+            current.apply(changes);
+            removeDeletedCases(current);
+        } catch (Exception e) {
+            log.warn("Case embedding store refresh failed, vector scoring keeps the previous rows: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Drops cases that were deleted from the table. Rows are only reconciled when the store holds more cases
+     * than the table has embeddings, which a deletion always causes once the incremental changes are applied.
+     */
+    private void removeDeletedCases(Matrix current) {
+        if (current.size() <= medicalCaseRepository.countWithEmbedding()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>();
+        for (String caseId : medicalCaseRepository.findIdsWithEmbedding()) {
+            existing.add(caseId.toLowerCase());
+        }
+        int removed = current.retainAll(existing);
+        log.debug("Removed {} deleted cases from the case embedding store", removed);
+    }
+
+    private Matrix loadAll() {
+        List<CaseEmbedding> embeddings = new ArrayList<>();
+        medicalCaseRepository.forEachEmbeddingUpdatedSince(Instant.EPOCH, (caseId, embedding, updatedAt) -> {
+            if (embedding != null) {
+                embeddings.add(new CaseEmbedding(caseId, embedding, updatedAt));
+            }
+        });
+        Matrix loaded = Matrix.of(embeddings);
+        log.info("Loaded {} case embeddings into memory ({} dimensions)", loaded.size(), loaded.dimension);
+        return loaded;
+    }
+    /**
+     * Dot product of a matrix row and a vector, unrolled over four independent accumulators
+     * so the JIT can vectorize the loop.
+     */
+    static double dot(float[] matrix, int offset, float[] vector, int length) {
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        int bound = length - (length % 4);
+        for (; i < bound; i += 4) {
+            s0 += matrix[offset + i] * vector[i];
+            s1 += matrix[offset + i + 1] * vector[i + 1];
+            s2 += matrix[offset + i + 2] * vector[i + 2];
+            s3 += matrix[offset + i + 3] * vector[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += matrix[offset + i] * vector[i];
+        }
+        return (double) s0 + s1 + s2 + s3;
+    }
+
+    private static int effectiveLength(float[] embedding) {
+        if (embedding == null) {
+            return 0;
+        }
+        int length = embedding.length;
+        while (length > 0 && embedding[length - 1] == 0f) {
+            length--;
+        }
+        return length;
+    }
+
+    private static double norm(float[] embedding) {
+        double sum = 0.0;
+        for (float value : embedding) {
+            sum += (double) value * value;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private record CaseEmbedding(String caseId, float[] embedding, Instant updatedAt) {
+    }
+
+    /**
+     * Row-major matrix of normalized rows with a case ID to row mapping. Only {@link #refresh()} writes to it;
+     * readers look up the row first and then read {@link #values}, which is republished whenever it grows.
+     */
+    private static final class Matrix {
+
+        private final Map<String, Integer> rowIds = new ConcurrentHashMap<>();
+        private final int dimension;
+        private final Deque<Integer> freeRows = new ArrayDeque<>();
+        private final List<Integer> retiredRows = new ArrayList<>();
+        private volatile float[] values = new float[0];
+        private int usedRows;
+        private Instant watermark = Instant.EPOCH;
+
+        private Matrix(int dimension) {
+            this.dimension = dimension;
+        }
+
+        static Matrix of(List<CaseEmbedding> embeddings) {
+            int dimension = embeddings.stream()
+                    .mapToInt(embedding -> effectiveLength(embedding.embedding()))
+                    .max()
+                    .orElse(0);
+            Matrix matrix = new Matrix(dimension);
+            matrix.values = new float[Math.toIntExact((long) embeddings.size() * dimension)];
+            matrix.apply(embeddings);
+            return matrix;
+        }
+
+        int size() {
+            return rowIds.size();
+        }
+
+        /**
+         * Inserts, replaces or (for a null embedding) removes the given cases.
+         * Every embedding must fit into {@link #dimension}.
+         */
+        void apply(List<CaseEmbedding> changes) {
+            for (CaseEmbedding change : changes) {
+                String key = change.caseId().toLowerCase();
+                float[] embedding = change.embedding();
+                Integer previous;
+                if (embedding == null) {
+                    previous = rowIds.remove(key);
+                } else {
+                    int row = allocateRow();
+                    write(row, embedding);
+                    previous = rowIds.put(key, row);
+                }
+                if (previous != null) {
+                    retiredRows.add(previous);
+                }
+                if (change.updatedAt() != null && change.updatedAt().isAfter(watermark)) {
+                    watermark = change.updatedAt();
+                }
+            }
+        }
+
+        /**
+         * Removes every case not in {@code caseIds}.
+         *
+         * @return Number of removed cases
+         */
+        int retainAll(Set<String> caseIds) {
+            int removed = 0;
+            Iterator<Map.Entry<String, Integer>> entries = rowIds.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, Integer> entry = entries.next();
+                if (!caseIds.contains(entry.getKey())) {
+                    retiredRows.add(entry.getValue());
+                    entries.remove();
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        /**
+         * Makes rows released by the previous refresh available for reuse.
+         */
+        void releaseRetiredRows() {
+            freeRows.addAll(retiredRows);
+            retiredRows.clear();
+        }
+
+        private int allocateRow() {
+            Integer free = freeRows.poll();
+            if (free != null) {
+                return free;
+            }
+            int row = usedRows++;
+            if ((long) usedRows * dimension > values.length) {
+                int capacityRows = Math.max(16, usedRows + usedRows / 2);
+                values = Arrays.copyOf(values, Math.toIntExact((long) capacityRows * dimension));
+            }
+            return row;
+        }
+
+        private void write(int row, float[] embedding) {
+            float[] matrix = values;
+            int offset = row * dimension;
+            double norm = norm(embedding);
+            Arrays.fill(matrix, offset, offset + dimension, 0f);
+            if (norm > 0.0) {
+                int length = Math.min(embedding.length, dimension);
+                for (int i = 0; i < length; i++) {
+                    matrix[offset + i] = (float) (embedding[i] / norm);
+                }
+            }
+        }
+
+        int row(String caseId) {
+            if (caseId == null) {
+                return -1;
+            }
+            Integer row = rowIds.get(caseId.toLowerCase());
+            return row != null ? row : -1;
+        }
+
+        /**
+         * Normalizes the full query vector and trims it to the stored dimension; returns null for a zero vector.
+         */
+        float[] normalizedQuery(float[] queryEmbedding) {
+            double norm = norm(queryEmbedding);
+            if (norm == 0.0) {
+                return null;
+            }
+            float[] query = new float[dimension];
+            int length = Math.min(queryEmbedding.length, dimension);
+            for (int i = 0; i < length; i++) {
+                query[i] = (float) (queryEmbedding[i] / norm);
+            }
+            return query;
+        }
+    }
+}
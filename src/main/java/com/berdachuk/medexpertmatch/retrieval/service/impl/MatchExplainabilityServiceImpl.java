@@ -6,6 +6,7 @@ import com.berdachuk.medexpertmatch.retrieval.domain.DoctorMatch;
 import com.berdachuk.medexpertmatch.retrieval.domain.MatchSignalBreakdown;
 import com.berdachuk.medexpertmatch.retrieval.domain.ScoreResult;
 import com.berdachuk.medexpertmatch.retrieval.service.MatchExplainabilityService;
+import com.berdachuk.medexpertmatch.retrieval.service.ScoringContext;
 import com.berdachuk.medexpertmatch.retrieval.service.SemanticGraphRetrievalService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,13 +38,15 @@ public class MatchExplainabilityServiceImpl implements MatchExplainabilityServic
             return List.of();
         }
         int capped = Math.max(1, Math.min(limit, matches.size()));
+        List<DoctorMatch> explained = matches.subList(0, capped).stream()
+                .filter(match -> match.doctor() != null)
+                .toList();
+        // One context for all explained doctors: experiences and outcome signals are fetched once
+        ScoringContext scoringContext = semanticGraphRetrievalService.createScoringContext(medicalCase,
+                explained.stream().map(DoctorMatch::doctor).toList());
         List<MatchSignalBreakdown> breakdowns = new ArrayList<>();
-        for (int i = 0; i < capped; i++) {
-            DoctorMatch match = matches.get(i);
-            if (match.doctor() == null) {
-                continue;
-            }
-            ScoreResult score = semanticGraphRetrievalService.score(medicalCase, match.doctor());
+        for (DoctorMatch match : explained) {
+            ScoreResult score = semanticGraphRetrievalService.score(scoringContext, match.doctor());
             breakdowns.add(toBreakdown(match, score));
         }
         return breakdowns;
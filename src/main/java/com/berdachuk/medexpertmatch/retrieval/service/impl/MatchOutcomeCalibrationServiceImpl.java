@@ -1,6 +1,7 @@
 package com.berdachuk.medexpertmatch.retrieval.service.impl;
 
 import com.berdachuk.medexpertmatch.retrieval.domain.DoctorOutcomeAffinity;
+import com.berdachuk.medexpertmatch.retrieval.domain.MatchOutcome;
 import com.berdachuk.medexpertmatch.retrieval.domain.MatchOutcomeLabel;
 import com.berdachuk.medexpertmatch.retrieval.repository.MatchOutcomeRepository;
 import com.berdachuk.medexpertmatch.retrieval.service.MatchOutcomeCalibrationService;
@@ -8,6 +9,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Slf4j
 @Service
 public class MatchOutcomeCalibrationServiceImpl implements MatchOutcomeCalibrationService {
@@ -54,6 +59,44 @@ public class MatchOutcomeCalibrationServiceImpl implements MatchOutcomeCalibrati
                 .orElse(NEUTRAL_SIGNAL);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Double> resolveOutcomeSignals(String caseId, List<String> doctorIds) {
+        if (doctorIds == null || doctorIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> validIds = doctorIds.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+        Map<String, MatchOutcome> pairOutcomes = caseId != null && !caseId.isBlank()
+                ? matchOutcomeRepository.findLatestForPairs(caseId, validIds)
+                : Map.of();
+        List<String> withoutPairOutcome = validIds.stream()
+                .filter(id -> !pairOutcomes.containsKey(id))
+                .toList();
+        Map<String, DoctorOutcomeAffinity> affinities = withoutPairOutcome.isEmpty()
+                ? Map.of()
+                : matchOutcomeRepository.findAffinitiesByDoctorIds(withoutPairOutcome);
+
+        Map<String, Double> signals = new HashMap<>();
+        for (String doctorId : doctorIds) {
+            if (doctorId == null || doctorId.isBlank()) {
+                continue;
+            }
+            String key = doctorId.trim();
+            MatchOutcome pairOutcome = pairOutcomes.get(key);
+            if (pairOutcome != null) {
+                signals.put(doctorId, labelScore(pairOutcome.label()));
+            } else {
+                DoctorOutcomeAffinity affinity = affinities.get(key);
+                signals.put(doctorId, affinity != null ? affinity.affinityScore() : NEUTRAL_SIGNAL);
+            }
+        }
+        return signals;
+    }
+
     static double labelScore(MatchOutcomeLabel label) {
         return MatchOutcomeCalibrationService.labelScore(label);
     }
@@ -3,15 +3,16 @@ package com.berdachuk.medexpertmatch.retrieval.service.impl;
 import com.berdachuk.medexpertmatch.core.util.GeoDistance;
 import com.berdachuk.medexpertmatch.core.util.IdGenerator;
 import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
-import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
 import com.berdachuk.medexpertmatch.facility.domain.Facility;
 import com.berdachuk.medexpertmatch.facility.repository.FacilityRepository;
 import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
 import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
 import com.berdachuk.medexpertmatch.retrieval.domain.*;
 import com.berdachuk.medexpertmatch.retrieval.repository.ConsultationMatchRepository;
+import com.berdachuk.medexpertmatch.retrieval.service.CandidateGenerationService;
 import com.berdachuk.medexpertmatch.retrieval.service.MatchingService;
 import com.berdachuk.medexpertmatch.retrieval.service.RerankingService;
+import com.berdachuk.medexpertmatch.retrieval.service.ScoringContext;
 import com.berdachuk.medexpertmatch.retrieval.service.SemanticGraphRetrievalService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -21,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -32,28 +34,28 @@ import java.util.stream.Collectors;
 public class MatchingServiceImpl implements MatchingService {
 
     private final MedicalCaseRepository medicalCaseRepository;
-    private final DoctorRepository doctorRepository;
     private final FacilityRepository facilityRepository;
     private final SemanticGraphRetrievalService semanticGraphRetrievalService;
     private final ConsultationMatchRepository consultationMatchRepository;
     private final NamedParameterJdbcTemplate namedJdbcTemplate;
     private final RerankingService rerankingService;
+    private final CandidateGenerationService candidateGenerationService;
 
     public MatchingServiceImpl(
             MedicalCaseRepository medicalCaseRepository,
-            DoctorRepository doctorRepository,
             FacilityRepository facilityRepository,
             SemanticGraphRetrievalService semanticGraphRetrievalService,
             ConsultationMatchRepository consultationMatchRepository,
             NamedParameterJdbcTemplate namedJdbcTemplate,
-            RerankingService rerankingService) {
+            RerankingService rerankingService,
+            CandidateGenerationService candidateGenerationService) {
         this.medicalCaseRepository = medicalCaseRepository;
-        this.doctorRepository = doctorRepository;
         this.facilityRepository = facilityRepository;
         this.semanticGraphRetrievalService = semanticGraphRetrievalService;
         this.consultationMatchRepository = consultationMatchRepository;
         this.namedJdbcTemplate = namedJdbcTemplate;
         this.rerankingService = rerankingService;
+        this.candidateGenerationService = candidateGenerationService;
     }
 
     @Override
@@ -100,8 +102,9 @@ public class MatchingServiceImpl implements MatchingService {
                             + "Please provide a real chief complaint, diagnosis, or ICD-10 code to enable matching.");
         }
 
-        // Find candidate doctors based on options
-        List<Doctor> candidates = findCandidateDoctors(medicalCase, options);
+        // Generate a bounded candidate pool (ANN, graph, specialty) before scoring
+        CandidatePool candidatePool = candidateGenerationService.generateCandidates(medicalCase, options);
+        List<Doctor> candidates = filterCandidateDoctors(candidatePool.doctors(), options);
 
         // Score each candidate using SemanticGraphRetrievalService
         List<DoctorMatch> unsortedMatches = new ArrayList<>();
@@ -110,11 +113,19 @@ public class MatchingServiceImpl implements MatchingService {
                 ? options.excludedDoctorIds()
                 : List.of();
 
-        for (Doctor doctor : candidates) {
-            if (excludedDoctorIds.contains(doctor.id())) {
+        List<Doctor> scoredCandidates = candidates.stream()
+                .filter(doctor -> !excludedDoctorIds.contains(doctor.id()))
+                .toList();
+
+        // Score all candidates in one set-based pass instead of per-doctor round trips
+        ScoringContext scoringContext = ScoringContext.forCase(medicalCase);
+        Map<String, ScoreResult> scoreResults = semanticGraphRetrievalService.scoreBatch(scoringContext, scoredCandidates);
+
+        for (Doctor doctor : scoredCandidates) {
+            ScoreResult scoreResult = scoreResults.get(doctor.id());
+            if (scoreResult == null) {
                 continue;
             }
-            ScoreResult scoreResult = semanticGraphRetrievalService.score(medicalCase, doctor);
 
             // Apply minimum score filter if specified
             if (options.minScore() != null && scoreResult.overallScore() < options.minScore()) {
@@ -177,6 +188,8 @@ public class MatchingServiceImpl implements MatchingService {
             consultationMatchRepository.deleteByCaseId(normalizedCaseId);
         }
 
+        candidateGenerationService.recordRecall(candidatePool,
+                result.stream().map(m -> m.doctor().id()).toList());
         return result;
     }
 
@@ -261,42 +274,9 @@ public class MatchingServiceImpl implements MatchingService {
     }
 
     /**
-     * Finds candidate doctors based on medical case and match options.
+     * Applies match option filters (telehealth, facility, preferred specialty) to the candidate pool.
      */
-    private List<Doctor> findCandidateDoctors(MedicalCase medicalCase, MatchOptions options) {
-        List<Doctor> candidates = new ArrayList<>();
-        List<String> excludedDoctorIds = options.excludedDoctorIds() != null
-                ? options.excludedDoctorIds()
-                : List.of();
-        boolean broadenSearch = Boolean.TRUE.equals(options.broadenCandidatePool())
-                || !excludedDoctorIds.isEmpty();
-
-        if (broadenSearch) {
-            int poolSize = Math.max(options.maxResults() * 10, 50);
-            List<String> doctorIds = doctorRepository.findAllIds(poolSize);
-            candidates.addAll(doctorRepository.findByIds(doctorIds));
-        } else if (options.preferredSpecialties() != null && !options.preferredSpecialties().isEmpty()) {
-            for (String specialty : options.preferredSpecialties()) {
-                List<Doctor> doctors = doctorRepository.findBySpecialty(specialty, options.maxResults() * 2);
-                candidates.addAll(doctors);
-            }
-        } else if (medicalCase.requiredSpecialty() != null) {
-            List<Doctor> doctors = doctorRepository.findBySpecialty(
-                    medicalCase.requiredSpecialty(),
-                    options.maxResults() * 2
-            );
-            candidates.addAll(doctors);
-            if (candidates.isEmpty()) {
-                log.warn("No doctors for required specialty '{}'; falling back to full pool for case {}",
-                        medicalCase.requiredSpecialty(), medicalCase.id());
-                int poolSize = Math.max(options.maxResults() * 10, 50);
-                candidates.addAll(doctorRepository.findByIds(doctorRepository.findAllIds(poolSize)));
-            }
-        } else {
-            List<String> doctorIds = doctorRepository.findAllIds(options.maxResults() * 2);
-            candidates.addAll(doctorRepository.findByIds(doctorIds));
-        }
-
+    private List<Doctor> filterCandidateDoctors(List<Doctor> candidates, MatchOptions options) {
         // Apply all filters in a single pass to improve performance
         return candidates.stream()
                 .distinct()
@@ -0,0 +1,61 @@
+package com.berdachuk.medexpertmatch.retrieval.service.impl;
+
+import com.berdachuk.medexpertmatch.retrieval.service.ScoreFusionStrategy;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reciprocal Rank Fusion: each channel is ranked once over the scored set and every doctor
+ * receives {@code sum(1 / (k + rank))} across channels. Tied scores share the same rank.
+ */
+@Component
+public class ReciprocalRankFusionStrategy implements ScoreFusionStrategy {
+
+    public static final String NAME = "rrf";
+
+    private static final double RRF_K = 60;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isRankBased() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Double> fuse(List<String> doctorIds,
+                                    Map<String, Double> vectorScores,
+                                    Map<String, Double> graphScores,
+                                    Map<String, Double> historicalScores) {
+        Map<String, Double> fused = new HashMap<>();
+        for (Map<String, Double> channel : List.of(vectorScores, graphScores, historicalScores)) {
+            addChannel(doctorIds, channel, fused);
+        }
+        return fused;
+    }
+
+    private static void addChannel(List<String> doctorIds, Map<String, Double> channel, Map<String, Double> fused) {
+        List<String> ranked = doctorIds.stream()
+                .sorted(Comparator.comparing((String id) -> channel.getOrDefault(id, 0.0)).reversed())
+                .toList();
+
+        int rank = 0;
+        double previousScore = Double.NaN;
+        for (int position = 0; position < ranked.size(); position++) {
+            String doctorId = ranked.get(position);
+            double score = channel.getOrDefault(doctorId, 0.0);
+            if (position == 0 || Double.compare(score, previousScore) != 0) {
+                rank = position + 1;
+                previousScore = score;
+            }
+            fused.merge(doctorId, 1.0 / (RRF_K + rank), Double::sum);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.berdachuk.medexpertmatch.retrieval.service.impl;
 
 import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.PerformanceStats;
 import com.berdachuk.medexpertmatch.clinicalexperience.repository.ClinicalExperienceRepository;
 import com.berdachuk.medexpertmatch.core.service.LogStreamService;
 import com.berdachuk.medexpertmatch.core.util.GeoDistance;
@@ -16,17 +17,23 @@ import com.berdachuk.medexpertmatch.retrieval.config.RetrievalScoringProperties;
 import com.berdachuk.medexpertmatch.retrieval.domain.PriorityScore;
 import com.berdachuk.medexpertmatch.retrieval.domain.RouteScoreResult;
 import com.berdachuk.medexpertmatch.retrieval.domain.ScoreResult;
+import com.berdachuk.medexpertmatch.retrieval.repository.DoctorEmbeddingCentroidRepository;
+import com.berdachuk.medexpertmatch.retrieval.service.CaseEmbeddingStore;
 import com.berdachuk.medexpertmatch.retrieval.service.MatchOutcomeCalibrationService;
+import com.berdachuk.medexpertmatch.retrieval.service.ScoreFusionStrategy;
+import com.berdachuk.medexpertmatch.retrieval.service.ScoringContext;
 import com.berdachuk.medexpertmatch.retrieval.service.SemanticGraphRetrievalService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Semantic Graph Retrieval service implementation.
@@ -38,9 +45,8 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
 
     private static final int AVAILABILITY_DOCTOR_LIMIT = 100;
     private static final double GEOGRAPHIC_DECAY_DISTANCE_KM = 500.0;
-    private static final double RRF_K = 60;
-
-    private static final int FACILITY_DOCTOR_LIMIT = 500;
+    private static final int RANKING_POOL_SIZE = 1000;
+    private static final double NEUTRAL_OUTCOME_SIGNAL = 0.5;
 
     private final NamedParameterJdbcTemplate namedJdbcTemplate;
     private final GraphService graphService;
@@ -52,6 +58,10 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
     private final GraphQueryService graphQueryService;
     private final RetrievalScoringProperties scoringProperties;
     private final MatchOutcomeCalibrationService matchOutcomeCalibrationService;
+    private final Map<String, ScoreFusionStrategy> fusionStrategies;
+    private final CaseEmbeddingStore caseEmbeddingStore;
+    private final DoctorEmbeddingCentroidRepository doctorEmbeddingCentroidRepository;
+    private final CandidateScoringExecutor candidateScoringExecutor;
 
     public SemanticGraphRetrievalServiceImpl(
             NamedParameterJdbcTemplate namedJdbcTemplate,
@@ -63,7 +73,11 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
             com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository medicalCaseRepository,
             GraphQueryService graphQueryService,
             RetrievalScoringProperties scoringProperties,
-            MatchOutcomeCalibrationService matchOutcomeCalibrationService) {
+            MatchOutcomeCalibrationService matchOutcomeCalibrationService,
+            List<ScoreFusionStrategy> fusionStrategies,
+            CaseEmbeddingStore caseEmbeddingStore,
+            DoctorEmbeddingCentroidRepository doctorEmbeddingCentroidRepository,
+            CandidateScoringExecutor candidateScoringExecutor) {
         this.namedJdbcTemplate = namedJdbcTemplate;
         this.graphService = graphService;
         this.clinicalExperienceRepository = clinicalExperienceRepository;
@@ -74,46 +88,131 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
         this.graphQueryService = graphQueryService;
         this.scoringProperties = scoringProperties;
         this.matchOutcomeCalibrationService = matchOutcomeCalibrationService;
+        this.fusionStrategies = new HashMap<>();
+        fusionStrategies.forEach(strategy -> this.fusionStrategies.put(strategy.name(), strategy));
+        this.caseEmbeddingStore = caseEmbeddingStore;
+        this.doctorEmbeddingCentroidRepository = doctorEmbeddingCentroidRepository;
+        this.candidateScoringExecutor = candidateScoringExecutor;
     }
 
     @Override
     @Transactional(readOnly = true)
     public ScoreResult score(MedicalCase medicalCase, Doctor doctor) {
+        return score(ScoringContext.forCase(medicalCase), doctor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScoreResult score(ScoringContext context, Doctor doctor) {
+        MedicalCase medicalCase = context.medicalCase();
         String sessionId = logStreamService.getCurrentSessionId();
         logStreamService.sendLog(sessionId, "INFO", "Graph usage: Starting Semantic Graph Retrieval scoring",
                 String.format("Case: %s, Doctor: %s", medicalCase.id(), doctor.id()));
 
-        double vectorScore = calculateVectorSimilarityScore(medicalCase, doctor);
-        double graphScore = calculateGraphRelationshipScore(medicalCase, doctor);
-        double historicalScore = calculateHistoricalPerformanceScore(doctor, medicalCase);
-
-        double overallScore;
-        if ("rrf".equals(scoringProperties.getFusionStrategy())) {
-            overallScore = calculateRrfScore(medicalCase, doctor);
-        } else {
-            overallScore = (vectorScore * scoringProperties.getDoctorVectorWeight()) +
-                    (graphScore * scoringProperties.getDoctorGraphWeight()) +
-                    (historicalScore * scoringProperties.getDoctorHistoricalWeight());
+        ScoreFusionStrategy fusionStrategy = resolveFusionStrategy();
+        if (fusionStrategy.isRankBased()) {
+            // A rank only means something within a set: rank the doctor against the reference pool once
+            return scoreWithinRankingPool(context, doctor);
         }
 
-        overallScore = overallScore * 100;
+        double vectorScore = calculateVectorSimilarityScore(context, doctor);
+        double graphScore = calculateGraphRelationshipScore(context, doctor);
+        double historicalScore = calculateHistoricalPerformanceScore(context, doctor);
 
-        String rationale = String.format(
-                "Vector similarity: %.2f, Graph relationships: %.2f, Historical performance: %.2f",
-                vectorScore, graphScore, historicalScore
-        );
+        double overallScore = fusionStrategy.fuse(List.of(doctor.id()),
+                        Map.of(doctor.id(), vectorScore),
+                        Map.of(doctor.id(), graphScore),
+                        Map.of(doctor.id(), historicalScore))
+                .getOrDefault(doctor.id(), 0.0);
+
+        overallScore = overallScore * 100;
 
         logStreamService.sendLog(sessionId, "INFO", "Graph usage: Semantic Graph Retrieval scoring complete",
                 String.format("Overall score: %.2f (Vector: %.2f, Graph: %.2f, Historical: %.2f)",
                         overallScore, vectorScore * 100, graphScore * 100, historicalScore * 100));
 
-        return new ScoreResult(
-                overallScore,
-                vectorScore,
-                graphScore,
-                historicalScore,
-                rationale
-        );
+        return toScoreResult(overallScore, vectorScore, graphScore, historicalScore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, ScoreResult> scoreBatch(MedicalCase medicalCase, List<Doctor> doctors) {
+        return scoreBatch(ScoringContext.forCase(medicalCase), doctors);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScoringContext createScoringContext(MedicalCase medicalCase, List<Doctor> doctors) {
+        ScoringContext context = ScoringContext.forCase(medicalCase);
+        List<String> doctorIds = doctors == null ? List.of() : doctors.stream()
+                .map(Doctor::id)
+                .distinct()
+                .toList();
+        try {
+            // Prefetch failures are not fatal: scoring retries the lookup and applies its own fallback
+            if (!doctorIds.isEmpty()) {
+                context.experiences(doctorIds, clinicalExperienceRepository::findByDoctorIds);
+                performanceStats(context, doctorIds);
+                context.outcomeSignals(doctorIds, ids -> matchOutcomeCalibrationService.resolveOutcomeSignals(
+                        medicalCase.id(), ids), NEUTRAL_OUTCOME_SIGNAL);
+            }
+            context.graphExists(graphService::graphExists);
+            hasQueryEmbedding(context);
+        } catch (Exception e) {
+            log.warn("Failed to prefetch scoring context for case {}: {}", medicalCase.id(), e.getMessage());
+        }
+        return context;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, ScoreResult> scoreBatch(ScoringContext context, List<Doctor> doctors) {
+        if (doctors == null || doctors.isEmpty()) {
+            return Map.of();
+        }
+
+        MedicalCase medicalCase = context.medicalCase();
+
+        String sessionId = logStreamService.getCurrentSessionId();
+        List<String> doctorIds = doctors.stream()
+                .map(Doctor::id)
+                .distinct()
+                .toList();
+        logStreamService.sendLog(sessionId, "INFO", "Graph usage: Starting batch Semantic Graph Retrieval scoring",
+                String.format("Case: %s, Candidates: %d", medicalCase.id(), doctorIds.size()));
+
+        // Load all candidate experiences once for the vector signal; historical scoring reads maintained aggregates
+        Map<String, List<ClinicalExperience>> experiencesByDoctor = loadExperiences(context, doctorIds);
+        warmCaseLookups(context, doctorIds);
+
+        // Channel scores are independent per doctor, so candidate chunks may be scored concurrently
+        Map<String, Double> vectorScores = new HashMap<>();
+        Map<String, Double> graphScores = new HashMap<>();
+        Map<String, Double> historicalScores = new HashMap<>();
+        for (ChannelScores chunkScores : candidateScoringExecutor.mapChunks(doctorIds,
+                chunk -> calculateChannelScores(context, chunk, experiencesByDoctor))) {
+            vectorScores.putAll(chunkScores.vector());
+            graphScores.putAll(chunkScores.graph());
+            historicalScores.putAll(chunkScores.historical());
+        }
+
+        // Channel rankings (for rank-based fusion) are computed once over this candidate set
+        ScoreFusionStrategy fusionStrategy = resolveFusionStrategy();
+        Map<String, Double> fusedScores = fusionStrategy.fuse(doctorIds, vectorScores, graphScores, historicalScores);
+
+        Map<String, ScoreResult> results = new LinkedHashMap<>();
+        for (String doctorId : doctorIds) {
+            double vectorScore = vectorScores.getOrDefault(doctorId, 0.0);
+            double graphScore = graphScores.getOrDefault(doctorId, 0.0);
+            double historicalScore = historicalScores.getOrDefault(doctorId, 0.0);
+            double overallScore = fusedScores.getOrDefault(doctorId, 0.0) * 100;
+
+            results.put(doctorId, toScoreResult(overallScore, vectorScore, graphScore, historicalScore));
+        }
+
+        logStreamService.sendLog(sessionId, "INFO", "Graph usage: Batch Semantic Graph Retrieval scoring complete",
+                String.format("Case: %s, Scored candidates: %d", medicalCase.id(), results.size()));
+        return results;
     }
 
     @Override
@@ -190,10 +289,11 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
     /**
      * Calculates vector similarity score using cosine similarity of embeddings.
      */
-    private double calculateVectorSimilarityScore(MedicalCase medicalCase, Doctor doctor) {
+    private double calculateVectorSimilarityScore(ScoringContext context, Doctor doctor) {
+        MedicalCase medicalCase = context.medicalCase();
         try {
             // Check if query case has embedding
-            boolean hasEmbedding = medicalCaseRepository.hasEmbedding(medicalCase.id());
+            boolean hasEmbedding = context.queryHasEmbedding(() -> medicalCaseRepository.hasEmbedding(medicalCase.id()));
 
             if (!hasEmbedding) {
                 // No embedding available - return low score instead of neutral
@@ -202,8 +302,7 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
             }
 
             // Find cases treated by this doctor via clinical experiences
-            List<com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience> experiences =
-                    clinicalExperienceRepository.findByDoctorId(doctor.id());
+            List<ClinicalExperience> experiences = doctorExperiences(context, doctor);
 
             if (experiences.isEmpty()) {
                 // Doctor has no historical cases - return low score instead of neutral
@@ -212,10 +311,7 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
             }
 
             // Extract case IDs treated by doctor
-            List<String> doctorCaseIds = experiences.stream()
-                    .map(com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience::caseId)
-                    .distinct()
-                    .toList();
+            List<String> doctorCaseIds = distinctCaseIds(experiences);
 
             if (doctorCaseIds.isEmpty()) {
                 return 0.1;
@@ -224,17 +320,7 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
             // Calculate average cosine similarity between query case and doctor's cases
             // Using repository method instead of inline SQL
             Double avgSimilarity = medicalCaseRepository.calculateVectorSimilarity(medicalCase.id(), doctorCaseIds);
-
-            if (avgSimilarity == null || Double.isNaN(avgSimilarity)) {
-                log.warn("Could not calculate similarity for case {} and doctor {}: invalid result",
-                        medicalCase.id(), doctor.id());
-                return 0.1;
-            }
-
-            // Ensure score is in valid range [0, 1]
-            double score = Math.max(0.0, Math.min(1.0, avgSimilarity));
-            log.debug("Vector similarity score for case {} and doctor {}: {}", medicalCase.id(), doctor.id(), score);
-            return score;
+            return toVectorScore(medicalCase.id(), doctor.id(), avgSimilarity);
         } catch (Exception e) {
             log.error("Failed to calculate vector similarity score for case {} and doctor {}: {}",
                     medicalCase.id(), doctor.id(), e.getMessage(), e);
@@ -242,13 +328,85 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
         }
     }
 
+    /**
+     * Calculates vector similarity scores for all candidates in one pass: against the in-memory
+     * case embedding store when it is loaded, otherwise with a single query over doctor embedding
+     * centroids (one vector per doctor instead of one per treated case).
+     */
+    private Map<String, Double> calculateVectorSimilarityScores(ScoringContext context, List<String> doctorIds,
+                                                                Map<String, List<ClinicalExperience>> experiencesByDoctor) {
+        MedicalCase medicalCase = context.medicalCase();
+        if (experiencesByDoctor == null) {
+            return constantScores(doctorIds, 0.0);
+        }
+        try {
+            boolean inMemory = caseEmbeddingStore.isLoaded();
+            Optional<float[]> queryEmbedding = inMemory
+                    ? context.queryEmbedding(() -> medicalCaseRepository.findEmbedding(medicalCase.id()))
+                    : Optional.empty();
+            if (!hasQueryEmbedding(context)) {
+                log.debug("Case {} has no embedding, returning low vector scores", medicalCase.id());
+                return constantScores(doctorIds, 0.1);
+            }
+
+            Map<String, Double> scores = new HashMap<>();
+            Map<String, List<String>> doctorCaseIds = new HashMap<>();
+            for (String doctorId : doctorIds) {
+                List<String> caseIds = distinctCaseIds(experiencesByDoctor.getOrDefault(doctorId, List.of()));
+                if (caseIds.isEmpty()) {
+                    scores.put(doctorId, 0.1);
+                } else {
+                    doctorCaseIds.put(doctorId, caseIds);
+                }
+            }
+
+            Map<String, Double> similarities;
+            if (doctorCaseIds.isEmpty()) {
+                similarities = Map.of();
+            } else if (inMemory) {
+                similarities = caseEmbeddingStore.averageSimilarities(queryEmbedding.get(), doctorCaseIds);
+            } else {
+                similarities = doctorEmbeddingCentroidRepository.findCentroidSimilarities(
+                        medicalCase.id(), new ArrayList<>(doctorCaseIds.keySet()));
+            }
+            for (String doctorId : doctorCaseIds.keySet()) {
+                scores.put(doctorId, toVectorScore(medicalCase.id(), doctorId, similarities.get(doctorId)));
+            }
+            return scores;
+        } catch (Exception e) {
+            log.error("Failed to calculate vector similarity scores for case {}: {}",
+                    medicalCase.id(), e.getMessage(), e);
+            return constantScores(doctorIds, 0.0);
+        }
+    }
+
+    private static List<String> distinctCaseIds(List<ClinicalExperience> experiences) {
+        return experiences.stream()
+                .map(ClinicalExperience::caseId)
+                .distinct()
+                .toList();
+    }
+
+    private static double toVectorScore(String caseId, String doctorId, Double avgSimilarity) {
+        if (avgSimilarity == null || Double.isNaN(avgSimilarity)) {
+            log.warn("Could not calculate similarity for case {} and doctor {}: invalid result", caseId, doctorId);
+            return 0.1;
+        }
+
+        // Ensure score is in valid range [0, 1]
+        double score = Math.max(0.0, Math.min(1.0, avgSimilarity));
+        log.debug("Vector similarity score for case {} and doctor {}: {}", caseId, doctorId, score);
+        return score;
+    }
+
     /**
      * Calculates graph relationship score using Apache AGE (doctor-case relationships, expertise, specializations).
      */
-    private double calculateGraphRelationshipScore(MedicalCase medicalCase, Doctor doctor) {
+    private double calculateGraphRelationshipScore(ScoringContext context, Doctor doctor) {
+        MedicalCase medicalCase = context.medicalCase();
         String sessionId = logStreamService.getCurrentSessionId();
         try {
-            if (!graphService.graphExists()) {
+            if (!context.graphExists(graphService::graphExists)) {
                 log.warn("Graph does not exist, returning zero graph score");
                 logStreamService.sendLog(sessionId, "WARN", "Graph usage: Graph does not exist, returning zero score", null);
                 return 0.0;
@@ -262,14 +420,8 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
             double specializationMatchScore = calculateSpecializationMatchScore(medicalCase, doctor);
             double similarCasesScore = calculateSimilarCasesScore(medicalCase, doctor);
 
-            // Combine scores with weighted average
-            // Direct relationships are most important (40%)
-            // Condition expertise and specialization are equally important (25% each)
-            // Similar cases provide additional signal (10%)
-            double combinedScore = (directRelationshipScore * 0.4) +
-                    (conditionExpertiseScore * 0.25) +
-                    (specializationMatchScore * 0.25) +
-                    (similarCasesScore * 0.1);
+            double combinedScore = combineGraphScores(directRelationshipScore, conditionExpertiseScore,
+                    specializationMatchScore, similarCasesScore);
 
             String graphDetails = String.format(
                     "Direct relationships: %.2f (40%%), Condition expertise: %.2f (25%%), " +
@@ -293,6 +445,68 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
         }
     }
 
+    /**
+     * Calculates graph relationship scores for all candidates with one query per graph signal.
+     */
+    private Map<String, Double> calculateGraphRelationshipScores(ScoringContext context, List<String> doctorIds) {
+        MedicalCase medicalCase = context.medicalCase();
+        String sessionId = logStreamService.getCurrentSessionId();
+        try {
+            if (!context.graphExists(graphService::graphExists)) {
+                log.warn("Graph does not exist, returning zero graph scores");
+                logStreamService.sendLog(sessionId, "WARN", "Graph usage: Graph does not exist, returning zero score", null);
+                return constantScores(doctorIds, 0.0);
+            }
+
+            logStreamService.sendLog(sessionId, "INFO", "Graph usage: Calculating relationship scores",
+                    String.format("Case: %s, Candidates: %d", medicalCase.id(), doctorIds.size()));
+
+            Map<String, Double> directScores =
+                    graphQueryService.calculateDirectRelationshipScores(doctorIds, medicalCase.id(), sessionId);
+            Map<String, Double> conditionScores =
+                    graphQueryService.calculateConditionExpertiseScores(doctorIds, medicalCase.icd10Codes(), sessionId);
+            Map<String, Double> specializationScores =
+                    graphQueryService.calculateSpecializationMatchScores(doctorIds, medicalCase.requiredSpecialty(), sessionId);
+            Map<String, Double> similarCasesScores =
+                    graphQueryService.calculateSimilarCasesScores(doctorIds, medicalCase.icd10Codes(), sessionId);
+
+            Map<String, Double> scores = new HashMap<>();
+            for (String doctorId : doctorIds) {
+                double combinedScore = combineGraphScores(
+                        directScores.getOrDefault(doctorId, 0.0),
+                        conditionScores.getOrDefault(doctorId, 0.0),
+                        specializationScores.getOrDefault(doctorId, 0.0),
+                        similarCasesScores.getOrDefault(doctorId, 0.0));
+                scores.put(doctorId, Math.max(0.0, Math.min(1.0, combinedScore)));
+            }
+
+            logStreamService.sendLog(sessionId, "INFO", "Graph usage: Relationship scores calculated",
+                    String.format("Case: %s, Candidates scored: %d", medicalCase.id(), scores.size()));
+            return scores;
+        } catch (com.berdachuk.medexpertmatch.core.exception.RetrievalException e) {
+            log.error("Graph query failed (graph may not exist or query error): {}", e.getMessage());
+            logStreamService.sendLog(sessionId, "ERROR", "Graph usage: Query failed, returning zero score", e.getMessage());
+            return constantScores(doctorIds, 0.0);
+        } catch (Exception e) {
+            log.error("Failed to calculate graph relationship scores: {}", e.getMessage(), e);
+            logStreamService.sendLog(sessionId, "ERROR", "Graph usage: Calculation error, returning zero score", e.getMessage());
+            return constantScores(doctorIds, 0.0);
+        }
+    }
+
+    /**
+     * Combines the graph sub-signals with a weighted average.
+     * Direct relationships are most important (40%), condition expertise and specialization
+     * are equally important (25% each), and similar cases provide additional signal (10%).
+     */
+    private static double combineGraphScores(double directRelationshipScore, double conditionExpertiseScore,
+                                             double specializationMatchScore, double similarCasesScore) {
+        return (directRelationshipScore * 0.4) +
+                (conditionExpertiseScore * 0.25) +
+                (specializationMatchScore * 0.25) +
+                (similarCasesScore * 0.1);
+    }
+
     /**
      * Calculates direct relationship score (doctor treated/consulted on this exact case).
      */
@@ -326,96 +540,179 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
     }
 
     /**
-     * Calculates historical performance score based on clinical experiences.
+     * Calculates historical performance score from the doctor's maintained performance aggregate.
      */
-    private double calculateHistoricalPerformanceScore(Doctor doctor, MedicalCase medicalCase) {
+    private double calculateHistoricalPerformanceScore(ScoringContext context, Doctor doctor) {
         try {
-            List<com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience> experiences =
-                    clinicalExperienceRepository.findByDoctorId(doctor.id());
+            Optional<PerformanceStats> stats = performanceStats(context, List.of(doctor.id())).get(doctor.id());
+            double outcomeSignal = outcomeSignals(context, List.of(doctor.id())).get(doctor.id());
+            if (stats.isEmpty()) {
+                log.debug("Doctor {} has no clinical experiences; using outcome signal {}", doctor.id(), outcomeSignal);
+            }
+            return combineHistoricalScore(stats, outcomeSignal);
+        } catch (Exception e) {
+            log.error("Failed to calculate historical performance score for doctor {}: {}",
+                    doctor.id(), e.getMessage(), e);
+            return 0.0;
+        }
+    }
 
-            if (experiences.isEmpty()) {
-                double outcomeOnly = matchOutcomeCalibrationService.resolveOutcomeSignal(
-                        medicalCase.id(), doctor.id());
-                log.debug("Doctor {} has no clinical experiences; using outcome signal {}", doctor.id(), outcomeOnly);
-                return Math.max(0.1, Math.min(1.0, outcomeOnly));
+    /**
+     * Calculates historical performance scores for all candidates with one aggregate lookup
+     * and one outcome-signal lookup.
+     */
+    private Map<String, Double> calculateHistoricalPerformanceScores(ScoringContext context, List<String> doctorIds) {
+        MedicalCase medicalCase = context.medicalCase();
+        try {
+            Map<String, Optional<PerformanceStats>> statsByDoctor = performanceStats(context, doctorIds);
+            Map<String, Double> outcomeSignals = outcomeSignals(context, doctorIds);
+            Map<String, Double> scores = new HashMap<>();
+            for (String doctorId : doctorIds) {
+                scores.put(doctorId, combineHistoricalScore(
+                        statsByDoctor.getOrDefault(doctorId, Optional.empty()),
+                        outcomeSignals.getOrDefault(doctorId, NEUTRAL_OUTCOME_SIGNAL)));
             }
+            return scores;
+        } catch (Exception e) {
+            log.error("Failed to calculate historical performance scores for case {}: {}",
+                    medicalCase.id(), e.getMessage(), e);
+            return constantScores(doctorIds, 0.0);
+        }
+    }
 
-            // Calculate average rating and success rate
-            double totalRating = 0.0;
-            int successCount = 0;
-            int totalCount = experiences.size();
-            int ratingCount = 0;
+    /**
+     * Combines rating, success rate and the outcome-calibrated signal into a historical score.
+     */
+    private static double combineHistoricalScore(Optional<PerformanceStats> performanceStats, double outcomeSignal) {
+        if (performanceStats.isEmpty() || performanceStats.get().experienceCount() == 0) {
+            return Math.max(0.1, Math.min(1.0, outcomeSignal));
+        }
+        PerformanceStats stats = performanceStats.get();
 
-            for (var experience : experiences) {
-                if (experience.rating() != null) {
-                    totalRating += experience.rating();
-                    ratingCount++;
-                }
-                if ("SUCCESS".equalsIgnoreCase(experience.outcome()) ||
-                        "IMPROVED".equalsIgnoreCase(experience.outcome())) {
-                    successCount++;
-                }
-            }
+        // If no ratings available, use only success rate
+        double avgRating = stats.averageRating(2.5); // Default to mid-range
+        double successRate = stats.successRate();
 
-            // If no ratings available, use only success rate
-            double avgRating = ratingCount > 0 ? totalRating / ratingCount : 2.5; // Default to mid-range
-            double successRate = totalCount > 0 ? (double) successCount / totalCount : 0.0;
+        // Normalize rating (1-5 scale) to 0-1
+        double normalizedRating = (avgRating - 1.0) / 4.0;
 
-            // Normalize rating (1-5 scale) to 0-1
-            double normalizedRating = (avgRating - 1.0) / 4.0;
+        // Combine rating and success rate with outcome-calibrated signal (M63)
+        double experienceScore = (normalizedRating * 0.6) + (successRate * 0.4);
+        double performanceScore = (experienceScore * 0.6) + (outcomeSignal * 0.4);
 
-            // Combine rating and success rate with outcome-calibrated signal (M63)
-            double experienceScore = (normalizedRating * 0.6) + (successRate * 0.4);
-            double outcomeSignal = matchOutcomeCalibrationService.resolveOutcomeSignal(
-                    medicalCase.id(), doctor.id());
-            double performanceScore = (experienceScore * 0.6) + (outcomeSignal * 0.4);
+        return Math.max(0.0, Math.min(1.0, performanceScore));
+    }
 
-            return Math.max(0.0, Math.min(1.0, performanceScore));
+    /**
+     * Loads clinical experiences for all candidates, or returns null when loading fails.
+     */
+    private Map<String, List<ClinicalExperience>> loadExperiences(ScoringContext context, List<String> doctorIds) {
+        try {
+            return context.experiences(doctorIds, clinicalExperienceRepository::findByDoctorIds);
         } catch (Exception e) {
-            log.error("Failed to calculate historical performance score for doctor {}: {}",
-                    doctor.id(), e.getMessage(), e);
-            return 0.0;
+            log.error("Failed to load clinical experiences for {} candidates: {}", doctorIds.size(), e.getMessage(), e);
+            return null;
         }
     }
 
-    private double calculateRrfScore(MedicalCase medicalCase, Doctor doctor) {
-        List<String> allDoctorIds = doctorRepository.findAllIds(1000);
-        if (allDoctorIds.isEmpty()) {
-            return 0.0;
-        }
-        List<Doctor> allDoctors = doctorRepository.findByIds(allDoctorIds);
-        if (allDoctors.isEmpty()) {
-            return 0.0;
+    /**
+     * Clinical experiences of one doctor, shared by the vector and historical signals through the context.
+     */
+    private List<ClinicalExperience> doctorExperiences(ScoringContext context, Doctor doctor) {
+        return context.experiences(List.of(doctor.id()), clinicalExperienceRepository::findByDoctorIds).get(doctor.id());
+    }
+
+    private Map<String, Optional<PerformanceStats>> performanceStats(ScoringContext context, List<String> doctorIds) {
+        return context.performanceStats(doctorIds, clinicalExperienceRepository::findPerformanceStatsByDoctorIds);
+    }
+
+    private Map<String, Double> outcomeSignals(ScoringContext context, List<String> doctorIds) {
+        MedicalCase medicalCase = context.medicalCase();
+        return context.outcomeSignals(doctorIds,
+                ids -> matchOutcomeCalibrationService.resolveOutcomeSignals(medicalCase.id(), ids),
+                NEUTRAL_OUTCOME_SIGNAL);
+    }
+
+    /**
+     * Whether the query case has an embedding; reads the embedding itself when the in-memory store needs it.
+     */
+    private boolean hasQueryEmbedding(ScoringContext context) {
+        String caseId = context.medicalCase().id();
+        if (caseEmbeddingStore.isLoaded()) {
+            return context.queryEmbedding(() -> medicalCaseRepository.findEmbedding(caseId)).isPresent();
         }
+        return context.queryHasEmbedding(() -> medicalCaseRepository.hasEmbedding(caseId));
+    }
 
-        List<String> vectorRanked = allDoctors.stream()
-                .sorted(Comparator.comparing((Doctor d) -> {
-                    return calculateVectorSimilarityScore(medicalCase, d);
-                }).reversed())
-                .map(Doctor::id)
-                .toList();
+    /**
+     * Per-channel scores of one candidate chunk.
+     */
+    private record ChannelScores(Map<String, Double> vector, Map<String, Double> graph,
+                                 Map<String, Double> historical) {
+    }
 
-        List<String> graphRanked = allDoctors.stream()
-                .sorted(Comparator.comparing((Doctor d) -> {
-                    return calculateGraphRelationshipScore(medicalCase, d);
-                }).reversed())
-                .map(Doctor::id)
-                .toList();
+    private ChannelScores calculateChannelScores(ScoringContext context, List<String> doctorIds,
+                                                 Map<String, List<ClinicalExperience>> experiencesByDoctor) {
+        return new ChannelScores(
+                calculateVectorSimilarityScores(context, doctorIds, experiencesByDoctor),
+                calculateGraphRelationshipScores(context, doctorIds),
+                calculateHistoricalPerformanceScores(context, doctorIds));
+    }
 
-        List<String> historicalRanked = allDoctors.stream()
-                .sorted(Comparator.comparing((Doctor d) -> {
-                    return calculateHistoricalPerformanceScore(d, medicalCase);
-                }).reversed())
-                .map(Doctor::id)
-                .toList();
+    /**
+     * Loads the case-level lookups and outcome signals into the context before chunks are scored,
+     * so concurrent chunks read them instead of contending for the context lock.
+     */
+    private void warmCaseLookups(ScoringContext context, List<String> doctorIds) {
+        try {
+            context.graphExists(graphService::graphExists);
+            hasQueryEmbedding(context);
+            performanceStats(context, doctorIds);
+            outcomeSignals(context, doctorIds);
+        } catch (Exception e) {
+            // Each channel retries its own lookup and applies its own fallback
+            log.debug("Failed to warm scoring context for case {}: {}", context.medicalCase().id(), e.getMessage());
+        }
+    }
 
-        Map<String, Double> rrfScores = new HashMap<>();
-        for (List<String> channel : List.of(vectorRanked, graphRanked, historicalRanked)) {
-            for (int rank = 0; rank < channel.size(); rank++) {
-                rrfScores.merge(channel.get(rank), 1.0 / (RRF_K + rank + 1), Double::sum);
-            }
+    /**
+     * Resolves the configured fusion strategy, falling back to weighted sum for unknown names.
+     */
+    private ScoreFusionStrategy resolveFusionStrategy() {
+        ScoreFusionStrategy strategy = fusionStrategies.get(scoringProperties.getFusionStrategy());
+        if (strategy != null) {
+            return strategy;
         }
-        return rrfScores.getOrDefault(doctor.id(), 0.0);
+        log.warn("Unknown fusion strategy '{}', using {}", scoringProperties.getFusionStrategy(),
+                WeightedSumFusionStrategy.NAME);
+        return fusionStrategies.get(WeightedSumFusionStrategy.NAME);
+    }
+
+    /**
+     * Scores a single doctor with rank-based fusion by batch scoring the reference doctor pool once.
+     */
+    private ScoreResult scoreWithinRankingPool(ScoringContext context, Doctor doctor) {
+        List<String> poolIds = doctorRepository.findAllIds(RANKING_POOL_SIZE);
+        List<Doctor> rankingPool = new ArrayList<>(poolIds.isEmpty() ? List.of() : doctorRepository.findByIds(poolIds));
+        if (rankingPool.stream().noneMatch(candidate -> candidate.id().equals(doctor.id()))) {
+            rankingPool.add(doctor);
+        }
+        return scoreBatch(context, rankingPool).get(doctor.id());
+    }
+
+    private static ScoreResult toScoreResult(double overallScore, double vectorScore, double graphScore,
+                                             double historicalScore) {
+        String rationale = String.format(
+                "Vector similarity: %.2f, Graph relationships: %.2f, Historical performance: %.2f",
+                vectorScore, graphScore, historicalScore
+        );
+        return new ScoreResult(overallScore, vectorScore, graphScore, historicalScore, rationale);
+    }
+
+    private static Map<String, Double> constantScores(List<String> doctorIds, double value) {
+        Map<String, Double> scores = new HashMap<>();
+        doctorIds.forEach(doctorId -> scores.put(doctorId, value));
+        return scores;
     }
 
     /**
@@ -438,37 +735,17 @@ public class SemanticGraphRetrievalServiceImpl implements SemanticGraphRetrieval
 
     /**
      * Calculates historical outcomes score for facility-case routing.
-     * Aggregates outcomes of clinical experiences for doctors affiliated with the facility.
+     * Reads the maintained roll-up of clinical experience outcomes over doctors affiliated with the facility.
      */
     private double calculateHistoricalOutcomesScore(MedicalCase medicalCase, Facility facility) {
         try {
-            List<String> doctorIds = doctorRepository.findDoctorIdsByFacilityId(facility.id(), FACILITY_DOCTOR_LIMIT);
-            if (doctorIds.isEmpty()) {
-                return 0.5;
-            }
-            Map<String, List<ClinicalExperience>> experiencesByDoctor = clinicalExperienceRepository.findByDoctorIds(doctorIds);
-            double totalRating = 0.0;
-            int successCount = 0;
-            int totalCount = 0;
-            int ratingCount = 0;
-            for (List<ClinicalExperience> experiences : experiencesByDoctor.values()) {
-                for (ClinicalExperience experience : experiences) {
-                    totalCount++;
-                    if (experience.rating() != null) {
-                        totalRating += experience.rating();
-                        ratingCount++;
-                    }
-                    if ("SUCCESS".equalsIgnoreCase(experience.outcome()) ||
-                            "IMPROVED".equalsIgnoreCase(experience.outcome())) {
-                        successCount++;
-                    }
-                }
-            }
-            if (totalCount == 0) {
+            Optional<PerformanceStats> rollUp = clinicalExperienceRepository.findFacilityPerformanceStats(facility.id());
+            if (rollUp.isEmpty() || rollUp.get().experienceCount() == 0) {
                 return 0.5;
             }
-            double avgRating = ratingCount > 0 ? totalRating / ratingCount : 2.5;
-            double successRate = (double) successCount / totalCount;
+            PerformanceStats stats = rollUp.get();
+            double avgRating = stats.averageRating(2.5);
+            double successRate = stats.successRate();
             double normalizedRating = (avgRating - 1.0) / 4.0;
             double performanceScore = (normalizedRating * 0.6) + (successRate * 0.4);
             return Math.max(0.0, Math.min(1.0, performanceScore));
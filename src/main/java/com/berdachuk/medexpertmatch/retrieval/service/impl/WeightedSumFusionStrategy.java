@@ -0,0 +1,42 @@
+package com.berdachuk.medexpertmatch.retrieval.service.impl;
+
+import com.berdachuk.medexpertmatch.retrieval.config.RetrievalScoringProperties;
+import com.berdachuk.medexpertmatch.retrieval.service.ScoreFusionStrategy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted-sum fusion using the configured doctor scoring weights.
+ */
+@Component
+@RequiredArgsConstructor
+public class WeightedSumFusionStrategy implements ScoreFusionStrategy {
+
+    public static final String NAME = "weighted";
+
+    private final RetrievalScoringProperties scoringProperties;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, Double> fuse(List<String> doctorIds,
+                                    Map<String, Double> vectorScores,
+                                    Map<String, Double> graphScores,
+                                    Map<String, Double> historicalScores) {
+        Map<String, Double> fused = new HashMap<>();
+        for (String doctorId : doctorIds) {
+            fused.put(doctorId,
+                    (vectorScores.getOrDefault(doctorId, 0.0) * scoringProperties.getDoctorVectorWeight()) +
+                            (graphScores.getOrDefault(doctorId, 0.0) * scoringProperties.getDoctorGraphWeight()) +
+                            (historicalScores.getOrDefault(doctorId, 0.0) * scoringProperties.getDoctorHistoricalWeight()));
+        }
+        return fused;
+    }
+}
@@ -5,7 +5,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "medexpertmatch.system.graph-quality")
 public record GraphQualityProperties(
         int staleExperienceDays,
-        int evidenceFreshnessTtlDays) {
+        int evidenceFreshnessTtlDays,
+        int orphanScanLimit) {
 
     public GraphQualityProperties {
         if (staleExperienceDays <= 0) {
@@ -14,5 +15,8 @@ public record GraphQualityProperties(
         if (evidenceFreshnessTtlDays <= 0) {
             evidenceFreshnessTtlDays = 180;
         }
+        if (orphanScanLimit <= 0) {
+            orphanScanLimit = 100;
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.berdachuk.medexpertmatch.system.health;
 
 import com.berdachuk.medexpertmatch.embedding.multiendpoint.EmbeddingEndpointPool;
+import com.berdachuk.medexpertmatch.embedding.multiendpoint.EndpointState;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.health.contributor.Health;
@@ -9,6 +10,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Slf4j
@@ -35,6 +37,17 @@ public class EmbeddingPoolHealthIndicator implements HealthIndicator {
         try {
             details.put("status", "UP");
             details.put("active", !embeddingEndpointPool.isTerminated());
+            details.put("queued", embeddingEndpointPool.getQueuedCount());
+            Map<String, Object> endpoints = new LinkedHashMap<>();
+            for (EndpointState endpoint : embeddingEndpointPool.getEndpoints()) {
+                endpoints.put(endpoint.getUrl(), Map.of(
+                        "circuit", endpoint.getCircuitState().name(),
+                        "inFlight", endpoint.getInFlight(),
+                        "latencyEwmaMs", Math.round(endpoint.getLatencyEwmaMs()),
+                        "errorRateEwma", endpoint.getErrorRateEwma(),
+                        "completed", endpoint.getCompletedCount().get()));
+            }
+            details.put("endpoints", endpoints);
             details.put("message", "Embedding endpoint pool is active");
             return Health.up().withDetails(details).build();
         } catch (Exception e) {
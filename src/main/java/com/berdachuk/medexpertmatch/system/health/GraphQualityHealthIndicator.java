@@ -15,14 +15,25 @@ import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Graph quality probe. Doctor coverage compares the doctors table with an exact count of the {@code Doctor} label
+ * table, not the planner estimates behind the graph statistics. The orphan vertex scan stops at
+ * {@code orphan-scan-limit} vertices and its result is reused until the graph build version changes.
+ */
 @Slf4j
 @Component
 public class GraphQualityHealthIndicator implements HealthIndicator {
 
+    private static final String GRAPH_NAME = "medexpertmatch_graph";
+    private static final String ORPHAN_SCAN_CYPHER =
+            "MATCH (n) WHERE NOT (n)--() WITH n LIMIT %d RETURN count(n) as count";
+
     private final GraphService graphService;
     private final NamedParameterJdbcTemplate namedJdbcTemplate;
     private final GraphQualityProperties properties;
+    private final AtomicReference<OrphanScan> lastOrphanScan = new AtomicReference<>();
 
     @InjectSql("/sql/system/graphquality/countDoctors.sql")
     private String countDoctorsSql;
@@ -33,6 +44,9 @@ public class GraphQualityHealthIndicator implements HealthIndicator {
     @InjectSql("/sql/system/graphquality/countStaleExperiences.sql")
     private String countStaleExperiencesSql;
 
+    @InjectSql("/sql/system/graphquality/countGraphDoctorVertices.sql")
+    private String countGraphDoctorVerticesSql;
+
     public GraphQualityHealthIndicator(
             GraphService graphService,
             NamedParameterJdbcTemplate namedJdbcTemplate,
@@ -63,13 +77,12 @@ public class GraphQualityHealthIndicator implements HealthIndicator {
             long graphDoctorNodes = 0;
             long orphanGraphNodes = 0;
             if (graphService.graphExists()) {
-                graphDoctorNodes = readGraphCount(
-                        "MATCH (d:Doctor) RETURN count(d) as count");
-                orphanGraphNodes = readGraphCount(
-                        "MATCH (n) WHERE NOT (n)--() RETURN count(n) as count");
+                graphDoctorNodes = queryCount(countGraphDoctorVerticesSql, Map.of("graphName", GRAPH_NAME));
+                orphanGraphNodes = readOrphanCount();
             }
             details.put("graphDoctorNodes", graphDoctorNodes);
             details.put("orphanGraphNodes", orphanGraphNodes);
+            details.put("orphanScanLimit", properties.orphanScanLimit());
             double coverage = doctorCount > 0 ? (double) graphDoctorNodes / doctorCount : 0.0;
             details.put("doctorGraphCoverage", String.format("%.2f", coverage));
 
@@ -95,15 +108,25 @@ public class GraphQualityHealthIndicator implements HealthIndicator {
         return result != null ? result : 0L;
     }
 
-    private long readGraphCount(String cypher) {
-        List<Map<String, Object>> results = graphService.executeCypher(cypher, Map.of());
+    private long readOrphanCount() {
+        long buildVersion = graphService.getGraphMetadata().buildVersion();
+        OrphanScan cached = lastOrphanScan.get();
+        if (cached != null && cached.buildVersion() == buildVersion) {
+            return cached.count();
+        }
+
+        List<Map<String, Object>> results = graphService.executeCypher(
+                String.format(ORPHAN_SCAN_CYPHER, properties.orphanScanLimit()), Map.of());
         if (results.isEmpty() || !results.getFirst().containsKey("count")) {
+            // Failed scans are not cached, so the next probe retries
             return 0L;
         }
         Object count = results.getFirst().get("count");
-        if (count instanceof Number number) {
-            return number.longValue();
-        }
-        return Long.parseLong(String.valueOf(count));
+        long orphans = count instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(count));
+        lastOrphanScan.set(new OrphanScan(buildVersion, orphans));
+        return orphans;
+    }
+
+    private record OrphanScan(long buildVersion, long count) {
     }
 }
@@ -247,6 +247,67 @@ CREATE TABLE medexpertmatch.doctor_outcome_affinities (
     calibrated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Per-doctor centroid of L2-normalized case embeddings (mean, not re-normalized), so that
+-- centroid <#> normalized query = -AVG(cosine similarity) over the doctor's embedded cases.
+-- Maintained by triggers on clinical_experiences and medical_cases (see Functions below).
+CREATE TABLE medexpertmatch.doctor_embedding_centroid (
+    doctor_id VARCHAR(74) PRIMARY KEY REFERENCES medexpertmatch.doctors(id) ON DELETE CASCADE,
+    centroid vector(1536) NOT NULL,
+    case_count INT NOT NULL CHECK (case_count > 0),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- HNSW index for nearest-doctor search by inner product with the normalized query embedding
+CREATE INDEX doctor_embedding_centroid_idx ON medexpertmatch.doctor_embedding_centroid
+    USING hnsw (centroid vector_ip_ops) WITH (m = 16, ef_construction = 64);
+
+-- Per-doctor clinical experience aggregates for historical scoring (count, ratings, successes).
+-- Maintained incrementally by triggers on clinical_experiences (see Functions below).
+CREATE TABLE medexpertmatch.doctor_performance_stats (
+    doctor_id VARCHAR(74) PRIMARY KEY REFERENCES medexpertmatch.doctors(id) ON DELETE CASCADE,
+    experience_count INT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_count INT NOT NULL DEFAULT 0,
+    success_count INT NOT NULL DEFAULT 0, -- outcome SUCCESS or IMPROVED
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Facility roll-up of doctor_performance_stats over doctors.facility_ids
+CREATE TABLE medexpertmatch.facility_performance_stats (
+    facility_id VARCHAR(74) PRIMARY KEY,
+    doctor_count INT NOT NULL DEFAULT 0,
+    experience_count INT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_count INT NOT NULL DEFAULT 0,
+    success_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Doctor centrality over the doctor-case co-treatment graph, recomputed by the scheduled graph analytics job:
+-- weighted degree (TREATED 1.0, CONSULTED_ON 0.5), global PageRank and label-propagation community
+CREATE TABLE medexpertmatch.doctor_centrality (
+    doctor_id VARCHAR(74) PRIMARY KEY REFERENCES medexpertmatch.doctors(id) ON DELETE CASCADE,
+    weighted_degree DOUBLE PRECISION NOT NULL DEFAULT 0,
+    pagerank DOUBLE PRECISION NOT NULL DEFAULT 0,
+    community_id INT NOT NULL,
+    computed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX doctor_centrality_community_idx ON medexpertmatch.doctor_centrality(community_id, pagerank DESC);
+
+-- Top doctors per ICD-10 code by PageRank personalized on the code's cases, normalized so the best doctor scores 1.0
+CREATE TABLE medexpertmatch.doctor_condition_centrality (
+    icd10_code VARCHAR(20) NOT NULL,
+    doctor_id VARCHAR(74) NOT NULL REFERENCES medexpertmatch.doctors(id) ON DELETE CASCADE,
+    case_count INT NOT NULL DEFAULT 0,
+    score DOUBLE PRECISION NOT NULL CHECK (score >= 0 AND score <= 1),
+    PRIMARY KEY (icd10_code, doctor_id)
+);
+
+CREATE INDEX doctor_condition_centrality_rank_idx
+    ON medexpertmatch.doctor_condition_centrality(icd10_code, score DESC);
+CREATE INDEX doctor_condition_centrality_doctor_idx ON medexpertmatch.doctor_condition_centrality(doctor_id);
+
 -- ============================================
 -- Graph Schema (Apache AGE)
 -- ============================================
@@ -321,6 +382,384 @@ CREATE TRIGGER update_facilities_updated_at BEFORE UPDATE ON medexpertmatch.faci
 CREATE TRIGGER update_consultation_matches_updated_at BEFORE UPDATE ON medexpertmatch.consultation_matches
     FOR EACH ROW EXECUTE FUNCTION medexpertmatch.update_updated_at_column();
 
+-- Recompute doctor embedding centroids for the given doctors
+CREATE OR REPLACE FUNCTION medexpertmatch.refresh_doctor_embedding_centroids(p_doctor_ids TEXT[])
+RETURNS VOID AS $$
+BEGIN
+    IF p_doctor_ids IS NULL OR cardinality(p_doctor_ids) = 0 THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO medexpertmatch.doctor_embedding_centroid (doctor_id, centroid, case_count, updated_at)
+    SELECT ce.doctor_id, AVG(l2_normalize(mc.embedding)), COUNT(*), CURRENT_TIMESTAMP
+    FROM (
+        SELECT DISTINCT doctor_id, case_id
+        FROM medexpertmatch.clinical_experiences
+        WHERE doctor_id = ANY(p_doctor_ids)
+    ) ce
+    JOIN medexpertmatch.medical_cases mc ON mc.id = ce.case_id
+    WHERE mc.embedding IS NOT NULL
+    GROUP BY ce.doctor_id
+    ON CONFLICT (doctor_id) DO UPDATE
+    SET centroid = EXCLUDED.centroid,
+        case_count = EXCLUDED.case_count,
+        updated_at = EXCLUDED.updated_at;
+
+    -- Doctors left without any embedded case no longer have a centroid
+    DELETE FROM medexpertmatch.doctor_embedding_centroid dc
+    WHERE dc.doctor_id = ANY(p_doctor_ids)
+    AND NOT EXISTS (
+        SELECT 1
+        FROM medexpertmatch.clinical_experiences ce
+        JOIN medexpertmatch.medical_cases mc ON mc.id = ce.case_id
+        WHERE ce.doctor_id = dc.doctor_id
+        AND mc.embedding IS NOT NULL
+    );
+END;
+$$ LANGUAGE plpgsql;
+
+-- Statement-level triggers: one centroid refresh per affected doctor per statement (bulk-load friendly)
+CREATE OR REPLACE FUNCTION medexpertmatch.clinical_experiences_refresh_centroids()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM medexpertmatch.refresh_doctor_embedding_centroids(
+            ARRAY(SELECT DISTINCT doctor_id FROM new_rows));
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM medexpertmatch.refresh_doctor_embedding_centroids(
+            ARRAY(SELECT DISTINCT doctor_id FROM old_rows));
+    ELSE
+        PERFORM medexpertmatch.refresh_doctor_embedding_centroids(
+            ARRAY(SELECT n.doctor_id FROM new_rows n
+                  JOIN old_rows o ON o.id = n.id
+                  WHERE n.case_id IS DISTINCT FROM o.case_id OR n.doctor_id IS DISTINCT FROM o.doctor_id
+                  UNION
+                  SELECT o.doctor_id FROM new_rows n
+                  JOIN old_rows o ON o.id = n.id
+                  WHERE n.case_id IS DISTINCT FROM o.case_id OR n.doctor_id IS DISTINCT FROM o.doctor_id));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION medexpertmatch.medical_cases_refresh_centroids()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM medexpertmatch.refresh_doctor_embedding_centroids(
+        ARRAY(SELECT DISTINCT ce.doctor_id
+              FROM new_rows n
+              JOIN old_rows o ON o.id = n.id
+              JOIN medexpertmatch.clinical_experiences ce ON ce.case_id = n.id
+              WHERE n.embedding IS DISTINCT FROM o.embedding));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER clinical_experiences_centroids_insert AFTER INSERT ON medexpertmatch.clinical_experiences
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.clinical_experiences_refresh_centroids();
+
+CREATE TRIGGER clinical_experiences_centroids_update AFTER UPDATE ON medexpertmatch.clinical_experiences
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.clinical_experiences_refresh_centroids();
+
+CREATE TRIGGER clinical_experiences_centroids_delete AFTER DELETE ON medexpertmatch.clinical_experiences
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.clinical_experiences_refresh_centroids();
+
+CREATE TRIGGER medical_cases_centroids_update AFTER UPDATE ON medexpertmatch.medical_cases
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.medical_cases_refresh_centroids();
+
+-- Recompute facility performance roll-ups for the given facilities from doctor_performance_stats.
+-- Recomputes of one facility are serialized by a transaction-scoped advisory lock (it also covers facilities
+-- without a roll-up row yet): the recompute runs after a concurrent writer commits, so its snapshot includes
+-- that writer's doctor changes instead of overwriting the roll-up with a stale total.
+CREATE OR REPLACE FUNCTION medexpertmatch.refresh_facility_performance_stats(p_facility_ids TEXT[])
+RETURNS VOID AS $$
+BEGIN
+    IF p_facility_ids IS NULL OR cardinality(p_facility_ids) = 0 THEN
+        RETURN;
+    END IF;
+
+    -- Sorted lock order keeps concurrent refreshes of overlapping facility sets deadlock-free
+    PERFORM pg_advisory_xact_lock(hashtext('facility_performance_stats'), hashtext(f.facility_id))
+    FROM (SELECT DISTINCT unnest(p_facility_ids) AS facility_id ORDER BY 1) f;
+
+    INSERT INTO medexpertmatch.facility_performance_stats
+        (facility_id, doctor_count, experience_count, rating_sum, rating_count, success_count, updated_at)
+    SELECT f.facility_id, COUNT(*), SUM(ps.experience_count), SUM(ps.rating_sum), SUM(ps.rating_count),
+        SUM(ps.success_count), CURRENT_TIMESTAMP
+    FROM medexpertmatch.doctors d
+    CROSS JOIN LATERAL unnest(d.facility_ids) AS f(facility_id)
+    JOIN medexpertmatch.doctor_performance_stats ps ON ps.doctor_id = d.id
+    WHERE d.facility_ids && p_facility_ids
+    AND f.facility_id = ANY(p_facility_ids)
+    GROUP BY f.facility_id
+    ON CONFLICT (facility_id) DO UPDATE
+    SET doctor_count = EXCLUDED.doctor_count,
+        experience_count = EXCLUDED.experience_count,
+        rating_sum = EXCLUDED.rating_sum,
+        rating_count = EXCLUDED.rating_count,
+        success_count = EXCLUDED.success_count,
+        updated_at = EXCLUDED.updated_at;
+
+    -- Facilities left without any doctor experience no longer have a roll-up
+    DELETE FROM medexpertmatch.facility_performance_stats fs
+    WHERE fs.facility_id = ANY(p_facility_ids)
+    AND NOT EXISTS (
+        SELECT 1
+        FROM medexpertmatch.doctors d
+        JOIN medexpertmatch.doctor_performance_stats ps ON ps.doctor_id = d.id
+        WHERE fs.facility_id = ANY(d.facility_ids)
+    );
+END;
+$$ LANGUAGE plpgsql;
+
+-- Statement-level delta maintenance: old rows are subtracted and new rows added per doctor,
+-- so a statement costs O(changed rows) rather than a rescan of each doctor's experiences
+CREATE OR REPLACE FUNCTION medexpertmatch.clinical_experiences_apply_performance_stats()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_doctor_ids TEXT[];
+    v_signs INT[];
+    v_ratings INT[];
+    v_outcomes TEXT[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(doctor_id), array_agg(1), array_agg(rating), array_agg(outcome)
+        INTO v_doctor_ids, v_signs, v_ratings, v_outcomes
+        FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(doctor_id), array_agg(-1), array_agg(rating), array_agg(outcome)
+        INTO v_doctor_ids, v_signs, v_ratings, v_outcomes
+        FROM old_rows;
+    ELSE
+        SELECT array_agg(delta.doctor_id), array_agg(delta.sign), array_agg(delta.rating), array_agg(delta.outcome)
+        INTO v_doctor_ids, v_signs, v_ratings, v_outcomes
+        FROM (
+            SELECT n.doctor_id, 1 AS sign, n.rating, n.outcome
+            FROM new_rows n
+            JOIN old_rows o ON o.id = n.id
+            WHERE (n.doctor_id, n.rating, n.outcome) IS DISTINCT FROM (o.doctor_id, o.rating, o.outcome)
+            UNION ALL
+            SELECT o.doctor_id, -1 AS sign, o.rating, o.outcome
+            FROM new_rows n
+            JOIN old_rows o ON o.id = n.id
+            WHERE (n.doctor_id, n.rating, n.outcome) IS DISTINCT FROM (o.doctor_id, o.rating, o.outcome)
+        ) delta;
+    END IF;
+
+    IF v_doctor_ids IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    -- Doctors deleted in this statement (cascade) are skipped; their stats row cascades away
+    INSERT INTO medexpertmatch.doctor_performance_stats AS ps
+        (doctor_id, experience_count, rating_sum, rating_count, success_count, updated_at)
+    SELECT delta.doctor_id,
+        SUM(delta.sign),
+        SUM(delta.sign * COALESCE(delta.rating, 0)),
+        SUM(delta.sign * (delta.rating IS NOT NULL)::INT),
+        SUM(delta.sign * COALESCE(UPPER(delta.outcome) IN ('SUCCESS', 'IMPROVED'), FALSE)::INT),
+        CURRENT_TIMESTAMP
+    FROM unnest(v_doctor_ids, v_signs, v_ratings, v_outcomes) AS delta(doctor_id, sign, rating, outcome)
+    JOIN medexpertmatch.doctors d ON d.id = delta.doctor_id
+    GROUP BY delta.doctor_id
+    ON CONFLICT (doctor_id) DO UPDATE
+    SET experience_count = ps.experience_count + EXCLUDED.experience_count,
+        rating_sum = ps.rating_sum + EXCLUDED.rating_sum,
+        rating_count = ps.rating_count + EXCLUDED.rating_count,
+        success_count = ps.success_count + EXCLUDED.success_count,
+        updated_at = EXCLUDED.updated_at;
+
+    DELETE FROM medexpertmatch.doctor_performance_stats
+    WHERE doctor_id = ANY(v_doctor_ids)
+    AND experience_count <= 0;
+
+    PERFORM medexpertmatch.refresh_facility_performance_stats(
+        ARRAY(SELECT DISTINCT f.facility_id
+              FROM medexpertmatch.doctors d
+              CROSS JOIN LATERAL unnest(d.facility_ids) AS f(facility_id)
+              WHERE d.id = ANY(v_doctor_ids)));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Doctors moving between facilities (or deleted) change the roll-ups of old and new facilities
+CREATE OR REPLACE FUNCTION medexpertmatch.doctors_refresh_facility_performance_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM medexpertmatch.refresh_facility_performance_stats(
+            ARRAY(SELECT DISTINCT f.facility_id
+                  FROM old_rows o
+                  CROSS JOIN LATERAL unnest(o.facility_ids) AS f(facility_id)));
+    ELSE
+        PERFORM medexpertmatch.refresh_facility_performance_stats(
+            ARRAY(SELECT f.facility_id
+                  FROM new_rows n
+                  JOIN old_rows o ON o.id = n.id
+                  CROSS JOIN LATERAL unnest(n.facility_ids) AS f(facility_id)
+                  WHERE n.facility_ids IS DISTINCT FROM o.facility_ids
+                  UNION
+                  SELECT f.facility_id
+                  FROM new_rows n
+                  JOIN old_rows o ON o.id = n.id
+                  CROSS JOIN LATERAL unnest(o.facility_ids) AS f(facility_id)
+                  WHERE n.facility_ids IS DISTINCT FROM o.facility_ids));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER clinical_experiences_performance_insert AFTER INSERT ON medexpertmatch.clinical_experiences
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.clinical_experiences_apply_performance_stats();
+
+CREATE TRIGGER clinical_experiences_performance_update AFTER UPDATE ON medexpertmatch.clinical_experiences
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.clinical_experiences_apply_performance_stats();
+
+CREATE TRIGGER clinical_experiences_performance_delete AFTER DELETE ON medexpertmatch.clinical_experiences
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.clinical_experiences_apply_performance_stats();
+
+CREATE TRIGGER doctors_facility_performance_update AFTER UPDATE ON medexpertmatch.doctors
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.doctors_refresh_facility_performance_stats();
+
+CREATE TRIGGER doctors_facility_performance_delete AFTER DELETE ON medexpertmatch.doctors
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.doctors_refresh_facility_performance_stats();
+
+-- ============================================
+-- Graph outbox: change capture for incremental Apache AGE maintenance
+-- ============================================
+
+-- One row per changed graph entity; the consumer re-syncs the entity from current relational state,
+-- so duplicate rows for the same entity are harmless and are coalesced per micro-batch
+CREATE TABLE medexpertmatch.graph_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(32) NOT NULL CHECK (entity_type IN ('DOCTOR', 'MEDICAL_CASE', 'DOCTOR_TREATMENTS')),
+    entity_id VARCHAR(74) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Doctor vertex, SPECIALIZES_IN and AFFILIATED_WITH edges
+CREATE OR REPLACE FUNCTION medexpertmatch.doctors_enqueue_graph_changes()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO medexpertmatch.graph_outbox (entity_type, entity_id)
+        SELECT 'DOCTOR', id FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO medexpertmatch.graph_outbox (entity_type, entity_id)
+        SELECT 'DOCTOR', id FROM old_rows;
+    ELSE
+        INSERT INTO medexpertmatch.graph_outbox (entity_type, entity_id)
+        SELECT 'DOCTOR', n.id
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        WHERE (n.name, n.email, n.specialties, n.facility_ids)
+            IS DISTINCT FROM (o.name, o.email, o.specialties, o.facility_ids);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- MedicalCase vertex, HAS_CONDITION and REQUIRES_SPECIALTY edges; code changes also move the
+-- TREATS_CONDITION edges of every doctor who treated the case
+CREATE OR REPLACE FUNCTION medexpertmatch.medical_cases_enqueue_graph_changes()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO medexpertmatch.graph_outbox (entity_type, entity_id)
+        SELECT 'MEDICAL_CASE', id FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO medexpertmatch.graph_outbox (entity_type, entity_id)
+        SELECT 'MEDICAL_CASE', id FROM old_rows;
+    ELSE
+        INSERT INTO medexpertmatch.graph_outbox (entity_type, entity_id)
+        SELECT 'MEDICAL_CASE', n.id
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        WHERE (n.chief_complaint, n.urgency_level, n.icd10_codes, n.required_specialty)
+            IS DISTINCT FROM (o.chief_complaint, o.urgency_level, o.icd10_codes, o.required_specialty)
+        UNION ALL
+        SELECT DISTINCT 'DOCTOR_TREATMENTS', ce.doctor_id
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        JOIN medexpertmatch.clinical_experiences ce ON ce.case_id = n.id
+        WHERE n.icd10_codes IS DISTINCT FROM o.icd10_codes;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- TREATED and TREATS_CONDITION edges of the doctors whose experiences changed
+CREATE OR REPLACE FUNCTION medexpertmatch.clinical_experiences_enqueue_graph_changes()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO medexpertmatch.graph_outbox (entity_type, entity_id)
+        SELECT DISTINCT 'DOCTOR_TREATMENTS', doctor_id FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO medexpertmatch.graph_outbox (entity_type, entity_id)
+        SELECT DISTINCT 'DOCTOR_TREATMENTS', doctor_id FROM old_rows;
+    ELSE
+        INSERT INTO medexpertmatch.graph_outbox (entity_type, entity_id)
+        SELECT 'DOCTOR_TREATMENTS', n.doctor_id
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        WHERE (n.doctor_id, n.case_id) IS DISTINCT FROM (o.doctor_id, o.case_id)
+        UNION
+        SELECT 'DOCTOR_TREATMENTS', o.doctor_id
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        WHERE (n.doctor_id, n.case_id) IS DISTINCT FROM (o.doctor_id, o.case_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER doctors_graph_outbox_insert AFTER INSERT ON medexpertmatch.doctors
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.doctors_enqueue_graph_changes();
+
+CREATE TRIGGER doctors_graph_outbox_update AFTER UPDATE ON medexpertmatch.doctors
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.doctors_enqueue_graph_changes();
+
+CREATE TRIGGER doctors_graph_outbox_delete AFTER DELETE ON medexpertmatch.doctors
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.doctors_enqueue_graph_changes();
+
+CREATE TRIGGER medical_cases_graph_outbox_insert AFTER INSERT ON medexpertmatch.medical_cases
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.medical_cases_enqueue_graph_changes();
+
+CREATE TRIGGER medical_cases_graph_outbox_update AFTER UPDATE ON medexpertmatch.medical_cases
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.medical_cases_enqueue_graph_changes();
+
+CREATE TRIGGER medical_cases_graph_outbox_delete AFTER DELETE ON medexpertmatch.medical_cases
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.medical_cases_enqueue_graph_changes();
+
+CREATE TRIGGER clinical_experiences_graph_outbox_insert AFTER INSERT ON medexpertmatch.clinical_experiences
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.clinical_experiences_enqueue_graph_changes();
+
+CREATE TRIGGER clinical_experiences_graph_outbox_update AFTER UPDATE ON medexpertmatch.clinical_experiences
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.clinical_experiences_enqueue_graph_changes();
+
+CREATE TRIGGER clinical_experiences_graph_outbox_delete AFTER DELETE ON medexpertmatch.clinical_experiences
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION medexpertmatch.clinical_experiences_enqueue_graph_changes();
+
 -- ============================================
 -- AI Session Tables (Spring AI Session JDBC)
 -- ============================================
@@ -574,6 +1013,19 @@ CREATE INDEX IF NOT EXISTS idx_document_chunk_document_id ON medexpertmatch.docu
 CREATE INDEX IF NOT EXISTS idx_document_chunk_embedding ON medexpertmatch.document_chunk
     USING hnsw (embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64);
 
+-- Content-addressed embedding cache: SHA-256 of (model, dimensions, normalized text) -> vector
+-- Untyped vector column so rows from models with different dimensions can coexist
+CREATE TABLE IF NOT EXISTS medexpertmatch.embedding_cache (
+    content_key CHAR(64) PRIMARY KEY,
+    model VARCHAR(255) NOT NULL,
+    dimensions INT NOT NULL,
+    embedding vector NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_embedding_cache_model ON medexpertmatch.embedding_cache (model, dimensions);
+CREATE INDEX IF NOT EXISTS idx_embedding_cache_created_at ON medexpertmatch.embedding_cache (created_at);
+
 CREATE TABLE IF NOT EXISTS medexpertmatch.ingestion_job (
     id CHAR(24) PRIMARY KEY CHECK (id ~ '^[0-9a-fA-F]{24}$'),
     status VARCHAR(20) NOT NULL DEFAULT 'RUNNING' CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
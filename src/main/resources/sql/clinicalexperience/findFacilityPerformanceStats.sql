@@ -0,0 +1,3 @@
+SELECT experience_count, rating_sum, rating_count, success_count
+FROM medexpertmatch.facility_performance_stats
+WHERE facility_id = :facilityId
\ No newline at end of file
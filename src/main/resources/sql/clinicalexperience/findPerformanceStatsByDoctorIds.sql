@@ -0,0 +1,3 @@
+SELECT doctor_id, experience_count, rating_sum, rating_count, success_count
+FROM medexpertmatch.doctor_performance_stats
+WHERE doctor_id = ANY(:doctorIds)
\ No newline at end of file
@@ -0,0 +1,5 @@
+SELECT dc.doctor_id, -(dc.centroid <#> l2_normalize(mc.embedding)) AS avg_similarity
+FROM medexpertmatch.doctor_embedding_centroid dc
+JOIN medexpertmatch.medical_cases mc ON mc.id = :queryCaseId
+WHERE dc.doctor_id = ANY(:doctorIds::text[])
+AND mc.embedding IS NOT NULL
\ No newline at end of file
@@ -0,0 +1,12 @@
+-- The query vector is a scalar subquery (an InitPlan), so the HNSW index serves the ORDER BY and the vector is
+-- built once; a query case without an embedding yields NULL distances, which the outer filter drops
+SELECT nearest.doctor_id, -nearest.distance AS avg_similarity
+FROM (SELECT dc.doctor_id,
+             dc.centroid <#> (SELECT l2_normalize(embedding)
+                              FROM medexpertmatch.medical_cases
+                              WHERE id = :queryCaseId AND embedding IS NOT NULL) AS distance
+      FROM medexpertmatch.doctor_embedding_centroid dc
+      ORDER BY distance
+      LIMIT :limit) nearest
+WHERE nearest.distance IS NOT NULL
+ORDER BY nearest.distance
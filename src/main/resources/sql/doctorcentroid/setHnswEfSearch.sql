@@ -0,0 +1,3 @@
+-- An HNSW scan returns at most hnsw.ef_search rows (default 40), so raise it to the requested limit for the
+-- rest of the transaction; pgvector caps ef_search at 1000
+SELECT set_config('hnsw.ef_search', CAST(LEAST(GREATEST(:limit, 40), 1000) AS text), true)
\ No newline at end of file
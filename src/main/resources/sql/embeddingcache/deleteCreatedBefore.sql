@@ -0,0 +1,7 @@
+DELETE FROM medexpertmatch.embedding_cache
+WHERE content_key IN (
+    SELECT content_key
+    FROM medexpertmatch.embedding_cache
+    WHERE created_at < :cutoff
+    LIMIT :batchSize
+)
\ No newline at end of file
@@ -0,0 +1,3 @@
+SELECT content_key, embedding
+FROM medexpertmatch.embedding_cache
+WHERE content_key IN (:contentKeys)
\ No newline at end of file
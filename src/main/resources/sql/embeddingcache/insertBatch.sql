@@ -0,0 +1,3 @@
+INSERT INTO medexpertmatch.embedding_cache (content_key, model, dimensions, embedding)
+VALUES (:contentKey, :model, :dimensions, :embedding::vector)
+ON CONFLICT (content_key) DO NOTHING
\ No newline at end of file
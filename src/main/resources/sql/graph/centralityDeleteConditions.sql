@@ -0,0 +1 @@
+DELETE FROM medexpertmatch.doctor_condition_centrality
@@ -0,0 +1,3 @@
+SELECT doctor_id, weighted_degree, pagerank, community_id, computed_at
+FROM medexpertmatch.doctor_centrality
+WHERE doctor_id = :doctorId
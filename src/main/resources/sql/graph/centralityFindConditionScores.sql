@@ -0,0 +1,5 @@
+-- Best persisted condition score per doctor over the given codes
+SELECT doctor_id, MAX(score) AS score
+FROM medexpertmatch.doctor_condition_centrality
+WHERE doctor_id = ANY(:doctorIds) AND icd10_code = ANY(:icd10Codes)
+GROUP BY doctor_id
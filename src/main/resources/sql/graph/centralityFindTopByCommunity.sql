@@ -0,0 +1,5 @@
+SELECT doctor_id, weighted_degree, pagerank, community_id, computed_at
+FROM medexpertmatch.doctor_centrality
+WHERE community_id = :communityId
+ORDER BY pagerank DESC, doctor_id
+LIMIT :limit
@@ -0,0 +1,5 @@
+SELECT icd10_code, doctor_id, case_count, score
+FROM medexpertmatch.doctor_condition_centrality
+WHERE icd10_code = :icd10Code
+ORDER BY score DESC, case_count DESC, doctor_id
+LIMIT :limit
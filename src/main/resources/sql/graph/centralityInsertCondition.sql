@@ -0,0 +1,5 @@
+-- Doctors removed since the graph snapshot was taken are skipped
+INSERT INTO medexpertmatch.doctor_condition_centrality (icd10_code, doctor_id, case_count, score)
+SELECT :icd10Code, d.id, :caseCount, :score
+FROM medexpertmatch.doctors d
+WHERE d.id = :doctorId
@@ -0,0 +1,5 @@
+-- Doctors removed since the graph snapshot was taken are skipped
+INSERT INTO medexpertmatch.doctor_centrality (doctor_id, weighted_degree, pagerank, community_id, computed_at)
+SELECT d.id, :weightedDegree, :pagerank, :communityId, CURRENT_TIMESTAMP
+FROM medexpertmatch.doctors d
+WHERE d.id = :doctorId
@@ -0,0 +1,18 @@
+SELECT label, kind, row_count
+FROM (
+    SELECT l.name AS label,
+           l.kind::text AS kind,
+           CASE
+               WHEN :exact OR c.reltuples < 0 THEN
+                   (xpath('/row/n/text()',
+                          query_to_xml(format('SELECT count(*) AS n FROM ONLY %s', l.relation), false, true, '')))[1]::text::bigint
+               ELSE c.reltuples::bigint
+           END AS row_count
+    FROM ag_catalog.ag_label l
+    JOIN ag_catalog.ag_graph g ON g.graphid = l.graph
+    JOIN pg_catalog.pg_class c ON c.oid = l.relation
+    WHERE g.name = :graphName
+      AND l.name NOT IN ('_ag_label_vertex', '_ag_label_edge')
+) counts
+WHERE row_count > 0
+ORDER BY kind DESC, label
\ No newline at end of file
@@ -0,0 +1,11 @@
+SELECT 'Doctor' AS label, count(*) AS row_count FROM medexpertmatch_graph_staging."Doctor"
+UNION ALL SELECT 'MedicalCase', count(*) FROM medexpertmatch_graph_staging."MedicalCase"
+UNION ALL SELECT 'ICD10Code', count(*) FROM medexpertmatch_graph_staging."ICD10Code"
+UNION ALL SELECT 'MedicalSpecialty', count(*) FROM medexpertmatch_graph_staging."MedicalSpecialty"
+UNION ALL SELECT 'Facility', count(*) FROM medexpertmatch_graph_staging."Facility"
+UNION ALL SELECT 'TREATED', count(*) FROM medexpertmatch_graph_staging."TREATED"
+UNION ALL SELECT 'SPECIALIZES_IN', count(*) FROM medexpertmatch_graph_staging."SPECIALIZES_IN"
+UNION ALL SELECT 'HAS_CONDITION', count(*) FROM medexpertmatch_graph_staging."HAS_CONDITION"
+UNION ALL SELECT 'TREATS_CONDITION', count(*) FROM medexpertmatch_graph_staging."TREATS_CONDITION"
+UNION ALL SELECT 'REQUIRES_SPECIALTY', count(*) FROM medexpertmatch_graph_staging."REQUIRES_SPECIALTY"
+UNION ALL SELECT 'AFFILIATED_WITH', count(*) FROM medexpertmatch_graph_staging."AFFILIATED_WITH"
\ No newline at end of file
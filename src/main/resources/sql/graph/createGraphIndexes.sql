@@ -0,0 +1,27 @@
+-- Same property, graph id and adjacency indexes as the bulk-loaded graph (createStagingIndexes.sql), created on
+-- the live graph by the Cypher build. Label tables that do not exist yet are skipped; rerun after edges are created.
+DO $$
+DECLARE
+    label_name text;
+BEGIN
+    FOREACH label_name IN ARRAY ARRAY['Doctor', 'MedicalCase', 'ICD10Code', 'MedicalSpecialty', 'Facility'] LOOP
+        IF to_regclass(format('medexpertmatch_graph.%I', label_name)) IS NOT NULL THEN
+            EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON medexpertmatch_graph.%I USING gin (properties)',
+                           lower(label_name) || '_props_idx', label_name);
+            EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON medexpertmatch_graph.%I (id)',
+                           lower(label_name) || '_id_idx', label_name);
+            EXECUTE format('ANALYZE medexpertmatch_graph.%I', label_name);
+        END IF;
+    END LOOP;
+    FOREACH label_name IN ARRAY ARRAY['TREATED', 'SPECIALIZES_IN', 'HAS_CONDITION', 'TREATS_CONDITION',
+                                 'REQUIRES_SPECIALTY', 'AFFILIATED_WITH'] LOOP
+        IF to_regclass(format('medexpertmatch_graph.%I', label_name)) IS NOT NULL THEN
+            EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON medexpertmatch_graph.%I (start_id)',
+                           lower(label_name) || '_start_idx', label_name);
+            EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON medexpertmatch_graph.%I (end_id)',
+                           lower(label_name) || '_end_idx', label_name);
+            EXECUTE format('ANALYZE medexpertmatch_graph.%I', label_name);
+        END IF;
+    END LOOP;
+END
+$$;
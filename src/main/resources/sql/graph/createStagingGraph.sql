@@ -0,0 +1,21 @@
+LOAD 'age';
+
+-- Start from an empty staging graph; a failed earlier load may have left one behind
+SELECT ag_catalog.drop_graph(name, true)
+FROM ag_catalog.ag_graph
+WHERE name = 'medexpertmatch_graph_staging';
+
+SELECT ag_catalog.create_graph('medexpertmatch_graph_staging');
+
+SELECT ag_catalog.create_vlabel('medexpertmatch_graph_staging', 'Doctor');
+SELECT ag_catalog.create_vlabel('medexpertmatch_graph_staging', 'MedicalCase');
+SELECT ag_catalog.create_vlabel('medexpertmatch_graph_staging', 'ICD10Code');
+SELECT ag_catalog.create_vlabel('medexpertmatch_graph_staging', 'MedicalSpecialty');
+SELECT ag_catalog.create_vlabel('medexpertmatch_graph_staging', 'Facility');
+
+SELECT ag_catalog.create_elabel('medexpertmatch_graph_staging', 'TREATED');
+SELECT ag_catalog.create_elabel('medexpertmatch_graph_staging', 'SPECIALIZES_IN');
+SELECT ag_catalog.create_elabel('medexpertmatch_graph_staging', 'HAS_CONDITION');
+SELECT ag_catalog.create_elabel('medexpertmatch_graph_staging', 'TREATS_CONDITION');
+SELECT ag_catalog.create_elabel('medexpertmatch_graph_staging', 'REQUIRES_SPECIALTY');
+SELECT ag_catalog.create_elabel('medexpertmatch_graph_staging', 'AFFILIATED_WITH');
\ No newline at end of file
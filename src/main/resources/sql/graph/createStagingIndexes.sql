@@ -0,0 +1,33 @@
+-- Property lookups on vertices and adjacency on edges, built once after the rows are in
+CREATE INDEX doctor_props_idx ON medexpertmatch_graph_staging."Doctor" USING gin (properties);
+CREATE INDEX medicalcase_props_idx ON medexpertmatch_graph_staging."MedicalCase" USING gin (properties);
+CREATE INDEX icd10code_props_idx ON medexpertmatch_graph_staging."ICD10Code" USING gin (properties);
+CREATE INDEX medicalspecialty_props_idx ON medexpertmatch_graph_staging."MedicalSpecialty" USING gin (properties);
+CREATE INDEX facility_props_idx ON medexpertmatch_graph_staging."Facility" USING gin (properties);
+
+-- Graph id order for keyset paging in graph visualization
+CREATE INDEX doctor_id_idx ON medexpertmatch_graph_staging."Doctor" (id);
+CREATE INDEX medicalcase_id_idx ON medexpertmatch_graph_staging."MedicalCase" (id);
+CREATE INDEX icd10code_id_idx ON medexpertmatch_graph_staging."ICD10Code" (id);
+CREATE INDEX medicalspecialty_id_idx ON medexpertmatch_graph_staging."MedicalSpecialty" (id);
+CREATE INDEX facility_id_idx ON medexpertmatch_graph_staging."Facility" (id);
+
+CREATE INDEX treated_start_idx ON medexpertmatch_graph_staging."TREATED" (start_id);
+CREATE INDEX treated_end_idx ON medexpertmatch_graph_staging."TREATED" (end_id);
+CREATE INDEX specializes_in_start_idx ON medexpertmatch_graph_staging."SPECIALIZES_IN" (start_id);
+CREATE INDEX specializes_in_end_idx ON medexpertmatch_graph_staging."SPECIALIZES_IN" (end_id);
+CREATE INDEX has_condition_start_idx ON medexpertmatch_graph_staging."HAS_CONDITION" (start_id);
+CREATE INDEX has_condition_end_idx ON medexpertmatch_graph_staging."HAS_CONDITION" (end_id);
+CREATE INDEX treats_condition_start_idx ON medexpertmatch_graph_staging."TREATS_CONDITION" (start_id);
+CREATE INDEX treats_condition_end_idx ON medexpertmatch_graph_staging."TREATS_CONDITION" (end_id);
+CREATE INDEX requires_specialty_start_idx ON medexpertmatch_graph_staging."REQUIRES_SPECIALTY" (start_id);
+CREATE INDEX requires_specialty_end_idx ON medexpertmatch_graph_staging."REQUIRES_SPECIALTY" (end_id);
+CREATE INDEX affiliated_with_start_idx ON medexpertmatch_graph_staging."AFFILIATED_WITH" (start_id);
+CREATE INDEX affiliated_with_end_idx ON medexpertmatch_graph_staging."AFFILIATED_WITH" (end_id);
+
+ANALYZE medexpertmatch_graph_staging."Doctor", medexpertmatch_graph_staging."MedicalCase",
+    medexpertmatch_graph_staging."ICD10Code", medexpertmatch_graph_staging."MedicalSpecialty",
+    medexpertmatch_graph_staging."Facility", medexpertmatch_graph_staging."TREATED",
+    medexpertmatch_graph_staging."SPECIALIZES_IN", medexpertmatch_graph_staging."HAS_CONDITION",
+    medexpertmatch_graph_staging."TREATS_CONDITION", medexpertmatch_graph_staging."REQUIRES_SPECIALTY",
+    medexpertmatch_graph_staging."AFFILIATED_WITH";
\ No newline at end of file
@@ -0,0 +1,5 @@
+LOAD 'age';
+
+SELECT ag_catalog.drop_graph(name, true)
+FROM ag_catalog.ag_graph
+WHERE name = 'medexpertmatch_graph_previous';
\ No newline at end of file
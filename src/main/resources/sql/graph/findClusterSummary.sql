@@ -0,0 +1,98 @@
+-- Coarse clusters for graph visualization: doctors and specialties by specialty name, ICD-10 codes and
+-- cases by ICD-10 chapter (cases without codes by required specialty), facilities by facility type.
+-- Returns one 'v' row per cluster and one 'e' row per (source cluster, target cluster, edge label).
+WITH labels AS (
+    SELECT l.relation, l.name
+    FROM ag_catalog.ag_label l
+    JOIN ag_catalog.ag_graph g ON g.graphid = l.graph
+    WHERE g.name = :graphName
+),
+vertices AS MATERIALIZED (
+    SELECT v.id, lb.name AS label, v.properties::text::jsonb AS props
+    FROM medexpertmatch_graph._ag_label_vertex v
+    JOIN labels lb ON lb.relation = v.tableoid
+),
+edges AS MATERIALIZED (
+    SELECT e.start_id, e.end_id, lb.name AS label
+    FROM medexpertmatch_graph._ag_label_edge e
+    JOIN labels lb ON lb.relation = e.tableoid
+),
+code_chapters AS (
+    SELECT DISTINCT code,
+           CASE
+               WHEN code ~ '^[AB]' THEN 'I Infectious and parasitic'
+               WHEN code ~ '^(C|D[0-4])' THEN 'II Neoplasms'
+               WHEN code ~ '^D[5-8]' THEN 'III Blood and immune'
+               WHEN code ~ '^E' THEN 'IV Endocrine and metabolic'
+               WHEN code ~ '^F' THEN 'V Mental and behavioural'
+               WHEN code ~ '^G' THEN 'VI Nervous system'
+               WHEN code ~ '^H[0-5]' THEN 'VII Eye'
+               WHEN code ~ '^H[6-9]' THEN 'VIII Ear'
+               WHEN code ~ '^I' THEN 'IX Circulatory system'
+               WHEN code ~ '^J' THEN 'X Respiratory system'
+               WHEN code ~ '^K' THEN 'XI Digestive system'
+               WHEN code ~ '^L' THEN 'XII Skin'
+               WHEN code ~ '^M' THEN 'XIII Musculoskeletal'
+               WHEN code ~ '^N' THEN 'XIV Genitourinary'
+               WHEN code ~ '^O' THEN 'XV Pregnancy and childbirth'
+               WHEN code ~ '^P' THEN 'XVI Perinatal'
+               WHEN code ~ '^Q' THEN 'XVII Congenital'
+               WHEN code ~ '^R' THEN 'XVIII Symptoms and signs'
+               WHEN code ~ '^[ST]' THEN 'XIX Injury and poisoning'
+               WHEN code ~ '^[V-Y]' THEN 'XX External causes'
+               WHEN code ~ '^Z' THEN 'XXI Health status'
+               WHEN code ~ '^U' THEN 'XXII Special purposes'
+               ELSE 'Unclassified'
+           END AS chapter
+    FROM (SELECT upper(props ->> 'code') AS code FROM vertices WHERE label = 'ICD10Code') codes
+    WHERE code IS NOT NULL
+),
+doctor_specialties AS (
+    SELECT e.start_id AS id, min(s.props ->> 'name') AS specialty
+    FROM edges e
+    JOIN vertices s ON s.id = e.end_id
+    WHERE e.label = 'SPECIALIZES_IN'
+    GROUP BY e.start_id
+),
+case_chapters AS (
+    SELECT e.start_id AS id, min(cc.chapter) AS chapter
+    FROM edges e
+    JOIN vertices i ON i.id = e.end_id
+    JOIN code_chapters cc ON cc.code = upper(i.props ->> 'code')
+    WHERE e.label = 'HAS_CONDITION'
+    GROUP BY e.start_id
+),
+case_specialties AS (
+    SELECT e.start_id AS id, min(s.props ->> 'name') AS specialty
+    FROM edges e
+    JOIN vertices s ON s.id = e.end_id
+    WHERE e.label = 'REQUIRES_SPECIALTY'
+    GROUP BY e.start_id
+),
+vertex_clusters AS MATERIALIZED (
+    SELECT v.id,
+           v.label,
+           COALESCE(NULLIF(CASE v.label
+                               WHEN 'Doctor' THEN ds.specialty
+                               WHEN 'MedicalSpecialty' THEN v.props ->> 'name'
+                               WHEN 'ICD10Code' THEN icc.chapter
+                               WHEN 'MedicalCase' THEN COALESCE(mcc.chapter, mcs.specialty)
+                               WHEN 'Facility' THEN v.props ->> 'facilityType'
+                               END, ''), 'Unassigned') AS cluster_key
+    FROM vertices v
+    LEFT JOIN doctor_specialties ds ON ds.id = v.id
+    LEFT JOIN code_chapters icc ON icc.code = upper(v.props ->> 'code') AND v.label = 'ICD10Code'
+    LEFT JOIN case_chapters mcc ON mcc.id = v.id
+    LEFT JOIN case_specialties mcs ON mcs.id = v.id
+)
+SELECT 'v' AS kind, label AS source_label, cluster_key AS source_key,
+       NULL AS target_label, NULL AS target_key, NULL AS edge_label, count(*) AS row_count
+FROM vertex_clusters
+GROUP BY label, cluster_key
+UNION ALL
+SELECT 'e', sc.label, sc.cluster_key, tc.label, tc.cluster_key, e.label, count(*)
+FROM edges e
+JOIN vertex_clusters sc ON sc.id = e.start_id
+JOIN vertex_clusters tc ON tc.id = e.end_id
+GROUP BY sc.label, sc.cluster_key, tc.label, tc.cluster_key, e.label
+ORDER BY 1 DESC, 7 DESC, 2, 3
@@ -0,0 +1,17 @@
+-- Edges with at least one endpoint in the vertex id set. The two branches are disjoint and each is served by the
+-- start_id or end_id index (created by every graph build), which a single OR condition would not be.
+SELECT e.id::text::bigint AS graph_id,
+       l.name AS label,
+       e.start_id::text::bigint AS start_id,
+       e.end_id::text::bigint AS end_id
+FROM (SELECT e.id, e.tableoid, e.start_id, e.end_id
+      FROM medexpertmatch_graph._ag_label_edge e
+      WHERE e.start_id = ANY(CAST(CAST(:graphIds AS bigint[]) AS text)::ag_catalog.graphid[])
+      UNION ALL
+      SELECT e.id, e.tableoid, e.start_id, e.end_id
+      FROM medexpertmatch_graph._ag_label_edge e
+      WHERE e.end_id = ANY(CAST(CAST(:graphIds AS bigint[]) AS text)::ag_catalog.graphid[])
+        AND e.start_id <> ALL(CAST(CAST(:graphIds AS bigint[]) AS text)::ag_catalog.graphid[])) e
+JOIN ag_catalog.ag_label l ON l.relation = e.tableoid
+ORDER BY e.id
+LIMIT :limit
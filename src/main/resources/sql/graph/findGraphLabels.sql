@@ -0,0 +1,7 @@
+SELECT l.name AS label, l.kind::text AS kind
+FROM ag_catalog.ag_graph g
+LEFT JOIN ag_catalog.ag_label l
+       ON l.graph = g.graphid
+      AND l.name NOT IN ('_ag_label_vertex', '_ag_label_edge')
+WHERE g.name = :graphName
+ORDER BY kind DESC, label
\ No newline at end of file
@@ -0,0 +1,6 @@
+SELECT l.id::integer AS label_id
+FROM ag_catalog.ag_label l
+JOIN ag_catalog.ag_graph g ON g.graphid = l.graph
+WHERE g.name = :graphName
+  AND l.kind = 'v'
+  AND l.name = :label
@@ -0,0 +1,19 @@
+-- Keyset page over the vertex label tables, served by the per-label id indexes every graph build creates.
+-- Graph ids carry the label id in their high 16 bits, so a single-label page is the id range (:afterId, :beforeId)
+-- of that label.
+SELECT page.graph_id,
+       l.name AS label,
+       COALESCE(page.props ->> 'id', page.props ->> 'code', page.graph_id::text) AS vertex_key,
+       page.props ->> 'name' AS name,
+       page.props ->> 'chiefComplaint' AS chief_complaint,
+       page.props ->> 'code' AS code,
+       page.props ->> 'description' AS description
+FROM (SELECT v.id::text::bigint AS graph_id, v.tableoid, v.properties::text::jsonb AS props
+      FROM medexpertmatch_graph._ag_label_vertex v
+      WHERE v.id > CAST(CAST(:afterId AS text) AS ag_catalog.graphid)
+        AND v.id < CAST(CAST(:beforeId AS text) AS ag_catalog.graphid)
+      ORDER BY v.id
+      OFFSET :offset
+      LIMIT :limit) page
+JOIN ag_catalog.ag_label l ON l.relation = page.tableoid
+ORDER BY page.graph_id
@@ -0,0 +1,11 @@
+SELECT v.id::text::bigint AS graph_id,
+       l.name AS label,
+       COALESCE(v.properties::text::jsonb ->> 'id', v.properties::text::jsonb ->> 'code', v.id::text) AS vertex_key,
+       v.properties::text::jsonb ->> 'name' AS name,
+       v.properties::text::jsonb ->> 'chiefComplaint' AS chief_complaint,
+       v.properties::text::jsonb ->> 'code' AS code,
+       v.properties::text::jsonb ->> 'description' AS description
+FROM medexpertmatch_graph._ag_label_vertex v
+JOIN ag_catalog.ag_label l ON l.relation = v.tableoid
+WHERE v.id = ANY(CAST(CAST(:graphIds AS bigint[]) AS text)::ag_catalog.graphid[])
+ORDER BY v.id
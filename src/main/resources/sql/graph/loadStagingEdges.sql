@@ -0,0 +1,66 @@
+-- Business key -> graph id for every staged vertex, so edges can be inserted with plain joins
+CREATE TEMP TABLE graph_bulk_vertex_keys ON COMMIT DROP AS
+SELECT 'Doctor' AS label, properties::text::jsonb ->> 'id' AS key, id AS vertex_id
+FROM medexpertmatch_graph_staging."Doctor"
+UNION ALL
+SELECT 'MedicalCase', properties::text::jsonb ->> 'id', id
+FROM medexpertmatch_graph_staging."MedicalCase"
+UNION ALL
+SELECT 'ICD10Code', properties::text::jsonb ->> 'code', id
+FROM medexpertmatch_graph_staging."ICD10Code"
+UNION ALL
+SELECT 'MedicalSpecialty', properties::text::jsonb ->> 'name', id
+FROM medexpertmatch_graph_staging."MedicalSpecialty"
+UNION ALL
+SELECT 'Facility', properties::text::jsonb ->> 'id', id
+FROM medexpertmatch_graph_staging."Facility";
+
+CREATE INDEX ON graph_bulk_vertex_keys (label, key);
+ANALYZE graph_bulk_vertex_keys;
+
+INSERT INTO medexpertmatch_graph_staging."TREATED" (start_id, end_id)
+SELECT d.vertex_id, c.vertex_id
+FROM (SELECT DISTINCT doctor_id, case_id
+      FROM medexpertmatch.clinical_experiences
+      WHERE doctor_id IS NOT NULL AND case_id IS NOT NULL) rel
+JOIN graph_bulk_vertex_keys d ON d.label = 'Doctor' AND d.key = rel.doctor_id
+JOIN graph_bulk_vertex_keys c ON c.label = 'MedicalCase' AND c.key = rel.case_id;
+
+INSERT INTO medexpertmatch_graph_staging."SPECIALIZES_IN" (start_id, end_id)
+SELECT d.vertex_id, s.vertex_id
+FROM (SELECT DISTINCT doc.id AS doctor_id, sp.name
+      FROM medexpertmatch.doctors doc
+      CROSS JOIN LATERAL unnest(doc.specialties) AS sp(name)) rel
+JOIN graph_bulk_vertex_keys d ON d.label = 'Doctor' AND d.key = rel.doctor_id
+JOIN graph_bulk_vertex_keys s ON s.label = 'MedicalSpecialty' AND s.key = rel.name;
+
+INSERT INTO medexpertmatch_graph_staging."HAS_CONDITION" (start_id, end_id)
+SELECT c.vertex_id, i.vertex_id
+FROM (SELECT DISTINCT mc.id AS case_id, code.code
+      FROM medexpertmatch.medical_cases mc
+      CROSS JOIN LATERAL unnest(mc.icd10_codes) AS code(code)) rel
+JOIN graph_bulk_vertex_keys c ON c.label = 'MedicalCase' AND c.key = rel.case_id
+JOIN graph_bulk_vertex_keys i ON i.label = 'ICD10Code' AND i.key = rel.code;
+
+INSERT INTO medexpertmatch_graph_staging."TREATS_CONDITION" (start_id, end_id)
+SELECT d.vertex_id, i.vertex_id
+FROM (SELECT DISTINCT ce.doctor_id, code.code
+      FROM medexpertmatch.clinical_experiences ce
+      JOIN medexpertmatch.medical_cases mc ON ce.case_id = mc.id
+      CROSS JOIN LATERAL unnest(mc.icd10_codes) AS code(code)) rel
+JOIN graph_bulk_vertex_keys d ON d.label = 'Doctor' AND d.key = rel.doctor_id
+JOIN graph_bulk_vertex_keys i ON i.label = 'ICD10Code' AND i.key = rel.code;
+
+INSERT INTO medexpertmatch_graph_staging."REQUIRES_SPECIALTY" (start_id, end_id)
+SELECT c.vertex_id, s.vertex_id
+FROM medexpertmatch.medical_cases rel
+JOIN graph_bulk_vertex_keys c ON c.label = 'MedicalCase' AND c.key = rel.id
+JOIN graph_bulk_vertex_keys s ON s.label = 'MedicalSpecialty' AND s.key = rel.required_specialty;
+
+INSERT INTO medexpertmatch_graph_staging."AFFILIATED_WITH" (start_id, end_id)
+SELECT d.vertex_id, f.vertex_id
+FROM (SELECT DISTINCT doc.id AS doctor_id, fac.facility_id
+      FROM medexpertmatch.doctors doc
+      CROSS JOIN LATERAL unnest(doc.facility_ids) AS fac(facility_id)) rel
+JOIN graph_bulk_vertex_keys d ON d.label = 'Doctor' AND d.key = rel.doctor_id
+JOIN graph_bulk_vertex_keys f ON f.label = 'Facility' AND f.key = rel.facility_id;
\ No newline at end of file
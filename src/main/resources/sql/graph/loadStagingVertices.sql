@@ -0,0 +1,43 @@
+-- Vertex rows mirror MedicalGraphBuilderServiceImpl.buildGraph(); graph ids come from each label's sequence
+INSERT INTO medexpertmatch_graph_staging."Doctor" (properties)
+SELECT jsonb_build_object('id', d.id, 'name', COALESCE(d.name, ''), 'email', COALESCE(d.email, ''))::text::ag_catalog.agtype
+FROM medexpertmatch.doctors d;
+
+INSERT INTO medexpertmatch_graph_staging."MedicalCase" (properties)
+SELECT jsonb_build_object('id', mc.id, 'chiefComplaint', COALESCE(mc.chief_complaint, ''),
+                          'urgencyLevel', COALESCE(mc.urgency_level, 'MEDIUM'))::text::ag_catalog.agtype
+FROM medexpertmatch.medical_cases mc;
+
+-- All catalog codes, plus code-only vertices for case codes missing from the catalog
+INSERT INTO medexpertmatch_graph_staging."ICD10Code" (properties)
+SELECT jsonb_build_object('code', ic.code, 'description', COALESCE(ic.description, ''))::text::ag_catalog.agtype
+FROM medexpertmatch.icd10_codes ic
+UNION ALL
+SELECT jsonb_build_object('code', referenced.code)::text::ag_catalog.agtype
+FROM (SELECT DISTINCT c.code
+      FROM medexpertmatch.medical_cases mc
+      CROSS JOIN LATERAL unnest(mc.icd10_codes) AS c(code)
+      WHERE c.code IS NOT NULL AND c.code <> '') referenced
+WHERE NOT EXISTS (SELECT 1 FROM medexpertmatch.icd10_codes ic WHERE ic.code = referenced.code);
+
+-- Specialties referenced by doctors or cases; names missing from the catalog get name-only vertices
+INSERT INTO medexpertmatch_graph_staging."MedicalSpecialty" (properties)
+SELECT CASE
+           WHEN ms.id IS NOT NULL THEN jsonb_build_object('id', ms.id, 'name', ms.name)
+           ELSE jsonb_build_object('name', referenced.name)
+       END::text::ag_catalog.agtype
+FROM (SELECT s.name
+      FROM medexpertmatch.doctors d
+      CROSS JOIN LATERAL unnest(d.specialties) AS s(name)
+      WHERE s.name IS NOT NULL AND s.name <> ''
+      UNION
+      SELECT mc.required_specialty
+      FROM medexpertmatch.medical_cases mc
+      WHERE mc.required_specialty IS NOT NULL AND mc.required_specialty <> '') referenced
+LEFT JOIN medexpertmatch.medical_specialties ms ON ms.name = referenced.name;
+
+-- Only facilities that at least one doctor is affiliated with
+INSERT INTO medexpertmatch_graph_staging."Facility" (properties)
+SELECT jsonb_build_object('id', f.id, 'name', COALESCE(f.name, ''), 'facilityType', COALESCE(f.facility_type, ''))::text::ag_catalog.agtype
+FROM medexpertmatch.facilities f
+WHERE EXISTS (SELECT 1 FROM medexpertmatch.doctors d WHERE f.id = ANY (d.facility_ids));
\ No newline at end of file
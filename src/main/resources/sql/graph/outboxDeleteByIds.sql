@@ -0,0 +1,2 @@
+DELETE FROM medexpertmatch.graph_outbox
+WHERE id = ANY(:ids)
\ No newline at end of file
@@ -0,0 +1,2 @@
+SELECT COUNT(*) AS pending, MIN(created_at) AS oldest_created_at
+FROM medexpertmatch.graph_outbox
\ No newline at end of file
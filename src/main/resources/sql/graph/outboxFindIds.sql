@@ -0,0 +1,3 @@
+SELECT id
+FROM medexpertmatch.graph_outbox
+ORDER BY id
\ No newline at end of file
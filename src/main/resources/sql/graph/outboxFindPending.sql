@@ -0,0 +1,4 @@
+SELECT id, entity_type, entity_id, attempts, created_at
+FROM medexpertmatch.graph_outbox
+ORDER BY id
+LIMIT :limit
\ No newline at end of file
@@ -0,0 +1,3 @@
+UPDATE medexpertmatch.graph_outbox
+SET attempts = attempts + 1
+WHERE id = ANY(:ids)
\ No newline at end of file
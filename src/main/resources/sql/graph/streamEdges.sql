@@ -0,0 +1,24 @@
+-- Edges with at least one endpoint in the vertex id range (:afterId, :beforeId), with the endpoints' business keys,
+-- ordered by source then target so exports can delta-encode each source's targets. The two branches are disjoint
+-- and each is served by the start_id or end_id index, which a single OR condition would not be.
+SELECT e.id::text::bigint AS graph_id,
+       l.name AS label,
+       e.start_id::text::bigint AS start_id,
+       e.end_id::text::bigint AS end_id,
+       COALESCE(s.properties::text::jsonb ->> 'id', s.properties::text::jsonb ->> 'code', s.id::text) AS source_key,
+       COALESCE(t.properties::text::jsonb ->> 'id', t.properties::text::jsonb ->> 'code', t.id::text) AS target_key
+FROM (SELECT e.id, e.tableoid, e.start_id, e.end_id
+      FROM medexpertmatch_graph._ag_label_edge e
+      WHERE e.start_id > CAST(CAST(:afterId AS text) AS ag_catalog.graphid)
+        AND e.start_id < CAST(CAST(:beforeId AS text) AS ag_catalog.graphid)
+      UNION ALL
+      SELECT e.id, e.tableoid, e.start_id, e.end_id
+      FROM medexpertmatch_graph._ag_label_edge e
+      WHERE e.end_id > CAST(CAST(:afterId AS text) AS ag_catalog.graphid)
+        AND e.end_id < CAST(CAST(:beforeId AS text) AS ag_catalog.graphid)
+        AND NOT (e.start_id > CAST(CAST(:afterId AS text) AS ag_catalog.graphid)
+                 AND e.start_id < CAST(CAST(:beforeId AS text) AS ag_catalog.graphid))) e
+JOIN ag_catalog.ag_label l ON l.relation = e.tableoid
+JOIN medexpertmatch_graph._ag_label_vertex s ON s.id = e.start_id
+JOIN medexpertmatch_graph._ag_label_vertex t ON t.id = e.end_id
+ORDER BY e.start_id, e.end_id
@@ -0,0 +1,30 @@
+-- Vertices in the id range (:afterId, :beforeId) plus the other endpoint of each of their edges, in graph id
+-- order, so a label-filtered export carries the endpoints of every edge streamed by streamEdges.sql
+WITH vertex_ids AS (
+    SELECT v.id
+    FROM medexpertmatch_graph._ag_label_vertex v
+    WHERE v.id > CAST(CAST(:afterId AS text) AS ag_catalog.graphid)
+      AND v.id < CAST(CAST(:beforeId AS text) AS ag_catalog.graphid)
+    UNION
+    SELECT e.end_id
+    FROM medexpertmatch_graph._ag_label_edge e
+    WHERE e.start_id > CAST(CAST(:afterId AS text) AS ag_catalog.graphid)
+      AND e.start_id < CAST(CAST(:beforeId AS text) AS ag_catalog.graphid)
+    UNION
+    SELECT e.start_id
+    FROM medexpertmatch_graph._ag_label_edge e
+    WHERE e.end_id > CAST(CAST(:afterId AS text) AS ag_catalog.graphid)
+      AND e.end_id < CAST(CAST(:beforeId AS text) AS ag_catalog.graphid)
+)
+SELECT vertex.graph_id,
+       l.name AS label,
+       COALESCE(vertex.props ->> 'id', vertex.props ->> 'code', vertex.graph_id::text) AS vertex_key,
+       vertex.props ->> 'name' AS name,
+       vertex.props ->> 'chiefComplaint' AS chief_complaint,
+       vertex.props ->> 'code' AS code,
+       vertex.props ->> 'description' AS description
+FROM (SELECT v.id::text::bigint AS graph_id, v.tableoid, v.properties::text::jsonb AS props
+      FROM vertex_ids
+      JOIN medexpertmatch_graph._ag_label_vertex v ON v.id = vertex_ids.id) vertex
+JOIN ag_catalog.ag_label l ON l.relation = vertex.tableoid
+ORDER BY vertex.graph_id
@@ -0,0 +1,12 @@
+LOAD 'age';
+
+-- Runs in one transaction: readers see the old graph until commit, then the new one
+SELECT ag_catalog.drop_graph(name, true)
+FROM ag_catalog.ag_graph
+WHERE name = 'medexpertmatch_graph_previous';
+
+SELECT ag_catalog.alter_graph(name, 'RENAME', 'medexpertmatch_graph_previous')
+FROM ag_catalog.ag_graph
+WHERE name = 'medexpertmatch_graph';
+
+SELECT ag_catalog.alter_graph('medexpertmatch_graph_staging', 'RENAME', 'medexpertmatch_graph');
\ No newline at end of file
@@ -0,0 +1,3 @@
+SELECT doctor_id, affinity_score, sample_count, calibrated_at
+FROM medexpertmatch.doctor_outcome_affinities
+WHERE doctor_id = ANY(:doctorIds)
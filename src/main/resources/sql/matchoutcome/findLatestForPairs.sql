@@ -0,0 +1,4 @@
+SELECT DISTINCT ON (doctor_id) id, case_id, doctor_id, label, recorded_at
+FROM medexpertmatch.match_outcomes
+WHERE case_id = :caseId AND doctor_id = ANY(:doctorIds)
+ORDER BY doctor_id, recorded_at DESC
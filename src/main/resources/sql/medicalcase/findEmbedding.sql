@@ -0,0 +1,4 @@
+SELECT embedding::text AS embedding
+FROM medexpertmatch.medical_cases
+WHERE id = :caseId
+AND embedding IS NOT NULL
\ No newline at end of file
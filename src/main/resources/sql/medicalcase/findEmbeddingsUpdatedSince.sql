@@ -0,0 +1,4 @@
+SELECT id, embedding::text AS embedding, updated_at
+FROM medexpertmatch.medical_cases
+WHERE updated_at > :since
+ORDER BY updated_at
\ No newline at end of file
@@ -0,0 +1,3 @@
+SELECT id
+FROM medexpertmatch.medical_cases
+WHERE embedding IS NOT NULL
\ No newline at end of file
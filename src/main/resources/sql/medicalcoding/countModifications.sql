@@ -0,0 +1,4 @@
+SELECT COALESCE((SELECT n_tup_ins + n_tup_upd + n_tup_del
+                 FROM pg_stat_user_tables
+                 WHERE schemaname = 'medexpertmatch'
+                   AND relname = 'icd10_codes'), 0)
\ No newline at end of file
@@ -0,0 +1,5 @@
+SELECT code, parent_code
+FROM medexpertmatch.icd10_codes
+WHERE parent_code IS NOT NULL
+  AND parent_code <> ''
+  AND parent_code <> code
\ No newline at end of file
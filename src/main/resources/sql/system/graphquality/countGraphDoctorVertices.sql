@@ -0,0 +1,9 @@
+SELECT COALESCE((
+    SELECT (xpath('/row/n/text()',
+                  query_to_xml(format('SELECT count(*) AS n FROM ONLY %s', l.relation), false, true, '')))[1]::text::bigint
+    FROM ag_catalog.ag_label l
+    JOIN ag_catalog.ag_graph g ON g.graphid = l.graph
+    WHERE g.name = :graphName
+      AND l.name = 'Doctor'
+      AND l.kind = 'v'
+), 0)
\ No newline at end of file
@@ -1,16 +1,24 @@
 package com.berdachuk.medexpertmatch.clinicalexperience.repository;
 
 import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.PerformanceStats;
 import com.berdachuk.medexpertmatch.core.util.IdGenerator;
 import com.berdachuk.medexpertmatch.integration.BaseIntegrationTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,6 +37,9 @@ class ClinicalExperienceRepositoryIT extends BaseIntegrationTest {
     @Autowired
     private NamedParameterJdbcTemplate namedJdbcTemplate;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
         // Clear existing data to ensure test independence
@@ -362,6 +373,77 @@ class ClinicalExperienceRepositoryIT extends BaseIntegrationTest {
         assertTrue(clinicalExperienceRepository.findById(experience.id()).isEmpty());
     }
 
+    @Test
+    void testPerformanceStatsMaintainedIncrementally() {
+        String doctorId = IdGenerator.generateDoctorId();
+        String facilityId = "facility-" + doctorId.substring(0, 8);
+        String caseId1 = createTestDoctorAndCase(doctorId);
+        String caseId2 = createTestDoctorAndCase(doctorId);
+        namedJdbcTemplate.update("UPDATE medexpertmatch.doctors SET facility_ids = :facilityIds WHERE id = :id",
+                Map.of("facilityIds", new String[]{facilityId}, "id", doctorId));
+
+        ClinicalExperience rated = new ClinicalExperience(
+                IdGenerator.generateId(), doctorId, caseId1, List.of(), "MEDIUM", "IMPROVED", List.of(), 3, 4);
+        ClinicalExperience unrated = new ClinicalExperience(
+                IdGenerator.generateId(), doctorId, caseId2, List.of(), "LOW", "STABLE", List.of(), 2, null);
+        clinicalExperienceRepository.insertBatch(List.of(rated, unrated));
+
+        PerformanceStats stats = clinicalExperienceRepository.findPerformanceStatsByDoctorIds(List.of(doctorId)).get(doctorId);
+        assertEquals(new PerformanceStats(2, 4, 1, 1), stats);
+        assertEquals(stats, clinicalExperienceRepository.findFacilityPerformanceStats(facilityId).orElseThrow());
+
+        // Update applies the difference between old and new rows
+        clinicalExperienceRepository.update(new ClinicalExperience(
+                unrated.id(), doctorId, caseId2, List.of(), "LOW", "SUCCESS", List.of(), 2, 2));
+        assertEquals(new PerformanceStats(2, 6, 2, 2),
+                clinicalExperienceRepository.findPerformanceStatsByDoctorIds(List.of(doctorId)).get(doctorId));
+        PerformanceStats facilityStats = clinicalExperienceRepository.findFacilityPerformanceStats(facilityId).orElseThrow();
+        assertEquals(3.0, facilityStats.averageRating(2.5), 1e-9);
+        assertEquals(1.0, facilityStats.successRate(), 1e-9);
+
+        // Deleting every experience removes the doctor aggregate and the facility roll-up
+        clinicalExperienceRepository.deleteAll();
+        assertTrue(clinicalExperienceRepository.findPerformanceStatsByDoctorIds(List.of(doctorId)).isEmpty());
+        assertTrue(clinicalExperienceRepository.findFacilityPerformanceStats(facilityId).isEmpty());
+    }
+
+    @Test
+    void testFacilityStatsKeepConcurrentContributions() throws Exception {
+        String doctorId1 = IdGenerator.generateDoctorId();
+        String doctorId2 = IdGenerator.generateDoctorId();
+        String facilityId = "facility-" + doctorId1.substring(0, 8);
+        String caseId1 = createTestDoctorAndCase(doctorId1);
+        String caseId2 = createTestDoctorAndCase(doctorId2);
+        namedJdbcTemplate.update("UPDATE medexpertmatch.doctors SET facility_ids = :facilityIds WHERE id IN (:ids)",
+                Map.of("facilityIds", new String[]{facilityId}, "ids", List.of(doctorId1, doctorId2)));
+
+        // The first transaction keeps its roll-up uncommitted while the second one refreshes the same facility
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstApplied = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                clinicalExperienceRepository.insertBatch(List.of(new ClinicalExperience(
+                        IdGenerator.generateId(), doctorId1, caseId1, List.of(), "MEDIUM", "SUCCESS", List.of(), 3, 5)));
+                firstApplied.countDown();
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(firstApplied.await(10, TimeUnit.SECONDS));
+            clinicalExperienceRepository.insertBatch(List.of(new ClinicalExperience(
+                    IdGenerator.generateId(), doctorId2, caseId2, List.of(), "LOW", "STABLE", List.of(), 2, 3)));
+            first.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PerformanceStats facilityStats = clinicalExperienceRepository.findFacilityPerformanceStats(facilityId).orElseThrow();
+        assertEquals(new PerformanceStats(2, 8, 2, 1), facilityStats);
+    }
+
     /**
      * Helper method to create test doctor and case.
      */
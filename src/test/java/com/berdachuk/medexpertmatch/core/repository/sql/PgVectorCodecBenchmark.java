@@ -0,0 +1,73 @@
+package com.berdachuk.medexpertmatch.core.repository.sql;
+
+import com.pgvector.PGvector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side cost of encoding one embedding for a {@code vector} parameter: the former {@code %.6f} text literal
+ * and the {@link PGvector} text form bound by {@link PgVectorCodec}.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.berdachuk.medexpertmatch.core.repository.sql.PgVectorCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PgVectorCodecBenchmark {
+
+    @Param({"384", "1536"})
+    private int dimension;
+
+    private float[] components;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        components = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            components[i] = random.nextFloat() * 2 - 1;
+        }
+    }
+
+    @Benchmark
+    public String formattedText() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < components.length; i++) {
+            if (i > 0) sb.append(",");
+            sb.append(String.format("%.6f", components[i]));
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String pgVectorText() {
+        return new PGvector(components).getValue();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PgVectorCodecBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,43 @@
+package com.berdachuk.medexpertmatch.core.repository.sql;
+
+import com.pgvector.PGvector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.SqlTypeValue;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PgVectorCodecTest {
+
+    private static final float[] VECTOR = {0.1f, -2.5f, 3.0E-7f};
+
+    @Test
+    @DisplayName("parameter binds a PGvector holding the original components")
+    void parameterBindsPgVector() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        SqlTypeValue parameter = PgVectorCodec.parameter(VECTOR);
+        parameter.setTypeValue(ps, 2, Types.OTHER, null);
+
+        ArgumentCaptor<Object> bound = ArgumentCaptor.forClass(Object.class);
+        verify(ps).setObject(eq(2), bound.capture());
+        PGvector vector = assertInstanceOf(PGvector.class, bound.getValue());
+        assertEquals("vector", vector.getType());
+        assertArrayEquals(VECTOR, vector.toArray());
+        assertNull(PgVectorCodec.parameter(null));
+    }
+
+    @Test
+    @DisplayName("parse reads the pgvector text form")
+    void parsesVectorText() {
+        assertArrayEquals(new float[]{0.1f, -2.5f, 3.0E-7f}, PgVectorCodec.parse("[0.1,-2.5,3e-07]"));
+        assertArrayEquals(new float[0], PgVectorCodec.parse("[]"));
+        assertNull(PgVectorCodec.parse(null));
+    }
+}
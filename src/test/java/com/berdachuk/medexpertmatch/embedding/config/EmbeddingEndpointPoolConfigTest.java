@@ -84,9 +84,9 @@ class EmbeddingEndpointPoolConfigTest {
     void buildsPoolSortedByPriority() throws Exception {
         MultiEndpointEmbeddingProperties props = new MultiEndpointEmbeddingProperties();
         props.setEndpoints(List.of(
-                endpoint("http://a.example.com", "m-a", 20, null),
-                endpoint("http://b.example.com", "m-b", 5, null),
-                endpoint("http://c.example.com", "m-c", 10, null)));
+                endpoint("http://a.example.com", "m", 20, null),
+                endpoint("http://b.example.com", "m", 5, null),
+                endpoint("http://c.example.com", "m", 10, null)));
         props.setWorkerPerEndpoint(2);
 
         MockEnvironment env = new MockEnvironment()
@@ -101,9 +101,37 @@ class EmbeddingEndpointPoolConfigTest {
         assertEquals("http://b.example.com/v1", endpoints.get(0).getUrl());
         assertEquals("http://c.example.com/v1", endpoints.get(1).getUrl());
         assertEquals("http://a.example.com/v1", endpoints.get(2).getUrl());
-        assertEquals("m-b", endpoints.get(0).getModel());
-        assertEquals("m-c", endpoints.get(1).getModel());
-        assertEquals("m-a", endpoints.get(2).getModel());
+        assertEquals("m", poolToShutdown.getModel());
+    }
+
+    @Test
+    @DisplayName("Bean factory rejects endpoints that serve different models")
+    void rejectsMixedModels() {
+        MultiEndpointEmbeddingProperties props = new MultiEndpointEmbeddingProperties();
+        props.setEndpoints(List.of(
+                endpoint("http://a.example.com", "nomic-embed-text:v1.5", 0, null),
+                endpoint("http://b.example.com", "qwen3-embedding:0.6b", 1, null)));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> config.embeddingEndpointPool(props, new MockEnvironment()));
+        assertTrue(ex.getMessage().contains("same model"));
+    }
+
+    @Test
+    @DisplayName("Bean factory gives endpoints without a model the configured embedding model")
+    void defaultsBlankModelToConfiguredModel() throws Exception {
+        MultiEndpointEmbeddingProperties props = new MultiEndpointEmbeddingProperties();
+        props.setEndpoints(List.of(
+                endpoint("http://a.example.com", "nomic-embed-text:v1.5", 0, null),
+                endpoint("http://b.example.com", null, 1, null)));
+
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("spring.ai.custom.embedding.model", "nomic-embed-text:v1.5");
+
+        poolToShutdown = config.embeddingEndpointPool(props, env);
+        List<EndpointState> endpoints = extractEndpoints(poolToShutdown);
+        assertEquals("nomic-embed-text:v1.5", endpoints.get(1).getModel());
+        assertEquals("nomic-embed-text:v1.5", poolToShutdown.getModel());
     }
 
     @Test
@@ -129,8 +157,8 @@ class EmbeddingEndpointPoolConfigTest {
         MultiEndpointEmbeddingProperties props = new MultiEndpointEmbeddingProperties();
         props.setWorkerPerEndpoint(1);
         props.setEndpoints(List.of(
-                endpoint("http://a.example.com", "m-a", 0, 4),
-                endpoint("http://b.example.com", "m-b", 0, null)));
+                endpoint("http://a.example.com", "m", 0, 4),
+                endpoint("http://b.example.com", "m", 0, null)));
 
         poolToShutdown = config.embeddingEndpointPool(props, new MockEnvironment());
         assertNotNull(poolToShutdown);
@@ -48,6 +48,15 @@ class MultiEndpointEmbeddingPropertiesTest {
         assertEquals(50, props.getApiBatchSize());
     }
 
+    @Test
+    @DisplayName("Scheduling defaults: queueCapacity=10000, circuitFailureThreshold=3, enqueueTimeoutMs=60000")
+    void appliesSchedulingDefaults() {
+        MultiEndpointEmbeddingProperties props = new MultiEndpointEmbeddingProperties();
+        assertEquals(10_000, props.getQueueCapacity());
+        assertEquals(3, props.getCircuitFailureThreshold());
+        assertEquals(60_000, props.getEnqueueTimeoutMs());
+    }
+
     @Test
     @DisplayName("EndpointConfig defaults: url blank, model null, priority=0, workers null")
     void endpointConfigDefaults() {
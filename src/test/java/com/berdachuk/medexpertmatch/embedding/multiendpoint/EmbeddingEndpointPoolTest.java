@@ -1,5 +1,6 @@
 package com.berdachuk.medexpertmatch.embedding.multiendpoint;
 
+import com.berdachuk.medexpertmatch.embedding.exception.EmbeddingException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,16 +10,19 @@ import org.springframework.ai.embedding.Embedding;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingResponse;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class EmbeddingEndpointPoolTest {
@@ -49,12 +53,12 @@ class EmbeddingEndpointPoolTest {
         EndpointState endpoint = new EndpointState("http://localhost:11434", "test-model", embeddingModel);
         pool = new EmbeddingEndpointPool(List.of(endpoint), 1, 10);
 
-        CompletableFuture<List<Double>> future = pool.embed("test text");
-        List<Double> result = future.get(5, TimeUnit.SECONDS);
+        CompletableFuture<float[]> future = pool.embed("test text");
+        float[] result = future.get(5, TimeUnit.SECONDS);
 
         assertNotNull(result);
-        assertEquals(5, result.size());
-        assertEquals(0.1, result.get(0), 0.001);
+        assertEquals(5, result.length);
+        assertEquals(0.1f, result[0], 0.001f);
     }
 
     @Test
@@ -74,14 +78,14 @@ class EmbeddingEndpointPoolTest {
         EndpointState endpoint = new EndpointState("http://localhost:11434", "test-model", embeddingModel);
         pool = new EmbeddingEndpointPool(List.of(endpoint), 1, 10);
 
-        List<CompletableFuture<List<Double>>> futures = pool.embedBatch(List.of("a", "b"));
+        List<CompletableFuture<float[]>> futures = pool.embedBatch(List.of("a", "b"));
 
         assertEquals(2, futures.size());
-        List<Double> r1 = futures.get(0).get(5, TimeUnit.SECONDS);
-        List<Double> r2 = futures.get(1).get(5, TimeUnit.SECONDS);
+        float[] r1 = futures.get(0).get(5, TimeUnit.SECONDS);
+        float[] r2 = futures.get(1).get(5, TimeUnit.SECONDS);
 
-        assertEquals(3, r1.size());
-        assertEquals(4, r2.size());
+        assertEquals(3, r1.length);
+        assertEquals(4, r2.length);
     }
 
     @Test
@@ -98,13 +102,127 @@ class EmbeddingEndpointPoolTest {
         EndpointState endpoint = new EndpointState("http://localhost:11434", "test-model", embeddingModel);
         pool = new EmbeddingEndpointPool(List.of(endpoint), 1, 10, 2);
 
-        List<CompletableFuture<List<Double>>> futures = pool.embedBatch(List.of("a", "b"));
+        List<CompletableFuture<float[]>> futures = pool.embedBatch(List.of("a", "b"));
 
         assertEquals(2, futures.size());
-        List<Double> r1 = futures.get(0).get(5, TimeUnit.SECONDS);
-        List<Double> r2 = futures.get(1).get(5, TimeUnit.SECONDS);
+        float[] r1 = futures.get(0).get(5, TimeUnit.SECONDS);
+        float[] r2 = futures.get(1).get(5, TimeUnit.SECONDS);
 
-        assertEquals(3, r1.size());
-        assertEquals(4, r2.size());
+        assertEquals(3, r1.length);
+        assertEquals(4, r2.length);
+    }
+
+    @Test
+    void embed_coalescesTextsQueuedWhileEndpointBusy() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        when(embeddingModel.embedForResponse(anyList())).thenAnswer(inv -> {
+            List<String> texts = inv.getArgument(0);
+            batchSizes.add(texts.size());
+            Thread.sleep(100);
+            return new EmbeddingResponse(texts.stream().map(t -> new Embedding(VECTOR_3, 0)).toList());
+        });
+
+        EndpointState endpoint = new EndpointState("http://localhost:11434", "test-model", embeddingModel);
+        pool = new EmbeddingEndpointPool(List.of(endpoint), List.of(1), 10, 100, 3, 60_000, 1000);
+
+        List<CompletableFuture<float[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            futures.add(pool.embed("text " + i));
+        }
+        for (CompletableFuture<float[]> future : futures) {
+            assertEquals(3, future.get(5, TimeUnit.SECONDS).length);
+        }
+
+        assertEquals(11, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.size() <= 3, "queued texts should share API calls: " + batchSizes);
+    }
+
+    @Test
+    void embed_opensCircuitAndReroutesToHealthyEndpoint() throws Exception {
+        EmbeddingModel failingModel = mock(EmbeddingModel.class);
+        when(failingModel.embedForResponse(anyList())).thenThrow(new IllegalStateException("connection refused"));
+        when(embeddingModel.embedForResponse(anyList())).thenAnswer(inv -> {
+            List<String> texts = inv.getArgument(0);
+            return new EmbeddingResponse(texts.stream().map(t -> new Embedding(VECTOR_4, 0)).toList());
+        });
+
+        EndpointState failing = new EndpointState("http://failing:11434", "test-model", failingModel);
+        EndpointState healthy = new EndpointState("http://healthy:11434", "test-model", embeddingModel);
+        pool = new EmbeddingEndpointPool(List.of(failing, healthy), List.of(1, 1), 1, 100, 1, 60_000, 1000);
+
+        List<CompletableFuture<float[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(pool.embed("text " + i));
+        }
+        for (CompletableFuture<float[]> future : futures) {
+            assertEquals(4, future.get(5, TimeUnit.SECONDS).length);
+        }
+
+        assertEquals(EndpointState.CircuitState.OPEN, failing.getCircuitState());
+        assertEquals(EndpointState.CircuitState.CLOSED, healthy.getCircuitState());
+        assertEquals(20, healthy.getCompletedCount().get());
+        verify(failingModel, times(1)).embedForResponse(anyList());
+    }
+
+    @Test
+    void embed_isolatesRejectedTextAndFailsItAfterMaxAttempts() throws Exception {
+        List<List<String>> calls = new CopyOnWriteArrayList<>();
+        CountDownLatch queued = new CountDownLatch(1);
+        when(embeddingModel.embedForResponse(anyList())).thenAnswer(inv -> {
+            List<String> texts = List.copyOf(inv.getArgument(0));
+            queued.await(5, TimeUnit.SECONDS);
+            calls.add(texts);
+            if (texts.contains("poison")) {
+                throw new IllegalArgumentException("input rejected");
+            }
+            return new EmbeddingResponse(texts.stream().map(t -> new Embedding(VECTOR_3, 0)).toList());
+        });
+
+        EndpointState endpoint = new EndpointState("http://localhost:11434", "test-model", embeddingModel);
+        pool = new EmbeddingEndpointPool(List.of(endpoint), List.of(1), 8, 100, 100, 60_000, 1000, 2);
+
+        List<CompletableFuture<float[]>> futures = pool.embedBatch(List.of("a", "b", "poison", "c"));
+        queued.countDown();
+        CompletableFuture<float[]> later = pool.embed("later");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> futures.get(2).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(EmbeddingException.class, e.getCause());
+        for (int i : List.of(0, 1, 3)) {
+            assertEquals(3, futures.get(i).get(5, TimeUnit.SECONDS).length);
+        }
+        assertEquals(3, later.get(5, TimeUnit.SECONDS).length);
+        assertEquals(2, calls.stream().filter(call -> call.equals(List.of("poison"))).count());
+        int laterCall = calls.indexOf(calls.stream().filter(call -> call.contains("later")).findFirst().orElseThrow());
+        for (int i = 0; i < laterCall; i++) {
+            assertTrue(java.util.Collections.disjoint(calls.get(i), calls.get(laterCall)),
+                    "retried texts must not be merged with newly queued texts: " + calls);
+        }
+    }
+
+    @Test
+    void embed_rejectsTextWhenQueueStaysFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(embeddingModel.embedForResponse(anyList())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new EmbeddingResponse(List.of(new Embedding(VECTOR_3, 0)));
+        });
+
+        EndpointState endpoint = new EndpointState("http://localhost:11434", "test-model", embeddingModel);
+        pool = new EmbeddingEndpointPool(List.of(endpoint), List.of(1), 1, 2, 3, 60_000, 50);
+
+        CompletableFuture<float[]> inFlight = pool.embed("a");
+        while (pool.getQueuedCount() > 0) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<float[]> queued1 = pool.embed("b");
+        CompletableFuture<float[]> queued2 = pool.embed("c");
+        CompletableFuture<float[]> rejected = pool.embed("d");
+        release.countDown();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertNotNull(inFlight.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued1.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued2.get(5, TimeUnit.SECONDS));
     }
 }
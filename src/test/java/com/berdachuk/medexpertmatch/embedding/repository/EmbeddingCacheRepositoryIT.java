@@ -0,0 +1,82 @@
+package com.berdachuk.medexpertmatch.embedding.repository;
+
+import com.berdachuk.medexpertmatch.integration.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingCacheRepositoryIT extends BaseIntegrationTest {
+
+    private static final String KEY_A = "a".repeat(64);
+    private static final String KEY_B = "b".repeat(64);
+
+    @Autowired
+    private EmbeddingCacheRepository embeddingCacheRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        namedJdbcTemplate.getJdbcTemplate().execute("DELETE FROM medexpertmatch.embedding_cache");
+    }
+
+    @Test
+    void shouldInsertAndFindByContentKeys() {
+        embeddingCacheRepository.insertBatch("nomic-embed-text:v1.5", 3, Map.of(
+                KEY_A, new float[]{0.1f, -0.2f, 0.3f},
+                KEY_B, new float[]{1.0f, 2.0f, 3.0f}));
+
+        Map<String, float[]> found = embeddingCacheRepository.findByContentKeys(List.of(KEY_A, "c".repeat(64)));
+
+        assertEquals(1, found.size());
+        assertArrayEquals(new float[]{0.1f, -0.2f, 0.3f}, found.get(KEY_A));
+    }
+
+    @Test
+    void shouldKeepFirstEmbeddingForExistingKey() {
+        embeddingCacheRepository.insertBatch("model", 2, Map.of(KEY_A, new float[]{1.0f, 2.0f}));
+        embeddingCacheRepository.insertBatch("model", 2, Map.of(KEY_A, new float[]{9.0f, 9.0f}));
+
+        assertArrayEquals(new float[]{1.0f, 2.0f}, embeddingCacheRepository.findByContentKeys(List.of(KEY_A)).get(KEY_A));
+    }
+
+    @Test
+    void shouldStoreVectorsOfDifferentDimensions() {
+        embeddingCacheRepository.insertBatch("small", 2, Map.of(KEY_A, new float[]{1.0f, 2.0f}));
+        embeddingCacheRepository.insertBatch("large", 4, Map.of(KEY_B, new float[]{1.0f, 2.0f, 3.0f, 4.0f}));
+
+        Map<String, float[]> found = embeddingCacheRepository.findByContentKeys(List.of(KEY_A, KEY_B));
+
+        assertEquals(2, found.get(KEY_A).length);
+        assertEquals(4, found.get(KEY_B).length);
+        assertTrue(embeddingCacheRepository.findByContentKeys(List.of()).isEmpty());
+    }
+
+    @Test
+    void shouldDeleteEntriesCreatedBeforeCutoffInBatches() {
+        embeddingCacheRepository.insertBatch("model", 2, Map.of(
+                KEY_A, new float[]{1.0f, 2.0f},
+                KEY_B, new float[]{3.0f, 4.0f},
+                "c".repeat(64), new float[]{5.0f, 6.0f}));
+        namedJdbcTemplate.update(
+                "UPDATE medexpertmatch.embedding_cache SET created_at = created_at - INTERVAL '10 days' WHERE content_key <> :key",
+                Map.of("key", KEY_A));
+        Instant cutoff = Instant.now().minus(5, ChronoUnit.DAYS);
+
+        assertEquals(1, embeddingCacheRepository.deleteCreatedBefore(cutoff, 1));
+        assertEquals(1, embeddingCacheRepository.deleteCreatedBefore(cutoff, 1));
+        assertEquals(0, embeddingCacheRepository.deleteCreatedBefore(cutoff, 1));
+
+        assertEquals(List.of(KEY_A), List.copyOf(embeddingCacheRepository.findByContentKeys(
+                List.of(KEY_A, KEY_B, "c".repeat(64))).keySet()));
+    }
+}
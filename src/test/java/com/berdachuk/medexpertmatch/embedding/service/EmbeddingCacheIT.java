@@ -0,0 +1,75 @@
+package com.berdachuk.medexpertmatch.embedding.service;
+
+import com.berdachuk.medexpertmatch.core.config.CacheConfig;
+import com.berdachuk.medexpertmatch.integration.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for EmbeddingService with the embedding cache enabled, which the shared test profile turns off.
+ * The mock embedding model derives each vector from its position in the batch, so a text embedded in a different
+ * position returns its first vector only when it was served from a cache tier.
+ */
+@TestPropertySource(properties = {
+        "medexpertmatch.embedding.cache.enabled=true",
+        "medexpertmatch.embedding.cache.persistent=true"
+})
+class EmbeddingCacheIT extends BaseIntegrationTest {
+
+    private static final String TEXT = "Chest pain radiating to the left arm, troponin elevated";
+
+    @Autowired
+    private EmbeddingService embeddingService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        namedJdbcTemplate.getJdbcTemplate().execute("DELETE FROM medexpertmatch.embedding_cache");
+        cacheManager.getCache(CacheConfig.EMBEDDING_RESULTS_CACHE).clear();
+    }
+
+    @Test
+    void testRepeatedTextIsServedFromMemoryTier() {
+        List<float[]> batch = embeddingService.generateEmbeddingsAsFloatArrays(List.of("Fever and headache", TEXT));
+        assertFalse(Arrays.equals(batch.get(0), batch.get(1)));
+
+        float[] repeated = embeddingService.generateEmbeddingAsFloatArray(TEXT);
+
+        assertArrayEquals(batch.get(1), repeated);
+        assertEquals(2, cachedRows());
+    }
+
+    @Test
+    void testPersistentTierServesTextAfterMemoryTierIsCleared() {
+        List<float[]> batch = embeddingService.generateEmbeddingsAsFloatArrays(List.of("Abdominal pain", TEXT));
+        assertEquals(2, cachedRows());
+
+        cacheManager.getCache(CacheConfig.EMBEDDING_RESULTS_CACHE).clear();
+
+        assertArrayEquals(batch.get(1), embeddingService.generateEmbeddingAsFloatArray(TEXT));
+        assertArrayEquals(batch.get(1), embeddingService.generateEmbeddingAsFloatArray(
+                        "  Chest pain radiating to the left arm,   troponin elevated "),
+                "Whitespace-normalized text shares the cache entry");
+        assertEquals(2, cachedRows());
+    }
+
+    private int cachedRows() {
+        Integer rows = namedJdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT count(*) FROM medexpertmatch.embedding_cache", Integer.class);
+        return rows != null ? rows : 0;
+    }
+}
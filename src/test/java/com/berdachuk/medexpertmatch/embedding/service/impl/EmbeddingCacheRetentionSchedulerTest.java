@@ -0,0 +1,53 @@
+package com.berdachuk.medexpertmatch.embedding.service.impl;
+
+import com.berdachuk.medexpertmatch.embedding.repository.EmbeddingCacheRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmbeddingCacheRetentionSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-16T03:30:00Z");
+    private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @Mock
+    private EmbeddingCacheRepository repository;
+
+    @Test
+    void testDeletesBatchesOlderThanMaxAgeUntilShortBatch() {
+        Instant cutoff = Instant.parse("2026-09-16T03:30:00Z");
+        when(repository.deleteCreatedBefore(cutoff, 100)).thenReturn(100, 100, 7);
+
+        int purged = new EmbeddingCacheRetentionScheduler(repository, CLOCK, 30, 100).purgeExpiredEntries();
+
+        assertEquals(207, purged);
+        verify(repository, times(3)).deleteCreatedBefore(cutoff, 100);
+    }
+
+    @Test
+    void testZeroMaxAgeKeepsEntries() {
+        assertEquals(0, new EmbeddingCacheRetentionScheduler(repository, CLOCK, 0, 100).purgeExpiredEntries());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testFailedBatchStopsPurgeWithoutThrowing() {
+        when(repository.deleteCreatedBefore(any(), anyInt()))
+                .thenReturn(100)
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertEquals(100, new EmbeddingCacheRetentionScheduler(repository, CLOCK, 30, 100).purgeExpiredEntries());
+    }
+}
@@ -0,0 +1,154 @@
+package com.berdachuk.medexpertmatch.embedding.service.impl;
+
+import com.berdachuk.medexpertmatch.embedding.multiendpoint.EmbeddingEndpointPool;
+import com.berdachuk.medexpertmatch.embedding.repository.EmbeddingCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmbeddingCacheTest {
+
+    private static final String MODEL = "nomic-embed-text:v1.5";
+
+    @Mock
+    private EmbeddingCacheRepository repository;
+
+    private final List<List<String>> modelCalls = new ArrayList<>();
+
+    private final Function<List<String>, List<float[]>> lengthEmbedder = texts -> {
+        modelCalls.add(List.copyOf(texts));
+        return texts.stream().map(text -> new float[]{text.length()}).toList();
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmbeddingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EmbeddingCache(new ConcurrentMapCache("embeddingResults"), repository, meterRegistry, true, MODEL, 768);
+    }
+
+    @Test
+    void memoryHit_skipsRepositoryAndModel() {
+        when(repository.findByContentKeys(anyCollection())).thenReturn(Map.of());
+
+        float[] first = cache.get("chest pain", text -> lengthEmbedder.apply(List.of(text)).get(0));
+        float[] second = cache.get("chest pain", text -> lengthEmbedder.apply(List.of(text)).get(0));
+
+        assertSame(first, second);
+        assertEquals(1, modelCalls.size());
+        verify(repository, times(1)).findByContentKeys(anyCollection());
+        verify(repository, times(1)).insertBatch(eq(MODEL), eq(768), anyMap());
+    }
+
+    @Test
+    void persistentHit_skipsModelAndFillsMemory() {
+        String key = cache.contentKey("chest pain");
+        when(repository.findByContentKeys(anyCollection())).thenReturn(Map.of(key, new float[]{42f}));
+
+        assertArrayEquals(new float[]{42f}, cache.getAll(List.of("chest pain"), lengthEmbedder).get(0));
+        assertArrayEquals(new float[]{42f}, cache.getAll(List.of("chest pain"), lengthEmbedder).get(0));
+
+        assertTrue(modelCalls.isEmpty());
+        verify(repository, times(1)).findByContentKeys(anyCollection());
+        verify(repository, never()).insertBatch(anyString(), anyInt(), anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batch_sendsOnlyDistinctMissesAndKeepsInputOrder() {
+        when(repository.findByContentKeys(anyCollection())).thenReturn(Map.of());
+        cache.getAll(List.of("aa"), lengthEmbedder);
+        modelCalls.clear();
+
+        List<float[]> embeddings = cache.getAll(List.of("bbb", "aa", "c", "bbb"), lengthEmbedder);
+
+        assertEquals(List.of(List.of("bbb", "c")), modelCalls);
+        assertArrayEquals(new float[]{3}, embeddings.get(0));
+        assertArrayEquals(new float[]{2}, embeddings.get(1));
+        assertArrayEquals(new float[]{1}, embeddings.get(2));
+        assertArrayEquals(new float[]{3}, embeddings.get(3));
+        ArgumentCaptor<Map<String, float[]>> stored = ArgumentCaptor.forClass(Map.class);
+        verify(repository, times(2)).insertBatch(eq(MODEL), eq(768), stored.capture());
+        assertEquals(2, stored.getValue().size());
+    }
+
+    @Test
+    void contentKey_normalizesWhitespaceAndSeparatesModels() {
+        EmbeddingCache otherModel = new EmbeddingCache(
+                new ConcurrentMapCache("embeddingResults"), repository, new SimpleMeterRegistry(), true, MODEL, 1536);
+
+        assertEquals(cache.contentKey("chest  pain\n"), cache.contentKey(" chest pain"));
+        assertNotEquals(cache.contentKey("chest pain"), cache.contentKey("Chest pain"));
+        assertNotEquals(cache.contentKey("chest pain"), otherModel.contentKey("chest pain"));
+        assertEquals(64, cache.contentKey("chest pain").length());
+    }
+
+    @Test
+    void servingModel_prefersEndpointPoolModel() {
+        EmbeddingEndpointPool pool = mock(EmbeddingEndpointPool.class);
+        when(pool.getModel()).thenReturn("qwen3-embedding:0.6b");
+
+        assertEquals("qwen3-embedding:0.6b", EmbeddingCache.servingModel(pool, MODEL));
+        assertEquals(MODEL, EmbeddingCache.servingModel(null, MODEL));
+    }
+
+    @Test
+    void repositoryFailure_fallsBackToModel() {
+        when(repository.findByContentKeys(anyCollection())).thenThrow(new DataAccessResourceFailureException("down"));
+        doThrow(new DataAccessResourceFailureException("down")).when(repository).insertBatch(anyString(), anyInt(), any());
+
+        assertArrayEquals(new float[]{4}, cache.getAll(List.of("text"), lengthEmbedder).get(0));
+        assertEquals(1, modelCalls.size());
+    }
+
+    @Test
+    void disabledCache_passesThroughToModel() {
+        EmbeddingCache disabled = new EmbeddingCache(null, null, new SimpleMeterRegistry(), true, MODEL, 768);
+
+        disabled.getAll(List.of("a", "a"), lengthEmbedder);
+
+        assertEquals(List.of(List.of("a", "a")), modelCalls);
+    }
+
+    @Test
+    void metrics_reportHitRatioAcrossTiers() {
+        String persistedKey = cache.contentKey("persisted");
+        when(repository.findByContentKeys(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).contains(persistedKey)
+                        ? Map.of(persistedKey, new float[]{1f})
+                        : Map.of());
+
+        cache.getAll(List.of("new"), lengthEmbedder);
+        cache.getAll(List.of("new", "persisted"), lengthEmbedder);
+
+        assertEquals(1.0, meterRegistry.get("embedding.cache.requests").tags("tier", "memory", "result", "hit")
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get("embedding.cache.requests").tags("tier", "persistent", "result", "hit")
+                .counter().count());
+        assertEquals(2.0 / 3.0, meterRegistry.get("embedding.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+}
@@ -0,0 +1,119 @@
+package com.berdachuk.medexpertmatch.embedding.service.impl;
+
+import com.berdachuk.medexpertmatch.core.util.LlmCallLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingRequestCoalescerTest {
+
+    private final LlmCallLimiter llmCallLimiter = new LlmCallLimiter(1, 1, 1, 1);
+
+    private final List<List<String>> calls = Collections.synchronizedList(new ArrayList<>());
+
+    private final Function<List<String>, List<float[]>> lengthEmbedder = texts -> {
+        calls.add(List.copyOf(texts));
+        return texts.stream().map(text -> new float[]{text.length()}).toList();
+    };
+
+    @Test
+    void concurrentRequests_shareOneBatchCall() throws Exception {
+        EmbeddingRequestCoalescer coalescer = new EmbeddingRequestCoalescer(lengthEmbedder, llmCallLimiter, 2_000, 4);
+
+        List<float[]> results = embedConcurrently(coalescer, List.of("a", "bb", "ccc", "dddd"));
+
+        assertEquals(1, calls.size());
+        assertEquals(4, calls.get(0).size());
+        for (int i = 0; i < results.size(); i++) {
+            assertArrayEquals(new float[]{i + 1}, results.get(i));
+        }
+    }
+
+    @Test
+    void fullBatch_isSentWithoutWaitingAndLaterRequestsStartNewBatch() throws Exception {
+        EmbeddingRequestCoalescer coalescer = new EmbeddingRequestCoalescer(lengthEmbedder, llmCallLimiter, 60_000, 2);
+
+        long start = System.nanoTime();
+        List<float[]> results = embedConcurrently(coalescer, List.of("a", "bb", "ccc", "dddd"));
+
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 30);
+        assertEquals(2, calls.size());
+        calls.forEach(call -> assertEquals(2, call.size()));
+        assertArrayEquals(new float[]{4}, results.get(3));
+    }
+
+    @Test
+    void singleRequest_isSentAfterMaxWait() {
+        EmbeddingRequestCoalescer coalescer = new EmbeddingRequestCoalescer(lengthEmbedder, llmCallLimiter, 0, 32);
+
+        assertArrayEquals(new float[]{5}, coalescer.embed("hello"));
+        assertEquals(List.of(List.of("hello")), calls);
+    }
+
+    @Test
+    void identicalTexts_areEmbeddedOnce() throws Exception {
+        EmbeddingRequestCoalescer coalescer = new EmbeddingRequestCoalescer(lengthEmbedder, llmCallLimiter, 500, 32);
+
+        List<float[]> results = embedConcurrently(coalescer, List.of("same", "same", "same"));
+
+        assertEquals(3, results.size());
+        results.forEach(result -> assertArrayEquals(new float[]{4}, result));
+        assertEquals(List.of("same"), calls.stream().flatMap(List::stream).distinct().toList());
+        assertEquals(calls.size(), calls.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void failedBatch_failsEveryCaller() throws Exception {
+        EmbeddingRequestCoalescer coalescer = new EmbeddingRequestCoalescer(texts -> {
+            throw new IllegalStateException("connection refused");
+        }, llmCallLimiter, 500, 2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<float[]> first = CompletableFuture.supplyAsync(() -> coalescer.embed("a"), executor);
+            CompletableFuture<float[]> second = CompletableFuture.supplyAsync(() -> coalescer.embed("b"), executor);
+
+            for (CompletableFuture<float[]> future : List.of(first, second)) {
+                Exception e = assertThrows(Exception.class, () -> future.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<float[]> embedConcurrently(EmbeddingRequestCoalescer coalescer, List<String> texts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(texts.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<float[]>> futures = texts.stream()
+                    .map(text -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return coalescer.embed(text);
+                    }, executor))
+                    .toList();
+            start.countDown();
+            List<float[]> results = new ArrayList<>();
+            for (CompletableFuture<float[]> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
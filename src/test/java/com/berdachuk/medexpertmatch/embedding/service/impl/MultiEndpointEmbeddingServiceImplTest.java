@@ -3,6 +3,7 @@ package com.berdachuk.medexpertmatch.embedding.service.impl;
 import com.berdachuk.medexpertmatch.core.util.LlmCallLimiter;
 import com.berdachuk.medexpertmatch.embedding.multiendpoint.EmbeddingEndpointPool;
 import com.berdachuk.medexpertmatch.medicalcase.service.MedicalCaseDescriptionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,20 +38,14 @@ class MultiEndpointEmbeddingServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        embeddingService = new MultiEndpointEmbeddingServiceImpl(pool, descriptionService, llmCallLimiter);
+        EmbeddingCache embeddingCache = new EmbeddingCache(null, null, new SimpleMeterRegistry(), false, "", 0);
+        embeddingService = new MultiEndpointEmbeddingServiceImpl(pool, descriptionService, llmCallLimiter, embeddingCache);
     }
 
     @Test
     void generateEmbedding_delegatesToPool() {
-        List<Double> expected = List.of(
-                (double) VECTOR_5[0],
-                (double) VECTOR_5[1],
-                (double) VECTOR_5[2],
-                (double) VECTOR_5[3],
-                (double) VECTOR_5[4]);
-
         when(pool.embed(anyString()))
-                .thenReturn(CompletableFuture.completedFuture(expected));
+                .thenReturn(CompletableFuture.completedFuture(VECTOR_5));
 
         List<Double> result = embeddingService.generateEmbedding("test text");
 
@@ -61,13 +56,10 @@ class MultiEndpointEmbeddingServiceImplTest {
 
     @Test
     void generateEmbeddings_delegatesToPool() {
-        List<Double> l1 = List.of((double) VECTOR_3[0], (double) VECTOR_3[1], (double) VECTOR_3[2]);
-        List<Double> l2 = List.of((double) VECTOR_4[0], (double) VECTOR_4[1], (double) VECTOR_4[2], (double) VECTOR_4[3]);
-
         when(pool.embedBatch(anyList()))
                 .thenReturn(List.of(
-                        CompletableFuture.completedFuture(l1),
-                        CompletableFuture.completedFuture(l2)));
+                        CompletableFuture.completedFuture(VECTOR_3),
+                        CompletableFuture.completedFuture(VECTOR_4)));
 
         List<List<Double>> results = embeddingService.generateEmbeddings(List.of("a", "b"));
 
@@ -86,16 +78,26 @@ class MultiEndpointEmbeddingServiceImplTest {
     }
 
     @Test
-    void generateEmbeddingAsFloatArray_delegatesToGenerateEmbedding() {
-        List<Double> embedding = List.of(0.1, 0.2, 0.3);
+    void generateEmbeddingAsFloatArray_returnsPoolVectorWithoutCopy() {
         when(pool.embed(anyString()))
-                .thenReturn(CompletableFuture.completedFuture(embedding));
+                .thenReturn(CompletableFuture.completedFuture(VECTOR_3));
 
         float[] result = embeddingService.generateEmbeddingAsFloatArray("test");
 
-        assertNotNull(result);
-        assertEquals(3, result.length);
-        assertEquals(0.1f, result[0], 0.001f);
-        assertEquals(0.3f, result[2], 0.001f);
+        assertSame(VECTOR_3, result);
+    }
+
+    @Test
+    void generateEmbeddingsAsFloatArrays_keepsInputOrder() {
+        when(pool.embedBatch(anyList()))
+                .thenReturn(List.of(
+                        CompletableFuture.completedFuture(VECTOR_3),
+                        CompletableFuture.completedFuture(VECTOR_4)));
+
+        List<float[]> results = embeddingService.generateEmbeddingsAsFloatArrays(List.of("a", "b"));
+
+        assertEquals(2, results.size());
+        assertSame(VECTOR_3, results.get(0));
+        assertSame(VECTOR_4, results.get(1));
     }
 }
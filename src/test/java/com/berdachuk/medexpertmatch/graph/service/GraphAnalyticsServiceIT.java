@@ -0,0 +1,113 @@
+package com.berdachuk.medexpertmatch.graph.service;
+
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository.ConditionCentrality;
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository.DoctorCentrality;
+import com.berdachuk.medexpertmatch.integration.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for GraphAnalyticsService: centrality computed from Apache AGE and read back from its tables.
+ */
+class GraphAnalyticsServiceIT extends BaseIntegrationTest {
+
+    @Autowired
+    private GraphAnalyticsService graphAnalyticsService;
+
+    @Autowired
+    private GraphCentralityRepository centralityRepository;
+
+    @Autowired
+    private GraphService graphService;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        namedJdbcTemplate.getJdbcTemplate().execute("DELETE FROM medexpertmatch.doctor_condition_centrality");
+        namedJdbcTemplate.getJdbcTemplate().execute("DELETE FROM medexpertmatch.doctor_centrality");
+        namedJdbcTemplate.getJdbcTemplate().execute("DELETE FROM medexpertmatch.clinical_experiences");
+        namedJdbcTemplate.getJdbcTemplate().execute("DELETE FROM medexpertmatch.medical_cases");
+        namedJdbcTemplate.getJdbcTemplate().execute("DELETE FROM medexpertmatch.doctors");
+
+        try {
+            namedJdbcTemplate.getJdbcTemplate().execute("SELECT * FROM ag_catalog.drop_graph('medexpertmatch_graph', true)");
+        } catch (Exception e) {
+            // Graph might not exist, ignore
+        }
+        try {
+            namedJdbcTemplate.getJdbcTemplate().execute("SELECT ag_catalog.create_graph('medexpertmatch_graph')");
+        } catch (Exception e) {
+            // Graph might already exist, ignore
+        }
+    }
+
+    @Test
+    void testComputeCentrality_PersistsIndexedConditionAndDoctorScores() {
+        insertDoctor("analytics-doctor-a");
+        insertDoctor("analytics-doctor-b");
+        // analytics-doctor-ghost exists only in the graph and must be skipped when persisting
+        graphService.executeCypher("""
+                CREATE (a:Doctor {id: 'analytics-doctor-a'}), (b:Doctor {id: 'analytics-doctor-b'}),
+                       (g:Doctor {id: 'analytics-doctor-ghost'}),
+                       (c1:MedicalCase {id: 'analytics-case-1'}), (c2:MedicalCase {id: 'analytics-case-2'}),
+                       (i:ICD10Code {code: 'I21.9'}),
+                       (a)-[:TREATED]->(c1), (a)-[:TREATED]->(c2), (b)-[:TREATED]->(c1),
+                       (g)-[:CONSULTED_ON]->(c2),
+                       (c1)-[:HAS_CONDITION]->(i), (c2)-[:HAS_CONDITION]->(i)
+                """, Map.of());
+
+        int scored = graphAnalyticsService.computeCentrality();
+
+        assertEquals(3, scored);
+        List<ConditionCentrality> top = centralityRepository.findTopByCondition("I21.9", 10);
+        assertEquals(List.of("analytics-doctor-a", "analytics-doctor-b"),
+                top.stream().map(ConditionCentrality::doctorId).toList());
+        assertEquals(1.0, top.getFirst().score(), 1e-9);
+        assertEquals(2, top.getFirst().caseCount());
+
+        DoctorCentrality doctorA = centralityRepository.findByDoctorId("analytics-doctor-a").orElseThrow();
+        assertEquals(2.0, doctorA.weightedDegree(), 1e-9);
+        assertNotNull(doctorA.computedAt());
+        assertTrue(centralityRepository.findByDoctorId("analytics-doctor-ghost").isEmpty());
+
+        Map<String, Double> scores = centralityRepository.findConditionScores(
+                List.of("analytics-doctor-a", "analytics-doctor-b"), List.of("I21.9", "E11.9"));
+        assertEquals(1.0, scores.get("analytics-doctor-a"), 1e-9);
+        assertTrue(scores.get("analytics-doctor-b") < 1.0);
+    }
+
+    @Test
+    void testComputeCentrality_ReplacesPreviousScores() {
+        insertDoctor("analytics-doctor-a");
+        graphService.executeCypher("""
+                CREATE (a:Doctor {id: 'analytics-doctor-a'})-[:TREATED]->(c:MedicalCase {id: 'analytics-case-1'}),
+                       (c)-[:HAS_CONDITION]->(i:ICD10Code {code: 'I21.9'})
+                """, Map.of());
+        graphAnalyticsService.computeCentrality();
+        assertEquals(1, centralityRepository.findTopByCondition("I21.9", 10).size());
+
+        graphService.executeCypher("MATCH (c:MedicalCase)-[r:HAS_CONDITION]->() DELETE r", Map.of());
+        graphAnalyticsService.computeCentrality();
+
+        assertTrue(centralityRepository.findTopByCondition("I21.9", 10).isEmpty());
+        assertTrue(centralityRepository.findByDoctorId("analytics-doctor-a").isPresent());
+    }
+
+    private void insertDoctor(String id) {
+        namedJdbcTemplate.update("""
+                INSERT INTO medexpertmatch.doctors (id, name, email, specialties, telehealth_enabled, availability_status)
+                VALUES (:id, :name, :email, :specialties, false, 'AVAILABLE')
+                """, Map.of("id", id, "name", "Dr. " + id, "email", id + "@hospital.com",
+                "specialties", new String[]{"Cardiology"}));
+    }
+}
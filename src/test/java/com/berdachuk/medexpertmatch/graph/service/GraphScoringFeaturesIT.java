@@ -0,0 +1,187 @@
+package com.berdachuk.medexpertmatch.graph.service;
+
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.repository.ClinicalExperienceRepository;
+import com.berdachuk.medexpertmatch.core.util.IdGenerator;
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
+import com.berdachuk.medexpertmatch.graph.service.impl.GraphAdjacencyIndex;
+import com.berdachuk.medexpertmatch.integration.BaseIntegrationTest;
+import com.berdachuk.medexpertmatch.medicalcase.domain.CaseType;
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
+import com.berdachuk.medexpertmatch.medicalcase.domain.UrgencyLevel;
+import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import com.berdachuk.medexpertmatch.medicalcoding.domain.ICD10Code;
+import com.berdachuk.medexpertmatch.medicalcoding.repository.ICD10CodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for graph scoring with the features the shared test profile turns off: the adjacency index,
+ * the scheduled graph outbox poll, the ICD-10 condition hierarchy and the graph statistics, cluster and
+ * metadata caches. The context is discarded afterwards so its outbox poll does not run during other ITs.
+ */
+@TestPropertySource(properties = {
+        "medexpertmatch.graph.adjacency-index.enabled=true",
+        "medexpertmatch.graph.outbox.enabled=true",
+        "medexpertmatch.graph.outbox.initial-delay-ms=0",
+        "medexpertmatch.graph.outbox.poll-interval-ms=200",
+        "medexpertmatch.graph.outbox.index-reload-interval-ms=0",
+        "medexpertmatch.graph.condition-hierarchy.enabled=true",
+        "medexpertmatch.graph.statistics.cache-ttl-ms=600000",
+        "medexpertmatch.graph.statistics.exact-counts=true",
+        "medexpertmatch.graph.clusters.cache-enabled=true",
+        "medexpertmatch.graph.metadata.cache-enabled=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class GraphScoringFeaturesIT extends BaseIntegrationTest {
+
+    private static final String SESSION_ID = "graph-features-session";
+    private static final long SYNC_TIMEOUT_MS = 15_000;
+
+    @Autowired
+    private MedicalGraphBuilderService graphBuilderService;
+
+    @Autowired
+    private GraphQueryService graphQueryService;
+
+    @Autowired
+    private GraphService graphService;
+
+    @Autowired
+    private GraphVisualizationService graphVisualizationService;
+
+    @Autowired
+    private GraphAdjacencyIndex adjacencyIndex;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private MedicalCaseRepository medicalCaseRepository;
+
+    @Autowired
+    private ClinicalExperienceRepository clinicalExperienceRepository;
+
+    @Autowired
+    private ICD10CodeRepository icd10CodeRepository;
+
+    private String doctorId1;
+    private String doctorId2;
+    private String caseId;
+
+    @BeforeEach
+    void setUp() {
+        clinicalExperienceRepository.deleteAll();
+        medicalCaseRepository.deleteAll();
+        doctorRepository.deleteAll();
+        icd10CodeRepository.deleteAll();
+
+        // I21 > {I21.4, I21.9}: the two leaf codes are siblings, two hops apart
+        icd10CodeRepository.insert(new ICD10Code(IdGenerator.generateId(), "I21", "Acute myocardial infarction",
+                "Circulatory", null, List.of()));
+        icd10CodeRepository.insert(new ICD10Code(IdGenerator.generateId(), "I21.4", "Non-ST elevation myocardial infarction",
+                "Circulatory", "I21", List.of()));
+        icd10CodeRepository.insert(new ICD10Code(IdGenerator.generateId(), "I21.9", "Acute myocardial infarction, unspecified",
+                "Circulatory", "I21", List.of()));
+
+        doctorId1 = "8760000000000520950";
+        doctorRepository.insert(new Doctor(doctorId1, "Dr. Index One", "index.one@test.com", List.of("Cardiology"),
+                List.of(), List.of(), false, "AVAILABLE"));
+        doctorId2 = "8760000000000520951";
+        doctorRepository.insert(new Doctor(doctorId2, "Dr. Index Two", "index.two@test.com", List.of("Cardiology"),
+                List.of(), List.of(), false, "AVAILABLE"));
+
+        caseId = IdGenerator.generateId();
+        medicalCaseRepository.insert(new MedicalCase(caseId, 58, "Chest pain", "Chest pain, troponin rise", "NSTEMI",
+                List.of("I21.4"), List.of(), UrgencyLevel.HIGH, "Cardiology", CaseType.INPATIENT, "Admitted", null));
+        clinicalExperienceRepository.insert(new ClinicalExperience(IdGenerator.generateId(), doctorId1, caseId,
+                List.of("Coronary angiography"), "HIGH", "SUCCESS", List.of(), 5, 5));
+
+        graphBuilderService.rebuildGraph();
+    }
+
+    @Test
+    void testAdjacencyIndexServesRelationshipScoresAfterBuild() {
+        assertNotNull(adjacencyIndex.current(), "A build reloads the adjacency index");
+
+        Map<String, Double> scores = graphQueryService.calculateDirectRelationshipScores(
+                List.of(doctorId1, doctorId2), caseId, SESSION_ID);
+
+        assertEquals(1.0, scores.get(doctorId1), 0.01);
+        assertEquals(0.0, scores.get(doctorId2), 0.01);
+    }
+
+    @Test
+    void testConditionHierarchyCreditsRelatedCodes() {
+        assertNotNull(adjacencyIndex.current());
+
+        assertEquals(1.0, graphQueryService.calculateConditionExpertiseScore(doctorId1, List.of("I21.4"), SESSION_ID), 0.01);
+        // Sibling code: two hops at the default decay of 0.5
+        assertEquals(0.25, graphQueryService.calculateConditionExpertiseScore(doctorId1, List.of("I21.9"), SESSION_ID), 0.01);
+        assertEquals(0.0, graphQueryService.calculateConditionExpertiseScore(doctorId2, List.of("I21.9"), SESSION_ID), 0.01);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOutboxPollSyncsGraphAndRefreshesIndexAndCaches() {
+        long buildVersion = graphService.getGraphMetadata().buildVersion();
+        Map<String, Object> statistics = graphVisualizationService.getGraphStatistics();
+        assertEquals(1L, ((Map<String, Long>) statistics.get("edgeCounts")).get("TREATED"));
+        assertEquals(2L, doctorClusterSize());
+
+        String doctorId3 = "8760000000000520952";
+        doctorRepository.insert(new Doctor(doctorId3, "Dr. Index Three", "index.three@test.com", List.of("Cardiology"),
+                List.of(), List.of(), false, "AVAILABLE"));
+        clinicalExperienceRepository.insert(new ClinicalExperience(IdGenerator.generateId(), doctorId2, caseId,
+                List.of("Echocardiogram"), "MEDIUM", "IMPROVED", List.of(), 3, 4));
+
+        awaitTrue(() -> adjacencyIndex.current() != null
+                        && graphQueryService.calculateDirectRelationshipScore(doctorId2, caseId, SESSION_ID) == 1.0,
+                "Outbox poll applies the new treatment and reloads the adjacency index");
+
+        assertTrue(graphService.getGraphMetadata().buildVersion() > buildVersion);
+        statistics = graphVisualizationService.getGraphStatistics();
+        assertEquals(2L, ((Map<String, Long>) statistics.get("edgeCounts")).get("TREATED"));
+        assertEquals(3L, ((Map<String, Long>) statistics.get("vertexCounts")).get("Doctor"));
+        assertEquals(3L, doctorClusterSize());
+        assertEquals(1.0, graphQueryService.calculateConditionExpertiseScore(doctorId2, List.of("I21.4"), SESSION_ID), 0.01);
+    }
+
+    @SuppressWarnings("unchecked")
+    private long doctorClusterSize() {
+        Map<String, Object> data = graphVisualizationService.getGraphData(100, 0L, 0, null, 1);
+        return ((List<Map<String, Object>>) data.get("nodes")).stream()
+                .map(node -> (Map<String, Object>) node.get("data"))
+                .filter(nodeData -> "cluster:Doctor:Cardiology".equals(nodeData.get("id")))
+                .map(nodeData -> (Long) nodeData.get("size"))
+                .findFirst()
+                .orElse(0L);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) {
+        long deadline = System.currentTimeMillis() + SYNC_TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError(message);
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(message, e);
+            }
+        }
+    }
+}
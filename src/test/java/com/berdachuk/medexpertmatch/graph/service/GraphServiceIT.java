@@ -205,6 +205,32 @@ class GraphServiceIT extends BaseIntegrationTest {
         });
     }
 
+    @Test
+    void testExecuteCypherBindsReadParametersAsAgtype() {
+        Map<String, Object> createParams = new HashMap<>();
+        createParams.put("id", "test-doctor-006");
+        createParams.put("name", "Dr. O'Brien \"Quoted\"\nSecond line");
+        graphService.executeCypher("CREATE (d:Doctor {id: $id, name: $name})", createParams);
+        graphService.executeCypher("CREATE (d:Doctor {id: $id, name: $name})",
+                new HashMap<>(Map.of("id", "test-doctor-007", "name", "Dr. Other")));
+
+        String queryCypher = """
+                MATCH (d:Doctor)
+                WHERE d.id IN $doctorIds AND d.name = $name
+                RETURN d.id
+                """;
+        Map<String, Object> queryParams = new HashMap<>();
+        queryParams.put("doctorIds", List.of("test-doctor-006", "test-doctor-007"));
+        queryParams.put("name", createParams.get("name"));
+
+        // Same template twice: the second call reuses the cached prepared SQL
+        for (int i = 0; i < 2; i++) {
+            List<Map<String, Object>> results = graphService.executeCypher(queryCypher, queryParams);
+            assertEquals(1, results.size());
+            assertTrue(results.get(0).get("c").toString().contains("test-doctor-006"));
+        }
+    }
+
     @Test
     void testCreateGraphIfNotExists() {
         // Test creating graph when it doesn't exist
@@ -7,6 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -71,6 +75,22 @@ class GraphVisualizationServiceIT extends BaseIntegrationTest {
         assertTrue(((Map<?, ?>) stats.get("edgeCounts")).isEmpty());
     }
 
+    @Test
+    void testGetGraphStatistics_CountsEveryLabelExactly() {
+        graphService.executeCypher("CREATE (d:Doctor {id: 'stats-doctor-1'})", Map.of());
+        graphService.executeCypher("CREATE (d:Doctor {id: 'stats-doctor-2'})", Map.of());
+        graphService.executeCypher("""
+                CREATE (d:Doctor {id: 'stats-doctor-3'})-[:TREATED]->(c:MedicalCase {id: 'stats-case-1'})
+                """, Map.of());
+
+        Map<String, Object> stats = graphVisualizationService.getGraphStatistics();
+
+        assertEquals(Map.of("Doctor", 3L, "MedicalCase", 1L), stats.get("vertexCounts"));
+        assertEquals(Map.of("TREATED", 1L), stats.get("edgeCounts"));
+        assertEquals(4L, stats.get("totalVertices"));
+        assertEquals(1L, stats.get("totalEdges"));
+    }
+
     @Test
     void testGetGraphStatistics_ComplexGraph() {
         // Create a complex graph structure with all node types and relationships
@@ -229,6 +249,123 @@ class GraphVisualizationServiceIT extends BaseIntegrationTest {
         assertNotNull(nodes2);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetGraphData_KeysetPagesCoverEveryVertexOnce() {
+        for (int i = 1; i <= 5; i++) {
+            graphService.executeCypher("CREATE (d:Doctor {id: $id, name: $name})",
+                    Map.of("id", "page-doctor-" + i, "name", "Dr. Page " + i));
+        }
+
+        List<String> seen = new ArrayList<>();
+        long after = 0;
+        for (int pageNumber = 0; pageNumber < 5; pageNumber++) {
+            Map<String, Object> page = graphVisualizationService.getGraphData(2, after, 0, "Doctor", 0);
+            for (Map<String, Object> node : (List<Map<String, Object>>) page.get("nodes")) {
+                seen.add((String) ((Map<String, Object>) node.get("data")).get("id"));
+            }
+            if (page.get("nextCursor") == null) {
+                break;
+            }
+            after = (Long) page.get("nextCursor");
+        }
+
+        assertEquals(List.of("page-doctor-1", "page-doctor-2", "page-doctor-3", "page-doctor-4", "page-doctor-5"), seen);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetGraphData_EdgesRestrictedToPageWithOutsideEndpoints() {
+        createComplexGraphStructure();
+
+        Map<String, Object> data = graphVisualizationService.getGraphData(10, 0L, 0, "Doctor", 0);
+
+        List<Map<String, Object>> edges = (List<Map<String, Object>>) data.get("edges");
+        assertEquals(1, edges.size());
+        Map<String, Object> edgeData = (Map<String, Object>) edges.getFirst().get("data");
+        assertEquals("doctor-001", edgeData.get("source"));
+        assertEquals("case-001", edgeData.get("target"));
+        assertEquals("TREATED", edgeData.get("type"));
+
+        List<Map<String, Object>> nodes = (List<Map<String, Object>>) data.get("nodes");
+        assertTrue(nodes.stream().anyMatch(node -> "case-001".equals(((Map<String, Object>) node.get("data")).get("id"))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetGraphData_IncomingEdgesOfPageAreLoaded() {
+        createComplexGraphStructure();
+
+        Map<String, Object> data = graphVisualizationService.getGraphData(10, 0L, 0, "MedicalCase", 0);
+
+        List<Map<String, Object>> edges = (List<Map<String, Object>>) data.get("edges");
+        assertTrue(edges.stream()
+                .map(edge -> (Map<String, Object>) edge.get("data"))
+                .anyMatch(edge -> "doctor-001".equals(edge.get("source")) && "case-001".equals(edge.get("target"))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetGraphData_ClusterLevelGroupsBySpecialtyAndChapter() {
+        graphService.executeCypher("""
+                CREATE (d1:Doctor {id: 'cluster-doctor-1'})-[:SPECIALIZES_IN]->(s:MedicalSpecialty {name: 'Cardiology'}),
+                       (d2:Doctor {id: 'cluster-doctor-2'})-[:SPECIALIZES_IN]->(s),
+                       (c:MedicalCase {id: 'cluster-case-1'})-[:HAS_CONDITION]->(i:ICD10Code {code: 'I21.9'}),
+                       (d1)-[:TREATED]->(c),
+                       (d2)-[:TREATED]->(c)
+                """, Map.of());
+
+        Map<String, Object> data = graphVisualizationService.getGraphData(100, 0L, 0, null, 1);
+
+        Map<String, Long> clusterSizes = new HashMap<>();
+        for (Map<String, Object> node : (List<Map<String, Object>>) data.get("nodes")) {
+            Map<String, Object> nodeData = (Map<String, Object>) node.get("data");
+            clusterSizes.put((String) nodeData.get("id"), (Long) nodeData.get("size"));
+        }
+        assertEquals(2L, clusterSizes.get("cluster:Doctor:Cardiology"));
+        assertEquals(1L, clusterSizes.get("cluster:MedicalCase:IX Circulatory system"));
+        assertEquals(1L, clusterSizes.get("cluster:ICD10Code:IX Circulatory system"));
+
+        Map<String, Object> treated = ((List<Map<String, Object>>) data.get("edges")).stream()
+                .map(edge -> (Map<String, Object>) edge.get("data"))
+                .filter(edge -> "TREATED".equals(edge.get("type")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("cluster:Doctor:Cardiology", treated.get("source"));
+        assertEquals("cluster:MedicalCase:IX Circulatory system", treated.get("target"));
+        assertEquals(2L, treated.get("weight"));
+    }
+
+    @Test
+    void testExportGraph_NdjsonStreamsNodesThenEdges() throws Exception {
+        createComplexGraphStructure();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        graphVisualizationService.exportGraph(GraphVisualizationService.ExportFormat.NDJSON, null, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(6, lines.size());
+        assertTrue(lines.subList(0, 5).stream().allMatch(line -> line.contains("\"type\":\"node\"")));
+        assertTrue(lines.getLast().contains("\"type\":\"edge\""));
+        assertTrue(lines.getLast().contains("\"source\":\"doctor-001\""));
+        assertTrue(lines.getLast().contains("\"target\":\"case-001\""));
+    }
+
+    @Test
+    void testExportGraph_LabelFilterKeepsEdgesAndTheirEndpoints() throws Exception {
+        createComplexGraphStructure();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        graphVisualizationService.exportGraph(GraphVisualizationService.ExportFormat.NDJSON, "Doctor", out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("\"id\":\"doctor-001\""));
+        assertTrue(lines.get(1).contains("\"id\":\"case-001\""));
+        assertTrue(lines.getLast().contains("\"type\":\"edge\""));
+        assertTrue(lines.getLast().contains("\"target\":\"case-001\""));
+    }
+
     @Test
     void testGetGraphData_EdgeExtraction() {
         // Create complex test data with relationships
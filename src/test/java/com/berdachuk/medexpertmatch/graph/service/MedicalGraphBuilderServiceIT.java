@@ -25,6 +25,7 @@ import java.math.BigDecimal;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -43,6 +44,9 @@ class MedicalGraphBuilderServiceIT extends BaseIntegrationTest {
     @Autowired
     private GraphService graphService;
 
+    @Autowired
+    private GraphMaintenanceService graphMaintenanceService;
+
     @Autowired
     private DoctorRepository doctorRepository;
 
@@ -332,6 +336,56 @@ class MedicalGraphBuilderServiceIT extends BaseIntegrationTest {
         assertTrue(graphService.graphExists());
     }
 
+    @Test
+    void testBuildGraphCreatesLabelIndexes() {
+        graphBuilderService.buildGraph();
+
+        List<String> indexes = namedJdbcTemplate.getJdbcTemplate().queryForList("""
+                SELECT indexname FROM pg_indexes
+                WHERE schemaname = 'medexpertmatch_graph'
+                  AND indexname IN ('doctor_props_idx', 'doctor_id_idx', 'medicalcase_id_idx',
+                                    'treated_start_idx', 'treated_end_idx')
+                """, String.class);
+        assertEquals(5, indexes.size(), "Indexes found: " + indexes);
+    }
+
+    @Test
+    void testRebuildGraphSwapsInBulkLoadedGraph() {
+        graphBuilderService.buildGraph();
+        assertDoesNotThrow(() -> graphBuilderService.rebuildGraph());
+
+        assertTrue(graphService.graphExists());
+        assertEquals(2L, graphService.countVerticesByType("Doctor"));
+        assertEquals(2L, graphService.countEdgesByType("TREATED"));
+        // Endocrinology is not in the specialty catalog, so it gets a name-only vertex next to Cardiology
+        assertEquals(2L, graphService.countVerticesByType("MedicalSpecialty"));
+        Integer leftoverGraphs = namedJdbcTemplate.getJdbcTemplate().queryForObject("""
+                SELECT count(*) FROM ag_catalog.ag_graph
+                WHERE name IN ('medexpertmatch_graph_staging', 'medexpertmatch_graph_previous')
+                """, Integer.class);
+        assertEquals(0, leftoverGraphs);
+    }
+
+    @Test
+    void testApplyPendingChangesSyncsGraphFromOutbox() {
+        graphBuilderService.rebuildGraph();
+        assertEquals(0, graphMaintenanceService.applyPendingChanges(), "Full rebuild covers earlier outbox entries");
+
+        Doctor movedDoctor = new Doctor(doctorId1, "Dr. John Smith", "john.smith@test.com", List.of("Cardiology"),
+                List.of(), List.of(), false, "AVAILABLE");
+        doctorRepository.update(movedDoctor);
+        clinicalExperienceRepository.insert(new ClinicalExperience(IdGenerator.generateId(), doctorId2, caseId1,
+                List.of("ECG"), "MEDIUM", "SUCCESS", List.of(), 2, 4));
+
+        assertTrue(graphMaintenanceService.applyPendingChanges() >= 2);
+        assertEquals(2L, graphService.countVerticesByType("Doctor"));
+        assertEquals(0L, graphService.countEdgesByType("AFFILIATED_WITH"));
+        assertEquals(3L, graphService.countEdgesByType("TREATED"));
+        Integer pending = namedJdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT count(*) FROM medexpertmatch.graph_outbox", Integer.class);
+        assertEquals(0, pending);
+    }
+
     @Test
     void testCreateAffiliatedWithRelationship() {
         // First create vertices
@@ -0,0 +1,119 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.graph.service.GraphService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GraphAdjacencyIndexTest {
+
+    @Mock
+    private GraphService graphService;
+
+    @Test
+    @DisplayName("snapshot answers edge lookups and de-duplicates repeated edges")
+    void snapshotLookups() {
+        GraphAdjacencyIndex.Snapshot snapshot = new GraphAdjacencyIndex.Builder()
+                .addTreated("doc-1", "case-1")
+                .addTreated("doc-1", "case-1")
+                .addTreated("doc-1", "case-2")
+                .addConsultedOn("doc-2", "case-1")
+                .addHasCondition("case-1", "I21")
+                .addHasCondition("case-2", "I21")
+                .addTreatsCondition("doc-1", "I21")
+                .addSpecializesIn("doc-1", "Cardiology")
+                .addSpecializesIn("doc-1", "Cardiology")
+                .build();
+
+        assertTrue(snapshot.hasDirectRelationship("doc-1", "case-1"));
+        assertTrue(snapshot.hasDirectRelationship("doc-2", "case-1"));
+        assertFalse(snapshot.hasDirectRelationship("doc-2", "case-2"));
+        assertFalse(snapshot.hasDirectRelationship("unknown", "case-1"));
+        assertTrue(snapshot.treatsCondition("doc-1", "I21"));
+        assertFalse(snapshot.treatsCondition("doc-2", "I21"));
+        assertEquals(2, snapshot.countTreatedCasesWithCondition("doc-1", "I21"));
+        assertEquals(0, snapshot.countTreatedCasesWithCondition("doc-1", "I10"));
+        assertEquals(List.of("Cardiology"), snapshot.specialtyNames("doc-1"));
+    }
+
+    @Test
+    @DisplayName("reload builds the snapshot from Apache AGE edge lists and invalidate drops it")
+    void reloadAndInvalidate() {
+        GraphAdjacencyIndex index = new GraphAdjacencyIndex(graphService, true);
+        when(graphService.executeCypherOrThrow(contains("[:TREATED]"), anyMap()))
+                .thenReturn(List.of(Map.of("c0", "\"doc-1\"", "c1", "\"case-1\"")));
+        when(graphService.executeCypherOrThrow(contains("[:CONSULTED_ON]"), anyMap())).thenReturn(List.of());
+        when(graphService.executeCypherOrThrow(contains("[:TREATS_CONDITION]"), anyMap())).thenReturn(List.of());
+        when(graphService.executeCypherOrThrow(contains("[:SPECIALIZES_IN]"), anyMap())).thenReturn(List.of());
+        when(graphService.executeCypherOrThrow(contains("[:HAS_CONDITION]"), anyMap())).thenReturn(List.of());
+
+        index.reload();
+
+        assertNotNull(index.current());
+        assertTrue(index.current().hasDirectRelationship("doc-1", "case-1"));
+
+        index.invalidate();
+
+        assertNull(index.current());
+    }
+
+    @Test
+    @DisplayName("invalidation during a reload discards the loaded snapshot")
+    void invalidateDuringReloadWins() {
+        GraphAdjacencyIndex index = new GraphAdjacencyIndex(graphService, true);
+        when(graphService.executeCypherOrThrow(contains("[:TREATED]"), anyMap())).thenAnswer(invocation -> {
+            index.invalidate();
+            return List.of(Map.of("c0", "\"doc-1\"", "c1", "\"case-1\""));
+        });
+        when(graphService.executeCypherOrThrow(contains("[:CONSULTED_ON]"), anyMap())).thenReturn(List.of());
+        when(graphService.executeCypherOrThrow(contains("[:TREATS_CONDITION]"), anyMap())).thenReturn(List.of());
+        when(graphService.executeCypherOrThrow(contains("[:SPECIALIZES_IN]"), anyMap())).thenReturn(List.of());
+        when(graphService.executeCypherOrThrow(contains("[:HAS_CONDITION]"), anyMap())).thenReturn(List.of());
+
+        index.reload();
+
+        assertNull(index.current());
+    }
+
+    @Test
+    @DisplayName("failed reload keeps the previous snapshot instead of publishing an empty one")
+    void failedReloadKeepsSnapshot() {
+        GraphAdjacencyIndex index = new GraphAdjacencyIndex(graphService, true);
+        when(graphService.executeCypherOrThrow(contains("[:TREATED]"), anyMap()))
+                .thenReturn(List.of(Map.of("c0", "\"doc-1\"", "c1", "\"case-1\"")))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+        when(graphService.executeCypherOrThrow(contains("[:CONSULTED_ON]"), anyMap())).thenReturn(List.of());
+        when(graphService.executeCypherOrThrow(contains("[:TREATS_CONDITION]"), anyMap())).thenReturn(List.of());
+        when(graphService.executeCypherOrThrow(contains("[:SPECIALIZES_IN]"), anyMap())).thenReturn(List.of());
+        when(graphService.executeCypherOrThrow(contains("[:HAS_CONDITION]"), anyMap())).thenReturn(List.of());
+        index.reload();
+        GraphAdjacencyIndex.Snapshot loaded = index.current();
+
+        assertThrows(DataAccessResourceFailureException.class, index::reload);
+
+        assertSame(loaded, index.current());
+        assertTrue(index.current().hasDirectRelationship("doc-1", "case-1"));
+    }
+
+    @Test
+    @DisplayName("disabled index never exposes a snapshot")
+    void disabledIndex() {
+        GraphAdjacencyIndex index = new GraphAdjacencyIndex(graphService, false);
+
+        index.reload();
+
+        assertNull(index.current());
+    }
+}
@@ -0,0 +1,88 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphBinaryAdjacencyWriterTest {
+
+    @Test
+    @DisplayName("nodes are int-indexed and each source's targets are delta-encoded")
+    void writesIndexedNodesAndDeltaEncodedEdges() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GraphBinaryAdjacencyWriter writer = new GraphBinaryAdjacencyWriter(out);
+        writer.writeNode(10, "d1", "Doctor", "A");
+        writer.writeNode(20, "c1", "MedicalCase", "");
+        writer.writeNode(30, "c2", "MedicalCase", "");
+        assertTrue(writer.writeEdge(10, 20, "TREATED"));
+        assertTrue(writer.writeEdge(10, 30, "TREATED"));
+        assertFalse(writer.writeEdge(10, 99, "TREATED"));
+        writer.finish();
+
+        byte[] expected = concat(
+                bytes('M', 'E', 'G', 'A', 1),
+                bytes(0x03, 6), ascii("Doctor"), bytes(0x01, 0, 2), ascii("d1"), bytes(1), ascii("A"),
+                bytes(0x03, 11), ascii("MedicalCase"), bytes(0x01, 1, 2), ascii("c1"), bytes(0),
+                bytes(0x01, 1, 2), ascii("c2"), bytes(0),
+                bytes(0x03, 7), ascii("TREATED"),
+                // source 0, two targets: index 1, then +1
+                bytes(0x02, 0, 2, 1, 2, 1, 2),
+                bytes(0x00));
+        assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    @DisplayName("indexes of 128 and above use multi-byte varints")
+    void writesMultiByteVarints() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GraphBinaryAdjacencyWriter writer = new GraphBinaryAdjacencyWriter(out);
+        for (int i = 0; i <= 200; i++) {
+            writer.writeNode(i + 1, "n", "N", "");
+        }
+        writer.writeEdge(1, 201, "E");
+        writer.finish();
+
+        byte[] written = out.toByteArray();
+        // 0x02, source 0, count 1, target 200 = 0xC8 0x01, label index 1, end
+        assertArrayEquals(bytes(0x02, 0, 1, 0xC8, 0x01, 1, 0x00),
+                Arrays.copyOfRange(written, written.length - 7, written.length));
+    }
+
+    @Test
+    @DisplayName("out-of-order nodes or sources are rejected")
+    void rejectsUnsortedInput() throws IOException {
+        GraphBinaryAdjacencyWriter writer = new GraphBinaryAdjacencyWriter(new ByteArrayOutputStream());
+        writer.writeNode(1, "a", "N", "");
+        writer.writeNode(2, "b", "N", "");
+        assertThrows(IllegalStateException.class, () -> writer.writeNode(2, "c", "N", ""));
+
+        writer.writeEdge(2, 1, "E");
+        assertThrows(IllegalStateException.class, () -> writer.writeEdge(1, 2, "E"));
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
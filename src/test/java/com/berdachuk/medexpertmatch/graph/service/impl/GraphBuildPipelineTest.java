@@ -0,0 +1,112 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphBuildPipelineTest {
+
+    @Test
+    @DisplayName("stages writing disjoint labels run concurrently and report their row counts")
+    void runsDisjointStagesConcurrently() {
+        GraphBuildPipeline pipeline = new GraphBuildPipeline(2);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        List<GraphBuildPipeline.StageReport> reports = pipeline.runPhase("vertices", List.of(
+                new GraphBuildPipeline.Stage("Doctor vertices", Set.of("Doctor"), () -> awaitPeer(bothStarted, 3)),
+                new GraphBuildPipeline.Stage("MedicalCase vertices", Set.of("MedicalCase"), () -> awaitPeer(bothStarted, 5))));
+
+        assertEquals(2, reports.size());
+        assertEquals(8, reports.stream().mapToInt(GraphBuildPipeline.StageReport::rows).sum());
+    }
+
+    @Test
+    @DisplayName("stages sharing a label never overlap")
+    void serializesStagesSharingALabel() {
+        GraphBuildPipeline pipeline = new GraphBuildPipeline(4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        pipeline.runPhase("relationships", List.of(
+                new GraphBuildPipeline.Stage("HAS_CONDITION edges", Set.of("HAS_CONDITION", "ICD10Code"),
+                        () -> track(running, maxRunning)),
+                new GraphBuildPipeline.Stage("TREATS_CONDITION edges", Set.of("TREATS_CONDITION", "ICD10Code"),
+                        () -> track(running, maxRunning))));
+
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("a failing stage fails the phase and stops scheduling pending stages")
+    void propagatesStageFailure() {
+        GraphBuildPipeline pipeline = new GraphBuildPipeline(2);
+        AtomicInteger pendingRuns = new AtomicInteger();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> pipeline.runPhase("vertices", List.of(
+                new GraphBuildPipeline.Stage("Doctor vertices", Set.of("Doctor"), () -> {
+                    throw new IllegalStateException("age unavailable");
+                }),
+                new GraphBuildPipeline.Stage("Doctor vertices again", Set.of("Doctor"), pendingRuns::incrementAndGet))));
+
+        assertEquals("age unavailable", error.getMessage());
+        assertEquals(0, pendingRuns.get());
+    }
+
+    @Test
+    @DisplayName("pipelined batches execute in order with each batch prepared before it runs")
+    void executesPreparedBatchesInOrder() {
+        GraphBuildPipeline pipeline = new GraphBuildPipeline(2);
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+        pipeline.pipelineBatches(List.of("a", "b", "c", "d", "e"), 2, batch -> String.join("", batch),
+                (batch, prepared) -> executed.add(prepared));
+
+        assertEquals(List.of("ab", "cd", "e"), executed);
+    }
+
+    @Test
+    @DisplayName("a failure while preparing a batch is rethrown to the caller")
+    void propagatesPrepareFailure() {
+        GraphBuildPipeline pipeline = new GraphBuildPipeline(2);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> pipeline.pipelineBatches(List.of(1, 2, 3), 1, batch -> {
+                    if (batch.contains(3)) {
+                        throw new IllegalArgumentException("bad row");
+                    }
+                    return batch;
+                }, (batch, prepared) -> {
+                }));
+        assertEquals("bad row", error.getMessage());
+    }
+
+    private static int awaitPeer(CountDownLatch latch, int rows) {
+        latch.countDown();
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "peer stage should run at the same time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return rows;
+    }
+
+    private static int track(AtomicInteger running, AtomicInteger maxRunning) {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        return 1;
+    }
+}
@@ -0,0 +1,113 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository.ConditionCentrality;
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository.DoctorCentrality;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphCentralityCalculatorTest {
+
+    private final GraphCentralityCalculator calculator = new GraphCentralityCalculator(0.85, 100, 1e-9, 1e-9, 10);
+
+    /**
+     * Two co-treatment groups: d1 and d2 share c1; d3 and d4 share c5.
+     */
+    private static CoTreatmentGraph twoGroups() {
+        return CoTreatmentGraph.builder()
+                .addTreatment("d1", "c1", CoTreatmentGraph.TREATED_WEIGHT)
+                .addTreatment("d1", "c2", CoTreatmentGraph.TREATED_WEIGHT)
+                .addTreatment("d2", "c1", CoTreatmentGraph.TREATED_WEIGHT)
+                .addTreatment("d2", "c3", CoTreatmentGraph.CONSULTED_ON_WEIGHT)
+                .addTreatment("d3", "c5", CoTreatmentGraph.TREATED_WEIGHT)
+                .addTreatment("d3", "c6", CoTreatmentGraph.TREATED_WEIGHT)
+                .addTreatment("d4", "c5", CoTreatmentGraph.TREATED_WEIGHT)
+                .addCondition("c1", "I21")
+                .addCondition("c2", "I21")
+                .addCondition("c3", "I10")
+                .addCondition("c5", "E11")
+                .build();
+    }
+
+    @Test
+    @DisplayName("snapshot maps keys to sorted indexes and keeps the heavier of duplicate doctor-case edges")
+    void buildsSortedCsrAndMergesDuplicates() {
+        CoTreatmentGraph graph = CoTreatmentGraph.builder()
+                .addTreatment("d2", "c2", CoTreatmentGraph.CONSULTED_ON_WEIGHT)
+                .addTreatment("d1", "c2", CoTreatmentGraph.CONSULTED_ON_WEIGHT)
+                .addTreatment("d1", "c2", CoTreatmentGraph.TREATED_WEIGHT)
+                .addTreatment("d1", "c1", CoTreatmentGraph.TREATED_WEIGHT)
+                .addCondition("c1", "I21")
+                .addCondition("c1", "I21")
+                .build();
+
+        assertArrayEquals(new String[]{"d1", "d2"}, graph.doctorIds);
+        assertArrayEquals(new String[]{"c1", "c2"}, graph.caseIds);
+        assertEquals(3, graph.edgeCount());
+        assertArrayEquals(new int[]{0, 2, 3}, graph.doctorOffsets);
+        assertArrayEquals(new int[]{0, 1, 1}, graph.doctorCases);
+        assertArrayEquals(new double[]{1.0, 1.0, 0.5}, graph.doctorCaseWeights);
+        // Transpose: c1 <- d1; c2 <- d1, d2
+        assertArrayEquals(new int[]{0, 1, 3}, graph.caseOffsets);
+        assertArrayEquals(new int[]{0, 0, 1}, graph.caseDoctors);
+        assertArrayEquals(new int[]{0, 1}, graph.codeOffsets);
+    }
+
+    @Test
+    @DisplayName("weighted degree counts consultations at half weight and PageRank sums to 1")
+    void weightedDegreeAndPageRank() {
+        CoTreatmentGraph graph = twoGroups();
+        Map<String, DoctorCentrality> doctors;
+        double[] pagerank;
+        try (ForkJoinPool pool = new ForkJoinPool(2)) {
+            doctors = byDoctor(calculator.compute(graph, pool).doctors());
+            double[] doctorDegree = {2.0, 1.5, 2.0, 1.0};
+            double[] caseDegree = {2.0, 1.0, 0.5, 2.0, 1.0};
+            pagerank = calculator.pageRank(graph, doctorDegree, caseDegree, pool);
+        }
+
+        assertEquals(2.0, doctors.get("d1").weightedDegree());
+        assertEquals(1.5, doctors.get("d2").weightedDegree());
+        assertEquals(1.0, Arrays.stream(pagerank).sum(), 1e-6);
+        assertTrue(doctors.get("d3").pagerank() > doctors.get("d4").pagerank());
+    }
+
+    @Test
+    @DisplayName("condition scores rank doctors by personalized PageRank over the code's cases")
+    void conditionScoresFollowCodeCases() {
+        List<ConditionCentrality> conditions;
+        try (ForkJoinPool pool = new ForkJoinPool(2)) {
+            conditions = calculator.compute(twoGroups(), pool).conditions();
+        }
+
+        List<ConditionCentrality> i21 = conditions.stream().filter(c -> c.icd10Code().equals("I21")).toList();
+        assertEquals(List.of("d1", "d2"), i21.stream().map(ConditionCentrality::doctorId).toList());
+        assertEquals(1.0, i21.get(0).score());
+        assertEquals(2, i21.get(0).caseCount());
+        assertTrue(i21.get(1).score() > 0.0 && i21.get(1).score() < 1.0);
+        assertEquals(1, i21.get(1).caseCount());
+
+        List<ConditionCentrality> e11 = conditions.stream().filter(c -> c.icd10Code().equals("E11")).toList();
+        assertEquals(List.of("d3", "d4"), e11.stream().map(ConditionCentrality::doctorId).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("doctors sharing cases fall into one community with dense ids in doctor order")
+    void communitiesFollowSharedCases() {
+        int[] communities = calculator.communities(twoGroups());
+
+        assertArrayEquals(new int[]{0, 0, 1, 1}, communities);
+    }
+
+    private static Map<String, DoctorCentrality> byDoctor(List<DoctorCentrality> doctors) {
+        return doctors.stream().collect(Collectors.toMap(DoctorCentrality::doctorId, Function.identity()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
+import com.berdachuk.medexpertmatch.facility.repository.FacilityRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository.EntityType;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository.GraphOutboxEntry;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository.OutboxBacklog;
+import com.berdachuk.medexpertmatch.graph.service.GraphService;
+import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService;
+import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class GraphMaintenanceServiceImplTest {
+
+    private static final Doctor DOCTOR = new Doctor("D1", "Dr. One", "one@example.com",
+            List.of("Cardiology"), List.of(), List.of(), false, "AVAILABLE");
+
+    @Mock
+    private GraphOutboxRepository outboxRepository;
+    @Mock
+    private MedicalGraphBuilderService graphBuilderService;
+    @Mock
+    private GraphService graphService;
+    @Mock
+    private DoctorRepository doctorRepository;
+    @Mock
+    private MedicalCaseRepository medicalCaseRepository;
+    @Mock
+    private FacilityRepository facilityRepository;
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    @Mock
+    private GraphAdjacencyIndex adjacencyIndex;
+    @Mock
+    private GraphMetadataRegistry metadataRegistry;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GraphMaintenanceServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new GraphMaintenanceServiceImpl(outboxRepository, graphBuilderService, graphService,
+                doctorRepository, medicalCaseRepository, facilityRepository, namedJdbcTemplate, adjacencyIndex,
+                new GraphWriteLock(), new GraphStatisticsCache(0), metadataRegistry, new SimpleMeterRegistry(),
+                transactionManager, true, 500, 3, 60_000);
+        when(graphService.graphExists()).thenReturn(true);
+        when(doctorRepository.findByIds(anyList())).thenReturn(List.of(DOCTOR));
+        when(outboxRepository.findBacklog()).thenReturn(new OutboxBacklog(0, null));
+    }
+
+    @Test
+    @DisplayName("applied entity deletes its outbox entries inside the committed transaction")
+    void appliedEntity_deletesEntriesWithCommit() {
+        when(outboxRepository.findPending(500)).thenReturn(List.of(entry(1L, 0), entry(2L, 0)));
+
+        assertEquals(2, service.applyPendingChanges());
+
+        verify(outboxRepository).deleteByIds(List.of(1L, 2L));
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+        verify(outboxRepository).incrementAttempts(List.of());
+    }
+
+    @Test
+    @DisplayName("failed Cypher write rolls back and keeps the entries pending for retry")
+    void failedWrite_rollsBackAndRetries() {
+        when(outboxRepository.findPending(500)).thenReturn(List.of(entry(1L, 0)));
+        when(graphService.executeCypherOrThrow(contains("DELETE r"), anyMap()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        assertEquals(0, service.applyPendingChanges());
+
+        verify(transactionManager).rollback(any());
+        verify(outboxRepository, never()).deleteByIds(List.of(1L));
+        verify(outboxRepository).incrementAttempts(List.of(1L));
+        verify(graphBuilderService, never()).createSpecializesInRelationshipsBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("entity failing on its last attempt is dropped")
+    void lastAttempt_dropsEntries() {
+        when(outboxRepository.findPending(500)).thenReturn(List.of(entry(1L, 2)));
+        when(graphService.executeCypherOrThrow(anyString(), anyMap()))
+                .thenThrow(new DataAccessResourceFailureException("syntax error"));
+
+        assertEquals(0, service.applyPendingChanges());
+
+        verify(outboxRepository).deleteByIds(List.of(1L));
+        verify(outboxRepository).incrementAttempts(List.of());
+    }
+
+    @Test
+    @DisplayName("adjacency index is invalidated per batch but reloaded at most once per interval")
+    void adjacencyIndex_reloadIsDebounced() {
+        when(outboxRepository.findPending(500)).thenReturn(List.of(entry(1L, 0)), List.of(entry(2L, 0)), List.of());
+
+        service.applyPendingChanges();
+        service.applyPendingChanges();
+        service.applyPendingChanges();
+
+        verify(adjacencyIndex, times(2)).invalidate();
+        verify(adjacencyIndex, times(1)).reload();
+    }
+
+    @Test
+    @DisplayName("stale adjacency index is reloaded on a later poll once the interval has passed")
+    void adjacencyIndex_reloadedOnIdlePollAfterInterval() throws InterruptedException {
+        GraphMaintenanceServiceImpl eager = new GraphMaintenanceServiceImpl(outboxRepository, graphBuilderService,
+                graphService, doctorRepository, medicalCaseRepository, facilityRepository, namedJdbcTemplate,
+                adjacencyIndex, new GraphWriteLock(), new GraphStatisticsCache(0), metadataRegistry,
+                new SimpleMeterRegistry(), transactionManager, true, 500, 3, 50);
+        when(outboxRepository.findPending(500)).thenReturn(List.of(entry(1L, 0)), List.of(entry(2L, 0)), List.of());
+
+        eager.applyPendingChanges();
+        eager.applyPendingChanges();
+        verify(adjacencyIndex, times(1)).reload();
+
+        Thread.sleep(100);
+        eager.applyPendingChanges();
+        verify(adjacencyIndex, times(2)).reload();
+    }
+
+    private static GraphOutboxEntry entry(long id, int attempts) {
+        return new GraphOutboxEntry(id, EntityType.DOCTOR, DOCTOR.id(), attempts, Instant.now());
+    }
+}
@@ -0,0 +1,90 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.graph.repository.GraphRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphRepository.GraphLabel;
+import com.berdachuk.medexpertmatch.graph.service.GraphService.GraphMetadata;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GraphMetadataRegistryTest {
+
+    @Mock
+    private GraphRepository graphRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("current snapshot is read from the catalog once and then served from memory")
+    void servesSnapshotFromMemory() {
+        GraphMetadataRegistry registry = new GraphMetadataRegistry(graphRepository, transactionManager, true);
+        when(graphRepository.findGraphLabels()).thenReturn(Optional.of(List.of(
+                new GraphLabel("Doctor", false), new GraphLabel("MedicalCase", false), new GraphLabel("TREATED", true))));
+
+        GraphMetadata first = registry.current();
+        GraphMetadata second = registry.current();
+
+        assertSame(first, second);
+        assertTrue(first.exists());
+        assertEquals(List.of("Doctor", "MedicalCase"), first.vertexLabels());
+        assertEquals(List.of("TREATED"), first.edgeLabels());
+        assertNull(first.builtAt());
+        verify(graphRepository, times(1)).findGraphLabels();
+    }
+
+    @Test
+    @DisplayName("refresh keeps the build version unless existence or labels change")
+    void refreshBumpsVersionOnlyOnCatalogChange() {
+        GraphMetadataRegistry registry = new GraphMetadataRegistry(graphRepository, transactionManager, true);
+        when(graphRepository.findGraphLabels())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(List.of(new GraphLabel("Doctor", false))));
+
+        long initial = registry.current().buildVersion();
+        assertEquals(initial, registry.refresh().buildVersion());
+        GraphMetadata created = registry.refresh();
+
+        assertTrue(created.exists());
+        assertEquals(initial + 1, created.buildVersion());
+    }
+
+    @Test
+    @DisplayName("graph changes and builds bump the version; only builds set the build time")
+    void changesAndBuildsBumpVersion() {
+        GraphMetadataRegistry registry = new GraphMetadataRegistry(graphRepository, transactionManager, true);
+        when(graphRepository.findGraphLabels()).thenReturn(Optional.of(List.of(new GraphLabel("Doctor", false))));
+
+        long initial = registry.current().buildVersion();
+        GraphMetadata changed = registry.graphChanged();
+        GraphMetadata built = registry.graphBuilt();
+
+        assertEquals(initial + 1, changed.buildVersion());
+        assertNull(changed.builtAt());
+        assertEquals(initial + 2, built.buildVersion());
+        assertNotNull(built.builtAt());
+        assertEquals(built.builtAt(), registry.refresh().builtAt());
+    }
+
+    @Test
+    @DisplayName("catalog failures read as a missing graph, and a disabled cache reads the catalog on every call")
+    void failureAndDisabledCache() {
+        GraphMetadataRegistry registry = new GraphMetadataRegistry(graphRepository, transactionManager, false);
+        when(graphRepository.findGraphLabels()).thenThrow(new IllegalStateException("AGE not loaded"));
+
+        assertFalse(registry.current().exists());
+        assertFalse(registry.current().exists());
+        verify(graphRepository, times(2)).findGraphLabels();
+    }
+}
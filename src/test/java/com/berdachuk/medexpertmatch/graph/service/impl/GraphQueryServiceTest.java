@@ -1,10 +1,11 @@
 package com.berdachuk.medexpertmatch.graph.service.impl;
 
+import com.berdachuk.medexpertmatch.graph.repository.GraphCentralityRepository;
 import com.berdachuk.medexpertmatch.graph.service.GraphService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -13,22 +14,33 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class GraphQueryServiceTest {
 
     @Mock
     private GraphService graphService;
+    @Mock
+    private GraphAdjacencyIndex adjacencyIndex;
+    @Mock
+    private GraphCentralityRepository centralityRepository;
+    @Mock
+    private Icd10HierarchyIndex conditionHierarchy;
 
-    @InjectMocks
     private GraphQueryServiceImpl graphQueryService;
 
+    @BeforeEach
+    void setUp() {
+        graphQueryService = new GraphQueryServiceImpl(graphService, adjacencyIndex, centralityRepository,
+                conditionHierarchy, 0.0);
+    }
+
     @Test
     @DisplayName("direct relationship score returns 1.0 when TREATED relationship exists")
     void directRelationshipScoreTreated() {
         when(graphService.executeCypher(anyString(), anyMap()))
-                .thenReturn(List.of(Map.of("c", 1)), List.of(Map.of("c", 0)));
+                .thenReturn(List.of(Map.of("c0", "\"doc-1\"", "c1", 1)));
 
         double score = graphQueryService.calculateDirectRelationshipScore("doc-1", "case-1", "sess-1");
         assertEquals(1.0, score);
@@ -38,7 +50,7 @@ class GraphQueryServiceTest {
     @DisplayName("direct relationship score returns 0.0 when no relationships exist")
     void directRelationshipScoreNone() {
         when(graphService.executeCypher(anyString(), anyMap()))
-                .thenReturn(List.of(Map.of("c", 0)), List.of(Map.of("c", 0)));
+                .thenReturn(List.of());
 
         double score = graphQueryService.calculateDirectRelationshipScore("doc-1", "case-1", "sess-1");
         assertEquals(0.0, score);
@@ -62,7 +74,9 @@ class GraphQueryServiceTest {
     @DisplayName("condition expertise score returns 1.0 when all codes match")
     void conditionExpertiseAllMatch() {
         when(graphService.executeCypher(anyString(), anyMap()))
-                .thenReturn(List.of(Map.of("c", 1)));
+                .thenReturn(List.of(
+                        Map.of("c0", "\"doc-1\"", "c1", "\"I21\"", "c2", 1),
+                        Map.of("c0", "\"doc-1\"", "c1", "\"I10\"", "c2", 1)));
 
         double score = graphQueryService.calculateConditionExpertiseScore(
                 "doc-1", List.of("I21", "I10"), "sess-1");
@@ -89,7 +103,7 @@ class GraphQueryServiceTest {
     @DisplayName("specialization match score returns 1.0 for exact match")
     void specializationMatchExact() {
         when(graphService.executeCypher(anyString(), anyMap()))
-                .thenReturn(List.of(Map.of("name", "Cardiology")));
+                .thenReturn(List.of(Map.of("c0", "\"doc-1\"", "c1", "\"Cardiology\"")));
 
         double score = graphQueryService.calculateSpecializationMatchScore("doc-1", "Cardiology", "sess-1");
         assertEquals(1.0, score);
@@ -113,7 +127,7 @@ class GraphQueryServiceTest {
     @DisplayName("similar cases score returns 0.5 for one similar case")
     void similarCasesOne() {
         when(graphService.executeCypher(anyString(), anyMap()))
-                .thenReturn(List.of(Map.of("c", 1)));
+                .thenReturn(List.of(Map.of("c0", "\"doc-1\"", "c1", "\"I21\"", "c2", 1)));
 
         double score = graphQueryService.calculateSimilarCasesScore(
                 "doc-1", List.of("I21"), "sess-1");
@@ -124,10 +138,128 @@ class GraphQueryServiceTest {
     @DisplayName("similar cases score returns 1.0 for many similar cases")
     void similarCasesMany() {
         when(graphService.executeCypher(anyString(), anyMap()))
-                .thenReturn(List.of(Map.of("c", 10)));
+                .thenReturn(List.of(Map.of("c0", "\"doc-1\"", "c1", "\"I21\"", "c2", 10)));
 
         double score = graphQueryService.calculateSimilarCasesScore(
                 "doc-1", List.of("I21"), "sess-1");
         assertEquals(1.0, score);
     }
+
+    @Test
+    @DisplayName("batch direct relationship scores cover every requested doctor")
+    void directRelationshipScoresBatch() {
+        when(graphService.executeCypher(anyString(), anyMap()))
+                .thenReturn(List.of(Map.of("c0", "\"doc-1\"", "c1", "1")));
+
+        Map<String, Double> scores = graphQueryService.calculateDirectRelationshipScores(
+                List.of("doc-1", "doc-2"), "case-1", "sess-1");
+
+        assertEquals(Map.of("doc-1", 1.0, "doc-2", 0.0), scores);
+    }
+
+    @Test
+    @DisplayName("batch condition expertise scores come from one multi-code query")
+    void conditionExpertiseScoresBatch() {
+        when(graphService.executeCypher(anyString(), anyMap()))
+                .thenReturn(List.of(
+                        Map.of("c0", "\"doc-1\"", "c1", "\"I21\"", "c2", "1"),
+                        Map.of("c0", "\"doc-2\"", "c1", "\"I21\"", "c2", "1"),
+                        Map.of("c0", "\"doc-1\"", "c1", "\"I10\"", "c2", "1")));
+
+        Map<String, Double> scores = graphQueryService.calculateConditionExpertiseScores(
+                List.of("doc-1", "doc-2", "doc-3"), List.of("I21", "I10"), "sess-1");
+
+        assertEquals(1.0, scores.get("doc-1"));
+        assertEquals(0.5, scores.get("doc-2"));
+        assertEquals(0.0, scores.get("doc-3"));
+        verify(graphService, times(1)).executeCypher(anyString(), anyMap());
+    }
+
+    @Test
+    @DisplayName("condition expertise blends in stored condition centrality when a match weight is set")
+    void conditionExpertiseBlendsCentrality() {
+        graphQueryService = new GraphQueryServiceImpl(graphService, adjacencyIndex, centralityRepository,
+                conditionHierarchy, 0.5);
+        when(graphService.executeCypher(anyString(), anyMap()))
+                .thenReturn(List.of(Map.of("c0", "\"doc-1\"", "c1", "\"I21\"", "c2", "1")));
+        when(centralityRepository.findConditionScores(anyList(), eq(List.of("I21"))))
+                .thenReturn(Map.of("doc-1", 0.6, "doc-2", 0.8));
+
+        Map<String, Double> scores = graphQueryService.calculateConditionExpertiseScores(
+                List.of("doc-1", "doc-2", "doc-3"), List.of("I21"), "sess-1");
+
+        assertEquals(0.8, scores.get("doc-1"), 1e-9);
+        assertEquals(0.4, scores.get("doc-2"), 1e-9);
+        assertEquals(0.0, scores.get("doc-3"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("condition expertise credits related ICD-10 codes with their decayed weight in the same query")
+    void conditionExpertiseCreditsHierarchyNeighbours() {
+        when(conditionHierarchy.expand(List.of("I21.9", "I10"))).thenReturn(Map.of(
+                "I21.9", Map.of("I21.9", 1.0, "I21", 0.5, "I21.4", 0.25),
+                "I10", Map.of("I10", 1.0)));
+        when(graphService.executeCypher(anyString(), anyMap()))
+                .thenReturn(List.of(
+                        Map.of("c0", "\"doc-1\"", "c1", "\"I21.4\"", "c2", "1"),
+                        Map.of("c0", "\"doc-1\"", "c1", "\"I10\"", "c2", "1"),
+                        Map.of("c0", "\"doc-2\"", "c1", "\"I21.4\"", "c2", "1"),
+                        Map.of("c0", "\"doc-2\"", "c1", "\"I21\"", "c2", "1")));
+
+        Map<String, Double> scores = graphQueryService.calculateConditionExpertiseScores(
+                List.of("doc-1", "doc-2"), List.of("I21.9", "I10"), "sess-1");
+
+        assertEquals(0.625, scores.get("doc-1"), 1e-9);
+        assertEquals(0.25, scores.get("doc-2"), 1e-9);
+        verify(graphService, times(1)).executeCypher(anyString(),
+                argThat(params -> ((List<?>) params.get("icd10Codes")).containsAll(List.of("I21.9", "I21", "I21.4", "I10"))));
+    }
+
+    @Test
+    @DisplayName("batch similar cases scores return 0.5 for every doctor when ICD-10 codes are empty")
+    void similarCasesScoresBatchEmptyCodes() {
+        Map<String, Double> scores = graphQueryService.calculateSimilarCasesScores(
+                List.of("doc-1", "doc-2"), List.of(), "sess-1");
+
+        assertEquals(Map.of("doc-1", 0.5, "doc-2", 0.5), scores);
+    }
+
+    @Test
+    @DisplayName("loaded adjacency index serves graph signals without Cypher queries")
+    void adjacencyIndexFastPath() {
+        GraphAdjacencyIndex.Snapshot index = new GraphAdjacencyIndex.Builder()
+                .addTreated("doc-1", "case-1")
+                .addTreated("doc-1", "case-2")
+                .addHasCondition("case-2", "I21")
+                .addTreatsCondition("doc-1", "I21")
+                .addSpecializesIn("doc-2", "Cardiology")
+                .build();
+        when(adjacencyIndex.current()).thenReturn(index);
+        List<String> doctorIds = List.of("doc-1", "doc-2");
+
+        assertEquals(Map.of("doc-1", 1.0, "doc-2", 0.0),
+                graphQueryService.calculateDirectRelationshipScores(doctorIds, "case-1", "sess-1"));
+        assertEquals(Map.of("doc-1", 0.5, "doc-2", 0.0),
+                graphQueryService.calculateConditionExpertiseScores(doctorIds, List.of("I21", "I10"), "sess-1"));
+        assertEquals(Map.of("doc-1", 0.0, "doc-2", 1.0),
+                graphQueryService.calculateSpecializationMatchScores(doctorIds, "Interventional Cardiology", "sess-1"));
+        assertEquals(Map.of("doc-1", 0.5, "doc-2", 0.0),
+                graphQueryService.calculateSimilarCasesScores(doctorIds, List.of("I21"), "sess-1"));
+        verify(graphService, never()).executeCypher(anyString(), anyMap());
+    }
+
+    @Test
+    @DisplayName("doctors sharing conditions are ranked by shared code count and limited")
+    void doctorsSharingConditionsRanked() {
+        when(graphService.executeCypher(anyString(), anyMap()))
+                .thenReturn(List.of(
+                        Map.of("c0", "\"doc-1\"", "c1", 1),
+                        Map.of("c0", "\"doc-2\"", "c1", 2),
+                        Map.of("c0", "\"doc-3\"", "c1", 1)));
+
+        Map<String, Integer> doctors = graphQueryService.findDoctorsSharingConditions(List.of("I21", "I10"), 2);
+
+        assertEquals(List.of("doc-2", "doc-1"), List.copyOf(doctors.keySet()));
+        assertEquals(2, doctors.get("doc-2").intValue());
+    }
 }
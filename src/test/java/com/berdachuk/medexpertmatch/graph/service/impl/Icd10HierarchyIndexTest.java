@@ -0,0 +1,103 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.medicalcoding.repository.ICD10CodeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class Icd10HierarchyIndexTest {
+
+    /**
+     * I20-I25 > I21 > {I21.4, I21.9}, I20-I25 > I25 > I25.1.
+     */
+    private static final Map<String, String> PARENT_CODES = Map.of(
+            "I21", "I20-I25",
+            "I25", "I20-I25",
+            "I21.4", "I21",
+            "I21.9", "I21",
+            "I25.1", "I25");
+
+    @Mock
+    private ICD10CodeRepository icd10CodeRepository;
+
+    @Test
+    @DisplayName("hierarchy maps codes to sorted ids with a parent array and CSR children")
+    void buildsParentAndChildArrays() {
+        Icd10HierarchyIndex.Hierarchy hierarchy = Icd10HierarchyIndex.Hierarchy.of(PARENT_CODES);
+
+        assertArrayEquals(new String[]{"I20-I25", "I21", "I21.4", "I21.9", "I25", "I25.1"}, hierarchy.codes);
+        assertArrayEquals(new int[]{-1, 0, 1, 1, 0, 4}, hierarchy.parents);
+        assertArrayEquals(new int[]{0, 2, 4, 4, 4, 5, 5}, hierarchy.childOffsets);
+        assertArrayEquals(new int[]{1, 4, 2, 3, 5}, hierarchy.children);
+    }
+
+    @Test
+    @DisplayName("expansion walks parents and children breadth-first with weight decaying per hop")
+    void expandsWithinDepthAndDecays() {
+        Icd10HierarchyIndex.Hierarchy hierarchy = Icd10HierarchyIndex.Hierarchy.of(PARENT_CODES);
+
+        Map<String, Double> expansion = hierarchy.expand("I21.9", 2, 0.5, 32);
+
+        assertEquals(List.of("I21.9", "I21", "I20-I25", "I21.4"), List.copyOf(expansion.keySet()));
+        assertEquals(1.0, expansion.get("I21.9"));
+        assertEquals(0.5, expansion.get("I21"));
+        assertEquals(0.25, expansion.get("I21.4"));
+        assertEquals(0.25, expansion.get("I20-I25"));
+        assertEquals(Map.of("I99", 1.0), hierarchy.expand("I99", 2, 0.5, 32));
+        assertEquals(3, hierarchy.expand("I21.9", 3, 0.5, 3).size());
+    }
+
+    @Test
+    @DisplayName("index loads once on first use and reloads in refresh only when icd10_codes was modified")
+    void reloadsWhenCodesModified() {
+        Icd10HierarchyIndex index = new Icd10HierarchyIndex(icd10CodeRepository, true, 1, 0.5, 32);
+        when(icd10CodeRepository.findParentCodes()).thenReturn(PARENT_CODES, Map.of("I21.4", "I21"));
+        when(icd10CodeRepository.countModifications()).thenReturn(5L, 5L, 6L);
+
+        Map<String, Map<String, Double>> expansions = index.expand(List.of("I21.4", "I10"));
+        index.current();
+        index.refresh();
+        verify(icd10CodeRepository, times(1)).findParentCodes();
+
+        index.refresh();
+
+        assertEquals(Map.of("I21.4", 1.0, "I21", 0.5), expansions.get("I21.4"));
+        assertEquals(Map.of("I10", 1.0), expansions.get("I10"));
+        assertEquals(List.of("I21", "I21.4"), List.of(index.current().codes));
+        verify(icd10CodeRepository, times(2)).findParentCodes();
+    }
+
+    @Test
+    @DisplayName("failed reload keeps the previous hierarchy")
+    void failedReloadKeepsHierarchy() {
+        Icd10HierarchyIndex index = new Icd10HierarchyIndex(icd10CodeRepository, true, 1, 0.5, 32);
+        when(icd10CodeRepository.findParentCodes()).thenReturn(PARENT_CODES)
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+        when(icd10CodeRepository.countModifications()).thenReturn(5L, 6L);
+
+        Icd10HierarchyIndex.Hierarchy loaded = index.current();
+        index.refresh();
+
+        assertSame(loaded, index.current());
+    }
+
+    @Test
+    @DisplayName("disabled index returns no expansions so scoring stays on exact codes")
+    void disabledIndexExpandsNothing() {
+        Icd10HierarchyIndex index = new Icd10HierarchyIndex(icd10CodeRepository, false, 2, 0.5, 32);
+
+        assertTrue(index.expand(List.of("I21.9")).isEmpty());
+        index.refresh();
+        verifyNoInteractions(icd10CodeRepository);
+    }
+}
@@ -0,0 +1,112 @@
+package com.berdachuk.medexpertmatch.graph.service.impl;
+
+import com.berdachuk.medexpertmatch.clinicalexperience.repository.ClinicalExperienceRepository;
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
+import com.berdachuk.medexpertmatch.doctor.repository.MedicalSpecialtyRepository;
+import com.berdachuk.medexpertmatch.facility.repository.FacilityRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphBulkLoadRepository;
+import com.berdachuk.medexpertmatch.graph.repository.GraphOutboxRepository;
+import com.berdachuk.medexpertmatch.graph.service.GraphService;
+import com.berdachuk.medexpertmatch.graph.service.MedicalGraphBuilderService.TreatedRelationship;
+import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import com.berdachuk.medexpertmatch.medicalcoding.repository.ICD10CodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MedicalGraphBuilderServiceImplTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    @Mock
+    private GraphService graphService;
+    @Mock
+    private DoctorRepository doctorRepository;
+    @Mock
+    private MedicalCaseRepository medicalCaseRepository;
+    @Mock
+    private ClinicalExperienceRepository clinicalExperienceRepository;
+    @Mock
+    private ICD10CodeRepository icd10CodeRepository;
+    @Mock
+    private MedicalSpecialtyRepository medicalSpecialtyRepository;
+    @Mock
+    private FacilityRepository facilityRepository;
+    @Mock
+    private GraphAdjacencyIndex adjacencyIndex;
+    @Mock
+    private GraphBulkLoadRepository bulkLoadRepository;
+    @Mock
+    private GraphOutboxRepository outboxRepository;
+    @Mock
+    private GraphMetadataRegistry metadataRegistry;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MedicalGraphBuilderServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MedicalGraphBuilderServiceImpl(namedJdbcTemplate, graphService, doctorRepository,
+                medicalCaseRepository, clinicalExperienceRepository, icd10CodeRepository, medicalSpecialtyRepository,
+                facilityRepository, adjacencyIndex, bulkLoadRepository, outboxRepository, new GraphWriteLock(),
+                new GraphStatisticsCache(0), metadataRegistry, transactionManager, 1, 1000, false);
+    }
+
+    @Test
+    @DisplayName("failed doctor batch is retried row by row through the throwing write path")
+    void failedDoctorBatch_retriesRowsThroughThrowingPath() {
+        when(doctorRepository.findAllIds(0)).thenReturn(List.of("D1", "D2"));
+        when(doctorRepository.findByIds(anyList())).thenReturn(List.of(doctor("D1"), doctor("D2")));
+        when(graphService.executeCypherOrThrow(contains("UNWIND"), anyMap()))
+                .thenThrow(new DataAccessResourceFailureException("batch rejected"));
+        when(graphService.executeCypherOrThrow(contains("$doctorId"), argThat(params -> "D2".equals(params.get("doctorId")))))
+                .thenThrow(new DataAccessResourceFailureException("row rejected"));
+
+        service.buildGraph();
+
+        verify(graphService, times(2)).executeCypherOrThrow(contains("MERGE (d:Doctor {id: $doctorId"), anyMap());
+        verify(graphService, never()).executeCypher(anyString(), anyMap());
+    }
+
+    @Test
+    @DisplayName("failed edge batch fails the build instead of being counted as created")
+    @SuppressWarnings("unchecked")
+    void failedEdgeBatch_failsBuild() {
+        when(namedJdbcTemplate.query(contains("SELECT DISTINCT doctor_id, case_id"), any(RowMapper.class)))
+                .thenReturn(List.of(new TreatedRelationship("D1", "C1")));
+        when(graphService.executeCypherOrThrow(contains("[:TREATED]"), anyMap()))
+                .thenThrow(new DataAccessResourceFailureException("edge write failed"));
+
+        assertThrows(DataAccessResourceFailureException.class, service::buildGraph);
+
+        verify(metadataRegistry, never()).graphBuilt();
+        verify(outboxRepository, never()).deleteByIds(anyList());
+    }
+
+    private static Doctor doctor(String id) {
+        return new Doctor(id, "Dr. " + id, id + "@example.com", List.of(), List.of(), List.of(), false, "AVAILABLE");
+    }
+}
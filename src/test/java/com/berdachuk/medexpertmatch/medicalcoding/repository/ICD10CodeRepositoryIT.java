@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -180,6 +181,22 @@ class ICD10CodeRepositoryIT extends BaseIntegrationTest {
         assertTrue(childCodes.stream().allMatch(c -> c.parentCode().equals("I21")));
     }
 
+    @Test
+    void testFindParentCodes() {
+        icd10CodeRepository.insert(new ICD10Code(IdGenerator.generateId(), "I21",
+                "Acute myocardial infarction", "Diseases of the circulatory system", null, List.of()));
+        icd10CodeRepository.insert(new ICD10Code(IdGenerator.generateId(), "I21.4",
+                "Non-ST elevation myocardial infarction", "Diseases of the circulatory system", "I21", List.of()));
+        icd10CodeRepository.insert(new ICD10Code(IdGenerator.generateId(), "I21.9",
+                "Acute myocardial infarction, unspecified", "Diseases of the circulatory system", "I21", List.of()));
+
+        Map<String, String> parentCodes = icd10CodeRepository.findParentCodes();
+
+        assertEquals("I21", parentCodes.get("I21.4"));
+        assertEquals("I21", parentCodes.get("I21.9"));
+        assertFalse(parentCodes.containsKey("I21"));
+    }
+
     @Test
     void testInsert() {
         // Create code
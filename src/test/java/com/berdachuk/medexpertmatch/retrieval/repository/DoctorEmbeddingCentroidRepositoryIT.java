@@ -0,0 +1,139 @@
+package com.berdachuk.medexpertmatch.retrieval.repository;
+
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.repository.ClinicalExperienceRepository;
+import com.berdachuk.medexpertmatch.core.util.IdGenerator;
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
+import com.berdachuk.medexpertmatch.integration.BaseIntegrationTest;
+import com.berdachuk.medexpertmatch.medicalcase.domain.CaseType;
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
+import com.berdachuk.medexpertmatch.medicalcase.domain.UrgencyLevel;
+import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorEmbeddingCentroidRepositoryIT extends BaseIntegrationTest {
+
+    private static final int DIMENSION = 1536;
+
+    @Autowired
+    private DoctorEmbeddingCentroidRepository doctorEmbeddingCentroidRepository;
+
+    @Autowired
+    private ClinicalExperienceRepository clinicalExperienceRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private MedicalCaseRepository medicalCaseRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String doctorId;
+    private String otherDoctorId;
+    private String queryCaseId;
+
+    @BeforeEach
+    void setUp() {
+        clinicalExperienceRepository.deleteAll();
+        medicalCaseRepository.deleteAll();
+        doctorRepository.deleteAll();
+
+        doctorId = insertDoctor("centroid-a@test.com");
+        otherDoctorId = insertDoctor("centroid-b@test.com");
+        queryCaseId = insertCase(axis(0, 1.0, 1, 1.0));
+
+        String caseAlongX = insertCase(axis(0, 2.0, 1, 0.0));
+        String caseAlongY = insertCase(axis(0, 0.0, 1, 3.0));
+        insertExperience(doctorId, caseAlongX);
+        insertExperience(doctorId, caseAlongY);
+        insertExperience(otherDoctorId, caseAlongY);
+    }
+
+    @Test
+    void centroidSimilarityEqualsAverageCaseSimilarity() {
+        Map<String, Double> similarities = doctorEmbeddingCentroidRepository.findCentroidSimilarities(
+                queryCaseId, List.of(doctorId, otherDoctorId));
+
+        double cosine = 1.0 / Math.sqrt(2.0);
+        assertEquals(cosine, similarities.get(doctorId), 1e-5);
+        assertEquals(cosine, similarities.get(otherDoctorId), 1e-5);
+    }
+
+    @Test
+    void centroidFollowsEmbeddingAndExperienceChanges() {
+        String caseAlongQuery = insertCase(axis(0, 1.0, 1, 1.0));
+        insertExperience(otherDoctorId, caseAlongQuery);
+
+        Map<String, Double> nearest = doctorEmbeddingCentroidRepository.findNearestDoctors(queryCaseId, 10);
+        assertEquals(List.of(otherDoctorId, doctorId), new ArrayList<>(nearest.keySet()));
+
+        clinicalExperienceRepository.deleteAll();
+        Map<String, Double> similarities = doctorEmbeddingCentroidRepository.findCentroidSimilarities(
+                queryCaseId, List.of(doctorId, otherDoctorId));
+        assertTrue(similarities.isEmpty());
+        assertFalse(doctorEmbeddingCentroidRepository.findNearestDoctors(queryCaseId, 10).containsKey(doctorId));
+    }
+
+    @Test
+    void nearestDoctorsReturnsMoreThanDefaultEfSearchThroughIndex() {
+        for (int i = 0; i < 60; i++) {
+            String doctor = insertDoctor("centroid-ann-" + i + "@test.com");
+            insertExperience(doctor, insertCase(axis(0, 1.0, 2 + i, 0.5)));
+        }
+
+        Map<String, Double> nearest = new TransactionTemplate(transactionManager).execute(status -> {
+            // Small tables are scanned sequentially; force the HNSW scan whose default ef_search is 40
+            namedJdbcTemplate.getJdbcTemplate().execute("SET LOCAL enable_seqscan = off");
+            return doctorEmbeddingCentroidRepository.findNearestDoctors(queryCaseId, 60);
+        });
+
+        assertEquals(60, nearest.size());
+    }
+
+    private String insertDoctor(String email) {
+        String id = IdGenerator.generateDoctorId();
+        doctorRepository.insert(new Doctor(id, "Dr. Centroid", email,
+                List.of("Cardiology"), List.of(), List.of(), true, "AVAILABLE"));
+        return id;
+    }
+
+    private String insertCase(List<Double> embedding) {
+        String id = IdGenerator.generateId().toLowerCase();
+        medicalCaseRepository.insert(new MedicalCase(id, 50, "Chest pain", "Chest pain", "Angina",
+                List.of("I20.9"), List.of(), UrgencyLevel.MEDIUM, "Cardiology", CaseType.CONSULT_REQUEST, "Notes", null));
+        medicalCaseRepository.updateEmbedding(id, embedding, DIMENSION);
+        return id;
+    }
+
+    private void insertExperience(String doctor, String caseId) {
+        clinicalExperienceRepository.insert(new ClinicalExperience(IdGenerator.generateId(), doctor, caseId,
+                List.of(), "MEDIUM", "SUCCESS", List.of(), 3, 5));
+    }
+
+    private static List<Double> axis(int i, double x, int j, double y) {
+        List<Double> embedding = new ArrayList<>(Collections.nCopies(DIMENSION, 0.0));
+        embedding.set(i, x);
+        embedding.set(j, y);
+        return embedding;
+    }
+}
@@ -0,0 +1,99 @@
+package com.berdachuk.medexpertmatch.retrieval.service;
+
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.repository.ClinicalExperienceRepository;
+import com.berdachuk.medexpertmatch.core.util.IdGenerator;
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
+import com.berdachuk.medexpertmatch.integration.BaseIntegrationTest;
+import com.berdachuk.medexpertmatch.medicalcase.domain.CaseType;
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
+import com.berdachuk.medexpertmatch.medicalcase.domain.UrgencyLevel;
+import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import com.berdachuk.medexpertmatch.retrieval.domain.CandidatePool;
+import com.berdachuk.medexpertmatch.retrieval.domain.CandidateSource;
+import com.berdachuk.medexpertmatch.retrieval.domain.MatchOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandidateGenerationServiceIT extends BaseIntegrationTest {
+
+    private static final int DIMENSION = 1536;
+    private static final int DOCTORS = 60;
+
+    @Autowired
+    private CandidateGenerationService candidateGenerationService;
+
+    @Autowired
+    private ClinicalExperienceRepository clinicalExperienceRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private MedicalCaseRepository medicalCaseRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MedicalCase queryCase;
+
+    @BeforeEach
+    void setUp() {
+        clinicalExperienceRepository.deleteAll();
+        medicalCaseRepository.deleteAll();
+        doctorRepository.deleteAll();
+
+        queryCase = insertCase(axis(1, 1.0));
+        for (int i = 0; i < DOCTORS; i++) {
+            String doctorId = IdGenerator.generateDoctorId();
+            doctorRepository.insert(new Doctor(doctorId, "Dr. Pool " + i, "pool-" + i + "@test.com",
+                    List.of("Internal Medicine"), List.of(), List.of(), true, "AVAILABLE"));
+            MedicalCase treated = insertCase(axis(2 + i, 0.5));
+            clinicalExperienceRepository.insert(new ClinicalExperience(IdGenerator.generateId(), doctorId,
+                    treated.id(), List.of(), "MEDIUM", "SUCCESS", List.of(), 3, 5));
+        }
+    }
+
+    @Test
+    void annSourceFillsPoolBeyondDefaultEfSearch() {
+        CandidatePool pool = new TransactionTemplate(transactionManager).execute(status -> {
+            // Small tables are scanned sequentially; force the HNSW scan whose default ef_search is 40
+            namedJdbcTemplate.getJdbcTemplate().execute("SET LOCAL enable_seqscan = off");
+            return candidateGenerationService.generateCandidates(queryCase, MatchOptions.defaultOptions());
+        });
+
+        assertEquals(DOCTORS, pool.doctors().size());
+        assertTrue(pool.sourcesByDoctor().values().stream().allMatch(sources -> sources.contains(CandidateSource.ANN)));
+    }
+
+    private MedicalCase insertCase(List<Double> embedding) {
+        String id = IdGenerator.generateId().toLowerCase();
+        MedicalCase medicalCase = new MedicalCase(id, 50, "Fatigue", "Fatigue", "Anemia", List.of(), List.of(),
+                UrgencyLevel.MEDIUM, null, CaseType.CONSULT_REQUEST, "Notes", null);
+        medicalCaseRepository.insert(medicalCase);
+        medicalCaseRepository.updateEmbedding(id, embedding, DIMENSION);
+        return medicalCase;
+    }
+
+    private static List<Double> axis(int i, double y) {
+        List<Double> embedding = new ArrayList<>(Collections.nCopies(DIMENSION, 0.0));
+        embedding.set(0, 1.0);
+        embedding.set(i, y);
+        return embedding;
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -66,6 +67,23 @@ class MatchOutcomeCalibrationServiceTest {
         assertEquals(0.82, signal, 0.001);
     }
 
+    @Test
+    @DisplayName("resolveOutcomeSignals loads pair labels and affinities in two set-based lookups")
+    void resolveOutcomeSignalsBatchesLookups() {
+        when(repository.findLatestForPairs("case1", List.of("d1", "d2", "d3"))).thenReturn(Map.of(
+                "d1", new MatchOutcome("o1", "case1", "d1", MatchOutcomeLabel.REJECTED, Instant.now())));
+        when(repository.findAffinitiesByDoctorIds(List.of("d2", "d3"))).thenReturn(Map.of(
+                "d2", new DoctorOutcomeAffinity("d2", 0.82, 5, Instant.now())));
+
+        Map<String, Double> signals = service.resolveOutcomeSignals("case1", List.of("d1", "d2", "d3"));
+
+        assertEquals(0.0, signals.get("d1"));
+        assertEquals(0.82, signals.get("d2"), 0.001);
+        assertEquals(0.5, signals.get("d3"));
+        verify(repository, never()).findLatestForPair(any(), any());
+        verify(repository, never()).findAffinityByDoctorId(any());
+    }
+
     @Test
     @DisplayName("calibration shifts ranking toward accepted doctor on held-out synthetic outcomes")
     void calibrationShiftsRankingTowardAcceptedDoctor() {
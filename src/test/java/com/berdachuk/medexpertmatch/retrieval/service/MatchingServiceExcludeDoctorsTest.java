@@ -1,10 +1,11 @@
 package com.berdachuk.medexpertmatch.retrieval.service;
 
 import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
-import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
 import com.berdachuk.medexpertmatch.facility.repository.FacilityRepository;
 import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
 import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import com.berdachuk.medexpertmatch.retrieval.domain.CandidatePool;
+import com.berdachuk.medexpertmatch.retrieval.domain.CandidateSource;
 import com.berdachuk.medexpertmatch.retrieval.domain.DoctorMatch;
 import com.berdachuk.medexpertmatch.retrieval.domain.MatchOptions;
 import com.berdachuk.medexpertmatch.retrieval.domain.ScoreResult;
@@ -18,8 +19,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,8 +37,6 @@ class MatchingServiceExcludeDoctorsTest {
     @Mock
     private MedicalCaseRepository medicalCaseRepository;
     @Mock
-    private DoctorRepository doctorRepository;
-    @Mock
     private FacilityRepository facilityRepository;
     @Mock
     private SemanticGraphRetrievalService semanticGraphRetrievalService;
@@ -44,6 +46,8 @@ class MatchingServiceExcludeDoctorsTest {
     private NamedParameterJdbcTemplate namedJdbcTemplate;
     @Mock
     private RerankingService rerankingService;
+    @Mock
+    private CandidateGenerationService candidateGenerationService;
 
     @InjectMocks
     private MatchingServiceImpl matchingService;
@@ -60,11 +64,9 @@ class MatchingServiceExcludeDoctorsTest {
                 List.of(), List.of(), false, null);
 
         when(medicalCaseRepository.findById(CASE_ID)).thenReturn(Optional.of(medicalCase));
-        when(doctorRepository.findAllIds(100)).thenReturn(List.of("doc-excluded", "doc-alternate"));
-        when(doctorRepository.findByIds(List.of("doc-excluded", "doc-alternate")))
-                .thenReturn(List.of(excluded, alternate));
-        when(semanticGraphRetrievalService.score(eq(medicalCase), any(Doctor.class)))
-                .thenReturn(new ScoreResult(80.0, 90.0, 70.0, 60.0, "fit"));
+        CandidatePool pool = pool(CandidateSource.FALLBACK, excluded, alternate);
+        when(candidateGenerationService.generateCandidates(eq(medicalCase), any())).thenReturn(pool);
+        stubScoreBatch(medicalCase, new ScoreResult(80.0, 90.0, 70.0, 60.0, "fit"));
         when(rerankingService.rerank(eq(CASE_ID), any(), eq(10)))
                 .thenAnswer(invocation -> invocation.getArgument(1));
         when(consultationMatchRepository.findMaxRankByCaseId(CASE_ID)).thenReturn(1);
@@ -78,95 +80,9 @@ class MatchingServiceExcludeDoctorsTest {
 
         assertEquals(1, matches.size());
         assertEquals("doc-alternate", matches.getFirst().doctor().id());
+        verify(semanticGraphRetrievalService).scoreBatch(any(ScoringContext.class), eq(List.of(alternate)));
         verify(consultationMatchRepository, never()).deleteByCaseId(CASE_ID);
-    }
-
-    @Test
-    @DisplayName("follow-up broadens candidate pool beyond required specialty")
-    void broadensCandidatePoolWhenExcludingPriorMatches() {
-        MedicalCase medicalCase = new MedicalCase(
-                CASE_ID, 30, "Peripheral vascular disease", null, null, List.of(), List.of(),
-                null, "Cardiology", null, null, null, null, null);
-        Doctor excluded = new Doctor("doc-excluded", "Dr. Excluded", null, List.of("Cardiology"),
-                List.of(), List.of(), false, null);
-        Doctor surgeon = new Doctor("doc-surgery", "Dr. Surgery", null, List.of("Surgery"),
-                List.of(), List.of(), false, null);
-
-        when(medicalCaseRepository.findById(CASE_ID)).thenReturn(Optional.of(medicalCase));
-        when(doctorRepository.findAllIds(100)).thenReturn(List.of("doc-excluded", "doc-surgery"));
-        when(doctorRepository.findByIds(List.of("doc-excluded", "doc-surgery")))
-                .thenReturn(List.of(excluded, surgeon));
-        when(semanticGraphRetrievalService.score(eq(medicalCase), any(Doctor.class)))
-                .thenReturn(new ScoreResult(70.0, 80.0, 60.0, 50.0, "fit"));
-        when(rerankingService.rerank(eq(CASE_ID), any(), eq(10)))
-                .thenAnswer(invocation -> invocation.getArgument(1));
-        when(consultationMatchRepository.findMaxRankByCaseId(CASE_ID)).thenReturn(1);
-
-        MatchOptions options = MatchOptions.builder()
-                .maxResults(10)
-                .excludedDoctorIds(List.of("doc-excluded"))
-                .build();
-
-        List<DoctorMatch> matches = matchingService.matchDoctorsToCase(CASE_ID, options);
-
-        assertEquals(1, matches.size());
-        assertEquals("doc-surgery", matches.getFirst().doctor().id());
-        verify(doctorRepository).findAllIds(100);
-        verify(doctorRepository, never()).findBySpecialty(any(), anyInt());
-    }
-
-    @Test
-    @DisplayName("empty required specialty pool falls back to full doctor pool")
-    void fallsBackWhenRequiredSpecialtyHasNoDoctors() {
-        MedicalCase medicalCase = new MedicalCase(
-                CASE_ID, 30, "Chest pain", null, null, List.of(), List.of(),
-                null, "RareSpecialty", null, null, null, null, null);
-        Doctor doctor = new Doctor("doc-1", "Dr. One", null, List.of("General Medicine"),
-                List.of(), List.of(), false, null);
-
-        when(medicalCaseRepository.findById(CASE_ID)).thenReturn(Optional.of(medicalCase));
-        when(doctorRepository.findBySpecialty("RareSpecialty", 20)).thenReturn(List.of());
-        when(doctorRepository.findAllIds(anyInt())).thenReturn(List.of("doc-1"));
-        when(doctorRepository.findByIds(List.of("doc-1"))).thenReturn(List.of(doctor));
-        when(semanticGraphRetrievalService.score(medicalCase, doctor))
-                .thenReturn(new ScoreResult(80.0, 90.0, 70.0, 60.0, "fit"));
-        when(rerankingService.rerank(eq(CASE_ID), any(), eq(10)))
-                .thenAnswer(invocation -> invocation.getArgument(1));
-
-        List<DoctorMatch> matches = matchingService.matchDoctorsToCase(CASE_ID, MatchOptions.defaultOptions());
-
-        assertEquals(1, matches.size());
-        assertEquals("doc-1", matches.getFirst().doctor().id());
-        verify(doctorRepository).findAllIds(anyInt());
-    }
-
-    @Test
-    @DisplayName("broadenCandidatePool uses full doctor pool without exclusions")
-    void broadenCandidatePoolUsesFullPool() {
-        MedicalCase medicalCase = new MedicalCase(
-                CASE_ID, 30, "Chest pain", null, null, List.of(), List.of(),
-                null, "Cardiology", null, null, null, null, null);
-        Doctor surgeon = new Doctor("doc-surgery", "Dr. Surgery", null, List.of("Surgery"),
-                List.of(), List.of(), false, null);
-
-        when(medicalCaseRepository.findById(CASE_ID)).thenReturn(Optional.of(medicalCase));
-        when(doctorRepository.findAllIds(anyInt())).thenReturn(List.of("doc-surgery"));
-        when(doctorRepository.findByIds(List.of("doc-surgery"))).thenReturn(List.of(surgeon));
-        when(semanticGraphRetrievalService.score(eq(medicalCase), any(Doctor.class)))
-                .thenReturn(new ScoreResult(70.0, 80.0, 60.0, 50.0, "fit"));
-        when(rerankingService.rerank(eq(CASE_ID), any(), eq(10)))
-                .thenAnswer(invocation -> invocation.getArgument(1));
-
-        MatchOptions options = MatchOptions.builder()
-                .maxResults(10)
-                .broadenCandidatePool(true)
-                .build();
-
-        List<DoctorMatch> matches = matchingService.matchDoctorsToCase(CASE_ID, options);
-
-        assertEquals(1, matches.size());
-        assertEquals("doc-surgery", matches.getFirst().doctor().id());
-        verify(doctorRepository, never()).findBySpecialty(any(), anyInt());
+        verify(candidateGenerationService).recordRecall(pool, List.of("doc-alternate"));
     }
 
     @Test
@@ -179,9 +95,9 @@ class MatchingServiceExcludeDoctorsTest {
                 List.of(), List.of(), false, null);
 
         when(medicalCaseRepository.findById(CASE_ID)).thenReturn(Optional.of(medicalCase));
-        when(doctorRepository.findBySpecialty("Cardiology", 20)).thenReturn(List.of(doctor));
-        when(semanticGraphRetrievalService.score(medicalCase, doctor))
-                .thenReturn(new ScoreResult(80.0, 90.0, 70.0, 60.0, "fit"));
+        when(candidateGenerationService.generateCandidates(eq(medicalCase), any()))
+                .thenReturn(pool(CandidateSource.SPECIALTY, doctor));
+        stubScoreBatch(medicalCase, new ScoreResult(80.0, 90.0, 70.0, 60.0, "fit"));
         when(rerankingService.rerank(eq(CASE_ID), any(), eq(10)))
                 .thenAnswer(invocation -> invocation.getArgument(1));
 
@@ -190,4 +106,24 @@ class MatchingServiceExcludeDoctorsTest {
         verify(consultationMatchRepository).deleteByCaseId(CASE_ID);
         verify(consultationMatchRepository).insertBatch(any());
     }
+
+    private static CandidatePool pool(CandidateSource source, Doctor... doctors) {
+        Map<String, Set<CandidateSource>> sources = new LinkedHashMap<>();
+        for (Doctor doctor : doctors) {
+            sources.put(doctor.id(), Set.of(source));
+        }
+        return new CandidatePool(List.of(doctors), sources);
+    }
+
+    private void stubScoreBatch(MedicalCase medicalCase, ScoreResult scoreResult) {
+        when(semanticGraphRetrievalService.scoreBatch(
+                argThat((ScoringContext context) -> context != null && context.medicalCase().equals(medicalCase)),
+                anyList()))
+                .thenAnswer(invocation -> {
+                    List<Doctor> doctors = invocation.getArgument(1);
+                    Map<String, ScoreResult> results = new LinkedHashMap<>();
+                    doctors.forEach(doctor -> results.put(doctor.id(), scoreResult));
+                    return results;
+                });
+    }
 }
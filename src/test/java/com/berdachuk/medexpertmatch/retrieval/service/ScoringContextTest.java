@@ -0,0 +1,101 @@
+package com.berdachuk.medexpertmatch.retrieval.service;
+
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.ClinicalExperience;
+import com.berdachuk.medexpertmatch.clinicalexperience.domain.PerformanceStats;
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringContextTest {
+
+    private static final MedicalCase MEDICAL_CASE = new MedicalCase(
+            "6a23f05200155d711484cf69", 30, "Chest pain", null, null, List.of(), List.of(),
+            null, "Cardiology", null, null, null, null, null);
+
+    @Test
+    @DisplayName("experiences are loaded once per doctor and only for uncached doctors")
+    void memoizesExperiences() {
+        ScoringContext context = ScoringContext.forCase(MEDICAL_CASE);
+        ClinicalExperience experience = new ClinicalExperience("exp-1", "doc-1", "case-1",
+                List.of(), "MEDIUM", "SUCCESS", List.of(), 3, 5);
+        List<List<String>> requested = new ArrayList<>();
+
+        context.experiences(List.of("doc-1", "doc-2"), ids -> {
+            requested.add(ids);
+            return Map.of("doc-1", List.of(experience));
+        });
+        Map<String, List<ClinicalExperience>> result = context.experiences(List.of("doc-1", "doc-3"), ids -> {
+            requested.add(ids);
+            return Map.of();
+        });
+
+        assertEquals(List.of(List.of("doc-1", "doc-2"), List.of("doc-3")), requested);
+        assertEquals(List.of(experience), result.get("doc-1"));
+        assertEquals(List.of(), result.get("doc-3"));
+    }
+
+    @Test
+    @DisplayName("outcome signals default for doctors without a signal and are not reloaded")
+    void memoizesOutcomeSignals() {
+        ScoringContext context = ScoringContext.forCase(MEDICAL_CASE);
+        AtomicInteger loads = new AtomicInteger();
+
+        context.outcomeSignals(List.of("doc-1", "doc-2"), ids -> {
+            loads.incrementAndGet();
+            return Map.of("doc-1", 0.9);
+        }, 0.5);
+        Map<String, Double> signals = context.outcomeSignals(List.of("doc-2"), ids -> {
+            loads.incrementAndGet();
+            return Map.of();
+        }, 0.5);
+
+        assertEquals(1, loads.get());
+        assertEquals(0.5, signals.get("doc-2"));
+    }
+
+    @Test
+    @DisplayName("doctors without a performance aggregate map to an empty optional")
+    void memoizesPerformanceStats() {
+        ScoringContext context = ScoringContext.forCase(MEDICAL_CASE);
+        PerformanceStats stats = new PerformanceStats(2, 9, 2, 1);
+
+        Map<String, Optional<PerformanceStats>> result = context.performanceStats(List.of("doc-1", "doc-2"),
+                ids -> Map.of("doc-1", stats));
+
+        assertEquals(Optional.of(stats), result.get("doc-1"));
+        assertEquals(Optional.empty(), result.get("doc-2"));
+        assertEquals(Optional.of(stats), context.performanceStats(List.of("doc-1"), ids -> {
+            throw new AssertionError("doc-1 is already cached");
+        }).get("doc-1"));
+    }
+
+    @Test
+    @DisplayName("graph existence and query embedding are checked once")
+    void memoizesCaseLevelLookups() {
+        ScoringContext context = ScoringContext.forCase(MEDICAL_CASE);
+        AtomicInteger graphChecks = new AtomicInteger();
+
+        assertTrue(context.graphExists(() -> graphChecks.incrementAndGet() > 0));
+        assertTrue(context.graphExists(() -> graphChecks.incrementAndGet() > 0));
+        assertEquals(1, graphChecks.get());
+
+        assertTrue(context.queryEmbedding(() -> Optional.of(new float[]{1f})).isPresent());
+        assertTrue(context.queryHasEmbedding(() -> {
+            throw new AssertionError("embedding presence is already known");
+        }));
+    }
+
+    @Test
+    @DisplayName("context requires a medical case")
+    void requiresMedicalCase() {
+        assertThrows(IllegalArgumentException.class, () -> ScoringContext.forCase(null));
+    }
+}
@@ -152,6 +152,12 @@ class SemanticGraphRetrievalServiceIT extends BaseIntegrationTest {
         assertTrue(result.overallScore() >= 0 && result.overallScore() <= 100);
         // Historical performance should be higher due to good outcomes
         assertTrue(result.historicalPerformanceScore() > 0.5);
+
+        // A prefetched scoring context memoizes lookups without changing scores
+        ScoringContext context = semanticGraphRetrievalService.createScoringContext(medicalCase, List.of(doctor));
+        ScoreResult contextResult = semanticGraphRetrievalService.score(context, doctor);
+        assertEquals(result.overallScore(), contextResult.overallScore(), 1e-9);
+        assertEquals(result.historicalPerformanceScore(), contextResult.historicalPerformanceScore(), 1e-9);
     }
 
     @Test
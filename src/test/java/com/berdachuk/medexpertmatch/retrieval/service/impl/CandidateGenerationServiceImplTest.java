@@ -0,0 +1,170 @@
+package com.berdachuk.medexpertmatch.retrieval.service.impl;
+
+import com.berdachuk.medexpertmatch.doctor.domain.Doctor;
+import com.berdachuk.medexpertmatch.doctor.repository.DoctorRepository;
+import com.berdachuk.medexpertmatch.graph.service.GraphQueryService;
+import com.berdachuk.medexpertmatch.medicalcase.domain.MedicalCase;
+import com.berdachuk.medexpertmatch.retrieval.domain.CandidatePool;
+import com.berdachuk.medexpertmatch.retrieval.domain.CandidateSource;
+import com.berdachuk.medexpertmatch.retrieval.domain.MatchOptions;
+import com.berdachuk.medexpertmatch.retrieval.repository.DoctorEmbeddingCentroidRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateGenerationServiceImplTest {
+
+    private static final String CASE_ID = "6a23f05200155d711484cf69";
+
+    @Mock
+    private DoctorRepository doctorRepository;
+    @Mock
+    private DoctorEmbeddingCentroidRepository doctorEmbeddingCentroidRepository;
+    @Mock
+    private GraphQueryService graphQueryService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CandidateGenerationServiceImpl candidateGenerationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        candidateGenerationService = new CandidateGenerationServiceImpl(
+                doctorRepository, doctorEmbeddingCentroidRepository, graphQueryService, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("unions specialty, ANN and graph hits into one de-duplicated pool")
+    void unionsSourcesWithoutDuplicates() {
+        MedicalCase medicalCase = medicalCase("Cardiology", List.of("I21.9"));
+        Doctor cardiologist = doctor("doc-cardio", "Cardiology");
+        Doctor nearest = doctor("doc-ann", "Internal Medicine");
+        Doctor graphNeighbour = doctor("doc-graph", "Emergency Medicine");
+
+        when(doctorRepository.findBySpecialty("Cardiology", 20)).thenReturn(List.of(cardiologist));
+        when(doctorEmbeddingCentroidRepository.findNearestDoctors(CASE_ID, 100))
+                .thenReturn(ordered("doc-ann", "doc-cardio"));
+        when(graphQueryService.findDoctorsSharingConditions(List.of("I21.9"), 100))
+                .thenReturn(Map.of("doc-graph", 1));
+        when(doctorRepository.findByIds(argThat(ids -> ids != null && Set.copyOf(ids).equals(Set.of("doc-ann", "doc-graph")))))
+                .thenReturn(List.of(graphNeighbour, nearest));
+
+        CandidatePool pool = candidateGenerationService.generateCandidates(medicalCase, MatchOptions.defaultOptions());
+
+        assertEquals(List.of("doc-cardio", "doc-ann", "doc-graph"),
+                pool.doctors().stream().map(Doctor::id).toList());
+        assertEquals(Set.of(CandidateSource.SPECIALTY, CandidateSource.ANN), pool.sourcesByDoctor().get("doc-cardio"));
+        assertEquals(Set.of(CandidateSource.GRAPH), pool.sourcesByDoctor().get("doc-graph"));
+        verify(doctorRepository, never()).findAllIds(anyInt());
+        assertEquals(1L, meterRegistry.get("retrieval.candidates.latency").tag("source", "ANN").timer().count());
+    }
+
+    @Test
+    @DisplayName("follow-up broadens candidate pool beyond required specialty")
+    void broadensCandidatePoolWhenExcludingPriorMatches() {
+        MedicalCase medicalCase = medicalCase("Cardiology", List.of());
+        Doctor surgeon = doctor("doc-surgery", "Surgery");
+
+        when(doctorEmbeddingCentroidRepository.findNearestDoctors(CASE_ID, 100)).thenReturn(Map.of());
+        when(doctorRepository.findAllIds(100)).thenReturn(List.of("doc-surgery"));
+        when(doctorRepository.findByIds(List.of("doc-surgery"))).thenReturn(List.of(surgeon));
+
+        MatchOptions options = MatchOptions.builder()
+                .maxResults(10)
+                .excludedDoctorIds(List.of("doc-excluded"))
+                .build();
+
+        CandidatePool pool = candidateGenerationService.generateCandidates(medicalCase, options);
+
+        assertEquals(List.of(surgeon), pool.doctors());
+        verify(doctorRepository).findAllIds(100);
+        verify(doctorRepository, never()).findBySpecialty(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("broadenCandidatePool uses full doctor pool without exclusions")
+    void broadenCandidatePoolUsesFullPool() {
+        MedicalCase medicalCase = medicalCase("Cardiology", List.of());
+        Doctor surgeon = doctor("doc-surgery", "Surgery");
+
+        when(doctorEmbeddingCentroidRepository.findNearestDoctors(eq(CASE_ID), anyInt())).thenReturn(Map.of());
+        when(doctorRepository.findAllIds(anyInt())).thenReturn(List.of("doc-surgery"));
+        when(doctorRepository.findByIds(List.of("doc-surgery"))).thenReturn(List.of(surgeon));
+
+        MatchOptions options = MatchOptions.builder()
+                .maxResults(10)
+                .broadenCandidatePool(true)
+                .build();
+
+        CandidatePool pool = candidateGenerationService.generateCandidates(medicalCase, options);
+
+        assertEquals(List.of(surgeon), pool.doctors());
+        assertEquals(Set.of(CandidateSource.FALLBACK), pool.sourcesByDoctor().get("doc-surgery"));
+        verify(doctorRepository, never()).findBySpecialty(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("empty required specialty pool falls back to full doctor pool")
+    void fallsBackWhenRequiredSpecialtyHasNoDoctors() {
+        MedicalCase medicalCase = medicalCase("RareSpecialty", List.of());
+        Doctor doctor = doctor("doc-1", "General Medicine");
+
+        when(doctorRepository.findBySpecialty("RareSpecialty", 20)).thenReturn(List.of());
+        when(doctorEmbeddingCentroidRepository.findNearestDoctors(eq(CASE_ID), anyInt()))
+                .thenThrow(new IllegalStateException("no centroids"));
+        when(doctorRepository.findAllIds(anyInt())).thenReturn(List.of("doc-1"));
+        when(doctorRepository.findByIds(List.of("doc-1"))).thenReturn(List.of(doctor));
+
+        CandidatePool pool = candidateGenerationService.generateCandidates(medicalCase, MatchOptions.defaultOptions());
+
+        assertEquals(List.of(doctor), pool.doctors());
+        verify(doctorRepository).findAllIds(anyInt());
+    }
+
+    @Test
+    @DisplayName("records recall per contributing source")
+    void recordsRecallPerSource() {
+        CandidatePool pool = new CandidatePool(
+                List.of(doctor("doc-1", "Cardiology"), doctor("doc-2", "Cardiology")),
+                Map.of("doc-1", Set.of(CandidateSource.ANN, CandidateSource.SPECIALTY),
+                        "doc-2", Set.of(CandidateSource.SPECIALTY)));
+
+        candidateGenerationService.recordRecall(pool, List.of("doc-1", "doc-2"));
+
+        assertEquals(0.5, meterRegistry.get("retrieval.candidates.recall").tag("source", "ANN").summary().mean(), 1e-9);
+        assertEquals(1.0, meterRegistry.get("retrieval.candidates.recall").tag("source", "SPECIALTY").summary().mean(), 1e-9);
+    }
+
+    private static MedicalCase medicalCase(String requiredSpecialty, List<String> icd10Codes) {
+        return new MedicalCase(CASE_ID, 30, "Chest pain", null, null, icd10Codes, List.of(),
+                null, requiredSpecialty, null, null, null, null, null);
+    }
+
+    private static Doctor doctor(String id, String specialty) {
+        return new Doctor(id, "Dr. " + id, null, List.of(specialty), List.of(), List.of(), false, null);
+    }
+
+    private static Map<String, Double> ordered(String... doctorIds) {
+        Map<String, Double> nearest = new LinkedHashMap<>();
+        double similarity = 0.9;
+        for (String doctorId : doctorIds) {
+            nearest.put(doctorId, similarity);
+            similarity -= 0.1;
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,111 @@
+package com.berdachuk.medexpertmatch.retrieval.service.impl;
+
+import com.berdachuk.medexpertmatch.core.service.LogStreamService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandidateScoringExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private LogStreamService logStreamService;
+
+    @Test
+    @DisplayName("returns chunk results in input order within read-only transactions")
+    void preservesChunkOrder() {
+        CandidateScoringExecutor executor = new CandidateScoringExecutor(
+                transactionManager, logStreamService, true, 2, 4, 8);
+
+        List<List<String>> results = executor.mapChunks(List.of("a", "b", "c", "d", "e"), List::copyOf);
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), results);
+        verify(transactionManager, times(3)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    @DisplayName("caps concurrent chunks of one request at the request concurrency")
+    void capsRequestConcurrency() {
+        CandidateScoringExecutor executor = new CandidateScoringExecutor(
+                transactionManager, logStreamService, true, 1, 2, 8);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<List<Integer>> results = executor.mapChunks(List.of(1, 2, 3, 4, 5, 6, 7, 8),
+                chunk -> trackConcurrency(running, maxRunning, chunk));
+
+        assertEquals(8, results.size());
+        assertTrue(maxRunning.get() <= 2, "at most request-concurrency chunks run at once");
+    }
+
+    @Test
+    @DisplayName("scores on the calling thread when no helper permit is free")
+    void runsOnCallerWithoutWorkerPermits() {
+        CandidateScoringExecutor executor = new CandidateScoringExecutor(
+                transactionManager, logStreamService, true, 1, 4, 0);
+        Thread caller = Thread.currentThread();
+        AtomicInteger otherThreads = new AtomicInteger();
+
+        List<Integer> results = executor.mapChunks(List.of(1, 2, 3), chunk -> {
+            if (Thread.currentThread() != caller) {
+                otherThreads.incrementAndGet();
+            }
+            return chunk.get(0);
+        });
+
+        assertEquals(List.of(1, 2, 3), results);
+        assertEquals(0, otherThreads.get());
+    }
+
+    private static <T> T trackConcurrency(AtomicInteger running, AtomicInteger maxRunning, T value) {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        return value;
+    }
+
+    @Test
+    @DisplayName("disabled executor runs the whole list inline without a new transaction")
+    void disabledRunsInline() {
+        CandidateScoringExecutor executor = new CandidateScoringExecutor(
+                transactionManager, logStreamService, false, 2, 4, 8);
+
+        List<Integer> results = executor.mapChunks(List.of("a", "b", "c"), List::size);
+
+        assertEquals(List.of(3), results);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("a failing chunk fails the whole call")
+    void propagatesChunkFailure() {
+        CandidateScoringExecutor executor = new CandidateScoringExecutor(
+                transactionManager, logStreamService, true, 1, 4, 8);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> executor.mapChunks(List.of("ok", "fail"), chunk -> {
+                    if (chunk.contains("fail")) {
+                        throw new IllegalStateException("graph unavailable");
+                    }
+                    return chunk;
+                }));
+        assertEquals("graph unavailable", error.getMessage());
+    }
+}
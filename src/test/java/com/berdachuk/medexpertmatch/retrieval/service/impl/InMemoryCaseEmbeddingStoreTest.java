@@ -0,0 +1,162 @@
+package com.berdachuk.medexpertmatch.retrieval.service.impl;
+
+import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryCaseEmbeddingStoreTest {
+
+    private static final Instant LOADED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private MedicalCaseRepository medicalCaseRepository;
+
+    @Test
+    @DisplayName("averages cosine similarity per doctor over stored case embeddings")
+    void averagesCosineSimilarity() {
+        InMemoryCaseEmbeddingStore store = new InMemoryCaseEmbeddingStore(medicalCaseRepository, true);
+        doAnswer(invocation -> {
+            MedicalCaseRepository.CaseEmbeddingHandler handler = invocation.getArgument(1);
+            handler.accept("CASE-1", new float[]{2f, 0f, 0f, 0f, 0f, 0f}, LOADED_AT);
+            handler.accept("case-2", new float[]{0f, 3f, 0f, 0f, 0f, 0f}, LOADED_AT);
+            return null;
+        }).when(medicalCaseRepository).forEachEmbeddingUpdatedSince(eq(Instant.EPOCH), any());
+
+        store.refresh();
+
+        assertTrue(store.isLoaded());
+        Map<String, Double> similarities = store.averageSimilarities(new float[]{1f, 1f, 0f, 0f, 0f, 0f},
+                Map.of("doc-1", List.of("case-1", "case-2"),
+                        "doc-2", List.of("case-1"),
+                        "doc-3", List.of("unknown")));
+
+        double cosine = 1.0 / Math.sqrt(2.0);
+        assertEquals(cosine, similarities.get("doc-1"), 1e-6);
+        assertEquals(cosine, similarities.get("doc-2"), 1e-6);
+        assertFalse(similarities.containsKey("doc-3"));
+    }
+
+    @Test
+    @DisplayName("incremental refresh replaces changed rows")
+    void incrementalRefreshReplacesRows() {
+        InMemoryCaseEmbeddingStore store = new InMemoryCaseEmbeddingStore(medicalCaseRepository, true);
+        doAnswer(invocation -> {
+            MedicalCaseRepository.CaseEmbeddingHandler handler = invocation.getArgument(1);
+            handler.accept("case-1", new float[]{1f, 0f}, LOADED_AT);
+            return null;
+        }).when(medicalCaseRepository).forEachEmbeddingUpdatedSince(eq(Instant.EPOCH), any());
+        doAnswer(invocation -> {
+            MedicalCaseRepository.CaseEmbeddingHandler handler = invocation.getArgument(1);
+            handler.accept("case-1", new float[]{0f, 1f}, LOADED_AT.plusSeconds(60));
+            return null;
+        }).when(medicalCaseRepository).forEachEmbeddingUpdatedSince(eq(LOADED_AT.minusSeconds(300)), any());
+        when(medicalCaseRepository.countWithEmbedding()).thenReturn(1L);
+
+        store.refresh();
+        store.refresh();
+
+        Map<String, Double> similarities = store.averageSimilarities(new float[]{0f, 1f},
+                Map.of("doc-1", List.of("case-1")));
+        assertEquals(1.0, similarities.get("doc-1"), 1e-6);
+        verify(medicalCaseRepository, never()).findIdsWithEmbedding();
+    }
+
+    @Test
+    @DisplayName("incremental refresh drops cases whose embedding was cleared")
+    void incrementalRefreshDropsClearedEmbeddings() {
+        InMemoryCaseEmbeddingStore store = new InMemoryCaseEmbeddingStore(medicalCaseRepository, true);
+        doAnswer(invocation -> {
+            MedicalCaseRepository.CaseEmbeddingHandler handler = invocation.getArgument(1);
+            handler.accept("case-1", new float[]{1f, 0f}, LOADED_AT);
+            handler.accept("case-2", new float[]{0f, 1f}, LOADED_AT);
+            handler.accept("case-3", null, LOADED_AT);
+            return null;
+        }).when(medicalCaseRepository).forEachEmbeddingUpdatedSince(eq(Instant.EPOCH), any());
+        doAnswer(invocation -> {
+            MedicalCaseRepository.CaseEmbeddingHandler handler = invocation.getArgument(1);
+            handler.accept("case-1", null, LOADED_AT.plusSeconds(60));
+            return null;
+        }).when(medicalCaseRepository).forEachEmbeddingUpdatedSince(eq(LOADED_AT.minusSeconds(300)), any());
+        when(medicalCaseRepository.countWithEmbedding()).thenReturn(1L);
+
+        store.refresh();
+        store.refresh();
+
+        Map<String, Double> similarities = store.averageSimilarities(new float[]{1f, 1f},
+                Map.of("doc-1", List.of("case-1"), "doc-2", List.of("case-1", "case-2"), "doc-3", List.of("case-3")));
+        assertFalse(similarities.containsKey("doc-1"));
+        assertEquals(1.0 / Math.sqrt(2.0), similarities.get("doc-2"), 1e-6);
+        assertFalse(similarities.containsKey("doc-3"));
+    }
+
+    @Test
+    @DisplayName("refresh reconciles case IDs when cases were deleted and reuses their rows later")
+    void refreshRemovesDeletedCases() {
+        InMemoryCaseEmbeddingStore store = new InMemoryCaseEmbeddingStore(medicalCaseRepository, true);
+        doAnswer(invocation -> {
+            MedicalCaseRepository.CaseEmbeddingHandler handler = invocation.getArgument(1);
+            handler.accept("case-1", new float[]{1f, 0f}, LOADED_AT);
+            handler.accept("case-2", new float[]{0f, 1f}, LOADED_AT);
+            return null;
+        }).when(medicalCaseRepository).forEachEmbeddingUpdatedSince(eq(Instant.EPOCH), any());
+        doAnswer(invocation -> null)
+                .doAnswer(invocation -> {
+                    MedicalCaseRepository.CaseEmbeddingHandler handler = invocation.getArgument(1);
+                    handler.accept("case-3", new float[]{1f, 1f}, LOADED_AT.plusSeconds(60));
+                    return null;
+                })
+                .when(medicalCaseRepository).forEachEmbeddingUpdatedSince(eq(LOADED_AT.minusSeconds(300)), any());
+        when(medicalCaseRepository.countWithEmbedding()).thenReturn(1L, 2L);
+        when(medicalCaseRepository.findIdsWithEmbedding()).thenReturn(List.of("CASE-2"));
+
+        store.refresh();
+        store.refresh();
+        store.refresh();
+
+        Map<String, Double> similarities = store.averageSimilarities(new float[]{0f, 1f},
+                Map.of("doc-1", List.of("case-1"), "doc-2", List.of("case-2"), "doc-3", List.of("case-3")));
+        assertFalse(similarities.containsKey("doc-1"));
+        assertEquals(1.0, similarities.get("doc-2"), 1e-6);
+        assertEquals(1.0 / Math.sqrt(2.0), similarities.get("doc-3"), 1e-6);
+        verify(medicalCaseRepository, times(1)).findIdsWithEmbedding();
+    }
+
+    @Test
+    @DisplayName("disabled store never loads and returns no similarities")
+    void disabledStore() {
+        InMemoryCaseEmbeddingStore store = new InMemoryCaseEmbeddingStore(medicalCaseRepository, false);
+
+        store.refresh();
+
+        assertFalse(store.isLoaded());
+        assertTrue(store.averageSimilarities(new float[]{1f}, Map.of("doc-1", List.of("case-1"))).isEmpty());
+        verifyNoInteractions(medicalCaseRepository);
+    }
+
+    @Test
+    @DisplayName("dot kernel handles lengths that are not a multiple of the unroll factor")
+    void dotKernelTail() {
+        float[] matrix = {9f, 1f, 2f, 3f, 4f, 5f};
+        float[] vector = {1f, 1f, 1f, 1f, 1f};
+
+        assertEquals(15.0, InMemoryCaseEmbeddingStore.dot(matrix, 1, vector, 5), 1e-9);
+    }
+}
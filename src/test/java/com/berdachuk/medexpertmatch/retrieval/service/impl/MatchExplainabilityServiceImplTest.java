@@ -8,6 +8,7 @@ import com.berdachuk.medexpertmatch.medicalcase.repository.MedicalCaseRepository
 import com.berdachuk.medexpertmatch.retrieval.domain.DoctorMatch;
 import com.berdachuk.medexpertmatch.retrieval.domain.MatchSignalBreakdown;
 import com.berdachuk.medexpertmatch.retrieval.domain.ScoreResult;
+import com.berdachuk.medexpertmatch.retrieval.service.ScoringContext;
 import com.berdachuk.medexpertmatch.retrieval.service.SemanticGraphRetrievalService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -36,7 +38,9 @@ class MatchExplainabilityServiceImplTest {
 
         Doctor doctor = new Doctor("d1", "Dr. Lee", null, List.of("Neurology"), List.of(), List.of(), false, null);
         DoctorMatch match = new DoctorMatch(doctor, 72.0, 1, "fit");
-        when(semanticGraphRetrievalService.score(any(), any())).thenReturn(
+        when(semanticGraphRetrievalService.createScoringContext(medicalCase, List.of(doctor)))
+                .thenReturn(ScoringContext.forCase(medicalCase));
+        when(semanticGraphRetrievalService.score(any(ScoringContext.class), eq(doctor))).thenReturn(
                 new ScoreResult(72.0, 0.8, 0.6, 0.5, "rationale"));
 
         MatchExplainabilityServiceImpl service = new MatchExplainabilityServiceImpl(
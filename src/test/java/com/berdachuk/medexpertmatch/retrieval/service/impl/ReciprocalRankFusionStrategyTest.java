@@ -0,0 +1,40 @@
+package com.berdachuk.medexpertmatch.retrieval.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReciprocalRankFusionStrategyTest {
+
+    private final ReciprocalRankFusionStrategy strategy = new ReciprocalRankFusionStrategy();
+
+    @Test
+    @DisplayName("fuses channel ranks computed once over the candidate set")
+    void fusesChannelRanks() {
+        Map<String, Double> fused = strategy.fuse(List.of("d1", "d2"),
+                Map.of("d1", 0.9, "d2", 0.1),
+                Map.of("d1", 0.8, "d2", 0.2),
+                Map.of("d1", 0.1, "d2", 0.7));
+
+        assertEquals(2.0 / 61 + 1.0 / 62, fused.get("d1"), 1e-9);
+        assertEquals(1.0 / 61 + 2.0 / 62, fused.get("d2"), 1e-9);
+        assertTrue(fused.get("d1") > fused.get("d2"));
+    }
+
+    @Test
+    @DisplayName("tied channel scores share the same rank")
+    void tiedScoresShareRank() {
+        Map<String, Double> fused = strategy.fuse(List.of("d1", "d2"),
+                Map.of("d1", 0.5, "d2", 0.5),
+                Map.of("d1", 0.5, "d2", 0.5),
+                Map.of("d1", 0.5, "d2", 0.5));
+
+        assertEquals(fused.get("d1"), fused.get("d2"));
+        assertEquals(3.0 / 61, fused.get("d1"), 1e-9);
+    }
+}
@@ -1,9 +1,13 @@
 package com.berdachuk.medexpertmatch.system.health;
 
 import com.berdachuk.medexpertmatch.embedding.multiendpoint.EmbeddingEndpointPool;
+import com.berdachuk.medexpertmatch.embedding.multiendpoint.EndpointState;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.health.contributor.Health;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
@@ -35,6 +39,22 @@ class EmbeddingPoolHealthIndicatorTest {
         assertEquals(true, health.getDetails().get("active"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReportQueueAndEndpointCircuits() {
+        EmbeddingEndpointPool pool = mock(EmbeddingEndpointPool.class);
+        when(pool.getQueuedCount()).thenReturn(7);
+        when(pool.getEndpoints()).thenReturn(List.of(new EndpointState("http://a/v1", "m", null)));
+
+        Health health = new EmbeddingPoolHealthIndicator(pool).health();
+
+        assertEquals(7, health.getDetails().get("queued"));
+        Map<String, Object> endpoints = (Map<String, Object>) health.getDetails().get("endpoints");
+        Map<String, Object> endpoint = (Map<String, Object>) endpoints.get("http://a/v1");
+        assertEquals("CLOSED", endpoint.get("circuit"));
+        assertEquals(0, endpoint.get("inFlight"));
+    }
+
     @Test
     void shouldReturnUpWhenPoolTerminated() {
         EmbeddingEndpointPool pool = mock(EmbeddingEndpointPool.class);
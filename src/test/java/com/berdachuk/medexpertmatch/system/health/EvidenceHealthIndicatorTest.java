@@ -11,7 +11,7 @@ class EvidenceHealthIndicatorTest {
 
     @Test
     void shouldReportStatusWhenPubMedChecked() {
-        EvidenceHealthIndicator indicator = new EvidenceHealthIndicator(new GraphQualityProperties(365, 180));
+        EvidenceHealthIndicator indicator = new EvidenceHealthIndicator(new GraphQualityProperties(365, 180, 100));
         Health health = indicator.health();
 
         assertNotNull(health);
@@ -0,0 +1,88 @@
+package com.berdachuk.medexpertmatch.system.health;
+
+import com.berdachuk.medexpertmatch.graph.service.GraphService;
+import com.berdachuk.medexpertmatch.system.config.GraphQualityProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GraphQualityHealthIndicatorTest {
+
+    private static final String ORPHAN_SCAN = "MATCH (n) WHERE NOT (n)--() WITH n LIMIT 50 RETURN count(n) as count";
+
+    private GraphService graphService;
+    private NamedParameterJdbcTemplate jdbc;
+    private GraphQualityHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        graphService = mock(GraphService.class);
+        jdbc = mock(NamedParameterJdbcTemplate.class);
+        indicator = new GraphQualityHealthIndicator(graphService, jdbc, new GraphQualityProperties(365, 180, 50));
+        ReflectionTestUtils.setField(indicator, "countDoctorsSql", "doctors");
+        ReflectionTestUtils.setField(indicator, "countDoctorsWithoutExperienceSql", "without-experience");
+        ReflectionTestUtils.setField(indicator, "countStaleExperiencesSql", "stale");
+        ReflectionTestUtils.setField(indicator, "countGraphDoctorVerticesSql", "graph-doctors");
+
+        when(jdbc.queryForObject(eq("doctors"), anyMap(), eq(Long.class))).thenReturn(4L);
+        when(jdbc.queryForObject(eq("without-experience"), anyMap(), eq(Long.class))).thenReturn(0L);
+        when(jdbc.queryForObject(eq("stale"), anyMap(), eq(Long.class))).thenReturn(0L);
+        when(jdbc.queryForObject(eq("graph-doctors"), anyMap(), eq(Long.class))).thenReturn(4L);
+        when(graphService.graphExists()).thenReturn(true);
+    }
+
+    @Test
+    void shouldReportCoverageFromExactDoctorLabelCount() {
+        when(graphService.getGraphMetadata()).thenReturn(metadata(1));
+        when(graphService.executeCypher(ORPHAN_SCAN, Map.of())).thenReturn(List.of(Map.of("count", 0L)));
+
+        Health health = indicator.health();
+
+        assertEquals("UP", health.getStatus().getCode());
+        assertEquals(4L, health.getDetails().get("graphDoctorNodes"));
+        assertEquals("1.00", health.getDetails().get("doctorGraphCoverage"));
+        verify(jdbc).queryForObject("graph-doctors", Map.of("graphName", "medexpertmatch_graph"), Long.class);
+    }
+
+    @Test
+    void shouldReuseOrphanScanUntilBuildVersionChanges() {
+        when(graphService.getGraphMetadata()).thenReturn(metadata(1), metadata(1), metadata(2));
+        when(graphService.executeCypher(ORPHAN_SCAN, Map.of()))
+                .thenReturn(List.of(Map.of("count", 3L)), List.of(Map.of("count", 0L)));
+
+        assertEquals(3L, indicator.health().getDetails().get("orphanGraphNodes"));
+        assertEquals(3L, indicator.health().getDetails().get("orphanGraphNodes"));
+        Health rebuilt = indicator.health();
+
+        assertEquals(0L, rebuilt.getDetails().get("orphanGraphNodes"));
+        assertEquals("UP", rebuilt.getStatus().getCode());
+        verify(graphService, times(2)).executeCypher(ORPHAN_SCAN, Map.of());
+    }
+
+    @Test
+    void shouldRetryOrphanScanAfterFailedScan() {
+        when(graphService.getGraphMetadata()).thenReturn(metadata(1));
+        when(graphService.executeCypher(ORPHAN_SCAN, Map.of()))
+                .thenReturn(List.of(), List.of(Map.of("count", 2L)));
+
+        assertEquals(0L, indicator.health().getDetails().get("orphanGraphNodes"));
+        Health health = indicator.health();
+
+        assertEquals(2L, health.getDetails().get("orphanGraphNodes"));
+        assertEquals("DEGRADED", health.getStatus().getCode());
+    }
+
+    private static GraphService.GraphMetadata metadata(long buildVersion) {
+        return new GraphService.GraphMetadata(true, List.of("Doctor"), List.of("TREATED"), buildVersion, null, null);
+    }
+}